@@ -0,0 +1,106 @@
+package com.jamesdegroot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jamesdegroot.calendar.Calendar;
+import com.jamesdegroot.duty_assigment.DutyAssigner;
+import com.jamesdegroot.io.ReadCalendarFromDisk;
+import com.jamesdegroot.io.ReadTeachersFromDisk;
+import com.jamesdegroot.io.WriteScheduleToDisk;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * AssignmentBenchmark.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    AssignmentBenchmark class, JMH benchmarks for assigning duties and writing the schedule CSV,
+ *    parameterized by roster size and number of calendar events.
+ *    Assignment changes the calendar and the teachers, so both are rebuilt before every call
+ *    (outside the measured time).
+ *
+ *  Methods:
+ * 	  - setUpFiles, void, writes the roster and ICS files and an assigned calendar to export
+ *    - setUpInvocation, void, loads a fresh calendar and roster for the next assignment
+ *    - tearDown, void, deletes the exported CSV
+ *    - assignDuties, Calendar, assigns duties across the whole year
+ *    - writeDutyScheduleToCSV, File, writes the assigned schedule to CSV
+ *
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class AssignmentBenchmark {
+    @Param({"96", "1000", "5000"})
+    public int rosterSize;
+
+    @Param({"26", "260"})
+    public int calendarEvents;
+
+    private File rosterFile;
+    private File calendarFile;
+    private File outputFile;
+    private Calendar assignedCalendar;
+    private Calendar calendar;
+    private List<Teacher> teachers;
+
+    @Setup(Level.Trial)
+    public void setUpFiles() throws IOException {
+        rosterFile = BenchmarkInputs.writeRoster(rosterSize);
+        calendarFile = BenchmarkInputs.writeCalendar(calendarEvents);
+        outputFile = File.createTempFile("duty_schedule-", ".csv");
+
+        setUpInvocation();
+        assignDuties();
+        assignedCalendar = calendar;
+    }
+
+    @Setup(Level.Invocation)
+    public void setUpInvocation() {
+        calendar = new Calendar();
+        ReadCalendarFromDisk.loadCalendarFromICS(calendar, calendarFile);
+        calendar.initializeDaysOfYear();
+        teachers = ReadTeachersFromDisk.readTeachersNames(rosterFile.getPath());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        outputFile.delete();
+    }
+
+    @Benchmark
+    public Calendar assignDuties() {
+        DutyAssigner assigner = new DutyAssigner(calendar, teachers);
+        assigner.setVerbose(false);
+        assigner.assignDuties();
+        return calendar;
+    }
+
+    @Benchmark
+    public File writeDutyScheduleToCSV() {
+        WriteScheduleToDisk.writeDutyScheduleToCSV(assignedCalendar, outputFile.getPath());
+        return outputFile;
+    }
+}
@@ -0,0 +1,119 @@
+package com.jamesdegroot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * BenchmarkInputs.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    BenchmarkInputs class, builds benchmark input files of a chosen size from the shipped samples.
+ *    Rosters repeat the sample teacher rows under numbered names; calendars repeat the sample
+ *    ICS events. Files go to a temporary directory and are deleted when the JVM exits.
+ *
+ *  Methods:
+ * 	  - writeRoster, File, writes a teacher CSV with the given number of teachers
+ *    - writeCalendar, File, writes an ICS file with the given number of events
+ *    - findSample, File, finds a shipped sample file from the project or benchmarks directory
+ *
+*/
+
+public class BenchmarkInputs {
+    // Shipped samples, searched for from the project root and from the benchmarks directory
+    private static final String[] SAMPLE_DIRECTORIES = {"src/main/resources", "../src/main/resources"};
+    private static final String SAMPLE_ROSTER = "Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+    private static final String SAMPLE_CALENDAR = "ICalendarHandler.ics";
+
+    private static final String EVENT_START = "BEGIN:VEVENT";
+    private static final String EVENT_END = "END:VEVENT";
+    private static final String CALENDAR_END = "END:VCALENDAR";
+
+    /**
+     * Writes a teacher CSV with the given number of teachers. Sample rows are reused in order;
+     * every pass after the first gets a pass number added to the teacher names so names stay unique.
+     * @param teachers the number of teacher rows to write
+     * @return the temporary CSV file
+     */
+    public static File writeRoster(int teachers) throws IOException {
+        List<String> lines = Files.readAllLines(findSample(SAMPLE_ROSTER).toPath(), StandardCharsets.UTF_8);
+        List<String> rows = new ArrayList<>();
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.startsWith("\"") && line.indexOf('"', 1) > 1 && line.matches("^\"[^\"]*[a-zA-Z][^\"]*\",.*")) {
+                rows.add(line);
+            }
+        }
+
+        List<String> roster = new ArrayList<>();
+        roster.add(lines.get(0));
+        for (int i = 0; i < teachers; i++) {
+            String row = rows.get(i % rows.size());
+            int pass = i / rows.size();
+            if (pass > 0) {
+                int nameEnd = row.indexOf('"', 1);
+                row = row.substring(0, nameEnd) + " " + pass + row.substring(nameEnd);
+            }
+            roster.add(row);
+        }
+        return writeTemp("roster-" + teachers + "-", ".csv", roster);
+    }
+
+    /**
+     * Writes an ICS file with the given number of events by repeating the sample's events.
+     * @param events the number of events to write
+     * @return the temporary ICS file
+     */
+    public static File writeCalendar(int events) throws IOException {
+        List<String> lines = Files.readAllLines(findSample(SAMPLE_CALENDAR).toPath(), StandardCharsets.UTF_8);
+        List<String> header = new ArrayList<>();
+        List<List<String>> sampleEvents = new ArrayList<>();
+        List<String> currentEvent = null;
+        for (String line : lines) {
+            if (line.startsWith(EVENT_START)) {
+                currentEvent = new ArrayList<>();
+            }
+            if (currentEvent != null) {
+                currentEvent.add(line);
+                if (line.startsWith(EVENT_END)) {
+                    sampleEvents.add(currentEvent);
+                    currentEvent = null;
+                }
+            } else if (sampleEvents.isEmpty() && !line.startsWith(CALENDAR_END)) {
+                header.add(line);
+            }
+        }
+
+        List<String> calendar = new ArrayList<>(header);
+        for (int i = 0; i < events; i++) {
+            calendar.addAll(sampleEvents.get(i % sampleEvents.size()));
+        }
+        calendar.add(CALENDAR_END);
+        return writeTemp("calendar-" + events + "-", ".ics", calendar);
+    }
+
+    /**
+     * Finds a shipped sample file from the project or benchmarks directory
+     * @param name the sample's file name
+     * @return the sample file
+     * @throws IOException if the sample cannot be found
+     */
+    public static File findSample(String name) throws IOException {
+        for (String directory : SAMPLE_DIRECTORIES) {
+            File sample = new File(directory, name);
+            if (sample.isFile()) return sample;
+        }
+        throw new IOException("Sample " + name + " not found, run the benchmarks from the project or benchmarks directory");
+    }
+
+    private static File writeTemp(String prefix, String suffix, List<String> lines) throws IOException {
+        File file = File.createTempFile(prefix, suffix);
+        file.deleteOnExit();
+        Files.write(file.toPath(), lines, StandardCharsets.UTF_8);
+        return file;
+    }
+}
@@ -0,0 +1,44 @@
+package com.jamesdegroot.benchmarks;
+
+import java.io.IOException;
+
+import org.openjdk.jmh.Main;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * BenchmarkMain.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    BenchmarkMain class, entry point of benchmarks.jar. Runs JMH with the GC profiler always on,
+ *    so every result comes with its allocation rate (gc.alloc.rate and gc.alloc.rate.norm).
+ *    Any normal JMH command line options can be added, e.g. a benchmark name pattern or -p rosterSize=1000.
+ *
+ *  Usage:
+ *    java -jar benchmarks/target/benchmarks.jar [JMH options] [benchmark regex]
+ *
+ *  Methods:
+ * 	  - main, void, runs the selected benchmarks with the GC profiler
+ *
+*/
+
+public class BenchmarkMain {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException, IOException {
+        CommandLineOptions commandLine = new CommandLineOptions(args);
+        if (commandLine.shouldHelp() || commandLine.shouldList()) {
+            Main.main(args);
+            return;
+        }
+        new Runner(new OptionsBuilder()
+            .parent(commandLine)
+            .addProfiler(GCProfiler.class)
+            .build()).run();
+    }
+}
@@ -0,0 +1,74 @@
+package com.jamesdegroot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jamesdegroot.calendar.Calendar;
+import com.jamesdegroot.io.ReadCalendarFromDisk;
+
+/**
+ * CalendarBenchmark.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    CalendarBenchmark class, JMH benchmarks for loading the ICS file and building the school year,
+ *    parameterized by the number of calendar events. The school year span itself is fixed in Calendar,
+ *    so calendar size is varied through the events every day is checked against.
+ *
+ *  Methods:
+ * 	  - setUp, void, writes the ICS file and loads it once for the initialization benchmark
+ *    - loadCalendarFromICS, Calendar, parses the ICS file into a fresh calendar
+ *    - initializeDaysOfYear, Calendar, builds the days and duties of a fresh calendar
+ *
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CalendarBenchmark {
+    @Param({"26", "260", "2600"})
+    public int calendarEvents;
+
+    private File calendarFile;
+    private Calendar loadedCalendar;
+
+    @Setup
+    public void setUp() throws IOException {
+        calendarFile = BenchmarkInputs.writeCalendar(calendarEvents);
+        loadedCalendar = new Calendar();
+        ReadCalendarFromDisk.loadCalendarFromICS(loadedCalendar, calendarFile);
+    }
+
+    @Benchmark
+    public Calendar loadCalendarFromICS() {
+        Calendar calendar = new Calendar();
+        ReadCalendarFromDisk.loadCalendarFromICS(calendar, calendarFile);
+        return calendar;
+    }
+
+    @Benchmark
+    public Calendar initializeDaysOfYear() {
+        // Days are appended, so each call builds on a fresh calendar with the same events
+        Calendar calendar = new Calendar();
+        loadedCalendar.getEvents().forEach(calendar::addHoliday);
+        calendar.initializeDaysOfYear();
+        return calendar;
+    }
+}
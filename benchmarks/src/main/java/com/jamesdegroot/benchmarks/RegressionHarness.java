@@ -0,0 +1,436 @@
+package com.jamesdegroot.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileReader;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.file.Files;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.duty_assigment.DutyAssigner;
+import com.jamesdegroot.io.SyntheticSchoolGenerator;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * RegressionHarness.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    RegressionHarness class, runs the whole pipeline (load, assign, export) on a fixed corpus and
+ *    checks speed and schedule quality against the history of earlier runs. The corpus is the
+ *    shipped sample plus synthetic schools seeded by their size, so every run sees the same inputs.
+ *    For each corpus entry it records the median wall time, the peak heap, the unfilled duty cells,
+ *    the teachers under their yearly quota and the duty cells shared by two or more teachers.
+ *    Every run is appended to a CSV history. An entry regresses when it is slower or bigger than
+ *    the last passing run of that entry by more than the allowed percentage, or when any quality
+ *    count grows by more than the allowed tolerance; the harness then exits with status 1.
+ *
+ *  Usage:
+ *    java -cp benchmarks/target/benchmarks.jar com.jamesdegroot.benchmarks.RegressionHarness
+ *         [--history regression-history.csv] [--label name] [--sizes 96,1000,3000] [--repeat 3]
+ *         [--warmup 1] [--max-time-regression 20] [--max-heap-regression 50] [--quality-tolerance 0]
+ *         [--no-sample]
+ *
+ *  Methods:
+ * 	  - main, void, runs the harness and exits with its status
+ *    - run, int, runs every corpus entry, appends the history and checks for regressions
+ *    - buildCorpus, List<CorpusEntry>, writes the synthetic inputs and finds the shipped sample
+ *    - measure, Measurement, runs one corpus entry and measures it
+ *    - runPipeline, DutyAssigner, runs load, assign and export once
+ *    - findRegressions, List<String>, compares a measurement with the last passing run of its entry
+ *    - readBaselines, Map<String, String[]>, reads the last passing run of each entry from the history
+ *    - appendHistory, void, appends one row per measurement to the history
+ *    - parseArguments, boolean, reads the command line options
+ *
+*/
+
+public class RegressionHarness {
+    // Exit codes
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_REGRESSED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    // History columns
+    private static final String HISTORY_HEADER =
+        "timestamp,label,corpus,teachers,repeats,wall_ms,peak_heap_mb,unfilled_cells,teachers_under_quota,double_staffed_cells,status";
+    private static final int CORPUS_COLUMN = 2;
+    private static final int WALL_MS_COLUMN = 5;
+    private static final int PEAK_HEAP_COLUMN = 6;
+    private static final int UNFILLED_COLUMN = 7;
+    private static final int UNDER_QUOTA_COLUMN = 8;
+    private static final int DOUBLE_STAFFED_COLUMN = 9;
+    private static final int STATUS_COLUMN = 10;
+    private static final String STATUS_OK = "ok";
+    private static final String STATUS_REGRESSED = "regressed";
+
+    // Corpus
+    private static final String SAMPLE_ROSTER = "Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+    private static final String SAMPLE_CALENDAR = "ICalendarHandler.ics";
+    private static final String SAMPLE_NAME = "sample";
+    private static final int[] DEFAULT_SIZES = {96, 1000, 3000};
+
+    private static final String USAGE =
+        "Usage: java -cp benchmarks.jar com.jamesdegroot.benchmarks.RegressionHarness [--history <file.csv>] [--label <name>]\n"
+        + "       [--sizes 96,1000,3000] [--repeat N] [--warmup N] [--max-time-regression PCT]\n"
+        + "       [--max-heap-regression PCT] [--quality-tolerance N] [--no-sample]";
+    private static final String ROW_FORMAT = "%-16s %8d %12.1f %10.1f %10d %12d %14d  %s%n";
+    private static final DateTimeFormatter TIMESTAMP_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final double BYTES_PER_MB = 1024.0 * 1024.0;
+
+    private File historyFile = new File("regression-history.csv");
+    private String label = "unlabelled";
+    private int[] sizes = DEFAULT_SIZES;
+    private int repeat = 3;
+    private int warmup = 1;
+    private double maxTimeRegression = 20;
+    private double maxHeapRegression = 50;
+    private int qualityTolerance = 0;
+    private boolean includeSample = true;
+
+    // One set of inputs the pipeline is run on
+    private static class CorpusEntry {
+        final String name;
+        final File calendar;
+        final File teachers;
+
+        CorpusEntry(String name, File calendar, File teachers) {
+            this.name = name;
+            this.calendar = calendar;
+            this.teachers = teachers;
+        }
+    }
+
+    // What one corpus entry measured
+    private static class Measurement {
+        final CorpusEntry entry;
+        int teachers;
+        double wallMs;
+        double peakHeapMb;
+        int unfilledCells;
+        int teachersUnderQuota;
+        int doubleStaffedCells;
+        List<String> regressions = new ArrayList<>();
+
+        Measurement(CorpusEntry entry) {
+            this.entry = entry;
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Runs every corpus entry, appends the history and checks for regressions
+     * @param args the command line arguments
+     * @return the process exit code
+     */
+    public static int run(String[] args) {
+        RegressionHarness harness = new RegressionHarness();
+        if (!harness.parseArguments(args)) {
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+
+        PrintStream out = System.out;
+        List<Measurement> measurements = new ArrayList<>();
+        File workDir = null;
+        try {
+            workDir = Files.createTempDirectory("duty-regression").toFile();
+            List<CorpusEntry> corpus = harness.buildCorpus(workDir);
+            Map<String, String[]> baselines = harness.readBaselines();
+
+            out.printf(Locale.ROOT, "%-16s %8s %12s %10s %10s %12s %14s  %s%n", "corpus", "teachers", "wall ms",
+                "heap MB", "unfilled", "under quota", "double staffed", "status");
+            for (CorpusEntry entry : corpus) {
+                // The pipeline prints its progress; keep stdout for the results table
+                System.setOut(System.err);
+                Measurement measurement;
+                try {
+                    measurement = harness.measure(entry, workDir);
+                } finally {
+                    System.setOut(out);
+                }
+                measurement.regressions = harness.findRegressions(measurement, baselines.get(entry.name));
+                measurements.add(measurement);
+                out.printf(Locale.ROOT, ROW_FORMAT, entry.name, measurement.teachers, measurement.wallMs,
+                    measurement.peakHeapMb, measurement.unfilledCells, measurement.teachersUnderQuota,
+                    measurement.doubleStaffedCells, measurement.regressions.isEmpty() ? STATUS_OK : STATUS_REGRESSED);
+            }
+            harness.appendHistory(measurements);
+        } catch (IOException e) {
+            System.err.println("Error running the regression corpus: " + e.getMessage());
+            return EXIT_USAGE;
+        } finally {
+            deleteDirectory(workDir);
+        }
+
+        int regressed = 0;
+        for (Measurement measurement : measurements) {
+            for (String regression : measurement.regressions) {
+                out.println("REGRESSION " + measurement.entry.name + ": " + regression);
+            }
+            if (!measurement.regressions.isEmpty()) regressed++;
+        }
+        out.println("History appended to: " + harness.historyFile.getAbsolutePath());
+        if (regressed > 0) {
+            out.println(regressed + " of " + measurements.size() + " corpus entries regressed");
+            return EXIT_REGRESSED;
+        }
+        out.println("No regressions in " + measurements.size() + " corpus entries");
+        return EXIT_OK;
+    }
+
+    /**
+     * Writes the synthetic inputs and finds the shipped sample
+     * @param workDir the directory to write the synthetic inputs to
+     * @return the corpus, sample first and then the synthetic schools by size
+     */
+    private List<CorpusEntry> buildCorpus(File workDir) throws IOException {
+        List<CorpusEntry> corpus = new ArrayList<>();
+        if (includeSample) {
+            corpus.add(new CorpusEntry(SAMPLE_NAME, BenchmarkInputs.findSample(SAMPLE_CALENDAR),
+                BenchmarkInputs.findSample(SAMPLE_ROSTER)));
+        }
+
+        for (int i = 0; i < sizes.length; i++) {
+            SyntheticSchoolGenerator generator = new SyntheticSchoolGenerator();
+            generator.setTeachers(sizes[i]);
+            generator.setSeed(sizes[i]); // fixed per size, so "synthetic-<size>" is the same school whatever --sizes lists
+            File calendar = new File(workDir, generator.getCalendarFileName());
+            File teachers = new File(workDir, generator.getTeacherFileName());
+            generator.writeCalendar(calendar);
+            generator.writeTeacherLinear(teachers);
+            corpus.add(new CorpusEntry("synthetic-" + sizes[i], calendar, teachers));
+        }
+        return corpus;
+    }
+
+    /**
+     * Runs one corpus entry and measures it. Wall time is the median of the measured repeats;
+     * peak heap is the highest heap use seen during any measured repeat. The schedule is
+     * deterministic, so the quality counts come from the last repeat.
+     * @param entry the inputs to run
+     * @param workDir the directory to export to
+     * @return the measurement
+     */
+    private Measurement measure(CorpusEntry entry, File workDir) {
+        File output = new File(workDir, entry.name + "_duty_schedule.csv");
+        for (int i = 0; i < warmup; i++) {
+            runPipeline(entry, output);
+        }
+
+        Measurement measurement = new Measurement(entry);
+        double[] wallMs = new double[repeat];
+        List<MemoryPoolMXBean> heapPools = new ArrayList<>();
+        for (MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if (pool.getType() == MemoryType.HEAP) heapPools.add(pool);
+        }
+
+        DutyAssigner assigner = null;
+        GenerateDutyCalendar appLogic = null;
+        for (int i = 0; i < repeat; i++) {
+            System.gc();
+            heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+            long start = System.nanoTime();
+            appLogic = new GenerateDutyCalendar();
+            assigner = runPipeline(appLogic, entry, output);
+            wallMs[i] = (System.nanoTime() - start) / NANOS_PER_MILLI;
+
+            long peakBytes = 0;
+            for (MemoryPoolMXBean pool : heapPools) {
+                peakBytes += pool.getPeakUsage().getUsed();
+            }
+            measurement.peakHeapMb = Math.max(measurement.peakHeapMb, peakBytes / BYTES_PER_MB);
+        }
+        Arrays.sort(wallMs);
+        measurement.wallMs = wallMs[repeat / 2];
+
+        List<Teacher> teachers = appLogic.getTeachers();
+        Map<String, Integer> loads = assigner.getTeacherLoads();
+        measurement.teachers = teachers.size();
+        measurement.unfilledCells = assigner.countCellsWithStaffing(0, 0);
+        measurement.doubleStaffedCells = assigner.countCellsWithStaffing(2, Integer.MAX_VALUE);
+        for (Teacher teacher : teachers) {
+            if (loads.getOrDefault(teacher.getName(), 0) < assigner.getYearlyQuota(teacher)) {
+                measurement.teachersUnderQuota++;
+            }
+        }
+        return measurement;
+    }
+
+    private DutyAssigner runPipeline(CorpusEntry entry, File output) {
+        return runPipeline(new GenerateDutyCalendar(), entry, output);
+    }
+
+    /**
+     * Runs load, assign and export once, without the result cache
+     * @param appLogic a fresh application instance
+     * @param entry the inputs to run
+     * @param output the CSV file to export to
+     * @return the assigner holding the finished schedule
+     */
+    private DutyAssigner runPipeline(GenerateDutyCalendar appLogic, CorpusEntry entry, File output) {
+        appLogic.setVerbose(false);
+        appLogic.loadCalendar(entry.calendar);
+        appLogic.processFile(entry.teachers);
+        appLogic.assignDuties();
+        appLogic.exportScheduleToCSV(output.getPath());
+        return appLogic.getDutyAssigner();
+    }
+
+    /**
+     * Compares a measurement with the last passing run of its corpus entry
+     * @param measurement the new measurement
+     * @param baseline the history row of the last passing run, or null for a new entry
+     * @return one line per regression, empty if the entry passed
+     */
+    private List<String> findRegressions(Measurement measurement, String[] baseline) {
+        List<String> regressions = new ArrayList<>();
+        if (baseline == null) return regressions;
+
+        double baselineMs = Double.parseDouble(baseline[WALL_MS_COLUMN]);
+        if (measurement.wallMs > baselineMs * (1 + maxTimeRegression / 100)) {
+            regressions.add(String.format(Locale.ROOT, "wall time %.1f ms vs %.1f ms (allowed +%.0f%%)",
+                measurement.wallMs, baselineMs, maxTimeRegression));
+        }
+        double baselineHeap = Double.parseDouble(baseline[PEAK_HEAP_COLUMN]);
+        if (measurement.peakHeapMb > baselineHeap * (1 + maxHeapRegression / 100)) {
+            regressions.add(String.format(Locale.ROOT, "peak heap %.1f MB vs %.1f MB (allowed +%.0f%%)",
+                measurement.peakHeapMb, baselineHeap, maxHeapRegression));
+        }
+        checkQuality(regressions, "unfilled cells", measurement.unfilledCells, baseline[UNFILLED_COLUMN]);
+        checkQuality(regressions, "teachers under quota", measurement.teachersUnderQuota, baseline[UNDER_QUOTA_COLUMN]);
+        checkQuality(regressions, "double staffed cells", measurement.doubleStaffedCells, baseline[DOUBLE_STAFFED_COLUMN]);
+        return regressions;
+    }
+
+    private void checkQuality(List<String> regressions, String name, int count, String baselineCount) {
+        int baseline = Integer.parseInt(baselineCount);
+        if (count > baseline + qualityTolerance) {
+            regressions.add(String.format(Locale.ROOT, "%s %d vs %d (allowed +%d)", name, count, baseline, qualityTolerance));
+        }
+    }
+
+    /**
+     * Reads the last passing run of each corpus entry from the history.
+     * Regressed runs are never used as a baseline, so a regression cannot become the new normal.
+     * @return map of corpus entry name to its history row
+     */
+    private Map<String, String[]> readBaselines() throws IOException {
+        Map<String, String[]> baselines = new HashMap<>();
+        if (!historyFile.isFile()) return baselines;
+        try (BufferedReader reader = new BufferedReader(new FileReader(historyFile))) {
+            String line = reader.readLine(); // header
+            while ((line = reader.readLine()) != null) {
+                String[] row = line.split(",", -1);
+                if (row.length > STATUS_COLUMN && row[STATUS_COLUMN].equals(STATUS_OK)) {
+                    baselines.put(row[CORPUS_COLUMN], row);
+                }
+            }
+        }
+        return baselines;
+    }
+
+    /**
+     * Appends one row per measurement to the history, writing the header for a new file
+     * @param measurements the measurements of this run
+     */
+    private void appendHistory(List<Measurement> measurements) throws IOException {
+        boolean newFile = !historyFile.isFile();
+        File parent = historyFile.getAbsoluteFile().getParentFile();
+        if (parent != null) parent.mkdirs();
+        String timestamp = LocalDateTime.now().withNano(0).format(TIMESTAMP_FORMAT);
+        try (BufferedWriter writer = new BufferedWriter(new FileWriter(historyFile, true))) {
+            if (newFile) {
+                writer.write(HISTORY_HEADER);
+                writer.newLine();
+            }
+            for (Measurement measurement : measurements) {
+                writer.write(String.format(Locale.ROOT, "%s,%s,%s,%d,%d,%.3f,%.1f,%d,%d,%d,%s", timestamp, label,
+                    measurement.entry.name, measurement.teachers, repeat, measurement.wallMs, measurement.peakHeapMb,
+                    measurement.unfilledCells, measurement.teachersUnderQuota, measurement.doubleStaffedCells,
+                    measurement.regressions.isEmpty() ? STATUS_OK : STATUS_REGRESSED));
+                writer.newLine();
+            }
+        }
+    }
+
+    /**
+     * Reads the command line options
+     * @param args the command line arguments
+     * @return true if every option is valid
+     */
+    private boolean parseArguments(String[] args) {
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--help")) return false;
+                if (option.equals("--no-sample")) {
+                    includeSample = false;
+                    continue;
+                }
+                if (i + 1 >= args.length) {
+                    System.err.println("Error: missing value for " + option);
+                    return false;
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--history": historyFile = new File(value); break;
+                    case "--label": label = value.replace(',', ' '); break;
+                    case "--sizes": sizes = Arrays.stream(value.split(",")).map(String::trim)
+                        .filter(size -> !size.isEmpty()).mapToInt(Integer::parseInt).toArray(); break;
+                    case "--repeat": repeat = Integer.parseInt(value); break;
+                    case "--warmup": warmup = Integer.parseInt(value); break;
+                    case "--max-time-regression": maxTimeRegression = Double.parseDouble(value); break;
+                    case "--max-heap-regression": maxHeapRegression = Double.parseDouble(value); break;
+                    case "--quality-tolerance": qualityTolerance = Integer.parseInt(value); break;
+                    default:
+                        System.err.println("Error: unknown option " + option);
+                        return false;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: expected a number, got " + e.getMessage());
+            return false;
+        }
+        if (repeat < 1 || warmup < 0 || qualityTolerance < 0 || maxTimeRegression < 0 || maxHeapRegression < 0) {
+            System.err.println("Error: repeat must be at least 1 and the other limits cannot be negative");
+            return false;
+        }
+        for (int size : sizes) {
+            if (size < 1) {
+                System.err.println("Error: corpus sizes must be positive, got " + size);
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void deleteDirectory(File dir) {
+        if (dir == null) return;
+        File[] files = dir.listFiles();
+        if (files != null) {
+            for (File file : files) {
+                file.delete();
+            }
+        }
+        dir.delete();
+    }
+}
@@ -0,0 +1,75 @@
+package com.jamesdegroot.benchmarks;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.duty_assigment.DutyAssignmentRules;
+import com.jamesdegroot.io.ReadTeachersFromDisk;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * TeacherBenchmark.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    TeacherBenchmark class, JMH benchmarks for reading the teacher linear and for the duty rules,
+ *    parameterized by roster size
+ *
+ *  Methods:
+ * 	  - setUp, void, writes the roster file and reads it once for the rules benchmark
+ *    - readTeachersNames, List<Teacher>, reads and parses the whole roster
+ *    - canAssignDuty, int, checks every teacher against every duty time slot
+ *
+*/
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TeacherBenchmark {
+    @Param({"96", "1000", "10000"})
+    public int rosterSize;
+
+    private File rosterFile;
+    private List<Teacher> teachers;
+
+    @Setup
+    public void setUp() throws IOException {
+        rosterFile = BenchmarkInputs.writeRoster(rosterSize);
+        teachers = ReadTeachersFromDisk.readTeachersNames(rosterFile.getPath());
+    }
+
+    @Benchmark
+    public List<Teacher> readTeachersNames() {
+        return ReadTeachersFromDisk.readTeachersNames(rosterFile.getPath());
+    }
+
+    @Benchmark
+    public int canAssignDuty() {
+        int eligible = 0;
+        for (Teacher teacher : teachers) {
+            for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
+                if (DutyAssignmentRules.canAssignDuty(teacher, timeSlot)) eligible++;
+            }
+        }
+        return eligible;
+    }
+}
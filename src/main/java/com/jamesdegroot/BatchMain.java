@@ -0,0 +1,672 @@
+package com.jamesdegroot;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import com.jamesdegroot.calendar.Calendar;
+import com.jamesdegroot.calendar.SchoolYear;
+import com.jamesdegroot.duty_assigment.AssignmentEngineEnum;
+import com.jamesdegroot.io.DistrictSchool;
+import com.jamesdegroot.io.JsonText;
+import com.jamesdegroot.io.ReadDistrictFromDisk;
+import com.jamesdegroot.io.ScheduleChangeTypeEnum;
+import com.jamesdegroot.io.ScheduleDiff;
+import com.jamesdegroot.io.ScheduleResultCache;
+import com.jamesdegroot.metrics.AssignmentMetrics;
+import com.jamesdegroot.metrics.FlightRecording;
+
+/**
+ * BatchMain.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    Headless command line mode, used to run load -> assign -> export without the GUI
+ *    (e.g. on a scheduling server or from cron). Never touches AWT or Swing.
+ *    Each teacher CSV is an independent job, run on a fixed pool of worker threads.
+ *    Progress and debugging output go to stderr; stdout carries only a machine-readable
+ *    summary, one JSON object per line (one per job as soon as it finishes, then one for the whole run).
+ *    District mode (--district) runs every school of a district file (see ReadDistrictFromDisk),
+ *    each with its own teacher linear and calendar, into its own output directory. Every job
+ *    builds its own calendar, teachers and assigner, so the workers share nothing but the result
+ *    cache and the metrics counters; the biggest rosters start first so no worker is left idle
+ *    at the end. The threads default to one per core, and a district_summary.csv of every
+ *    school is written when the run ends.
+ *    The assignment metrics of all jobs together are printed to stderr at the end.
+ *    The anytime engine runs greedy and then the other engines until --time-limit-ms passes,
+ *    keeping the best schedule; the winner of each job is printed to stderr.
+ *    The school year and its term boundaries come from --school-year if given, otherwise from the
+ *    ICS events (first day of school, first day of semester 2, last day of school).
+ *    --years plans a horizon of consecutive school years and --year picks the one to assign;
+ *    only that year's days are built.
+ *    --warm-start seeds every job with a previous schedule CSV and keeps what still fits
+ *    (the warm-start engine); the number of cells it had to change is printed to stderr.
+ *    --diff compares each job's schedule with an earlier duty schedule CSV and writes the changed
+ *    teacher assignments next to the output (<name>_changes.csv); given two CSVs it only compares
+ *    them, printing the changes to stderr and a one line JSON summary to stdout.
+ *    With --jfr a flight recording (with the app's own phase events) is taken around the run.
+ *
+ *  Usage:
+ *    java -jar teacher_duty_calendar.jar --ics calendar.ics --teachers a.csv[,b.csv...] --out outDir
+ *         [--engine greedy|most-constrained|min-cost-flow|anytime|warm-start] [--time-limit-ms N] [--threads N]
+ *         [--cache cacheDir] [--cache-max-mb N] [--jfr recording.jfr]
+ *         [--cycle-days N] [--rotation-resets yyyy-mm-dd[,yyyy-mm-dd...]] [--school-year year.properties]
+ *         [--years N] [--year K] [--warm-start previous_duty_schedule.csv] [--diff previous_duty_schedule.csv]
+ *    java -jar teacher_duty_calendar.jar --district district.csv [--ics boardCalendar.ics] --out outDir [options above]
+ *    java -jar teacher_duty_calendar.jar --diff before_duty_schedule.csv,after_duty_schedule.csv [--out outDir]
+ *
+ *  Methods:
+ * 	  - run, int, parses the arguments, runs every job and prints the summary
+ *    - runJob, JobResult, runs one teacher CSV through load, assign and export
+ *    - runDiff, int, compares two duty schedule CSVs without running any jobs
+ *    - writeDistrictSummary, File, writes the one line per school summary of a district run
+ *    - parseArguments, boolean, reads the command line options
+ *    - printUsage, void, prints the usage message to stderr
+ *
+*/
+
+public class BatchMain {
+    // Exit codes
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_JOB_FAILED = 1;
+    public static final int EXIT_USAGE = 2;
+
+    // Command line options
+    private static final String ICS_OPTION = "--ics";
+    private static final String TEACHERS_OPTION = "--teachers";
+    private static final String OUT_OPTION = "--out";
+    private static final String ENGINE_OPTION = "--engine";
+    private static final String TIME_LIMIT_OPTION = "--time-limit-ms";
+    private static final String THREADS_OPTION = "--threads";
+    private static final String CACHE_OPTION = "--cache";
+    private static final String CACHE_MAX_MB_OPTION = "--cache-max-mb";
+    private static final String JFR_OPTION = "--jfr";
+    private static final String CYCLE_DAYS_OPTION = "--cycle-days";
+    private static final String ROTATION_RESETS_OPTION = "--rotation-resets";
+    private static final String SCHOOL_YEAR_OPTION = "--school-year";
+    private static final String YEARS_OPTION = "--years";
+    private static final String YEAR_OPTION = "--year";
+    private static final String DISTRICT_OPTION = "--district";
+    private static final String WARM_START_OPTION = "--warm-start";
+    private static final String DIFF_OPTION = "--diff";
+    private static final String HELP_OPTION = "--help";
+    private static final String TEACHER_FILE_SEPARATOR = ",";
+    private static final String DATE_SEPARATOR = ",";
+
+    // Output naming
+    private static final String OUTPUT_SUFFIX = "_duty_schedule.csv";
+    private static final String CHANGES_SUFFIX = "_changes.csv";
+    private static final String DIFF_OUTPUT_FILE = "schedule_changes.csv";
+    private static final String CSV_EXTENSION = ".csv";
+    private static final String DISTRICT_SUMMARY_FILE = "district_summary.csv";
+    private static final String DISTRICT_SUMMARY_HEADER = "School,Status,Teachers,Events,Total ms,Cached,Calendar,Teacher File,Output,Error";
+
+    // Summary formats
+    private static final String JOB_SUMMARY_FORMAT =
+        "{%s\"job\":%s,\"status\":%s,\"teachers\":%d,\"events\":%d,\"load_ics_ms\":%.3f,\"load_teachers_ms\":%.3f,"
+        + "\"assign_ms\":%.3f,\"export_ms\":%.3f,\"total_ms\":%.3f,\"cached\":%b,\"output\":%s}";
+    private static final String FAILED_JOB_FORMAT = "{%s\"job\":%s,\"status\":\"failed\",\"error\":%s}";
+    private static final String RUN_SUMMARY_FORMAT =
+        "{\"run\":\"batch\",\"engine\":%s,\"threads\":%d,\"jobs\":%d,\"failed\":%d,\"wall_ms\":%.3f,\"jvm_uptime_ms\":%d}";
+    private static final String DIFF_SUMMARY_FORMAT =
+        "{\"run\":\"diff\",\"before\":%s,\"after\":%s,\"cells\":%d,\"changes\":%d,\"added\":%d,\"removed\":%d,"
+        + "\"changed\":%d,\"diff_ms\":%.3f,\"output\":%s}";
+    private static final String SCHOOL_FIELD_FORMAT = "\"school\":%s,";
+    private static final String DISTRICT_SUMMARY_FORMAT =
+        "{\"run\":\"district\",\"engine\":%s,\"threads\":%d,\"schools\":%d,\"failed\":%d,\"teachers\":%d,"
+        + "\"wall_ms\":%.3f,\"job_ms\":%.3f,\"parallelism\":%.2f,\"jvm_uptime_ms\":%d,\"summary\":%s}";
+    private static final String USAGE =
+        "Usage: java -jar teacher_duty_calendar.jar --ics <calendar.ics> --teachers <teachers.csv>[,<more.csv>...]\n"
+        + "       --out <output dir> [--engine greedy|most-constrained|min-cost-flow|anytime|warm-start] [--time-limit-ms N]\n"
+        + "       [--threads N] [--cache <cache dir>] [--cache-max-mb N] [--jfr <recording.jfr>]\n"
+        + "       [--cycle-days N] [--rotation-resets <yyyy-mm-dd>[,<yyyy-mm-dd>...]] [--school-year <year.properties>]\n"
+        + "       [--years N] [--year K] [--warm-start <previous duty_schedule.csv>] [--diff <previous duty_schedule.csv>]\n"
+        + "   or: java -jar teacher_duty_calendar.jar --district <district.csv> [--ics <board calendar.ics>] --out <output dir> [options above]\n"
+        + "   or: java -jar teacher_duty_calendar.jar --diff <before duty_schedule.csv>,<after duty_schedule.csv> [--out <output dir>]";
+
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final long BYTES_PER_MB = 1024L * 1024;
+
+    private File icsFile;
+    private List<File> teacherFiles = new ArrayList<>();
+    private File districtFile;
+    private List<DistrictSchool> jobs = new ArrayList<>(); // one per teacher file, or per school of the district
+    private File outputDir;
+    private AssignmentEngineEnum engine = AssignmentEngineEnum.GREEDY;
+    private long timeLimitMillis = GenerateDutyCalendar.DEFAULT_TIME_LIMIT_MILLIS;
+    private int threads;            // 0 until given: 1 outside district mode, one per core in it
+    private File cacheDir;
+    private long cacheMaxBytes = ScheduleResultCache.DEFAULT_MAX_BYTES;
+    private ScheduleResultCache resultCache;
+    private File jfrFile;
+    private int cycleDays = Calendar.DEFAULT_CYCLE_LENGTH;
+    private List<LocalDate> rotationResets = new ArrayList<>();
+    private SchoolYear schoolYear; // null to take the boundaries from the ICS events
+    private int planningYears = 1;
+    private int scheduledYear = 1; // 1 for the first year of the horizon
+    private File warmStartFile;
+    private List<File> diffFiles = new ArrayList<>(); // one to compare every job with, or two to compare alone
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Parses the arguments, runs every job and prints the summary.
+     * @param args the command line arguments
+     * @return the process exit code
+     */
+    public static int run(String[] args) {
+        System.setProperty("java.awt.headless", "true");
+        long runStart = System.nanoTime();
+
+        BatchMain batch = new BatchMain();
+        if (!batch.parseArguments(args)) {
+            printUsage();
+            return EXIT_USAGE;
+        }
+        if (batch.diffFiles.size() == 2) {
+            return batch.runDiff(runStart);
+        }
+        if (!batch.outputDir.isDirectory() && !batch.outputDir.mkdirs()) {
+            System.err.println("Error: could not create output directory " + batch.outputDir);
+            return EXIT_USAGE;
+        }
+
+        if (batch.cacheDir != null) {
+            batch.resultCache = new ScheduleResultCache(batch.cacheDir, batch.cacheMaxBytes);
+        }
+
+        FlightRecording recording = batch.jfrFile != null ? FlightRecording.start(batch.jfrFile) : null;
+
+        // Keep stdout for the summary only; anything the pipeline prints goes to stderr
+        PrintStream summaryOut = System.out;
+        System.setOut(System.err);
+
+        // Biggest rosters first, so a large school does not start last while the other workers sit idle
+        List<Integer> order = new ArrayList<>();
+        for (int job = 0; job < batch.jobs.size(); job++) {
+            order.add(job);
+        }
+        order.sort(Comparator.comparingLong((Integer job) -> batch.jobs.get(job).getTeacherFile().length()).reversed());
+
+        JobResult[] results = new JobResult[batch.jobs.size()];
+        int failed = 0;
+        ExecutorService workers = Executors.newFixedThreadPool(Math.min(batch.threads, batch.jobs.size()));
+        try {
+            CompletionService<JobResult> finishedJobs = new ExecutorCompletionService<>(workers);
+            Map<Future<JobResult>, Integer> positions = new HashMap<>();
+            for (int job : order) {
+                DistrictSchool school = batch.jobs.get(job);
+                positions.put(finishedJobs.submit(() -> batch.runJob(school)), job);
+            }
+            // Each job's line goes out as soon as it finishes, in the order they finish
+            for (int i = 0; i < results.length; i++) {
+                Future<JobResult> finished = finishedJobs.take();
+                int job = positions.get(finished);
+                try {
+                    results[job] = finished.get();
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("Error: job " + batch.jobs.get(job).getTeacherFile() + " failed: " + cause.getMessage());
+                    results[job] = batch.failedJob(batch.jobs.get(job), String.valueOf(cause.getMessage()));
+                    failed++;
+                }
+                summaryOut.println(results[job].json);
+                summaryOut.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            System.err.println("Error: run interrupted");
+            failed++;
+        } finally {
+            workers.shutdownNow();
+            System.setOut(summaryOut);
+            if (recording != null) {
+                recording.stop();
+            }
+        }
+        AssignmentMetrics.get().printSummary(System.err);
+
+        double wallMs = (System.nanoTime() - runStart) / NANOS_PER_MILLI;
+        if (batch.districtFile != null) {
+            File summaryFile = batch.writeDistrictSummary(results);
+            int teachers = 0;
+            double jobMs = 0;
+            for (JobResult result : results) {
+                if (result == null) continue;
+                teachers += result.teachers;
+                jobMs += result.totalMs;
+            }
+            summaryOut.println(String.format(Locale.ROOT, DISTRICT_SUMMARY_FORMAT,
+                JsonText.quote(batch.engine.name().toLowerCase(Locale.ROOT)), batch.threads, batch.jobs.size(), failed,
+                teachers, wallMs, jobMs, wallMs > 0 ? jobMs / wallMs : 0,
+                ManagementFactory.getRuntimeMXBean().getUptime(),
+                summaryFile != null ? JsonText.quote(summaryFile.getPath()) : "null"));
+        } else {
+            summaryOut.println(String.format(Locale.ROOT, RUN_SUMMARY_FORMAT,
+                JsonText.quote(batch.engine.name().toLowerCase(Locale.ROOT)), batch.threads, batch.jobs.size(), failed,
+                wallMs, ManagementFactory.getRuntimeMXBean().getUptime()));
+        }
+        summaryOut.flush();
+        return failed == 0 ? EXIT_OK : EXIT_JOB_FAILED;
+    }
+
+    /**
+     * Runs one teacher CSV through load, assign and export with its own calendar and teachers.
+     * @param teacherFile the teacher CSV for this job
+     * @return the job's result and JSON summary line
+     */
+    private JobResult runJob(DistrictSchool school) {
+        long jobStart = System.nanoTime();
+        File teacherFile = school.getTeacherFile();
+        File icsFile = school.getIcsFile();
+        GenerateDutyCalendar appLogic = new GenerateDutyCalendar();
+        appLogic.setVerbose(false);
+        appLogic.setEngine(engine);
+        appLogic.setTimeLimitMillis(timeLimitMillis);
+        appLogic.setResultCache(resultCache);
+        appLogic.setDayRotation(cycleDays, rotationResets);
+        appLogic.setSchoolYear(schoolYear);
+        appLogic.setPlanningYears(planningYears);
+        if (warmStartFile != null && !appLogic.loadWarmStart(warmStartFile)) {
+            throw new IllegalStateException("could not read previous schedule " + warmStartFile);
+        }
+
+        long start = System.nanoTime();
+        appLogic.loadCalendar(icsFile);
+        double loadIcsMs = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        if (appLogic.getCalendar().getEvents().isEmpty()) {
+            throw new IllegalStateException("no events read from " + icsFile);
+        }
+        if (scheduledYear > 1) {
+            appLogic.selectSchoolYear(scheduledYear - 1);
+        }
+
+        start = System.nanoTime();
+        appLogic.processFile(teacherFile);
+        double loadTeachersMs = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        if (appLogic.getTeachers().isEmpty()) {
+            throw new IllegalStateException("no teachers read from " + teacherFile);
+        }
+
+        start = System.nanoTime();
+        appLogic.assignDuties();
+        double assignMs = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        if (engine == AssignmentEngineEnum.WARM_START) {
+            System.err.println(teacherFile.getName() + " warm start changed " + appLogic.getWarmStartChanges().size() + " cells");
+        }
+        if (appLogic.getBestSnapshot() != null) {
+            System.err.println(teacherFile.getName() + " best schedule: " + appLogic.getBestSnapshot());
+        }
+
+        String baseName = teacherFile.getName();
+        if (baseName.toLowerCase(Locale.ROOT).endsWith(CSV_EXTENSION)) {
+            baseName = baseName.substring(0, baseName.length() - CSV_EXTENSION.length());
+        }
+        File jobOutputDir = districtFile != null ? new File(outputDir, school.getDirectoryName()) : outputDir;
+        if (!jobOutputDir.isDirectory() && !jobOutputDir.mkdirs()) {
+            throw new IllegalStateException("could not create output directory " + jobOutputDir);
+        }
+        File outputFile = new File(jobOutputDir, baseName.replaceAll("[^A-Za-z0-9._-]", "_") + OUTPUT_SUFFIX);
+        start = System.nanoTime();
+        appLogic.exportScheduleToCSV(outputFile.getPath());
+        double exportMs = (System.nanoTime() - start) / NANOS_PER_MILLI;
+        if (!diffFiles.isEmpty()) {
+            ScheduleDiff diff = appLogic.diffWithSchedule(diffFiles.get(0));
+            if (diff == null) {
+                throw new IllegalStateException("could not read previous schedule " + diffFiles.get(0));
+            }
+            File changesFile = new File(jobOutputDir, outputFile.getName().replace(OUTPUT_SUFFIX, CHANGES_SUFFIX));
+            diff.writeCSV(changesFile);
+            System.err.println(teacherFile.getName() + " vs " + diffFiles.get(0).getName() + ": " + diff.getSummary());
+        }
+
+        JobResult result = new JobResult(appLogic.getTeachers().size(), appLogic.getCalendar().getEvents().size(),
+            (System.nanoTime() - jobStart) / NANOS_PER_MILLI, appLogic.isResultFromCache(), outputFile, null);
+        result.json = String.format(Locale.ROOT, JOB_SUMMARY_FORMAT,
+            schoolField(school), JsonText.quote(teacherFile.getPath()), JsonText.quote("ok"),
+            result.teachers, result.events, loadIcsMs, loadTeachersMs, assignMs, exportMs,
+            result.totalMs, result.cached, JsonText.quote(outputFile.getPath()));
+        return result;
+    }
+
+    /**
+     * Compares two duty schedule CSVs without running any jobs. The changes go to stderr,
+     * and to schedule_changes.csv when an output directory is given.
+     * @param runStart when the run started, from System.nanoTime
+     * @return the process exit code
+     */
+    private int runDiff(long runStart) {
+        File before = diffFiles.get(0);
+        File after = diffFiles.get(1);
+        ScheduleDiff diff = ScheduleDiff.compare(before, after);
+        if (diff == null) {
+            return EXIT_JOB_FAILED;
+        }
+        double diffMs = (System.nanoTime() - runStart) / NANOS_PER_MILLI;
+        System.err.print(diff.toText());
+
+        File outputFile = null;
+        if (outputDir != null) {
+            if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+                System.err.println("Error: could not create output directory " + outputDir);
+                return EXIT_USAGE;
+            }
+            outputFile = new File(outputDir, DIFF_OUTPUT_FILE);
+            if (!diff.writeCSV(outputFile)) {
+                return EXIT_JOB_FAILED;
+            }
+        }
+        System.out.println(String.format(Locale.ROOT, DIFF_SUMMARY_FORMAT,
+            JsonText.quote(before.getPath()), JsonText.quote(after.getPath()), diff.getCellsCompared(),
+            diff.getChanges().size(), diff.getCount(ScheduleChangeTypeEnum.ADDED), diff.getCount(ScheduleChangeTypeEnum.REMOVED),
+            diff.getCount(ScheduleChangeTypeEnum.CHANGED), diffMs, outputFile != null ? JsonText.quote(outputFile.getPath()) : "null"));
+        return EXIT_OK;
+    }
+
+    /**
+     * Makes the result of a job that threw
+     * @param school the job
+     * @param error the error message
+     * @return the failed result and its JSON summary line
+     */
+    private JobResult failedJob(DistrictSchool school, String error) {
+        JobResult result = new JobResult(0, 0, 0, false, null, error);
+        result.json = String.format(Locale.ROOT, FAILED_JOB_FORMAT,
+            schoolField(school), JsonText.quote(school.getTeacherFile().getPath()), JsonText.quote(error));
+        return result;
+    }
+
+    private String schoolField(DistrictSchool school) {
+        return districtFile != null ? String.format(SCHOOL_FIELD_FORMAT, JsonText.quote(school.getName())) : "";
+    }
+
+    /**
+     * Writes the district summary, one line per school in district file order
+     * @param results the results, by position in the district file (null for jobs that never finished)
+     * @return the summary file, or null if it could not be written
+     */
+    private File writeDistrictSummary(JobResult[] results) {
+        File summaryFile = new File(outputDir, DISTRICT_SUMMARY_FILE);
+        try (PrintWriter writer = new PrintWriter(new FileWriter(summaryFile))) {
+            writer.println(DISTRICT_SUMMARY_HEADER);
+            for (int job = 0; job < jobs.size(); job++) {
+                DistrictSchool school = jobs.get(job);
+                JobResult result = results[job];
+                String status = result == null ? "not run" : result.error != null ? "failed" : "ok";
+                writer.println(String.join(",", csvField(school.getName()), status,
+                    Integer.toString(result != null ? result.teachers : 0),
+                    Integer.toString(result != null ? result.events : 0),
+                    String.format(Locale.ROOT, "%.3f", result != null ? result.totalMs : 0),
+                    Boolean.toString(result != null && result.cached),
+                    csvField(school.getIcsFile().getPath()), csvField(school.getTeacherFile().getPath()),
+                    csvField(result != null && result.output != null ? result.output.getPath() : ""),
+                    csvField(result != null && result.error != null ? result.error : "")));
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing district summary: " + e.getMessage());
+            return null;
+        }
+        return summaryFile;
+    }
+
+    private static String csvField(String value) {
+        return value.contains(",") || value.contains("\"") ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+
+    /**
+     * Reads the command line options.
+     * @param args the command line arguments
+     * @return true if the required options are present and valid
+     */
+    private boolean parseArguments(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String option = args[i];
+            if (option.equals(HELP_OPTION)) return false;
+            if (i + 1 >= args.length) {
+                System.err.println("Error: missing value for " + option);
+                return false;
+            }
+            String value = args[++i];
+            switch (option) {
+                case ICS_OPTION:
+                    icsFile = new File(value);
+                    break;
+                case WARM_START_OPTION:
+                    warmStartFile = new File(value);
+                    if (!warmStartFile.isFile()) {
+                        System.err.println("Error: previous schedule not found: " + value);
+                        return false;
+                    }
+                    engine = AssignmentEngineEnum.WARM_START;
+                    break;
+                case DIFF_OPTION:
+                    for (String path : value.split(TEACHER_FILE_SEPARATOR)) {
+                        if (!path.isBlank()) diffFiles.add(new File(path.trim()));
+                    }
+                    for (File diffFile : diffFiles) {
+                        if (!diffFile.isFile()) {
+                            System.err.println("Error: schedule to compare not found: " + diffFile);
+                            return false;
+                        }
+                    }
+                    if (diffFiles.size() > 2) {
+                        System.err.println("Error: " + DIFF_OPTION + " takes one schedule, or two to compare alone");
+                        return false;
+                    }
+                    break;
+                case DISTRICT_OPTION:
+                    districtFile = new File(value);
+                    break;
+                case TEACHERS_OPTION:
+                    for (String path : value.split(TEACHER_FILE_SEPARATOR)) {
+                        if (!path.isBlank()) teacherFiles.add(new File(path.trim()));
+                    }
+                    break;
+                case OUT_OPTION:
+                    outputDir = new File(value);
+                    break;
+                case ENGINE_OPTION:
+                    engine = AssignmentEngineEnum.fromName(value);
+                    if (engine == null) {
+                        System.err.println("Error: unknown engine " + value);
+                        return false;
+                    }
+                    break;
+                case TIME_LIMIT_OPTION:
+                    try {
+                        timeLimitMillis = Long.parseLong(value);
+                    } catch (NumberFormatException e) {
+                        timeLimitMillis = -1;
+                    }
+                    if (timeLimitMillis < 0) {
+                        System.err.println("Error: time limit must be a number of milliseconds, got " + value);
+                        return false;
+                    }
+                    break;
+                case THREADS_OPTION:
+                    try {
+                        threads = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        threads = 0;
+                    }
+                    if (threads < 1) {
+                        System.err.println("Error: thread count must be a positive number, got " + value);
+                        return false;
+                    }
+                    break;
+                case CACHE_OPTION:
+                    cacheDir = new File(value);
+                    break;
+                case JFR_OPTION:
+                    jfrFile = new File(value);
+                    break;
+                case CYCLE_DAYS_OPTION:
+                    try {
+                        cycleDays = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        cycleDays = 0;
+                    }
+                    if (cycleDays < 1 || cycleDays > Calendar.MAX_CYCLE_LENGTH) {
+                        System.err.println("Error: cycle days must be 1 to " + Calendar.MAX_CYCLE_LENGTH + ", got " + value);
+                        return false;
+                    }
+                    break;
+                case ROTATION_RESETS_OPTION:
+                    for (String date : value.split(DATE_SEPARATOR)) {
+                        if (date.isBlank()) continue;
+                        try {
+                            rotationResets.add(LocalDate.parse(date.trim()));
+                        } catch (DateTimeParseException e) {
+                            System.err.println("Error: rotation reset must be a yyyy-mm-dd date, got " + date);
+                            return false;
+                        }
+                    }
+                    break;
+                case SCHOOL_YEAR_OPTION:
+                    schoolYear = SchoolYear.load(new File(value));
+                    if (schoolYear == null) {
+                        return false;
+                    }
+                    break;
+                case YEARS_OPTION:
+                    try {
+                        planningYears = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        planningYears = 0;
+                    }
+                    if (planningYears < 1 || planningYears > Calendar.MAX_PLANNING_YEARS) {
+                        System.err.println("Error: years must be 1 to " + Calendar.MAX_PLANNING_YEARS + ", got " + value);
+                        return false;
+                    }
+                    break;
+                case YEAR_OPTION:
+                    try {
+                        scheduledYear = Integer.parseInt(value);
+                    } catch (NumberFormatException e) {
+                        scheduledYear = 0;
+                    }
+                    if (scheduledYear < 1) {
+                        System.err.println("Error: year must be a positive number, got " + value);
+                        return false;
+                    }
+                    break;
+                case CACHE_MAX_MB_OPTION:
+                    try {
+                        cacheMaxBytes = Long.parseLong(value) * BYTES_PER_MB;
+                    } catch (NumberFormatException e) {
+                        cacheMaxBytes = 0;
+                    }
+                    if (cacheMaxBytes <= 0) {
+                        System.err.println("Error: cache size must be a positive number of MB, got " + value);
+                        return false;
+                    }
+                    break;
+                default:
+                    System.err.println("Error: unknown option " + option);
+                    return false;
+            }
+        }
+
+        if (diffFiles.size() == 2) {
+            if (icsFile != null || !teacherFiles.isEmpty() || districtFile != null) {
+                System.err.println("Error: " + DIFF_OPTION + " with two schedules only compares them and runs no jobs");
+                return false;
+            }
+            return true;
+        }
+        if (engine == AssignmentEngineEnum.WARM_START && warmStartFile == null) {
+            System.err.println("Error: the warm-start engine needs " + WARM_START_OPTION);
+            return false;
+        }
+        if (scheduledYear > planningYears) {
+            System.err.println("Error: " + YEAR_OPTION + " must be 1 to " + planningYears + " (" + YEARS_OPTION + "), got " + scheduledYear);
+            return false;
+        }
+        if (districtFile != null) {
+            if (!teacherFiles.isEmpty() || outputDir == null) {
+                System.err.println("Error: " + DISTRICT_OPTION + " needs " + OUT_OPTION + " and takes the place of " + TEACHERS_OPTION);
+                return false;
+            }
+            if (icsFile != null && !icsFile.isFile()) {
+                System.err.println("Error: calendar file not found: " + icsFile);
+                return false;
+            }
+            jobs = ReadDistrictFromDisk.readDistrict(districtFile, icsFile);
+            if (jobs == null) {
+                return false;
+            }
+            if (threads == 0) {
+                threads = Math.min(Runtime.getRuntime().availableProcessors(), jobs.size());
+            }
+            return true;
+        }
+        if (icsFile == null || teacherFiles.isEmpty() || outputDir == null) {
+            System.err.println("Error: " + ICS_OPTION + ", " + TEACHERS_OPTION + " and " + OUT_OPTION + " are required");
+            return false;
+        }
+        if (!icsFile.isFile()) {
+            System.err.println("Error: calendar file not found: " + icsFile);
+            return false;
+        }
+        for (File teacherFile : teacherFiles) {
+            if (!teacherFile.isFile()) {
+                System.err.println("Error: teacher file not found: " + teacherFile);
+                return false;
+            }
+            jobs.add(new DistrictSchool(teacherFile.getPath(), icsFile, teacherFile));
+        }
+        if (threads == 0) {
+            threads = 1;
+        }
+        return true;
+    }
+
+    /**
+     * Prints the usage message to stderr.
+     */
+    private static void printUsage() {
+        System.err.println(USAGE);
+    }
+
+    /**
+     * What one job reports: its counts and timing for the district summary and its JSON summary line
+     */
+    private static final class JobResult {
+        private final int teachers;
+        private final int events;
+        private final double totalMs;
+        private final boolean cached;
+        private final File output;  // null if the job failed
+        private final String error; // null if the job finished
+        private String json;
+
+        JobResult(int teachers, int events, double totalMs, boolean cached, File output, String error) {
+            this.teachers = teachers;
+            this.events = events;
+            this.totalMs = totalMs;
+            this.cached = cached;
+            this.output = output;
+            this.error = error;
+        }
+    }
+}
\ No newline at end of file
@@ -2,17 +2,37 @@ package com.jamesdegroot;
 
 import java.io.File;
 import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 import com.jamesdegroot.calendar.Calendar;
 import com.jamesdegroot.calendar.Day;
 import com.jamesdegroot.calendar.Duty;
-import com.jamesdegroot.calendar.Holiday;
+import com.jamesdegroot.calendar.SchoolYear;
+import com.jamesdegroot.duty_assigment.AnytimeSolver;
+import com.jamesdegroot.duty_assigment.AssignedDuty;
+import com.jamesdegroot.duty_assigment.AssignmentEngineEnum;
+import com.jamesdegroot.duty_assigment.CoverageProposal;
 import com.jamesdegroot.duty_assigment.DutyAssigner;
+import com.jamesdegroot.duty_assigment.ScheduleSnapshot;
+import com.jamesdegroot.duty_assigment.SwapOption;
 import com.jamesdegroot.io.ReadCalendarFromDisk;
+import com.jamesdegroot.io.ReadScheduleFromDisk;
 import com.jamesdegroot.io.ReadTeachersFromDisk;
+import com.jamesdegroot.io.ScheduleDiff;
+import com.jamesdegroot.io.ScheduleResultCache;
+import com.jamesdegroot.io.WriteScheduleToDisk;
+import com.jamesdegroot.metrics.AssignmentMetrics;
+import com.jamesdegroot.metrics.CalendarInitializationEvent;
+import com.jamesdegroot.metrics.IcsParseEvent;
+import com.jamesdegroot.metrics.MetricsPhaseEnum;
+import com.jamesdegroot.metrics.ScheduleExportEvent;
+import com.jamesdegroot.metrics.TeacherCsvParseEvent;
 import com.jamesdegroot.teacher.Teacher;
 import com.jamesdegroot.teacher.TeacherScheduleStatusEnum;
 import com.jamesdegroot.teacher.TeacherTypeEnum;
@@ -33,15 +53,59 @@ import com.jamesdegroot.teacher.TeacherTypeEnum;
  *    - isSchoolDay, boolean, checks if a given date is a school day
  *    - printSchedule, void, prints the complete duty schedule
  *    - printTeacherDutyCounts, void, prints a summary of teachers who haven't reached their maximum duties
+ *    - setVerbose, void, sets whether loading and assigning print debugging output
+ *    - setEngine, void, sets the engine used to assign duties
+ *    - getEngine, AssignmentEngineEnum, gets the engine used to assign duties
+ *    - setTimeLimitMillis, void, sets the time budget of the anytime engine
+ *    - setDayRotation, void, sets the Day 1 / Day 2 rotation cycle length and restart dates
+ *    - setSchoolYear, void, sets the year and term boundaries used by the next loadCalendar
+ *    - setPlanningYears, void, sets how many consecutive school years the next loadCalendar plans for
+ *    - selectSchoolYear, void, picks the year of the horizon that duties are assigned for
+ *    - loadWarmStart, boolean, reads a previous duty schedule CSV for the warm start engine
+ *    - getWarmStartChanges, List<String>, gets the cells the warm start engine changed from the previous schedule
+ *    - diffWithLastRun, ScheduleDiff, gets what changed between the previous assignment and the current one
+ *    - diffWithSchedule, ScheduleDiff, gets what changed between a duty schedule CSV and the current assignment
+ *    - getBestSnapshot, ScheduleSnapshot, gets the best schedule the anytime engine has found so far
+ *    - getScheduleSnapshot, ScheduleSnapshot, gets an immutable copy of the current schedule for views on other threads
+ *    - cancelAssignment, void, stops a running anytime assignment, keeping the best schedule so far
+ *    - hasAssignedDuties, boolean, checks if duties have been assigned yet
+ *    - getDutyAssigner, DutyAssigner, gets the assigner of the current (or running) assignment
+ *    - reassignTeacher, List<String>, re-solves the cells affected by an edited teacher
+ *    - refreshTeacher, void, re-indexes an edited teacher without re-solving
+ *    - reassignDay, List<String>, re-solves the cells affected by an edited day
+ *    - previewTeacherEdit, List<String>, re-solves a teacher edit on a copy of the schedule, changing nothing
+ *    - previewDayEdit, List<String>, re-solves a school day edit on a copy of the schedule, changing nothing
+ *    - proposeCoverage, List<CoverageProposal>, proposes replacements for teachers away on a date
+ *    - findSwaps, Map<String, List<SwapOption>>, finds who could take over or trade each of a teacher's duties
+ *    - getTeacherDuties, List<AssignedDuty>, gets every duty a teacher holds across the year
+ *    - setResultCache, void, sets the on-disk cache of finished assignments (null to turn it off)
+ *    - isResultFromCache, boolean, checks if the last assignment was restored from the cache
+ *    - exportScheduleToCSV, void, writes the schedule CSV, copying the cached export when unchanged
+ *    - exportScheduleToJSON, void, writes the schedule JSON, copying the cached export when unchanged
  * 
 */
 
 public class GenerateDutyCalendar {
     public static final int NUM_OF_SEPERATORS_CHAR = 135; // maximum number of duties per semester
+    public static final long DEFAULT_TIME_LIMIT_MILLIS = 10_000; // budget of the anytime engine
     private List<Teacher> teachers;
     private Calendar calendar;
     private List<String> warnings = new ArrayList<>();
-    private DutyAssigner dutyAssigner;
+    private volatile DutyAssigner dutyAssigner;
+    private AssignmentEngineEnum engine = AssignmentEngineEnum.GREEDY;
+    private long timeLimitMillis = DEFAULT_TIME_LIMIT_MILLIS;
+    private SchoolYear schoolYear;     // from a config file, null to take the boundaries from the ICS events
+    private int planningYears = 1;     // school years in the calendar's horizon, the first one shifted forward
+    private List<String[]> warmStartRows; // previous schedule for the warm start engine, null until loaded
+    private List<String> warmStartChanges = new ArrayList<>();
+    private List<String[]> lastRunRows; // the schedule before the latest assignDuties, null on the first run
+    private volatile AnytimeSolver anytimeSolver; // set while (and after) the anytime engine runs
+    private volatile ScheduleSnapshot scheduleSnapshot; // the finished schedule, null until one is assigned or while the anytime engine runs
+    private boolean verbose = true;
+    private ScheduleResultCache resultCache;
+    private String resultKey;          // cache key of the current schedule, null once it is edited
+    private boolean resultFromCache;
+    private final AssignmentMetrics metrics = AssignmentMetrics.get();
     
     /**
      * Creates a new GenerateDutyCalendar instance.
@@ -57,16 +121,46 @@ public class GenerateDutyCalendar {
      * @param file The CSV file containing teacher schedules
      */
     public void processFile(File file) {
+        long start = System.nanoTime();
+        TeacherCsvParseEvent event = new TeacherCsvParseEvent();
+        event.begin();
         teachers = ReadTeachersFromDisk.readTeachersNames(file.getAbsolutePath());
+        event.end();
+        metrics.recordPhase(MetricsPhaseEnum.LOAD_TEACHERS, System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.file = file.getPath();
+            event.bytesRead = file.length();
+            event.teacherCount = teachers.size();
+            event.commit();
+        }
+        resultKey = null;
     }
     
     /**
      * Loads and processes an ICS calendar file.
-     * Finds the start and end dates of the school year.
+     * Takes the year and term boundaries from setSchoolYear, or else from the ICS events
+     * (first day of school, first day of semester 2, last day of school) over the built-in year.
      * @param file The ICS file to process
      */
     public void loadCalendar(File file) {
+        long start = System.nanoTime();
+        IcsParseEvent parseEvent = new IcsParseEvent();
+        parseEvent.begin();
         ReadCalendarFromDisk.loadCalendarFromICS(calendar, file);
+        parseEvent.end();
+        metrics.recordPhase(MetricsPhaseEnum.LOAD_ICS, System.nanoTime() - start);
+        if (parseEvent.shouldCommit()) {
+            parseEvent.file = file.getPath();
+            parseEvent.bytesRead = file.length();
+            parseEvent.eventsLoaded = calendar.getEvents().size();
+            parseEvent.commit();
+        }
+        resultKey = null;
+        calendar.setSchoolYears(buildSchoolYears());
+        if (!verbose) {
+            initializeDaysOfYear();
+            return;
+        }
         System.out.println("Calendar loaded with " + calendar.getEvents().size() + " events");
         
         // Debug output for holidays
@@ -79,21 +173,45 @@ public class GenerateDutyCalendar {
         });
         System.out.println();
         
-        // Set start date to September 3rd
-        LocalDate startDate = LocalDate.of(2024, 9, 3);
-        
-        // Find the "Last Day of School" event
-        LocalDate endDate = calendar.getEvents().stream()
-            .filter(event -> event.getSummary().contains("Last Day of School"))
-            .map(Holiday::getStartDate)
-            .findFirst()
-            .orElse(LocalDate.of(2025, 6, 28));
-        
-        System.out.println("School Year Start Date: " + startDate);
-        System.out.println("Last Day of School: " + endDate);
+        for (SchoolYear year : calendar.getSchoolYears()) {
+            System.out.println("School Year Start Date: " + year.getStartDate());
+            System.out.println("Last Day of School: " + year.getEndDate());
+        }
         
         // Initialize the calendar days before printing
+        initializeDaysOfYear();
+    }
+    
+    /**
+     * Builds the school years of the horizon: the first from setSchoolYear or the built-in year,
+     * each later one shifted by a year, and all of them moved by their own ICS events unless set
+     * @return the school years, in order
+     */
+    private List<SchoolYear> buildSchoolYears() {
+        List<SchoolYear> years = new ArrayList<>();
+        SchoolYear first = schoolYear != null ? schoolYear : SchoolYear.defaultYear();
+        for (int year = 0; year < planningYears; year++) {
+            SchoolYear next = first.plusYears(year);
+            years.add(schoolYear != null ? next : next.withEvents(calendar.getEvents()));
+        }
+        return years;
+    }
+    
+    /**
+     * Builds the days and duties of the calendar, timed for the assignment metrics and the flight recorder
+     */
+    private void initializeDaysOfYear() {
+        long start = System.nanoTime();
+        CalendarInitializationEvent event = new CalendarInitializationEvent();
+        event.begin();
         calendar.initializeDaysOfYear();
+        event.end();
+        metrics.recordPhase(MetricsPhaseEnum.INITIALIZE_CALENDAR, System.nanoTime() - start);
+        if (event.shouldCommit()) {
+            event.days = calendar.getDaysOfYear().size();
+            event.schoolDays = (int) calendar.getDaysOfYear().stream().filter(Day::isSchoolDay).count();
+            event.commit();
+        }
     }
     
     /**
@@ -193,6 +311,108 @@ public class GenerateDutyCalendar {
         return teachers;
     }
     
+    /**
+     * Sets whether loading and assigning print debugging output.
+     * Batch runs turn this off so only their summary is printed.
+     * @param verbose true to print, false to stay quiet
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
+    }
+    
+    /**
+     * Sets the engine used to assign duties
+     * @param engine the engine to use
+     */
+    public void setEngine(AssignmentEngineEnum engine) {
+        this.engine = engine;
+    }
+    
+    /**
+     * Gets the engine used to assign duties
+     * @return the engine in use
+     */
+    public AssignmentEngineEnum getEngine() {
+        return engine;
+    }
+    
+    /**
+     * Sets the time budget of the anytime engine
+     * @param timeLimitMillis the budget in milliseconds
+     */
+    public void setTimeLimitMillis(long timeLimitMillis) {
+        this.timeLimitMillis = timeLimitMillis;
+    }
+    
+    /**
+     * Sets the rotation cycle length and the dates it restarts on; renumbers the days if a calendar is loaded
+     * @param cycleLength days in the cycle (2 for Day 1 / Day 2)
+     * @param resetDates dates after which the next school day is Day 1 again
+     */
+    public void setDayRotation(int cycleLength, List<LocalDate> resetDates) {
+        calendar.setRotation(cycleLength, resetDates);
+        resultKey = null;
+    }
+    
+    /**
+     * Sets the year and term boundaries used by the next loadCalendar
+     * @param schoolYear the school year (e.g. from SchoolYear.load), null to take them from the ICS events
+     */
+    public void setSchoolYear(SchoolYear schoolYear) {
+        this.schoolYear = schoolYear;
+    }
+    
+    /**
+     * Sets how many consecutive school years the next loadCalendar plans for.
+     * Only the terms that are scheduled or viewed are built as days.
+     * @param years 1 to Calendar.MAX_PLANNING_YEARS
+     */
+    public void setPlanningYears(int years) {
+        this.planningYears = Math.max(1, Math.min(years, Calendar.MAX_PLANNING_YEARS));
+    }
+    
+    /**
+     * Picks the year of the horizon that duties are assigned for; the schedule of the
+     * year left behind stays on its days, but has to be assigned again to be edited
+     * @param year the year's position in the horizon, 0 for the first
+     */
+    public void selectSchoolYear(int year) {
+        calendar.selectYear(year);
+        dutyAssigner = null;
+        resultKey = null;
+    }
+    
+    /**
+     * Gets the best schedule the anytime engine has found so far.
+     * Safe to call from another thread while duties are being assigned.
+     * @return the snapshot, or null if the anytime engine has not published one
+     */
+    public ScheduleSnapshot getBestSnapshot() {
+        AnytimeSolver solver = anytimeSolver;
+        return solver == null ? null : solver.getBest();
+    }
+    
+    /**
+     * Gets an immutable copy of the current schedule. Safe to call from another thread while
+     * duties are being assigned: the last finished schedule is kept until the next one is done,
+     * except that a running anytime engine shows the best schedule it has found so far.
+     * @return the snapshot, or null if duties have not been assigned yet
+     */
+    public ScheduleSnapshot getScheduleSnapshot() {
+        ScheduleSnapshot snapshot = scheduleSnapshot;
+        return snapshot != null ? snapshot : getBestSnapshot();
+    }
+    
+    /**
+     * Stops a running anytime assignment, keeping the best schedule found so far
+     */
+    public void cancelAssignment() {
+        AnytimeSolver solver = anytimeSolver;
+        if (solver != null) {
+            solver.cancel();
+        }
+    }
+    
     /**
      * Checks if a given date is a school day.
      * @param date the date to check
@@ -207,33 +427,350 @@ public class GenerateDutyCalendar {
     }
     
     /**
-     * Assigns duties to teachers across all terms
+     * Assigns duties to teachers across all terms.
+     * With a result cache set, an unchanged set of teachers, school days and engine
+     * restores the cached schedule instead of assigning again.
      */
     public void assignDuties() {
-        dutyAssigner = new DutyAssigner(calendar, teachers);
-        dutyAssigner.assignDuties();
-        dutyAssigner.printDutySchedule();
+        lastRunRows = hasAssignedDuties() ? WriteScheduleToDisk.collectScheduleRows(calendar) : null;
+        long start = System.nanoTime();
+        DutyAssigner assigner = new DutyAssigner(calendar, teachers);
+        assigner.setVerbose(verbose);
+        if (lastRunRows != null) {
+            assigner.clearAssignments(); // a regenerate starts from an empty schedule, not on top of the last one
+        }
+        
+        // The anytime engine's result depends on its time budget and the warm start's on its seed, so they are never cached
+        String key = resultCache != null && engine != AssignmentEngineEnum.ANYTIME && engine != AssignmentEngineEnum.WARM_START
+            ? ScheduleResultCache.computeKey(teachers, calendar, engine) : null;
+        resultFromCache = key != null && resultCache.restore(key, calendar);
+        if (resultFromCache) {
+            assigner.groupSchoolDays();
+            dutyAssigner = assigner;
+            if (verbose) {
+                System.out.println("Restored cached schedule " + key);
+            }
+        } else {
+            dutyAssigner = assigner;
+            switch (engine) {
+                case MOST_CONSTRAINED: assigner.assignDutiesMostConstrainedFirst(); break;
+                case MIN_COST_FLOW: assigner.assignDutiesMinCostFlow(); break;
+                case ANYTIME: solveAnytime(assigner); break;
+                case WARM_START: solveWarmStart(assigner); break;
+                case GREEDY: default: assigner.assignDuties(); break;
+            }
+            if (key != null) {
+                resultCache.store(key, calendar);
+            }
+        }
+        resultKey = key;
+        scheduleSnapshot = assigner.captureSnapshot(engine);
+        metrics.recordPhase(MetricsPhaseEnum.ASSIGN, System.nanoTime() - start);
+        
+        if (verbose) {
+            assigner.printDutySchedule();
+        }
         // Debugging method, prints a summary of the teachers and their duties
         //printTeacherDutyCounts();
     }
     
+    /**
+     * Runs the anytime engine within the time budget and reports which schedule won
+     * @param assigner the assigner to solve with
+     */
+    private void solveAnytime(DutyAssigner assigner) {
+        AnytimeSolver solver = new AnytimeSolver(assigner, teachers);
+        anytimeSolver = solver;
+        scheduleSnapshot = null; // views follow the solver's best schedule until it is done
+        ScheduleSnapshot best = solver.solve(timeLimitMillis);
+        if (verbose) {
+            System.out.println("Best schedule: " + best);
+        }
+    }
+    
+    /**
+     * Runs the warm start engine from the loaded previous schedule, or greedy if none was loaded
+     * @param assigner the assigner to solve with
+     */
+    private void solveWarmStart(DutyAssigner assigner) {
+        if (warmStartRows == null) {
+            System.err.println("Error: no previous schedule loaded for the warm start, assigning from scratch");
+            assigner.assignDuties();
+            return;
+        }
+        warmStartChanges = assigner.assignDutiesWarmStart(warmStartRows);
+        if (verbose) {
+            System.out.println(warmStartChanges.size() + " cells changed from the previous schedule:");
+            warmStartChanges.forEach(System.out::println);
+        }
+    }
+    
+    /**
+     * Gets what changed between the previous assignment and the current one, e.g. after a regenerate
+     * @return the changes, or null if duties have been assigned less than twice
+     */
+    public ScheduleDiff diffWithLastRun() {
+        if (lastRunRows == null || !hasAssignedDuties()) return null;
+        return ScheduleDiff.compare(lastRunRows, WriteScheduleToDisk.collectScheduleRows(calendar));
+    }
+    
+    /**
+     * Gets what changed between a duty schedule CSV (e.g. last year's export) and the current assignment
+     * @param file the earlier schedule, as written by exportScheduleToCSV
+     * @return the changes, or null if duties have not been assigned or the file can not be read
+     */
+    public ScheduleDiff diffWithSchedule(File file) {
+        if (!hasAssignedDuties()) return null;
+        List<String[]> rows = ReadScheduleFromDisk.readDutyScheduleFromCSV(file);
+        return rows != null ? ScheduleDiff.compare(rows, WriteScheduleToDisk.collectScheduleRows(calendar)) : null;
+    }
+    
+    /**
+     * Reads a previous duty schedule CSV (as written by exportScheduleToCSV) to seed the warm start engine
+     * @param file the previous schedule
+     * @return true if it was read
+     */
+    public boolean loadWarmStart(File file) {
+        List<String[]> rows = ReadScheduleFromDisk.readDutyScheduleFromCSV(file);
+        if (rows == null) return false;
+        warmStartRows = rows;
+        resultKey = null;
+        return true;
+    }
+    
+    /**
+     * Gets the cells the last warm start assignment changed from the previous schedule
+     * @return one "cell: previous -> now" line per changed cell, empty for the other engines
+     */
+    public List<String> getWarmStartChanges() {
+        return warmStartChanges;
+    }
+    
+    /**
+     * Sets the on-disk cache of finished assignments
+     * @param resultCache the cache to use, or null to always assign from scratch
+     */
+    public void setResultCache(ScheduleResultCache resultCache) {
+        this.resultCache = resultCache;
+        this.resultKey = null;
+    }
+    
+    /**
+     * Checks if the last assignment was restored from the result cache
+     * @return true if assignDuties found a cached schedule
+     */
+    public boolean isResultFromCache() {
+        return resultFromCache;
+    }
+    
+    /**
+     * Writes the schedule to a CSV file. If the schedule is unchanged since it was
+     * cached, the cached export is copied instead of rendered again.
+     * @param outputPath the path to write the CSV file to
+     */
+    public void exportScheduleToCSV(String outputPath) {
+        long start = System.nanoTime();
+        ScheduleExportEvent event = new ScheduleExportEvent();
+        event.begin();
+        boolean fromCache = resultKey != null && resultCache.copyExport(resultKey, ScheduleResultCache.CSV_EXPORT, outputPath);
+        if (!fromCache) {
+            WriteScheduleToDisk.writeDutyScheduleToCSV(calendar, outputPath);
+        }
+        event.end();
+        metrics.recordPhase(MetricsPhaseEnum.EXPORT, System.nanoTime() - start);
+        commitExportEvent(event, outputPath, "csv", fromCache);
+    }
+    
+    /**
+     * Writes the schedule to a JSON file. If the schedule is unchanged since it was
+     * cached, the cached export is copied instead of rendered again.
+     * @param outputPath the path to write the JSON file to
+     */
+    public void exportScheduleToJSON(String outputPath) {
+        long start = System.nanoTime();
+        ScheduleExportEvent event = new ScheduleExportEvent();
+        event.begin();
+        boolean fromCache = resultKey != null && resultCache.copyExport(resultKey, ScheduleResultCache.JSON_EXPORT, outputPath);
+        if (!fromCache) {
+            WriteScheduleToDisk.writeDutyScheduleToJSON(calendar, outputPath);
+        }
+        event.end();
+        metrics.recordPhase(MetricsPhaseEnum.EXPORT, System.nanoTime() - start);
+        commitExportEvent(event, outputPath, "json", fromCache);
+    }
+    
+    /**
+     * Fills in and commits the flight recorder event of an export
+     * @param event the timed export event
+     * @param outputPath the file that was written
+     * @param format the export format, csv or json
+     * @param fromCache whether the cached export was copied
+     */
+    private void commitExportEvent(ScheduleExportEvent event, String outputPath, String format, boolean fromCache) {
+        if (event.shouldCommit()) {
+            event.file = outputPath;
+            event.format = format;
+            event.bytesWritten = new File(outputPath).length();
+            event.fromCache = fromCache;
+            event.commit();
+        }
+    }
+    
+    /**
+     * Checks if duties have been assigned yet
+     * @return true once assignDuties has run
+     */
+    public boolean hasAssignedDuties() {
+        return dutyAssigner != null;
+    }
+    
+    /**
+     * Gets the assigner of the current assignment. It is set as soon as an assignment
+     * starts, so a view can watch the schedule fill in while it runs.
+     * @return the duty assigner, or null if duties have not been assigned yet
+     */
+    public DutyAssigner getDutyAssigner() {
+        return dutyAssigner;
+    }
+    
+    /**
+     * Re-solves only the cells affected by an edited teacher.
+     * @param teacher the teacher whose schedule or type was edited
+     * @return the changed cells, empty if duties have not been assigned yet
+     */
+    public List<String> reassignTeacher(Teacher teacher) {
+        if (dutyAssigner == null) return new ArrayList<>();
+        resultKey = null;
+        List<String> changes = dutyAssigner.reassignTeacher(teacher);
+        scheduleSnapshot = dutyAssigner.captureSnapshot(engine);
+        return changes;
+    }
+    
+    /**
+     * Re-indexes an edited teacher without re-solving, so later re-solves, swaps and
+     * coverage proposals use their new timetable
+     * @param teacher the teacher whose schedule or type was edited
+     */
+    public void refreshTeacher(Teacher teacher) {
+        if (dutyAssigner == null) return;
+        resultKey = null;
+        dutyAssigner.refreshTeacher(teacher);
+    }
+    
+    /**
+     * Re-solves only the cells affected by a day whose school day status was edited.
+     * @param day the edited day
+     * @return the changed cells, empty if duties have not been assigned yet
+     */
+    public List<String> reassignDay(Day day) {
+        if (dutyAssigner == null) return new ArrayList<>();
+        resultKey = null;
+        List<String> changes = dutyAssigner.reassignDay(day);
+        scheduleSnapshot = dutyAssigner.captureSnapshot(engine);
+        return changes;
+    }
+    
+    /**
+     * Works out what reassignTeacher would change, on copies of the teachers and calendar.
+     * The live teachers and schedule are left as they are.
+     * @param teacher the teacher to edit
+     * @param edits applies the edits to the teacher's copy
+     * @return the cells that would change, empty if duties have not been assigned yet
+     */
+    public List<String> previewTeacherEdit(Teacher teacher, Consumer<Teacher> edits) {
+        if (dutyAssigner == null) return new ArrayList<>();
+        List<Teacher> teacherCopies = new ArrayList<>(teachers.size());
+        Teacher edited = null;
+        for (Teacher original : teachers) {
+            Teacher copy = original.copy();
+            if (original == teacher) {
+                edits.accept(copy);
+                edited = copy;
+            }
+            teacherCopies.add(copy);
+        }
+        if (edited == null) return new ArrayList<>();
+        return createPreviewAssigner(calendar.copy(), teacherCopies).reassignTeacher(edited);
+    }
+    
+    /**
+     * Works out what reassignDay would change if a day's school day status were set,
+     * on copies of the teachers and calendar. The live day and schedule are left as they are.
+     * @param day the day to edit
+     * @param schoolDay the school day status to try
+     * @return the cells that would change, empty if duties have not been assigned yet
+     */
+    public List<String> previewDayEdit(Day day, boolean schoolDay) {
+        if (dutyAssigner == null) return new ArrayList<>();
+        List<Teacher> teacherCopies = new ArrayList<>(teachers.size());
+        for (Teacher teacher : teachers) {
+            teacherCopies.add(teacher.copy());
+        }
+        Calendar calendarCopy = calendar.copy();
+        DutyAssigner preview = createPreviewAssigner(calendarCopy, teacherCopies);
+        Day dayCopy = calendarCopy.getDay(day.getDate());
+        if (dayCopy == null) return new ArrayList<>();
+        dayCopy.setSchoolDay(schoolDay);
+        return preview.reassignDay(dayCopy);
+    }
+    
+    /**
+     * Creates a quiet assigner over copies of the calendar and teachers, grouped the same way as the live one
+     * @param calendarCopy the copied calendar to solve on
+     * @param teacherCopies the copied teachers to solve with
+     * @return the preview assigner
+     */
+    private DutyAssigner createPreviewAssigner(Calendar calendarCopy, List<Teacher> teacherCopies) {
+        DutyAssigner preview = new DutyAssigner(calendarCopy, teacherCopies);
+        preview.setVerbose(false);
+        preview.groupSchoolDays();
+        return preview;
+    }
+    
+    /**
+     * Proposes replacements for the duties of teachers who are away on a date.
+     * Nothing is changed; the proposals are for someone to apply by hand.
+     * @param date the date of the absence
+     * @param absentTeachers the names of the teachers who are away
+     * @return one proposal per affected duty, empty if duties have not been assigned yet
+     */
+    public List<CoverageProposal> proposeCoverage(LocalDate date, List<String> absentTeachers) {
+        if (dutyAssigner == null) return new ArrayList<>();
+        return dutyAssigner.proposeCoverage(date, absentTeachers);
+    }
+
+    /**
+     * Finds who could take over or trade each duty a teacher holds
+     * @param teacherName the teacher giving up a duty
+     * @return the valid swaps per duty, best load impact first, empty if duties have not been assigned yet
+     */
+    public Map<String, List<SwapOption>> findSwaps(String teacherName) {
+        if (dutyAssigner == null) return new LinkedHashMap<>();
+        return dutyAssigner.findSwaps(teacherName);
+    }
+
+    /**
+     * Gets every duty a teacher holds across the year
+     * @param teacherName the teacher's name
+     * @return the duties with their dates, empty if duties have not been assigned yet
+     */
+    public List<AssignedDuty> getTeacherDuties(String teacherName) {
+        if (dutyAssigner == null) return new ArrayList<>();
+        return dutyAssigner.getTeacherDuties(teacherName);
+    }
+    
     /**
      * Prints the complete duty schedule
      */
     public void printSchedule() {
-        // Define term dates
-        LocalDate[][] termDates = {
-            {LocalDate.of(2024, 9, 3), LocalDate.of(2024, 11, 7)},    // Term 1
-            {LocalDate.of(2024, 11, 8), LocalDate.of(2025, 2, 1)},    // Term 2
-            {LocalDate.of(2025, 2, 2), LocalDate.of(2025, 4, 4)},     // Term 3
-            {LocalDate.of(2025, 4, 5), LocalDate.of(2025, 6, 28)}      // Term 4
-        };
+        SchoolYear year = calendar.getSchoolYear();
+        
         // print the number of days in each term
         System.out.println("Number of days in each term:");
-        System.out.println("Term 1: " + (termDates[0][1].getDayOfYear() - termDates[0][0].getDayOfYear()) + 1);
-        System.out.println("Term 2: " + (termDates[1][1].getDayOfYear() - termDates[1][0].getDayOfYear()) + 1);
-        System.out.println("Term 3: " + (termDates[2][1].getDayOfYear() - termDates[2][0].getDayOfYear()) + 1);
-        System.out.println("Term 4: " + (termDates[3][1].getDayOfYear() - termDates[3][0].getDayOfYear()) + 1);
+        for (int term = 0; term < SchoolYear.TERMS; term++) {
+            long days = ChronoUnit.DAYS.between(year.getTermStart(term), year.getTermEnd(term)) + 1;
+            System.out.println("Term " + (term + 1) + ": " + days);
+        }
         
         String[] termNames = {
             "Term 1 (Fall Term 1)",
@@ -243,7 +780,7 @@ public class GenerateDutyCalendar {
         };
         
         // Print schedule for each term
-        for (int term = 0; term < 4; term++) {
+        for (int term = 0; term < SchoolYear.TERMS; term++) {
             final int currentTerm = term;  // Make term effectively final for lambda
             System.out.println("\n" + termNames[currentTerm] + " Duty Schedule:");
             System.out.println("=".repeat(NUM_OF_SEPERATORS_CHAR));
@@ -259,10 +796,7 @@ public class GenerateDutyCalendar {
                 List<Day> daysForThisWeekday = calendar.getDaysOfYear().stream()
                     .filter(day -> day.getDate().getDayOfWeek().getValue() == currentDayOfWeek)
                     .filter(Day::isSchoolDay)
-                    .filter(day -> {
-                        LocalDate date = day.getDate();
-                        return !date.isBefore(termDates[currentTerm][0]) && !date.isAfter(termDates[currentTerm][1]);
-                    })
+                    .filter(day -> day.getTermNumber() == currentTerm)
                     .toList();
                 
                 if (!daysForThisWeekday.isEmpty()) {
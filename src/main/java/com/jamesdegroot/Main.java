@@ -1,6 +1,7 @@
 package com.jamesdegroot;
 
 import com.jamesdegroot.gui.AppWindow;
+import com.jamesdegroot.io.ScheduleResultCache;
 import com.jamesdegroot.io.TestDataLoader;
 @SuppressWarnings("unused") // commented out method is tested in io/TestDataLoader.java
 /**
@@ -12,17 +13,24 @@ import com.jamesdegroot.io.TestDataLoader;
  *    Main class, used to start the application
  *      
  *  Methods:
- * 	  - main, void, starts the application
+ * 	  - main, void, starts the application (or the headless batch mode when given arguments)
 */
 
 
 public class Main {
     /**
      * Initializes and starts the application.
-     * @param args Command line arguments (not used)
+     * With command line arguments the GUI is skipped entirely and the headless batch mode runs instead,
+     * see BatchMain for the options.
+     * @param args Command line arguments, empty to start the GUI
      */
     public static void main(String[] args) {
+        if (args.length > 0) {
+            System.exit(BatchMain.run(args));
+        }
+        
         GenerateDutyCalendar appLogic = new GenerateDutyCalendar();
+        appLogic.setResultCache(new ScheduleResultCache(ScheduleResultCache.getDefaultDirectory(), ScheduleResultCache.DEFAULT_MAX_BYTES));
         AppWindow window = new AppWindow(appLogic);
         
         // Load test data automatically, must be in src/main/resources with the correct file names found in io/TestDataLoader.java
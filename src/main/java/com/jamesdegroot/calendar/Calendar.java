@@ -3,11 +3,18 @@ package com.jamesdegroot.calendar;
 import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
+import java.time.YearMonth;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Optional;
+import java.util.Set;
 
 import com.jamesdegroot.GenerateDutyCalendar;
 
@@ -23,28 +30,45 @@ import com.jamesdegroot.GenerateDutyCalendar;
  *    - Day 1/Day 2 rotation system
  *    - Teacher duty assignments
  *    
- *    The calendar spans from September 2024 to June 2025, handling both
- *    regular school days and special events/holidays loaded from ICS files.
+ *    The calendar spans a planning horizon of one or more SchoolYears (by default September 2024
+ *    to June 2025), handling both regular school days and special events/holidays loaded from ICS files.
+ *    Every date of the horizon has a school-day bit and a rotation byte; Day objects and their
+ *    duty grids are only built, a term at a time, when the term is scheduled or viewed. One year
+ *    is active: its days are the ones getDaysOfYear returns and the duty engines assign.
  *      
  *  Methods:
  * 	  - loadFromICS, void, loads the calendar from an ICS file
  *    - parseDate, LocalDate, parses a date string into a LocalDate object
- *    - isSchoolDay, boolean, checks if a given date is a school day
+ *    - isSchoolDay, boolean, checks if a given date is a school day (without building its term)
  *    - getEvents, List<Holiday>, returns the list of events
  *    - printSchoolDays, void, prints the school days between two dates
- *    - initializeDaysOfYear, void, initializes the days of the year for 2024
- *    - getDaysOfYear, List<Day>, returns the list of days in the year
+ *    - initializeDaysOfYear, void, works out the school days and rotation of every date of the horizon
+ *    - setSchoolYear, void, sets a one year horizon
+ *    - setSchoolYears, void, sets the school years of the horizon
+ *    - getSchoolYear, SchoolYear, gets the year and term boundaries of the active year
+ *    - getSchoolYears, List<SchoolYear>, gets the school years of the horizon
+ *    - selectYear, void, makes another year of the horizon the active one
+ *    - getActiveYear, int, gets the position of the active year in the horizon
+ *    - getTermNumber, int, gets the term (0-3) of a date
+ *    - getTermDays, List<Day>, gets the days of a term, building them the first time
+ *    - getDay, Day, gets the day of a date, building its term the first time
+ *    - initializeDuties, void, fills a day with unassigned duties for every time slot
+ *    - getDaysOfYear, List<Day>, returns the list of days in the active year
  *    - addHoliday, void, adds a holiday to the calendar
+ *    - linkPatternTemplates, void, points every school day at the shared duties of its (term, pattern)
+ *    - getTeachersOnDuty, List<String>, gets who is on a duty on a date
+ *    - getDutyBoard, DutyBoard, gets who is on every duty for a run of dates
+ *    - getWeekBoard, DutyBoard, gets the duty board for the school week (Monday to Friday) of a date
+ *    - getMonthBoard, DutyBoard, gets the duty board for a month
+ *    - setRotation, void, sets the rotation cycle length and the dates it restarts on
+ *    - applyRotation, void, walks the school days once and numbers them through the rotation cycle
+ *    - getRotationIndex, int, gets a date's place in the rotation cycle
+ *    - getCycleLength, int, gets the number of days in the rotation cycle
+ *    - copy, Calendar, copies the calendar with copies of the days built so far and their duties
 */
 public class Calendar {
-    // School year boundary definitions
+    // School year size, the boundaries themselves come from a SchoolYear
     private static final int DEFAULT_DAYS_IN_YEAR = 365;
-    private static final int SCHOOL_YEAR_START_YEAR = 2024;
-    private static final int SCHOOL_YEAR_START_MONTH = 9;
-    private static final int SCHOOL_YEAR_START_DAY = 3;
-    private static final int SCHOOL_YEAR_END_YEAR = 2025;
-    private static final int SCHOOL_YEAR_END_MONTH = 6;
-    private static final int SCHOOL_YEAR_END_DAY = 28;
     
     // ICS file parsing markers (used for reading calendar events)
     private static final String EVENT_START = "BEGIN:VEVENT";
@@ -62,9 +86,37 @@ public class Calendar {
     private static final String UNASSIGNED_TEXT = "UNASSIGNED";
     private static final String TIME_SLOT_PREFIX = "Slot ";
     
+    // On-duty table layout: one row per day of the year, one column per duty of the day
+    public static final int DUTIES_PER_DAY = Day.TIME_SLOTS * Day.DUTIES_PER_SLOT;
+    private static final int SCHOOL_WEEK_DAYS = 5;
+    
+    // Day 1 / Day 2 rotation
+    public static final int DEFAULT_CYCLE_LENGTH = 2;
+    public static final int MAX_CYCLE_LENGTH = Byte.MAX_VALUE;
+    private static final byte NO_ROTATION = -1; // dates between school years
+    
+    // Planning horizon
+    public static final int MAX_PLANNING_YEARS = 10;
+    private static final int SATURDAY = DayOfWeek.SATURDAY.getValue();
+    
     // Core data structures: holidays/events and daily schedules
     private List<Holiday> events;
-    private List<Day> daysOfYear = new ArrayList<>(DEFAULT_DAYS_IN_YEAR); 
+    private List<SchoolYear> schoolYears = List.of(SchoolYear.defaultYear());
+    private int activeYear;
+    private List<Day>[] termDays = newTermTable(0);  // [year * SchoolYear.TERMS + term], null until the term is scheduled or viewed
+    private volatile List<Day> daysOfYear;           // the active year's terms joined, null until first asked for
+    
+    // Every date of the horizon, [epochDay - horizonStartEpochDay]; what a term's days are built from
+    private long horizonStartEpochDay;
+    private BitSet schoolDayFlags = new BitSet();    // set for school days
+    private byte[] rotationIndexes = new byte[0];    // advanced on school days only, NO_ROTATION between years
+    
+    // Date to assigned teachers, [(epochDay - firstEpochDay) * DUTIES_PER_DAY + duty]; null until duties are grouped
+    private volatile List<String>[] onDutyTable;
+    private long firstEpochDay;                      // first day of the active year
+    
+    private int cycleLength = DEFAULT_CYCLE_LENGTH;
+    private Set<LocalDate> rotationResets = new HashSet<>();
 
     public Calendar() {
         this.events = new ArrayList<>();
@@ -131,12 +183,18 @@ public class Calendar {
      * @param date the date to check
      * @return true if the date is a school day, false otherwise
      */
-    public boolean isSchoolDay(LocalDate date) {
-        return daysOfYear.stream()
-            .filter(d -> d.getDate().equals(date))
-            .findFirst()
-            .map(Day::isSchoolDay)
-            .orElse(false);
+    public synchronized boolean isSchoolDay(LocalDate date) {
+        int year = indexOfYear(date);
+        if (year < 0 || termDays.length == 0) return false;
+        
+        // A built day may have been edited since, so it wins over the flag
+        SchoolYear schoolYear = schoolYears.get(year);
+        int term = schoolYear.getTerm(date);
+        List<Day> days = termDays[year * SchoolYear.TERMS + term];
+        if (days != null) {
+            return days.get((int) (date.toEpochDay() - schoolYear.getTermStart(term).toEpochDay())).isSchoolDay();
+        }
+        return schoolDayFlags.get(row(date));
     }
 
     /**
@@ -158,13 +216,8 @@ public class Calendar {
         
         LocalDate current = startDate;
         while (!current.isAfter(endDate)) {
-            final LocalDate date = current;
-            Optional<Day> dayOpt = daysOfYear.stream()
-                .filter(d -> d.getDate().equals(date))
-                .findFirst();
-                
-            if (dayOpt.isPresent()) {
-                Day day = dayOpt.get();
+            Day day = getDay(current);
+            if (day != null) {
                 if (day.isSchoolDay()) {
                     System.out.println("\n" + day.getDate().format(
                         DateTimeFormatter.ofPattern(DISPLAY_DATE_FORMAT)));
@@ -192,78 +245,366 @@ public class Calendar {
     }
 
     /**
-     * Sets up the entire school year calendar by:
-     * 1. Creating Day objects for each day from Sept 2024 to June 2025
-     * 2. Marking weekends and holidays as non-school days
-     * 3. Initializing duty slots for each school day
-     * 4. Tracking school days per month for scheduling purposes
+     * Sets up the planning horizon by:
+     * 1. Marking the weekdays of each school year as school days, in one bit per date
+     * 2. Clearing the dates covered by holidays and events
+     * 3. Numbering the school days through the rotation cycle
+     * The Day objects (with their duty slots) are built a term at a time on first use,
+     * see getTermDays; days built before are dropped.
      */
-    public void initializeDaysOfYear() {
-        LocalDate startDate = LocalDate.of(SCHOOL_YEAR_START_YEAR, SCHOOL_YEAR_START_MONTH, SCHOOL_YEAR_START_DAY);
-        LocalDate endDate = LocalDate.of(SCHOOL_YEAR_END_YEAR, SCHOOL_YEAR_END_MONTH, SCHOOL_YEAR_END_DAY);
+    public synchronized void initializeDaysOfYear() {
+        horizonStartEpochDay = schoolYears.get(0).getStartDate().toEpochDay();
+        int horizonDays = (int) (schoolYears.get(schoolYears.size() - 1).getEndDate().toEpochDay() - horizonStartEpochDay + 1);
         
-        // Track school days vs total days per month for scheduling
-        int[] schoolDaysByMonth = new int[12];  // Index 0 = January, 11 = December
-        int[] totalDaysByMonth = new int[12];   
+        // Weekdays inside a school year are school days...
+        BitSet flags = new BitSet(horizonDays);
+        for (SchoolYear schoolYear : schoolYears) {
+            for (LocalDate date = schoolYear.getStartDate(); !date.isAfter(schoolYear.getEndDate()); date = date.plusDays(1)) {
+                if (date.getDayOfWeek().getValue() < SATURDAY) {
+                    flags.set(row(date));
+                }
+            }
+        }
+        // ...unless an event covers them. Note: End date in ICS is exclusive
+        for (Holiday event : events) {
+            if (event.getStartDate() == null) continue;
+            long eventStart = event.getStartDate().toEpochDay();
+            long eventEnd = event.getEndDate() != null ? Math.max(event.getEndDate().toEpochDay(), eventStart + 1) : eventStart + 1;
+            long from = Math.max(eventStart - horizonStartEpochDay, 0);
+            long to = Math.min(eventEnd - horizonStartEpochDay, horizonDays);
+            if (from < to) {
+                flags.clear((int) from, (int) to);
+            }
+        }
         
-        LocalDate currentDate = startDate;
-        while (!currentDate.isAfter(endDate)) {
-            Day day = new Day(currentDate);
-            
-            // Count total days
-            totalDaysByMonth[currentDate.getMonthValue() - 1]++;
-            
-            // Determine if it's a school day (not weekend or holiday)
-            boolean isSchoolDay = true;
-            if (currentDate.getDayOfWeek().getValue() >= 6) {
-                isSchoolDay = false;
+        schoolDayFlags = flags;
+        rotationIndexes = new byte[horizonDays];
+        termDays = newTermTable(schoolYears.size() * SchoolYear.TERMS);
+        daysOfYear = null;
+        onDutyTable = null;
+        firstEpochDay = getSchoolYear().getStartDate().toEpochDay();
+        applyRotation();
+    }
+
+    /**
+     * Sets a one year horizon; takes effect the next time the days are built
+     * @param schoolYear the school year, null for the built-in one
+     */
+    public void setSchoolYear(SchoolYear schoolYear) {
+        setSchoolYears(List.of(schoolYear != null ? schoolYear : SchoolYear.defaultYear()));
+    }
+
+    /**
+     * Sets the school years of the horizon and makes the first one active; takes effect the
+     * next time the days are built. The days built so far are dropped.
+     * @param years the school years, in order and not overlapping, at most MAX_PLANNING_YEARS
+     */
+    public synchronized void setSchoolYears(List<SchoolYear> years) {
+        if (years == null || years.isEmpty() || years.size() > MAX_PLANNING_YEARS) {
+            System.err.println("Error: a calendar needs 1 to " + MAX_PLANNING_YEARS + " school years");
+            return;
+        }
+        for (int year = 1; year < years.size(); year++) {
+            if (!years.get(year).getStartDate().isAfter(years.get(year - 1).getEndDate())) {
+                System.err.println("Error: school year " + years.get(year) + " overlaps the year before it");
+                return;
             }
-            for (Holiday event : events) {
-                // Note: End date in ICS is exclusive
-                if (currentDate.equals(event.getStartDate()) || 
-                    (currentDate.isAfter(event.getStartDate()) && 
-                     currentDate.isBefore(event.getEndDate()))) {
-                    isSchoolDay = false;
-                    break;
+        }
+        schoolYears = List.copyOf(years);
+        activeYear = 0;
+        termDays = newTermTable(0);
+        schoolDayFlags = new BitSet();
+        rotationIndexes = new byte[0];
+        daysOfYear = null;
+        onDutyTable = null;
+    }
+
+    /**
+     * Gets the year and term boundaries of the active year
+     * @return the active school year
+     */
+    public SchoolYear getSchoolYear() {
+        return schoolYears.get(activeYear);
+    }
+
+    public List<SchoolYear> getSchoolYears() {
+        return schoolYears;
+    }
+
+    /**
+     * Makes another year of the horizon the active one, the one getDaysOfYear returns and the
+     * engines assign. Days already built for either year are kept with their duties.
+     * @param year the year's position in the horizon, 0 for the first
+     */
+    public synchronized void selectYear(int year) {
+        if (year < 0 || year >= schoolYears.size()) {
+            System.err.println("Error: school year must be 1 to " + schoolYears.size() + ", got " + (year + 1));
+            return;
+        }
+        activeYear = year;
+        daysOfYear = null;
+        onDutyTable = null;
+        firstEpochDay = getSchoolYear().getStartDate().toEpochDay();
+    }
+
+    public int getActiveYear() {
+        return activeYear;
+    }
+
+    /**
+     * Gets the term of a date from its school year's lookup table
+     * @param date the date
+     * @return the term (0-3); dates outside the horizon use the active year's
+     */
+    public int getTermNumber(LocalDate date) {
+        int year = indexOfYear(date);
+        return (year >= 0 ? schoolYears.get(year) : getSchoolYear()).getTerm(date);
+    }
+
+    /**
+     * Gets the days of a term, building them (and the duty slots of their school days) from
+     * the school-day and rotation arrays the first time the term is asked for
+     * @param year the year's position in the horizon
+     * @param term the term (0-3)
+     * @return the days in date order, empty if the term is not in the horizon or the days have not been initialized
+     */
+    public synchronized List<Day> getTermDays(int year, int term) {
+        if (year < 0 || year >= schoolYears.size() || term < 0 || term >= SchoolYear.TERMS || termDays.length == 0) {
+            return Collections.emptyList();
+        }
+        List<Day> days = termDays[year * SchoolYear.TERMS + term];
+        if (days == null) {
+            days = buildTermDays(schoolYears.get(year), term);
+            termDays[year * SchoolYear.TERMS + term] = days;
+        }
+        return days;
+    }
+
+    /**
+     * Gets the day of a date, building its term the first time
+     * @param date the date
+     * @return the day, or null if the date is not in a school year of the horizon
+     */
+    public Day getDay(LocalDate date) {
+        int year = indexOfYear(date);
+        if (year < 0) return null;
+        SchoolYear schoolYear = schoolYears.get(year);
+        int term = schoolYear.getTerm(date);
+        List<Day> days = getTermDays(year, term);
+        return days.isEmpty() ? null : days.get((int) (date.toEpochDay() - schoolYear.getTermStart(term).toEpochDay()));
+    }
+
+    /**
+     * Sets the rotation cycle length and the dates it restarts on, and renumbers the days if the year is built
+     * @param cycleLength days in the cycle (2 for Day 1 / Day 2), 1 to MAX_CYCLE_LENGTH
+     * @param resetDates dates after which the next school day is Day 1 again (e.g. the start of a semester)
+     */
+    public void setRotation(int cycleLength, Collection<LocalDate> resetDates) {
+        if (cycleLength < 1 || cycleLength > MAX_CYCLE_LENGTH) {
+            System.err.println("Error: rotation cycle length must be 1 to " + MAX_CYCLE_LENGTH + ", got " + cycleLength);
+            return;
+        }
+        this.cycleLength = cycleLength;
+        this.rotationResets = new HashSet<>(resetDates);
+        applyRotation();
+    }
+
+    /**
+     * Walks the dates of the horizon once and numbers the school days through the rotation cycle.
+     * The cycle only moves on school days, so weekends, holidays and month ends do not shift it.
+     * A day off keeps the number the next school day will get. It restarts at Day 1 at the start
+     * of each school year and on the first school day on or after each reset date.
+     * Built days count as school days by their own flag, so days turned into or out of school
+     * days later keep their numbers (see DutyAssigner.reassignDay) until applyRotation runs again.
+     */
+    public synchronized void applyRotation() {
+        if (termDays.length == 0) return;
+        Arrays.fill(rotationIndexes, NO_ROTATION);
+        for (int year = 0; year < schoolYears.size(); year++) {
+            SchoolYear schoolYear = schoolYears.get(year);
+            int next = 0;
+            for (int term = 0; term < SchoolYear.TERMS; term++) {
+                List<Day> days = termDays[year * SchoolYear.TERMS + term];
+                LocalDate date = schoolYear.getTermStart(term);
+                for (int i = 0; !date.isAfter(schoolYear.getTermEnd(term)); i++, date = date.plusDays(1)) {
+                    if (rotationResets.contains(date)) {
+                        next = 0;
+                    }
+                    int row = row(date);
+                    rotationIndexes[row] = (byte) next;
+                    boolean schoolDay = schoolDayFlags.get(row);
+                    if (days != null) {
+                        days.get(i).setRotationIndex(next);
+                        schoolDay = days.get(i).isSchoolDay();
+                    }
+                    if (schoolDay) {
+                        next = (next + 1) % cycleLength;
+                    }
                 }
             }
-            day.setSchoolDay(isSchoolDay);
-            
-            // Count school days
-            if (isSchoolDay) {
-                schoolDaysByMonth[currentDate.getMonthValue() - 1]++;
+        }
+    }
+
+    /**
+     * Gets a date's place in the rotation cycle
+     * @param date the date
+     * @return 0 for Day 1, 1 for Day 2, ...; -1 if the date is not in a school year of the calendar
+     */
+    public int getRotationIndex(LocalDate date) {
+        long row = date.toEpochDay() - horizonStartEpochDay;
+        return row < 0 || row >= rotationIndexes.length ? -1 : rotationIndexes[(int) row];
+    }
+
+    public int getCycleLength() {
+        return cycleLength;
+    }
+
+    /**
+     * Fills every time slot of a day with a fresh, unassigned duty.
+     * Used when a term is built and when a day is turned into a school day afterwards.
+     * @param day the day to fill with duties
+     */
+    public void initializeDuties(Day day) {
+        for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
+            for (int position = 0; position < Day.DUTIES_PER_SLOT; position++) {
+                int dutyIndex = (timeSlot * Day.DUTIES_PER_SLOT) + position;
+                String dutyName = dutyIndex < Duty.DUTY_NAMES.length ? 
+                    Duty.DUTY_NAMES[dutyIndex] : "Duty " + (dutyIndex + 1);
+                
+                Duty duty = new Duty(
+                    dutyName,
+                    "",  // No description needed
+                    "Various",  // room
+                    String.format(TIME_SLOT_PREFIX + "%d", timeSlot + 1)
+                );
+                day.addDuty(timeSlot, position, duty);
             }
-            
-            // Initialize duties if it's a school day
-            if (isSchoolDay) {
-                for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
-                    for (int position = 0; position < Day.DUTIES_PER_SLOT; position++) {
-                        int dutyIndex = (timeSlot * Day.DUTIES_PER_SLOT) + position;
-                        String dutyName = dutyIndex < Duty.DUTY_NAMES.length ? 
-                            Duty.DUTY_NAMES[dutyIndex] : "Duty " + (dutyIndex + 1);
-                        
-                        Duty duty = new Duty(
-                            dutyName,
-                            "",  // No description needed
-                            "Various",  // room
-                            String.format(TIME_SLOT_PREFIX + "%d", timeSlot + 1)
-                        );
-                        day.addDuty(timeSlot, position, duty);
+        }
+    }
+
+    /**
+     * Gets the list of days in the active year, building its terms the first time
+     * @return List of Day objects, empty until the days are initialized
+     */
+    public List<Day> getDaysOfYear() {
+        List<Day> days = daysOfYear;
+        if (days == null) {
+            synchronized (this) {
+                if (daysOfYear == null) {
+                    List<Day> joined = new ArrayList<>(DEFAULT_DAYS_IN_YEAR);
+                    for (int term = 0; term < SchoolYear.TERMS; term++) {
+                        joined.addAll(getTermDays(activeYear, term));
                     }
+                    daysOfYear = joined;
                 }
+                days = daysOfYear;
             }
-            
-            daysOfYear.add(day);
-            currentDate = currentDate.plusDays(1);
         }
+        return days;
     }
 
     /**
-     * Gets the list of days in the year
-     * @return List of Day objects
+     * Points every school day at the shared duties of its (term, pattern), so who is on duty
+     * on a date is one array read instead of a search for the template day.
+     * The assigner calls this whenever it groups the days or a group's first day changes;
+     * the teacher lists themselves are shared, so assignments made later show up without a relink.
+     * @param patternGroups the (term, pattern) groups of days, each sorted by date so its first day holds the duties
      */
-    public List<Day> getDaysOfYear() {
-        return daysOfYear;
+    public void linkPatternTemplates(Collection<List<Day>> patternGroups) {
+        List<Day> daysOfYear = getDaysOfYear();
+        if (daysOfYear.isEmpty()) return;
+        firstEpochDay = daysOfYear.get(0).getDate().toEpochDay();
+        @SuppressWarnings({"unchecked", "rawtypes"}) // generic array of the shared teacher lists
+        List<String>[] table = new List[daysOfYear.size() * DUTIES_PER_DAY];
+        
+        for (List<Day> group : patternGroups) {
+            if (group == null || group.isEmpty()) continue;
+            Day template = group.get(0);
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            List<String>[] shared = new List[DUTIES_PER_DAY];
+            Duty[][] duties = template.getDutySchedule();
+            for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
+                for (int position = 0; position < Day.DUTIES_PER_SLOT; position++) {
+                    Duty duty = duties[timeSlot][position];
+                    if (duty == null) continue;
+                    shared[timeSlot * Day.DUTIES_PER_SLOT + position] = Collections.unmodifiableList(
+                        template.isDay1() ? duty.getDay1Teachers() : duty.getDay2Teachers());
+                }
+            }
+            for (Day day : group) {
+                long row = day.getDate().toEpochDay() - firstEpochDay;
+                if (row < 0 || row >= daysOfYear.size()) continue;
+                System.arraycopy(shared, 0, table, (int) row * DUTIES_PER_DAY, DUTIES_PER_DAY);
+            }
+        }
+        onDutyTable = table;
+    }
+
+    /**
+     * Gets who is on a duty on a date
+     * @param date the date
+     * @param dutyIndex the duty's position in the day's schedule (0-10, as Duty.DUTY_NAMES)
+     * @return the teachers (read only, shared by every day of the pattern); empty if there is no duty or duties have not been grouped
+     */
+    public List<String> getTeachersOnDuty(LocalDate date, int dutyIndex) {
+        List<String>[] table = onDutyTable;
+        long row = date.toEpochDay() - firstEpochDay;
+        if (table == null || row < 0 || row >= table.length / DUTIES_PER_DAY || dutyIndex < 0 || dutyIndex >= DUTIES_PER_DAY) {
+            return Collections.emptyList();
+        }
+        List<String> teachers = table[(int) row * DUTIES_PER_DAY + dutyIndex];
+        return teachers != null ? teachers : Collections.emptyList();
+    }
+
+    /**
+     * Gets who is on a duty on a date, by the duty's name
+     * @param date the date
+     * @param dutyName the duty's name, e.g. "[Lun B] Cafeteria"
+     * @return the teachers; empty if there is no such duty then
+     */
+    public List<String> getTeachersOnDuty(LocalDate date, String dutyName) {
+        return getTeachersOnDuty(date, Arrays.asList(Duty.DUTY_NAMES).indexOf(dutyName));
+    }
+
+    /**
+     * Gets who is on every duty for a run of dates, copied out of the on-duty table in one go
+     * @param startDate the first date
+     * @param days how many dates
+     * @return the board; dates outside the calendar have no duties
+     */
+    public DutyBoard getDutyBoard(LocalDate startDate, int days) {
+        List<String>[] table = onDutyTable;
+        @SuppressWarnings({"unchecked", "rawtypes"}) // generic array of the shared teacher lists
+        List<String>[] cells = new List[Math.max(days, 0) * DUTIES_PER_DAY];
+        if (table != null && days > 0) {
+            // Only the part of the run inside the calendar is copied, the rest stays empty
+            long from = Math.max(startDate.toEpochDay() - firstEpochDay, 0);
+            long to = Math.min(startDate.toEpochDay() - firstEpochDay + days, table.length / DUTIES_PER_DAY);
+            if (from < to) {
+                long offset = from - (startDate.toEpochDay() - firstEpochDay);
+                System.arraycopy(table, (int) from * DUTIES_PER_DAY, cells, (int) offset * DUTIES_PER_DAY,
+                    (int) (to - from) * DUTIES_PER_DAY);
+            }
+        }
+        return new DutyBoard(startDate, Math.max(days, 0), cells);
+    }
+
+    /**
+     * Gets the duty board for the school week (Monday to Friday) of a date
+     * @param date any date in the week
+     * @return the board
+     */
+    public DutyBoard getWeekBoard(LocalDate date) {
+        return getDutyBoard(date.minusDays(date.getDayOfWeek().getValue() - DayOfWeek.MONDAY.getValue()), SCHOOL_WEEK_DAYS);
+    }
+
+    /**
+     * Gets the duty board for a month
+     * @param month the month
+     * @return the board, one row per day of the month
+     */
+    public DutyBoard getMonthBoard(YearMonth month) {
+        return getDutyBoard(month.atDay(1), month.lengthOfMonth());
     }
 
     /**
@@ -275,4 +616,80 @@ public class Calendar {
             events.add(event);
         }
     }
-}
+
+    /**
+     * Copies the calendar with copies of the days built so far and their duties, so a what-if
+     * can be solved on the copy without touching this calendar. Days not built yet are built
+     * from the same school-day and rotation arrays when the copy first needs them.
+     * @return the copy, with the same active year
+     */
+    public synchronized Calendar copy() {
+        Calendar copy = new Calendar();
+        copy.events = new ArrayList<>(events);
+        copy.schoolYears = schoolYears;
+        copy.activeYear = activeYear;
+        copy.horizonStartEpochDay = horizonStartEpochDay;
+        copy.schoolDayFlags = (BitSet) schoolDayFlags.clone();
+        copy.rotationIndexes = rotationIndexes.clone();
+        copy.firstEpochDay = firstEpochDay;
+        copy.cycleLength = cycleLength;
+        copy.rotationResets = new HashSet<>(rotationResets);
+        copy.termDays = newTermTable(termDays.length);
+        for (int i = 0; i < termDays.length; i++) {
+            if (termDays[i] == null) continue;
+            List<Day> days = new ArrayList<>(termDays[i].size());
+            for (Day day : termDays[i]) {
+                days.add(day.copy());
+            }
+            copy.termDays[i] = days;
+        }
+        return copy;
+    }
+
+    /**
+     * Builds the days of a term from the school-day and rotation arrays
+     * @param schoolYear the term's school year
+     * @param term the term (0-3)
+     * @return the days, school days filled with unassigned duties
+     */
+    private List<Day> buildTermDays(SchoolYear schoolYear, int term) {
+        LocalDate end = schoolYear.getTermEnd(term);
+        List<Day> days = new ArrayList<>((int) (end.toEpochDay() - schoolYear.getTermStart(term).toEpochDay() + 1));
+        for (LocalDate date = schoolYear.getTermStart(term); !date.isAfter(end); date = date.plusDays(1)) {
+            int row = row(date);
+            Day day = new Day(date);
+            day.setTermNumber(term);
+            day.setSchoolDay(schoolDayFlags.get(row));
+            day.setRotationIndex(rotationIndexes[row]);
+            if (day.isSchoolDay()) {
+                initializeDuties(day);
+            }
+            days.add(day);
+        }
+        return days;
+    }
+
+    /**
+     * Finds the school year of the horizon a date falls in
+     * @param date the date
+     * @return the year's position, or -1 if the date is in none
+     */
+    private int indexOfYear(LocalDate date) {
+        for (int year = 0; year < schoolYears.size(); year++) {
+            SchoolYear schoolYear = schoolYears.get(year);
+            if (!date.isBefore(schoolYear.getStartDate()) && !date.isAfter(schoolYear.getEndDate())) {
+                return year;
+            }
+        }
+        return -1;
+    }
+
+    private int row(LocalDate date) {
+        return (int) (date.toEpochDay() - horizonStartEpochDay);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"}) // generic array of term day lists
+    private static List<Day>[] newTermTable(int size) {
+        return new List[size];
+    }
+}
\ No newline at end of file
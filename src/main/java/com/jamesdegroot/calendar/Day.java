@@ -1,7 +1,6 @@
 package com.jamesdegroot.calendar;
 
 import java.time.LocalDate;
-import java.time.Month;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -24,18 +23,26 @@ import java.util.List;
  *    - isSchoolDay, boolean, checks if the day is a school day
  *    - isHoliday, boolean, checks if the day is a holiday
  *    - isDay1, boolean, checks if the day is a Day 1 in the schedule rotation
+ *    - getRotationDay, int, gets the day of the rotation cycle (1 for Day 1, 2 for Day 2, ...)
+ *    - setRotationIndex, void, sets the day's place in the rotation cycle (set by the Calendar)
  *    - getTermNumber, int, gets the term number for the day
+ *    - setTermNumber, void, sets the term number (set by the Calendar)
+ *    - copy, Day, copies the day with copies of its duties and their teachers
  *    - toString, String, returns a string representation of the day
 */
 
 public class Day {
     public static final int TIME_SLOTS = 11;  // Number of duty time slots (maybe 11)
     public static final int DUTIES_PER_SLOT = 1;  // Number of duties per time slot - easily changeable
+    private static final int NO_ROTATION = -1;     // the day is not part of a calendar's rotation
+    private static final int NO_TERM = -1;         // the day is not part of a calendar's school year
     
     private LocalDate date;
     private Duty[][] dutySchedule; // 2D array [timeSlot][dutyPosition]
     private boolean isSchoolDay;
     private boolean isHoliday;
+    private int rotationIndex = NO_ROTATION; // 0 for Day 1, 1 for Day 2, ...
+    private int termNumber = NO_TERM;
 
     /**
      * Constructs a new Day object.
@@ -142,7 +149,27 @@ public class Day {
      * @return true if Day 1, false if Day 2
      */
     public boolean isDay1() {
-        return com.jamesdegroot.duty_assigment.DutyAssignmentRules.isDay1(date);
+        if (rotationIndex == NO_ROTATION) {
+            return com.jamesdegroot.duty_assigment.DutyAssignmentRules.isDay1(date);
+        }
+        return rotationIndex % 2 == 0; // only two timetables, so Day 3 uses Day 1's, Day 4 Day 2's...
+    }
+
+    /**
+     * Gets the day of the rotation cycle
+     * @return 1 for Day 1, 2 for Day 2, ...; from the date alone if the day is not in a calendar
+     */
+    public int getRotationDay() {
+        if (rotationIndex == NO_ROTATION) return isDay1() ? 1 : 2;
+        return rotationIndex + 1;
+    }
+
+    /**
+     * Sets the day's place in the rotation cycle, worked out once by the Calendar
+     * @param rotationIndex 0 for Day 1, 1 for Day 2, ...
+     */
+    void setRotationIndex(int rotationIndex) {
+        this.rotationIndex = rotationIndex;
     }
 
     /**
@@ -150,20 +177,34 @@ public class Day {
      * @return term number (0 for Term 1, 1 for Term 2, etc)
      */
     public int getTermNumber() {
-        LocalDate term1Start = LocalDate.of(2024, Month.SEPTEMBER, 3);
-        LocalDate term2Start = LocalDate.of(2024, Month.NOVEMBER, 7);
-        LocalDate term3Start = LocalDate.of(2025, Month.FEBRUARY, 1);
-        LocalDate term4Start = LocalDate.of(2025, Month.APRIL, 8);
-        LocalDate term4End   = LocalDate.of(2025, Month.JUNE, 28);
-        
-        if (date.isBefore(term1Start) || date.isAfter(term4End)) {
-            return 3; // Default to Term 4 if outside school year
+        return termNumber != NO_TERM ? termNumber : SchoolYear.defaultYear().getTerm(date);
+    }
+
+    /**
+     * Sets the term number, looked up once by the Calendar from its SchoolYear
+     * @param termNumber term number (0-3)
+     */
+    void setTermNumber(int termNumber) {
+        this.termNumber = termNumber;
+    }
+
+    /**
+     * Copies the day with copies of its duties and their teachers, e.g. for a calendar copy
+     * @return the copy
+     */
+    public Day copy() {
+        Day copy = new Day(date);
+        copy.isSchoolDay = isSchoolDay;
+        copy.isHoliday = isHoliday;
+        copy.rotationIndex = rotationIndex;
+        copy.termNumber = termNumber;
+        for (int timeSlot = 0; timeSlot < TIME_SLOTS; timeSlot++) {
+            for (int position = 0; position < DUTIES_PER_SLOT; position++) {
+                Duty duty = dutySchedule[timeSlot][position];
+                copy.dutySchedule[timeSlot][position] = duty != null ? duty.copy() : null;
+            }
         }
-        
-        if (date.isBefore(term2Start)) return 0;
-        if (date.isBefore(term3Start)) return 1;
-        if (date.isBefore(term4Start)) return 2;
-        return 3;
+        return copy;
     }
 
     /**
@@ -22,6 +22,7 @@ import java.util.List;
  *    - getTimeSlot, String, gets the time slot of the duty
  *    - setName, void, sets the name of the duty
  *    - setDescription, void, sets the description of the duty
+ *    - copy, Duty, copies the duty and its teacher lists
 */
 public class Duty {
     
@@ -149,4 +150,15 @@ public class Duty {
     public void setTimeSlot(String time) {
         this.timeSlot = time;
     }   
+
+    /**
+     * Copies the duty and its teacher lists, so the copy can be assigned without changing this duty
+     * @return the copy
+     */
+    public Duty copy() {
+        Duty copy = new Duty(name, description, room, timeSlot);
+        copy.day1Teachers.addAll(day1Teachers);
+        copy.day2Teachers.addAll(day2Teachers);
+        return copy;
+    }
 }
@@ -0,0 +1,97 @@
+package com.jamesdegroot.calendar;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * DutyBoard.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    DutyBoard class, who is on every duty for a run of consecutive dates (a week or a month).
+ *    It is one bulk copy of the calendar's on-duty table, so each cell is the shared teacher
+ *    list of the date's (term, pattern) and shows later changes to the schedule; the dates
+ *    and duties on the board are fixed when it is made.
+ *
+ *  Methods:
+ * 	  - getStartDate, LocalDate, gets the first date on the board
+ *    - getDayCount, int, gets how many dates the board covers
+ *    - getDate, LocalDate, gets the date of a row
+ *    - getTeachers, List<String>, gets the teachers on a duty on a row of the board
+ *    - getTeachers, List<String>, gets the teachers on a duty on a date of the board
+ *    - hasDuties, boolean, checks if a row has duties (a school day in an assigned schedule)
+ *    - toString, String, formats the board as one line per school day
+ *
+*/
+
+public final class DutyBoard {
+    private static final String EMPTY_CELL_TEXT = "-";
+    private static final String CELL_SEPARATOR = " | ";
+
+    private final LocalDate startDate;
+    private final int dayCount;
+    private final List<String>[] cells; // [day * Calendar.DUTIES_PER_DAY + duty], null when there is no duty
+
+    DutyBoard(LocalDate startDate, int dayCount, List<String>[] cells) {
+        this.startDate = startDate;
+        this.dayCount = dayCount;
+        this.cells = cells;
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public int getDayCount() {
+        return dayCount;
+    }
+
+    public LocalDate getDate(int day) {
+        return startDate.plusDays(day);
+    }
+
+    /**
+     * Gets the teachers on a duty on a row of the board
+     * @param day the row, 0 for the start date
+     * @param dutyIndex the duty's position in the day's schedule (0-10, as Duty.DUTY_NAMES)
+     * @return the teachers, empty if there is no duty then
+     */
+    public List<String> getTeachers(int day, int dutyIndex) {
+        if (day < 0 || day >= dayCount || dutyIndex < 0 || dutyIndex >= Calendar.DUTIES_PER_DAY) return Collections.emptyList();
+        List<String> teachers = cells[day * Calendar.DUTIES_PER_DAY + dutyIndex];
+        return teachers != null ? teachers : Collections.emptyList();
+    }
+
+    /**
+     * Gets the teachers on a duty on a date of the board
+     * @param date the date
+     * @param dutyIndex the duty's position in the day's schedule (0-10, as Duty.DUTY_NAMES)
+     * @return the teachers, empty if the date is not on the board or there is no duty then
+     */
+    public List<String> getTeachers(LocalDate date, int dutyIndex) {
+        long day = ChronoUnit.DAYS.between(startDate, date);
+        return day < 0 || day >= dayCount ? Collections.emptyList() : getTeachers((int) day, dutyIndex);
+    }
+
+    public boolean hasDuties(int day) {
+        return day >= 0 && day < dayCount && cells[day * Calendar.DUTIES_PER_DAY] != null;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder text = new StringBuilder();
+        for (int day = 0; day < dayCount; day++) {
+            if (!hasDuties(day)) continue;
+            text.append(getDate(day));
+            for (int duty = 0; duty < Calendar.DUTIES_PER_DAY; duty++) {
+                List<String> teachers = getTeachers(day, duty);
+                text.append(CELL_SEPARATOR).append(teachers.isEmpty() ? EMPTY_CELL_TEXT : String.join(", ", teachers));
+            }
+            text.append('\n');
+        }
+        return text.toString();
+    }
+}
@@ -0,0 +1,218 @@
+package com.jamesdegroot.calendar;
+
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * SchoolYear.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    SchoolYear class, the first and last day of a school year and the start of each of its four terms.
+ *    The boundaries come from a config file, from the ICS events, or from the built-in 2024-2025
+ *    year. They are compiled once into a byte per day (epoch day to term), so looking up a date's
+ *    term is one array read with no allocation. Terms 1 and 2 make up semester 1, terms 3 and 4 semester 2.
+ *
+ *    Config file (java.util.Properties, ISO dates):
+ *      year.start=2024-09-03
+ *      year.end=2025-06-28
+ *      term2.start=2024-11-07
+ *      term3.start=2025-02-01
+ *      term4.start=2025-04-08
+ *
+ *  Methods:
+ * 	  - of, SchoolYear, builds a school year from its boundaries
+ *    - defaultYear, SchoolYear, gets the built-in 2024-2025 school year
+ *    - load, SchoolYear, reads a school year from a config file
+ *    - withEvents, SchoolYear, moves the boundaries the ICS events name (first day, semester 2, last day)
+ *    - plusYears, SchoolYear, gets the same year shifted by whole years, for a planning horizon
+ *    - getTerm, int, gets the term (0-3) of a date
+ *    - getStartDate, LocalDate, gets the first day of the year
+ *    - getEndDate, LocalDate, gets the last day of the year
+ *    - getTermStart, LocalDate, gets the first day of a term
+ *    - getTermEnd, LocalDate, gets the last day of a term
+ *
+*/
+
+public final class SchoolYear {
+    public static final int TERMS = 4;
+    private static final int SEMESTER_2_TERM = 2;
+
+    // Config file keys
+    private static final String YEAR_START_KEY = "year.start";
+    private static final String YEAR_END_KEY = "year.end";
+    private static final String TERM_START_KEY_FORMAT = "term%d.start";
+
+    // ICS event summaries that name a boundary
+    private static final String FIRST_DAY_EVENT = "First Day of School";
+    private static final String SEMESTER_2_EVENT = "First Day of Semester 2";
+    private static final String LAST_DAY_EVENT = "Last Day of School";
+    private static final int EVENT_WINDOW_MONTHS = 2; // events this close to the year count for it, so a multi-year ICS splits by year
+
+    // Built-in 2024-2025 school year
+    private static final SchoolYear DEFAULT_YEAR = of(LocalDate.of(2024, 9, 3), LocalDate.of(2025, 6, 28),
+        LocalDate.of(2024, 11, 7), LocalDate.of(2025, 2, 1), LocalDate.of(2025, 4, 8));
+
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final LocalDate[] termStarts;
+    private final long firstEpochDay;
+    private final byte[] termByDay; // [epochDay - firstEpochDay], term of every day of the year
+
+    private SchoolYear(LocalDate startDate, LocalDate endDate, LocalDate[] termStarts) {
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.termStarts = termStarts;
+        this.firstEpochDay = startDate.toEpochDay();
+        this.termByDay = new byte[(int) (endDate.toEpochDay() - firstEpochDay + 1)];
+        for (int term = 0; term < TERMS; term++) {
+            int from = (int) (termStarts[term].toEpochDay() - firstEpochDay);
+            int to = term + 1 < TERMS ? (int) (termStarts[term + 1].toEpochDay() - firstEpochDay) : termByDay.length;
+            for (int day = from; day < to; day++) {
+                termByDay[day] = (byte) term;
+            }
+        }
+    }
+
+    /**
+     * Builds a school year from its boundaries
+     * @param startDate the first day of the year (and of term 1)
+     * @param endDate the last day of the year
+     * @param term2Start the first day of term 2
+     * @param term3Start the first day of term 3 (semester 2)
+     * @param term4Start the first day of term 4
+     * @return the school year
+     * @throws IllegalArgumentException if the dates are missing or out of order
+     */
+    public static SchoolYear of(LocalDate startDate, LocalDate endDate, LocalDate term2Start, LocalDate term3Start, LocalDate term4Start) {
+        LocalDate[] termStarts = {startDate, term2Start, term3Start, term4Start};
+        for (int term = 0; term < TERMS; term++) {
+            if (termStarts[term] == null || endDate == null) {
+                throw new IllegalArgumentException("school year dates are missing");
+            }
+            if (term > 0 && !termStarts[term].isAfter(termStarts[term - 1])) {
+                throw new IllegalArgumentException("term " + (term + 1) + " must start after term " + term);
+            }
+        }
+        if (endDate.isBefore(term4Start)) {
+            throw new IllegalArgumentException("the year must end after term 4 starts");
+        }
+        return new SchoolYear(startDate, endDate, termStarts);
+    }
+
+    public static SchoolYear defaultYear() {
+        return DEFAULT_YEAR;
+    }
+
+    /**
+     * Reads a school year from a config file (see the class comment for the keys)
+     * @param file the config file
+     * @return the school year, or null if the file can not be read or its dates are invalid
+     */
+    public static SchoolYear load(File file) {
+        Properties config = new Properties();
+        try (Reader reader = new FileReader(file)) {
+            config.load(reader);
+            return of(parse(config, YEAR_START_KEY), parse(config, YEAR_END_KEY),
+                parse(config, String.format(TERM_START_KEY_FORMAT, 2)),
+                parse(config, String.format(TERM_START_KEY_FORMAT, 3)),
+                parse(config, String.format(TERM_START_KEY_FORMAT, 4)));
+        } catch (IOException e) {
+            System.err.println("Error reading school year file: " + e.getMessage());
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            System.err.println("Error in school year file " + file + ": " + e.getMessage());
+        }
+        return null;
+    }
+
+    /**
+     * Moves the boundaries that the ICS events name: the first day of school, the first day of
+     * semester 2 and the last day of school. Terms 2 and 4 are kept, so a config or the default
+     * year is still needed for them. Only events from two months before the year to two months
+     * after it count, so each year of a multi-year ICS takes its own.
+     * @param events the calendar's events
+     * @return the adjusted school year, or this one if no event names a boundary or the result is out of order
+     */
+    public SchoolYear withEvents(List<Holiday> events) {
+        LocalDate start = startDate;
+        LocalDate end = endDate;
+        LocalDate semester2 = termStarts[SEMESTER_2_TERM];
+        LocalDate windowStart = startDate.minusMonths(EVENT_WINDOW_MONTHS);
+        LocalDate windowEnd = endDate.plusMonths(EVENT_WINDOW_MONTHS);
+        for (Holiday event : events) {
+            if (event.getSummary() == null || event.getStartDate() == null) continue;
+            if (event.getStartDate().isBefore(windowStart) || event.getStartDate().isAfter(windowEnd)) continue;
+            if (event.getSummary().contains(FIRST_DAY_EVENT)) start = event.getStartDate();
+            if (event.getSummary().contains(SEMESTER_2_EVENT)) semester2 = event.getStartDate();
+            if (event.getSummary().contains(LAST_DAY_EVENT)) end = event.getStartDate();
+        }
+        if (start.equals(startDate) && end.equals(endDate) && semester2.equals(termStarts[SEMESTER_2_TERM])) {
+            return this;
+        }
+        try {
+            return of(start, end, termStarts[1], semester2, termStarts[3]);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Error: school year events out of order (" + e.getMessage() + "), keeping " + startDate + " to " + endDate);
+            return this;
+        }
+    }
+
+    /**
+     * Gets the same year shifted by whole years, e.g. the next year of a planning horizon
+     * before its own ICS events or config move it
+     * @param years how many years to shift by
+     * @return the shifted school year
+     */
+    public SchoolYear plusYears(int years) {
+        if (years == 0) return this;
+        return of(startDate.plusYears(years), endDate.plusYears(years), termStarts[1].plusYears(years),
+            termStarts[2].plusYears(years), termStarts[3].plusYears(years));
+    }
+
+    /**
+     * Gets the term of a date
+     * @param date the date
+     * @return the term (0-3); dates outside the year count as term 4, as they always have
+     */
+    public int getTerm(LocalDate date) {
+        long day = date.toEpochDay() - firstEpochDay;
+        return day < 0 || day >= termByDay.length ? TERMS - 1 : termByDay[(int) day];
+    }
+
+    public LocalDate getStartDate() {
+        return startDate;
+    }
+
+    public LocalDate getEndDate() {
+        return endDate;
+    }
+
+    public LocalDate getTermStart(int term) {
+        return termStarts[term];
+    }
+
+    public LocalDate getTermEnd(int term) {
+        return term + 1 < TERMS ? termStarts[term + 1].minusDays(1) : endDate;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s to %s (terms start %s, %s, %s, %s)", startDate, endDate,
+            termStarts[0], termStarts[1], termStarts[2], termStarts[3]);
+    }
+
+    private static LocalDate parse(Properties config, String key) {
+        String value = config.getProperty(key);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("missing " + key);
+        }
+        return LocalDate.parse(value.trim());
+    }
+}
@@ -0,0 +1,165 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+
+/**
+ * AbsenceCoverage.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    AbsenceCoverage class, proposes same-day replacements when teachers are away.
+ *    For every duty an absent teacher holds on the date, the candidates come straight from the
+ *    EligibilityIndex set for that (semester, slot), so the timetable rules (class conflicts,
+ *    Lunch A/B adjacency, no classes that semester) are already applied and the rest of the
+ *    roster is never looked at. A candidate is then skipped if they are away, already on the
+ *    duty, or on another duty within two time slots that day (the consecutive duty rule).
+ *    The least loaded candidate wins, using a load table (duty units held across the year)
+ *    built once from the schedule. Within one query each cover proposed counts towards the load,
+ *    so several absences on one day are spread over different people.
+ *
+ *  Methods:
+ * 	  - propose, List<CoverageProposal>, proposes replacements for the absent teachers' duties on a day
+ *    - getLoad, int, gets the load of a teacher in the load table
+ *
+*/
+
+class AbsenceCoverage {
+    private static final int MAX_ALTERNATIVES = 3;
+    private static final int CONSECUTIVE_SLOT_GAP = 2; // as in DutyAssignmentRules.hasConsecutiveDuty
+    private static final int COVER_UNITS = 1;          // a single cover is one day of duty
+
+    private final EligibilityIndex index;
+    private final int[] loads;      // duty units held across the year, by index position
+
+    AbsenceCoverage(EligibilityIndex index, Map<String, Integer> teacherLoads) {
+        this.index = index;
+        this.loads = new int[index.size()];
+        for (int teacher = 0; teacher < index.size(); teacher++) {
+            loads[teacher] = teacherLoads.getOrDefault(index.getTeacher(teacher).getName(), 0);
+        }
+    }
+
+    /**
+     * Proposes replacements for the absent teachers' duties on a day
+     * @param day the day of the absence
+     * @param templateDay the first day of the day's pattern, which holds the pattern's teachers
+     * @param semester the semester (0 or 1) of the day
+     * @param absentTeachers the names of the teachers who are away
+     * @return one proposal per (duty, absent teacher), in time slot order
+     */
+    List<CoverageProposal> propose(Day day, Day templateDay, int semester, Collection<String> absentTeachers) {
+        int[] dayLoads = loads.clone(); // covers proposed for this day count on top of the year's load
+        Set<String> absent = new HashSet<>();
+        for (String name : absentTeachers) {
+            absent.add(normalize(name));
+        }
+
+        // Who is on duty that day, and in which time slots
+        Map<String, List<Integer>> busySlots = new HashMap<>();
+        for (Duty duty : templateDay.getDuties()) {
+            int slot = DutyAssignmentRules.getTimeSlot(duty.getTimeSlot());
+            for (String name : teachersOf(templateDay, duty)) {
+                busySlots.computeIfAbsent(normalize(name), n -> new ArrayList<>()).add(slot);
+            }
+        }
+
+        List<CoverageProposal> proposals = new ArrayList<>();
+        for (Duty duty : templateDay.getDuties()) {
+            int slot = DutyAssignmentRules.getTimeSlot(duty.getTimeSlot());
+            for (String name : teachersOf(templateDay, duty)) {
+                if (!absent.contains(normalize(name))) continue;
+
+                List<Integer> ranked = rankCandidates(semester, slot, dayLoads, absent, busySlots, teachersOf(templateDay, duty));
+                String replacement = null;
+                List<String> alternatives = new ArrayList<>();
+                for (int teacher : ranked) {
+                    String candidate = index.getTeacher(teacher).getName();
+                    if (replacement == null) {
+                        replacement = candidate;
+                        dayLoads[teacher] += COVER_UNITS;
+                        busySlots.computeIfAbsent(normalize(candidate), n -> new ArrayList<>()).add(slot);
+                    } else {
+                        alternatives.add(candidate);
+                    }
+                }
+                proposals.add(new CoverageProposal(day.getDate(), duty, name, replacement, alternatives));
+            }
+        }
+        return proposals;
+    }
+
+    /**
+     * Gets the load of a teacher in the load table
+     * @param teacher the teacher's position in the eligibility index
+     * @return duty units held across the year when the table was built
+     */
+    int getLoad(int teacher) {
+        return loads[teacher];
+    }
+
+    /**
+     * Ranks the best few candidates for one duty, least loaded first
+     * @param semester the semester (0 or 1)
+     * @param slot the duty's schedule time slot
+     * @param dayLoads the load table with this day's covers added
+     * @param absent the normalized names of the teachers who are away
+     * @param busySlots the time slots each teacher is on duty that day
+     * @param onDuty the teachers already on the duty
+     * @return up to 1 + MAX_ALTERNATIVES index positions
+     */
+    private List<Integer> rankCandidates(int semester, int slot, int[] dayLoads, Set<String> absent,
+            Map<String, List<Integer>> busySlots, List<String> onDuty) {
+        List<Integer> best = new ArrayList<>();
+        if (slot < 0) return best;
+
+        Set<String> alreadyOnDuty = new HashSet<>();
+        for (String name : onDuty) {
+            alreadyOnDuty.add(normalize(name));
+        }
+        BitSet candidates = index.getCandidates(semester, slot);
+        for (int teacher = candidates.nextSetBit(0); teacher >= 0; teacher = candidates.nextSetBit(teacher + 1)) {
+            String name = normalize(index.getTeacher(teacher).getName());
+            if (absent.contains(name) || alreadyOnDuty.contains(name)) continue;
+            if (isBusyNear(busySlots.get(name), slot)) continue;
+
+            // Keep a short list sorted by load (then roster order), the same as a bounded heap
+            int at = best.size();
+            while (at > 0 && dayLoads[best.get(at - 1)] > dayLoads[teacher]) {
+                at--;
+            }
+            if (at <= MAX_ALTERNATIVES) {
+                best.add(at, teacher);
+                if (best.size() > MAX_ALTERNATIVES + 1) best.remove(best.size() - 1);
+            }
+        }
+        return best;
+    }
+
+    private static boolean isBusyNear(List<Integer> slots, int slot) {
+        if (slots == null) return false;
+        for (int busy : slots) {
+            if (Math.abs(busy - slot) <= CONSECUTIVE_SLOT_GAP) return true;
+        }
+        return false;
+    }
+
+    private static List<String> teachersOf(Day templateDay, Duty duty) {
+        return templateDay.isDay1() ? duty.getDay1Teachers() : duty.getDay2Teachers();
+    }
+
+    private static String normalize(String name) {
+        return name.trim().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,134 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * AnytimeSolver.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    AnytimeSolver class, runs the assignment engines one after another within a time budget
+ *    and keeps the best schedule found so far. The greedy engine always runs first and to the
+ *    end, so the result is never worse than the greedy output even if the budget is already spent:
+ *    schedules are ranked by the rules they break first (ScheduleSnapshot.isBetterThan), then by the
+ *    cells they leave empty. Greedy only fills more cells than the other engines by going over
+ *    quotas and giving consecutive duties; both challengers keep those rules, fill every cell once
+ *    before any twice and leave no more cells empty than greedy would if held to the same rules.
+ *    The other engines (min-cost flow, then most-constrained-first) check the deadline while they
+ *    work and give up part way when it passes or when cancel is called. Each of them starts from
+ *    the best schedule so far and solves it again one semester at a time, so after every semester
+ *    the calendar holds a whole schedule (the new semester next to the best one's other semester)
+ *    that is scored and published if it is better. Only a semester cut short is thrown away.
+ *    Every improvement is published as an immutable ScheduleSnapshot that another thread
+ *    (the GUI or the batch runner) can read at any time. When solve returns, the best snapshot
+ *    is back on the calendar.
+ *
+ *  Methods:
+ * 	  - solve, ScheduleSnapshot, runs the engines until they are done, the deadline passes or cancel is called
+ *    - getBest, ScheduleSnapshot, gets the best schedule published so far
+ *    - cancel, void, asks a running solve to stop as soon as it can
+ *    - isCancelled, boolean, checks if cancel was called
+ *
+*/
+
+public class AnytimeSolver {
+    private static final long NANOS_PER_MILLI = 1_000_000L;
+    // Engines tried after the greedy baseline, most promising first
+    private static final AssignmentEngineEnum[] CHALLENGERS = {
+        AssignmentEngineEnum.MIN_COST_FLOW, AssignmentEngineEnum.MOST_CONSTRAINED
+    };
+
+    private final DutyAssigner assigner;
+    private final List<Teacher> teachers;
+    private final AtomicReference<ScheduleSnapshot> best = new AtomicReference<>();
+    private volatile boolean cancelled;
+    private volatile long deadline;
+
+    public AnytimeSolver(DutyAssigner assigner, List<Teacher> teachers) {
+        this.assigner = assigner;
+        this.teachers = teachers;
+    }
+
+    /**
+     * Runs the engines until they are done, the time budget is spent or cancel is called
+     * @param budgetMillis the time budget in milliseconds; the greedy baseline finishes even if it takes longer
+     * @return the best schedule found, which is also left on the calendar
+     */
+    public ScheduleSnapshot solve(long budgetMillis) {
+        long start = System.nanoTime();
+        deadline = start + Math.max(budgetMillis, 0) * NANOS_PER_MILLI;
+
+        // The baseline is never stopped early, it is what every other engine has to beat
+        assigner.setStopCondition(null);
+        assigner.assignDuties();
+        publish(ScheduleSnapshot.capture(AssignmentEngineEnum.GREEDY, assigner, teachers, elapsedMillis(start)));
+
+        assigner.setStopCondition(this::shouldStop);
+        for (AssignmentEngineEnum engine : CHALLENGERS) {
+            if (shouldStop()) break;
+            restoreBest();
+            assigner.setProgressListener(() ->
+                publish(ScheduleSnapshot.capture(engine, assigner, teachers, elapsedMillis(start))));
+            if (engine == AssignmentEngineEnum.MIN_COST_FLOW) {
+                assigner.assignDutiesMinCostFlow();
+            } else {
+                assigner.assignDutiesMostConstrainedFirst();
+            }
+        }
+        assigner.setProgressListener(null);
+        assigner.setStopCondition(null);
+
+        // Whatever ran last may not be the best, so put the best schedule back
+        ScheduleSnapshot result = restoreBest();
+        assigner.rebuildDutyIndex();
+        return result;
+    }
+
+    /**
+     * Gets the best schedule published so far
+     * @return the snapshot, or null before the greedy baseline has finished
+     */
+    public ScheduleSnapshot getBest() {
+        return best.get();
+    }
+
+    /**
+     * Asks a running solve to stop as soon as it can; the best schedule so far is kept
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Puts the best schedule so far back on the calendar, replacing what is there
+     * @return the best snapshot
+     */
+    private ScheduleSnapshot restoreBest() {
+        ScheduleSnapshot result = best.get();
+        assigner.clearAssignments();
+        result.apply();
+        return result;
+    }
+
+    private boolean shouldStop() {
+        return cancelled || System.nanoTime() - deadline >= 0;
+    }
+
+    private void publish(ScheduleSnapshot snapshot) {
+        if (snapshot.isBetterThan(best.get())) {
+            best.set(snapshot);
+        }
+    }
+
+    private static long elapsedMillis(long start) {
+        return (System.nanoTime() - start) / NANOS_PER_MILLI;
+    }
+}
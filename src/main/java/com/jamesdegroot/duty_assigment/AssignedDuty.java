@@ -0,0 +1,84 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+
+/**
+ * AssignedDuty.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    AssignedDuty class, one (term, pattern, slot) cell a teacher holds, as kept by the TeacherDutyIndex.
+ *    The dates are read from the pattern's group of days, so they follow days being turned
+ *    into or out of school days without the entry being rebuilt. The greedy passes can list
+ *    the same teacher twice on one cell; that counts twice towards their load, so it is kept.
+ *
+ *  Methods:
+ * 	  - getTerm, int, gets the term (0-3)
+ *    - getDayOfWeek, DayOfWeek, gets the weekday of the pattern
+ *    - isDay1, boolean, checks if the pattern is a Day 1
+ *    - getDuty, Duty, gets the duty on the pattern's first day
+ *    - getDates, List<LocalDate>, gets every date the teacher is on this duty
+ *    - getTimesListed, int, gets how many times the teacher is listed on the cell
+ *    - getDutyUnits, int, gets how many days of duty the cell is worth to the teacher
+ *
+*/
+
+public final class AssignedDuty {
+    private final int term;
+    private final Day templateDay;
+    private final Duty duty;
+    private final List<Day> patternDays; // the live (term, pattern) group, first day is the template
+    int timesListed = 1;                 // kept by the TeacherDutyIndex
+
+    AssignedDuty(int term, Day templateDay, Duty duty, List<Day> patternDays) {
+        this.term = term;
+        this.templateDay = templateDay;
+        this.duty = duty;
+        this.patternDays = patternDays;
+    }
+
+    public int getTerm() {
+        return term;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return templateDay.getDate().getDayOfWeek();
+    }
+
+    public boolean isDay1() {
+        return templateDay.isDay1();
+    }
+
+    public Duty getDuty() {
+        return duty;
+    }
+
+    public List<LocalDate> getDates() {
+        List<LocalDate> dates = new ArrayList<>(patternDays.size());
+        for (Day day : patternDays) {
+            dates.add(day.getDate());
+        }
+        return dates;
+    }
+
+    public int getTimesListed() {
+        return timesListed;
+    }
+
+    public int getDutyUnits() {
+        return patternDays.size() * timesListed;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Term %d %s Day %d %s (%s), %d day(s)", term + 1, getDayOfWeek(),
+            isDay1() ? 1 : 2, duty.getName(), duty.getTimeSlot(), getDutyUnits());
+    }
+}
@@ -0,0 +1,38 @@
+package com.jamesdegroot.duty_assigment;
+
+/**
+ * AssignmentEngineEnum.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose: 
+ *    AssignmentEngineEnum enum, used to choose which engine assigns the duties
+ *      
+ *  Methods:
+ * 	  - fromName, AssignmentEngineEnum, looks up an engine by its command line name
+ * 
+*/
+
+public enum AssignmentEngineEnum {
+    GREEDY,             // Multi-pass greedy assignment in teacher file order
+    MOST_CONSTRAINED,   // Priority queue, most constrained teacher first
+    MIN_COST_FLOW,      // Min-cost flow from teachers to cells, load balanced
+    ANYTIME,            // Greedy, then the other engines within a time budget, best result kept
+    WARM_START;         // Seeded from a previous schedule, only what no longer fits is repaired
+
+    /**
+     * Looks up an engine by its command line name, ignoring case and treating '-' as '_'
+     * @param name the engine name, e.g. "greedy", "most-constrained", "min-cost-flow" or "warm-start"
+     * @return the matching engine, or null if there is none
+     */
+    public static AssignmentEngineEnum fromName(String name) {
+        if (name == null) return null;
+        String normalized = name.trim().toUpperCase().replace('-', '_');
+        for (AssignmentEngineEnum engine : values()) {
+            if (engine.name().equals(normalized)) {
+                return engine;
+            }
+        }
+        return null;
+    }
+}
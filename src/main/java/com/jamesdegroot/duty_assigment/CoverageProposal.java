@@ -0,0 +1,75 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import com.jamesdegroot.calendar.Duty;
+
+/**
+ * CoverageProposal.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    CoverageProposal class, one suggested replacement for an absent teacher's duty on one date.
+ *    Proposals are only suggestions; the schedule is not changed until someone applies them.
+ *
+ *  Methods:
+ * 	  - getDate, LocalDate, gets the date of the absence
+ *    - getDuty, Duty, gets the duty that needs cover
+ *    - getAbsentTeacher, String, gets the teacher who is away
+ *    - getReplacement, String, gets the suggested replacement, or null if nobody is eligible
+ *    - getAlternatives, List<String>, gets the next best replacements, least loaded first
+ *    - hasReplacement, boolean, checks if a replacement was found
+ *
+*/
+
+public final class CoverageProposal {
+    private static final String NO_COVER_TEXT = "NO ELIGIBLE COVER";
+
+    private final LocalDate date;
+    private final Duty duty;
+    private final String absentTeacher;
+    private final String replacement;
+    private final List<String> alternatives;
+
+    CoverageProposal(LocalDate date, Duty duty, String absentTeacher, String replacement, List<String> alternatives) {
+        this.date = date;
+        this.duty = duty;
+        this.absentTeacher = absentTeacher;
+        this.replacement = replacement;
+        this.alternatives = Collections.unmodifiableList(alternatives);
+    }
+
+    public LocalDate getDate() {
+        return date;
+    }
+
+    public Duty getDuty() {
+        return duty;
+    }
+
+    public String getAbsentTeacher() {
+        return absentTeacher;
+    }
+
+    public String getReplacement() {
+        return replacement;
+    }
+
+    public List<String> getAlternatives() {
+        return alternatives;
+    }
+
+    public boolean hasReplacement() {
+        return replacement != null;
+    }
+
+    @Override
+    public String toString() {
+        String text = String.format("%s %s (%s): %s -> %s", date, duty.getName(), duty.getTimeSlot(),
+            absentTeacher, replacement != null ? replacement : NO_COVER_TEXT);
+        return alternatives.isEmpty() ? text : text + " (or " + String.join(", ", alternatives) + ")";
+    }
+}
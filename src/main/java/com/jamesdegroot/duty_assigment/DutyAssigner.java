@@ -4,14 +4,29 @@ import com.jamesdegroot.teacher.Teacher;
 import com.jamesdegroot.calendar.Calendar;
 import com.jamesdegroot.calendar.Day;
 import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.calendar.SchoolYear;
+import com.jamesdegroot.io.ReadScheduleFromDisk;
+import com.jamesdegroot.io.WriteScheduleToDisk;
+import com.jamesdegroot.metrics.AssignmentMetrics;
+import com.jamesdegroot.metrics.AssignmentPassEvent;
+import com.jamesdegroot.metrics.MetricsPhaseEnum;
+import com.jamesdegroot.metrics.TeacherAssignmentEvent;
 import java.util.List;
 import java.util.ArrayList;
 import java.util.stream.Collectors;
 import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Map;
 import java.util.EnumMap;
 import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Set;
+import java.util.function.BooleanSupplier;
+import java.util.BitSet;
 
 /**
  * DutyAssigner.java
@@ -23,6 +38,22 @@ import java.util.Arrays;
  *      
  *  Methods:
  * 	  - assignDuties, void, assigns duties to teachers based on their schedule and the duties they can do
+ *    - assignDutiesMostConstrainedFirst, boolean, assigns duties with the most-constrained-first scheduler
+ *    - assignDutiesMinCostFlow, boolean, assigns duties with the min-cost flow scheduler
+ *    - assignDutiesWarmStart, List<String>, keeps what still fits of a previous schedule and fills the rest
+ *    - setStopCondition, void, sets the check the schedulers use to give up part way (AnytimeSolver)
+ *    - isStopRequested, boolean, checks if a scheduler should give up
+ *    - setProgressListener, void, sets what is told each time a scheduler finishes a semester (AnytimeSolver)
+ *    - semesterSolved, void, tells the progress listener a semester is finished
+ *    - clearAssignments, void, removes every teacher from every duty
+ *    - clearSemester, void, removes every teacher from the cells of one semester
+ *    - proposeCoverage, List<CoverageProposal>, proposes replacements for absent teachers on a date
+ *    - findSwaps, List<SwapOption>, finds the teachers who could take over or trade a teacher's duty
+ *    - getTeacherDuties, List<AssignedDuty>, gets every cell a teacher holds across the year
+ *    - rebuildDutyIndex, void, rebuilds the teacher to duty index from the schedule (after a restore)
+ *    - linkCalendarTemplates, void, points the calendar's on-duty table at each pattern's first day
+ *    - groupSchoolDays, void, groups the school days by term and pattern without assigning (for restored schedules)
+ *    - setVerbose, void, sets whether debugging output is printed while assigning
  *    - printDutySchedule, void, prints the duty schedule for all terms
  *    - loadTestData, void, loads test data from resource files
  *    - assignDutiesForTeacher, void, assigns duties to a single teacher across both semesters
@@ -36,6 +67,25 @@ import java.util.Arrays;
  *    - getDayPattern, DayPattern, gets the day pattern for a specific day of the week and day type
  *    - printPatternCounts, void, prints the pattern counts for debugging and verification
  *    - printTeacherDutyCounts, void, prints a summary of teachers who haven't reached their maximum duties
+ *    - reassignTeacher, List<String>, re-solves only the cells touched by an edited teacher
+ *    - reassignDay, List<String>, re-solves only the cells touched by a day whose school day status changed
+ *    - getCellStaffing, int, gets how many teachers cover one (term, pattern, slot) cell
+ *    - countCellsWithStaffing, int, counts the duty cells covered by a given range of teachers
+ *    - getEligibilityIndex, EligibilityIndex, gets the (semester, slot) candidate index of the last assignment
+ *    - isRuledOut, boolean, checks the eligibility index for a teacher who can never take a duty, recording the rule
+ *    - refreshTeacher, void, re-indexes an edited teacher without re-solving
+ *    - isHallGated, boolean, checks if a hall duty waits on an unfilled non-hall duty in its time slot
+ *    - getPatternCount, int, gets what one cell is worth towards a teacher's quota
+ *    - getTeacherLoads, Map<String, Integer>, gets the duty units each teacher holds across the year
+ *    - getYearlyQuota, int, gets the duty units a teacher should hold across the year
+ *    - captureSnapshot, ScheduleSnapshot, copies the current assignment into an immutable snapshot
+ *    - getCellLabel, String, gets the readable label of a cell
+ *    - keepSeededDuty, boolean, puts an imported assignment back on its cell if it still fits
+ *    - parseTerm, int, reads the term of an exported schedule row
+ *    - parseDayOfWeek, DayOfWeek, reads the weekday of an exported schedule row
+ *    - dropDerivedIndices, void, drops the coverage and swap tables after the schedule changed
+ *    - runPass, void, runs one timed pass over every teacher
+ *    - reject, boolean, records why a candidate was turned down
  * 
 */
 
@@ -44,7 +94,33 @@ public class DutyAssigner {
     private final Calendar calendar;
     private final List<Teacher> teachers;
     private Map<DayPattern, List<Day>> dayGroups;
-    private List<Map<DayPattern, List<Day>>> termPatternGroups;
+    private volatile List<Map<DayPattern, List<Day>>> termPatternGroups; // read by the coverage view while assigning
+    private boolean verbose = true;
+    private final AssignmentMetrics metrics = AssignmentMetrics.get();
+    private int slotsFilled; // duty slots assigned by this assigner, for the flight recorder events
+    private EligibilityIndex eligibility; // built once per assignDuties, null before
+    private volatile BooleanSupplier stopCondition; // null unless an AnytimeSolver is running
+    private Runnable progressListener;              // null unless an AnytimeSolver is running
+    private AbsenceCoverage absenceCoverage; // load table for cover proposals, dropped when the schedule changes
+    private SwapFinder swapFinder; // load and slot tables for swap queries, dropped when the schedule changes
+    private final TeacherDutyIndex dutyIndex = new TeacherDutyIndex(); // teacher to held cells, kept on every change
+
+    // One (term, pattern, slot) cell of the schedule, backed by the duty on the pattern's first day
+    static class PatternCell {
+        final int term;
+        final Day day;
+        final Duty duty;
+
+        PatternCell(int term, Day day, Duty duty) {
+            this.term = term;
+            this.day = day;
+            this.duty = duty;
+        }
+
+        List<String> getTeachers() {
+            return day.isDay1() ? duty.getDay1Teachers() : duty.getDay2Teachers();
+        }
+    }
 
     // Add enum for day patterns
     private enum DayPattern {
@@ -83,35 +159,244 @@ public class DutyAssigner {
         List<Day> schoolDays = getSchoolDays();
         initializeTermPatternGroups(schoolDays);
         
+        buildEligibilityIndex();
+        
         // First pass: Assign duties to teachers based on their schedule
-        for (Teacher teacher : teachers) {
-            assignDutiesForTeacher(teacher);
-        }
+        runPass(MetricsPhaseEnum.FIRST_PASS, false);
         
         // Second pass: Try to assign remaining duties
-        for (Teacher teacher : teachers) {
-            assignDutiesForTeacher(teacher);
-        }
+        runPass(MetricsPhaseEnum.SECOND_PASS, false);
         
         // Third pass: Try to assign remaining duties
-        for (Teacher teacher : teachers) {
-            assignDutiesForTeacher(teacher);
-        }
+        runPass(MetricsPhaseEnum.THIRD_PASS, false);
         
         // Final pass: Allow two teachers per duty
-        for (Teacher teacher : teachers) {
-            assignDutiesForTeacherFinalPass(teacher);
-        }
+        runPass(MetricsPhaseEnum.FINAL_PASS, true);
         
         // Print pattern counts for debugging
-        printPatternCounts();
+        if (verbose) {
+            printPatternCounts();
+        }
         
         // Print the complete duty schedule
         //printDutySchedule(); // DEBUGGING, this present in generateDutyCalendar.java
         
-        // Write the complete schedule to CSV
-        String outputPath = "src/main/resources/duty_schedule.csv";
-        com.jamesdegroot.io.WriteScheduleToDisk.writeDutyScheduleToCSV(calendar, outputPath);
+        // The schedule is written to disk by the caller, which knows where the output belongs
+    }
+
+    /**
+     * Assigns duties with the most-constrained-first scheduler instead of the fixed passes.
+     * Teachers with the fewest open duties for the quota they still need go first, so teachers
+     * with few free periods are no longer starved by those earlier in the file.
+     * See MostConstrainedScheduler.
+     * 
+     * @return true if the scheduler finished, false if the stop condition cut it short
+     */
+    public boolean assignDutiesMostConstrainedFirst() {
+        initializeTermPatternGroups(getSchoolDays());
+        buildEligibilityIndex();
+        
+        long start = System.nanoTime();
+        boolean finished = new MostConstrainedScheduler(this, eligibility).run();
+        metrics.recordPhase(MetricsPhaseEnum.MOST_CONSTRAINED, System.nanoTime() - start);
+        
+        if (verbose) {
+            printPatternCounts();
+        }
+        return finished;
+    }
+
+    /**
+     * Assigns duties by solving each semester as a min-cost flow from teachers to cells,
+     * which balances the load over the whole roster instead of filling teachers in file order.
+     * See MinCostFlowScheduler.
+     * 
+     * @return true if the scheduler finished, false if the stop condition cut it short
+     */
+    public boolean assignDutiesMinCostFlow() {
+        initializeTermPatternGroups(getSchoolDays());
+        buildEligibilityIndex();
+        
+        long start = System.nanoTime();
+        boolean finished = new MinCostFlowScheduler(this, eligibility).run();
+        metrics.recordPhase(MetricsPhaseEnum.MIN_COST_FLOW, System.nanoTime() - start);
+        
+        if (verbose) {
+            printPatternCounts();
+        }
+        return finished;
+    }
+
+    /**
+     * Assigns duties starting from a previous schedule (e.g. last year's duty_schedule.csv), so a
+     * re-solve after a few roster changes moves as little as possible.
+     * 
+     * Process:
+     * 1. Every imported assignment whose teacher is still on staff and whose cell still exists
+     *    is put back, in file order. It is kept only if the teacher still teaches that semester,
+     *    their timetable still allows the slot, it is not within two time slots of a duty they
+     *    already kept that semester, it fits in their semester quota and the cell has room
+     *    (two teachers, once each). Seeds that fail are released and their cells left open.
+     * 2. The cells left empty are offered to every teacher the way reassignTeacher fills
+     *    released cells, non-hall duties first, so new staff and freed quota pick them up.
+     * 
+     * @param rows The previous schedule, in the layout of WriteScheduleToDisk.collectScheduleRows
+     * @return One "cell: imported -> now" line per cell that differs from the imported schedule
+     */
+    public List<String> assignDutiesWarmStart(List<String[]> rows) {
+        initializeTermPatternGroups(getSchoolDays());
+        buildEligibilityIndex();
+        long start = System.nanoTime();
+        
+        Map<String, PatternCell> cellsByLabel = new HashMap<>();
+        for (PatternCell cell : getPatternCells()) {
+            cellsByLabel.put(getCellLabel(cell), cell);
+        }
+        Map<String, Teacher> teachersByName = new HashMap<>();
+        for (Teacher teacher : teachers) {
+            teachersByName.putIfAbsent(teacher.getName(), teacher);
+        }
+        
+        // 1. Keep what still fits, dropping assignments whose teacher or cell is gone
+        Map<String, String> imported = new LinkedHashMap<>();
+        Map<Teacher, Integer> countedSemester = new HashMap<>(); // the semester each teacher's counters hold
+        for (String[] row : rows) {
+            int term = parseTerm(row[WriteScheduleToDisk.TERM_COLUMN]);
+            DayOfWeek dayOfWeek = parseDayOfWeek(row[WriteScheduleToDisk.DAY_COLUMN]);
+            if (term < 0 || dayOfWeek == null) continue;
+            for (boolean isDay1 : new boolean[] {true, false}) {
+                List<String> names = ReadScheduleFromDisk.splitTeachers(
+                    row[isDay1 ? WriteScheduleToDisk.DAY1_TEACHERS_COLUMN : WriteScheduleToDisk.DAY2_TEACHERS_COLUMN]);
+                String label = getCellLabel(term, getDayPattern(dayOfWeek, isDay1), row[WriteScheduleToDisk.DUTY_COLUMN]);
+                imported.put(label, String.join(", ", names));
+                PatternCell cell = cellsByLabel.get(label);
+                if (cell == null) continue;
+                for (String name : names) {
+                    Teacher teacher = teachersByName.get(name);
+                    if (teacher != null) {
+                        keepSeededDuty(teacher, cell, countedSemester);
+                    }
+                }
+            }
+        }
+        
+        // 2. Fill what is left
+        List<PatternCell> open = new ArrayList<>();
+        for (PatternCell cell : getPatternCells()) {
+            if (cell.getTeachers().isEmpty()) {
+                open.add(cell);
+            }
+        }
+        for (Teacher teacher : teachers) {
+            fillCells(teacher, open);
+        }
+        metrics.recordPhase(MetricsPhaseEnum.WARM_START, System.nanoTime() - start);
+        
+        if (verbose) {
+            printPatternCounts();
+        }
+        return diffAssignments(imported, snapshotAssignments());
+    }
+
+    /**
+     * Sets the check the schedulers use to give up part way, e.g. at an AnytimeSolver deadline.
+     * The greedy passes never check it.
+     * 
+     * @param stopCondition returns true when the scheduler should stop, or null to always finish
+     */
+    void setStopCondition(BooleanSupplier stopCondition) {
+        this.stopCondition = stopCondition;
+    }
+
+    /**
+     * Checks if a scheduler should give up
+     * 
+     * @return true if the stop condition is set and says stop
+     */
+    boolean isStopRequested() {
+        BooleanSupplier condition = stopCondition;
+        return condition != null && condition.getAsBoolean();
+    }
+
+    /**
+     * Sets what is told each time a scheduler finishes a semester, e.g. an AnytimeSolver
+     * publishing the schedule so far. The greedy passes never tell it.
+     * 
+     * @param progressListener run after each finished semester, or null for none
+     */
+    void setProgressListener(Runnable progressListener) {
+        this.progressListener = progressListener;
+    }
+
+    /**
+     * Tells the progress listener that a scheduler has finished a semester
+     */
+    void semesterSolved() {
+        if (progressListener != null) {
+            progressListener.run();
+        }
+    }
+
+    /**
+     * Removes every teacher from the cells of one semester, leaving the other semester as it is,
+     * so a scheduler can solve a semester on top of an earlier schedule
+     * 
+     * @param semester The semester (0 or 1)
+     */
+    void clearSemester(int semester) {
+        dropDerivedIndices();
+        for (PatternCell cell : getPatternCells()) {
+            if (cell.term / 2 != semester) continue;
+            for (String name : cell.getTeachers()) {
+                dutyIndex.remove(name, cell.duty);
+            }
+            cell.getTeachers().clear();
+        }
+    }
+
+    /**
+     * Removes every teacher from every duty of the calendar and clears the teachers' semester state,
+     * so another engine can start from an empty schedule
+     */
+    public void clearAssignments() {
+        dropDerivedIndices();
+        for (Day day : calendar.getDaysOfYear()) {
+            for (Duty duty : day.getDuties()) {
+                duty.getDay1Teachers().clear();
+                duty.getDay2Teachers().clear();
+            }
+        }
+        for (Teacher teacher : teachers) {
+            teacher.resetDutiesForNewSemester();
+        }
+        dutyIndex.clear();
+    }
+
+    /**
+     * Checks every teacher's timetable against every slot once, instead of on every pass
+     */
+    private void buildEligibilityIndex() {
+        long start = System.nanoTime();
+        dropDerivedIndices();
+        eligibility = EligibilityIndex.build(teachers);
+        metrics.recordPhase(MetricsPhaseEnum.ELIGIBILITY_INDEX, System.nanoTime() - start);
+    }
+
+    /**
+     * Groups the school days by term and pattern without assigning anything.
+     * Used when a finished schedule is restored onto the calendar (e.g. from the result cache),
+     * so re-solves and coverage views work the same as after assignDuties.
+     */
+    public void groupSchoolDays() {
+        initializeTermPatternGroups(getSchoolDays());
+    }
+
+    /**
+     * Sets whether debugging output (pattern counts) is printed while assigning
+     * @param verbose true to print, false to stay quiet (batch mode)
+     */
+    public void setVerbose(boolean verbose) {
+        this.verbose = verbose;
     }
 
     /**
@@ -268,12 +553,14 @@ public class DutyAssigner {
      * @return boolean indicating if a duty was assigned
      */
     private boolean assignDutiesInTerm(Teacher teacher, List<Day> daysInTerm, int term, boolean isHallDuty, int numberOfDutiesNeeded) {
+        int position = eligibility != null ? eligibility.indexOf(teacher) : -1;
         for (Day day : daysInTerm) {
             if (teacher.getDutiesThisSemester() >= numberOfDutiesNeeded) return false;
             
             Duty[][] dutySchedule = day.getDutySchedule();
             for (int timeSlot = 0; timeSlot < dutySchedule.length; timeSlot++) {
                 for (int pos = 0; pos < dutySchedule[timeSlot].length; pos++) {
+                    if (isRuledOut(position, term, dutySchedule[timeSlot][pos])) continue;
                     if (tryAssignDutyToTeacher(teacher, day, dutySchedule[timeSlot][pos], term, isHallDuty, numberOfDutiesNeeded)) {
                         return true;
                     }
@@ -283,6 +570,130 @@ public class DutyAssigner {
         return false;
     }
 
+    /**
+     * Runs one pass over the teachers, timing it for the assignment metrics and the flight recorder.
+     * Only the teachers the eligibility index has as a candidate for some slot are visited, in
+     * roster order; the others could never take a duty and would never be checked against one.
+     * @param phase the pass being run
+     * @param finalPass whether this pass allows two teachers per duty
+     */
+    private void runPass(MetricsPhaseEnum phase, boolean finalPass) {
+        long start = System.nanoTime();
+        AssignmentPassEvent passEvent = new AssignmentPassEvent();
+        passEvent.begin();
+        int filledBeforePass = slotsFilled;
+        
+        BitSet passTeachers = eligibility.getAnyCandidates();
+        for (int position = passTeachers.nextSetBit(0); position >= 0; position = passTeachers.nextSetBit(position + 1)) {
+            Teacher teacher = eligibility.getTeacher(position);
+            TeacherAssignmentEvent teacherEvent = new TeacherAssignmentEvent();
+            teacherEvent.begin();
+            int filledBeforeTeacher = slotsFilled;
+            
+            if (finalPass) {
+                assignDutiesForTeacherFinalPass(teacher);
+            } else {
+                assignDutiesForTeacher(teacher);
+            }
+            
+            teacherEvent.end();
+            if (teacherEvent.shouldCommit()) {
+                teacherEvent.teacher = teacher.getName();
+                teacherEvent.pass = phase.name();
+                teacherEvent.slotsFilled = slotsFilled - filledBeforeTeacher;
+                teacherEvent.dutiesThisSemester = teacher.getDutiesThisSemester();
+                teacherEvent.commit();
+            }
+        }
+        
+        passEvent.end();
+        if (passEvent.shouldCommit()) {
+            passEvent.pass = phase.name();
+            passEvent.teacherCount = passTeachers.cardinality();
+            passEvent.slotsFilled = slotsFilled - filledBeforePass;
+            passEvent.commit();
+        }
+        metrics.recordPass();
+        metrics.recordPhase(phase, System.nanoTime() - start);
+    }
+
+    /**
+     * Checks if a hall duty is held back because a non-hall duty in the same time slot is unfilled
+     * @param day the day holding the duty
+     * @param duty the hall duty
+     * @return true if the hall duty cannot be assigned yet
+     */
+    boolean isHallGated(Day day, Duty duty) {
+        Duty[][] dutySchedule = day.getDutySchedule();
+        int currentTimeSlot = DutyAssignmentRules.getTimeSlot(duty.getTimeSlot());
+        
+        // Check all duties in the same time slot
+        for (Duty otherDuty : dutySchedule[currentTimeSlot]) {
+            if (otherDuty != null && !otherDuty.getName().contains("Hall")) {
+                // If there's an unfilled non-hall duty, don't assign this hall duty
+                boolean hasDay1Teacher = !otherDuty.getDay1Teachers().isEmpty();
+                boolean hasDay2Teacher = !otherDuty.getDay2Teachers().isEmpty();
+                if ((day.isDay1() && !hasDay1Teacher) || (!day.isDay1() && !hasDay2Teacher)) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Gets what one cell is worth towards a teacher's quota: the number of days in its pattern
+     * @param cell the cell
+     * @return the pattern's day count for the cell's term
+     */
+    int getPatternCount(PatternCell cell) {
+        DayPattern pattern = getDayPattern(cell.day.getDate().getDayOfWeek(), cell.day.isDay1());
+        return termPatternGroups.get(cell.term).get(pattern).size();
+    }
+
+    /**
+     * Checks the eligibility index for a teacher whose timetable can never take a duty.
+     * Such a teacher would always be rejected, so skipping them leaves the schedule unchanged
+     * and saves the rest of the candidate evaluation. The skipped candidate is still counted,
+     * under the timetable rule the index stored for it.
+     * @param position the teacher's position in the eligibility index, -1 if not indexed
+     * @param term the term of the duty (0-3)
+     * @param duty the duty to check
+     * @return true if the teacher can be skipped for this duty
+     */
+    private boolean isRuledOut(int position, int term, Duty duty) {
+        if (position < 0 || duty == null) return false;
+        int timeSlot = DutyAssignmentRules.getTimeSlot(duty.getTimeSlot());
+        if (timeSlot < 0 || eligibility.isCandidate(term / 2, timeSlot, position)) return false;
+        
+        metrics.recordCandidate();
+        RejectionRuleEnum rule = eligibility.getStaticRejection(position, timeSlot);
+        reject(rule != null ? rule : RejectionRuleEnum.QUOTA_OVERFLOW); // no rule stored: no quota that semester
+        return true;
+    }
+    
+    /**
+     * Re-indexes a teacher whose timetable or type was edited, without re-solving,
+     * so the next pass, swap search or coverage proposal sees the new timetable
+     * @param teacher The edited teacher
+     */
+    public void refreshTeacher(Teacher teacher) {
+        if (eligibility != null) {
+            eligibility.update(teacher);
+        }
+        dropDerivedIndices();
+    }
+
+    /**
+     * Records why a candidate was turned down
+     * @param rule the rule that rejected the candidate
+     * @return false, so callers can return the result directly
+     */
+    private boolean reject(RejectionRuleEnum rule) {
+        metrics.recordRejection(rule);
+        return false;
+    }
+
     /**
      * Attempts to assign a specific duty to a teacher.
      * 
@@ -300,39 +711,28 @@ public class DutyAssigner {
      * @param numberOfDutiesNeeded Maximum duties for this teacher
      * @return boolean indicating if the duty was assigned
      */
-    private boolean tryAssignDutyToTeacher(Teacher teacher, Day day, Duty duty, int term, boolean isHallDuty, int numberOfDutiesNeeded) {
-        if (duty == null || teacher.hasDutyAssigned(duty)) return false;
+    boolean tryAssignDutyToTeacher(Teacher teacher, Day day, Duty duty, int term, boolean isHallDuty, int numberOfDutiesNeeded) {
+        if (duty == null) return false;
+        metrics.recordCandidate();
+        if (teacher.hasDutyAssigned(duty)) return reject(RejectionRuleEnum.ALREADY_HELD);
         
         boolean isHall = duty.getName().contains("Hall");
-        if ((isHallDuty && !isHall) || (!isHallDuty && isHall)) return false;
+        if ((isHallDuty && !isHall) || (!isHallDuty && isHall)) return reject(RejectionRuleEnum.WRONG_DUTY_TYPE);
 
         // If this is a hall duty, check if there are any unfilled non-hall duties in the same time slot
-        if (isHall) {
-            Duty[][] dutySchedule = day.getDutySchedule();
-            int currentTimeSlot = DutyAssignmentRules.getTimeSlot(duty.getTimeSlot());
-            
-            // Check all duties in the same time slot
-            for (Duty otherDuty : dutySchedule[currentTimeSlot]) {
-                if (otherDuty != null && !otherDuty.getName().contains("Hall")) {
-                    // If there's an unfilled non-hall duty, don't assign this hall duty
-                    boolean hasDay1Teacher = !otherDuty.getDay1Teachers().isEmpty();
-                    boolean hasDay2Teacher = !otherDuty.getDay2Teachers().isEmpty();
-                    if ((day.isDay1() && !hasDay1Teacher) || (!day.isDay1() && !hasDay2Teacher)) {
-                        return false;
-                    }
-                }
-            }
-        }
+        if (isHall && isHallGated(day, duty)) return reject(RejectionRuleEnum.HALL_GATING);
 
         // Skip if duty already has a teacher assigned for this day type
         if ((day.isDay1() && !duty.getDay1Teachers().isEmpty()) ||
             (!day.isDay1() && !duty.getDay2Teachers().isEmpty())) {
-            return false;
+            return reject(RejectionRuleEnum.CELL_FILLED);
         }
 
         // Skip if teacher cannot do this duty
         int timeSlot = DutyAssignmentRules.getTimeSlot(duty.getTimeSlot());
-        if (!DutyAssignmentRules.canAssignDuty(teacher, timeSlot)) return false;
+        RejectionRuleEnum rule = DutyAssignmentRules.findRejection(teacher, timeSlot);
+        if (rule == RejectionRuleEnum.INVALID_SLOT) System.out.println("ERROR: Invalid time slot " + timeSlot);
+        if (rule != null) return reject(rule);
 
         DayPattern pattern = getDayPattern(day.getDate().getDayOfWeek(), day.isDay1());
         int patternCount = termPatternGroups.get(term).get(pattern).size();
@@ -347,6 +747,9 @@ public class DutyAssigner {
             } else {
                 duty.addDay2Teacher(teacher.getName());
             }
+            dutyIndex.add(teacher.getName(), term, day, duty, termPatternGroups.get(term).get(pattern));
+            metrics.recordAssignment();
+            slotsFilled++;
             // DEBUGGING, prints the duty assignment
             // String dutyType = isHallDuty ? "hall duty" : "duty";
             // System.out.println("Assigned " + dutyType + ": " + duty.getName() + " to teacher: " + teacher.getName() +
@@ -356,7 +759,7 @@ public class DutyAssigner {
             return true;
         }
         
-        return false;
+        return reject(RejectionRuleEnum.QUOTA_OVERFLOW);
     }
 
     /**
@@ -369,6 +772,7 @@ public class DutyAssigner {
      * @param schoolDays List of all school days
      */
     private void initializeTermPatternGroups(List<Day> schoolDays) {
+        dropDerivedIndices();
         termPatternGroups = new ArrayList<>();
         for (int term = 0; term < 4; term++) {
             int finalTerm = term;
@@ -377,6 +781,33 @@ public class DutyAssigner {
                 .collect(Collectors.groupingBy(day -> getDayPattern(day.getDate().getDayOfWeek(), day.isDay1())));
             termPatternGroups.add(patternGroups);
         }
+        rebuildDutyIndex();
+        linkCalendarTemplates();
+    }
+
+    /**
+     * Points the calendar's on-duty table at the first day of every (term, pattern) group
+     */
+    private void linkCalendarTemplates() {
+        List<List<Day>> groups = new ArrayList<>();
+        for (Map<DayPattern, List<Day>> patternGroups : termPatternGroups) {
+            groups.addAll(patternGroups.values());
+        }
+        calendar.linkPatternTemplates(groups);
+    }
+
+    /**
+     * Rebuilds the teacher to duty index from the teachers on every cell,
+     * for schedules put back in one go (restored from the cache or from a snapshot)
+     */
+    void rebuildDutyIndex() {
+        dutyIndex.clear();
+        for (PatternCell cell : getPatternCells()) {
+            List<Day> patternDays = termPatternGroups.get(cell.term).get(getDayPattern(cell.day.getDate().getDayOfWeek(), cell.day.isDay1()));
+            for (String name : cell.getTeachers()) {
+                dutyIndex.add(name, cell.term, cell.day, cell.duty, patternDays);
+            }
+        }
     }
 
     /**
@@ -548,12 +979,14 @@ public class DutyAssigner {
      * @return boolean indicating if any duties were assigned
      */
     private boolean assignDutiesInTermFinalPass(Teacher teacher, List<Day> daysInTerm, int term, int numberOfDutiesNeeded) {
+        int position = eligibility != null ? eligibility.indexOf(teacher) : -1;
         for (Day day : daysInTerm) {
             if (teacher.getDutiesThisSemester() >= numberOfDutiesNeeded) return false;
             
             Duty[][] dutySchedule = day.getDutySchedule();
             for (int timeSlot = 0; timeSlot < dutySchedule.length; timeSlot++) {
                 for (int pos = 0; pos < dutySchedule[timeSlot].length; pos++) {
+                    if (isRuledOut(position, term, dutySchedule[timeSlot][pos])) continue;
                     if (tryAssignDutyToTeacherFinalPass(teacher, day, dutySchedule[timeSlot][pos], term, numberOfDutiesNeeded)) {
                         return true;
                     }
@@ -575,16 +1008,20 @@ public class DutyAssigner {
      * 
      * Note: this can be consolidated with tryAssignDutyToTeacher, but I'm keeping it separate
      */
-    private boolean tryAssignDutyToTeacherFinalPass(Teacher teacher, Day day, Duty duty, int term, int numberOfDutiesNeeded) {
-        if (duty == null || teacher.hasDutyAssigned(duty)) return false;
+    boolean tryAssignDutyToTeacherFinalPass(Teacher teacher, Day day, Duty duty, int term, int numberOfDutiesNeeded) {
+        if (duty == null) return false;
+        metrics.recordCandidate();
+        if (teacher.hasDutyAssigned(duty)) return reject(RejectionRuleEnum.ALREADY_HELD);
         
         // Skip if duty already has two teachers assigned for this day type
-        if (day.isDay1() && duty.getDay1Teachers().size() >= 2) return false;
-        if (!day.isDay1() && duty.getDay2Teachers().size() >= 2) return false;
+        if (day.isDay1() && duty.getDay1Teachers().size() >= 2) return reject(RejectionRuleEnum.CELL_FILLED);
+        if (!day.isDay1() && duty.getDay2Teachers().size() >= 2) return reject(RejectionRuleEnum.CELL_FILLED);
         
         // Skip if teacher cannot do this duty
         int timeSlot = DutyAssignmentRules.getTimeSlot(duty.getTimeSlot());
-        if (!DutyAssignmentRules.canAssignDuty(teacher, timeSlot)) return false;
+        RejectionRuleEnum rule = DutyAssignmentRules.findRejection(teacher, timeSlot);
+        if (rule == RejectionRuleEnum.INVALID_SLOT) System.out.println("ERROR: Invalid time slot " + timeSlot);
+        if (rule != null) return reject(rule);
         
         DayPattern pattern = getDayPattern(day.getDate().getDayOfWeek(), day.isDay1());
         int patternCount = termPatternGroups.get(term).get(pattern).size();
@@ -599,6 +1036,9 @@ public class DutyAssigner {
             } else {
                 duty.addDay2Teacher(teacher.getName());
             }
+            dutyIndex.add(teacher.getName(), term, day, duty, termPatternGroups.get(term).get(pattern));
+            metrics.recordAssignment();
+            slotsFilled++;
             // DEBUGGING, prints the duty assignment
             // System.out.printf("Final pass assigned duty: %s to teacher: %s (worth %d duties, total now: %d, Day %s)%n",
             //     duty.getName(), teacher.getName(), patternCount, teacher.getDutiesThisSemester(),
@@ -607,6 +1047,519 @@ public class DutyAssigner {
             return true;
         }
         
-        return false;
+        return reject(RejectionRuleEnum.QUOTA_OVERFLOW);
+    }
+
+    /**
+     * Proposes replacements for the duties absent teachers hold on a date, without changing the schedule.
+     * Candidates come from the eligibility index and are ranked by a load table that is built once
+     * and kept until the schedule changes, so a query only looks at the staff who could take each duty.
+     * See AbsenceCoverage.
+     * 
+     * @param date The date of the absence
+     * @param absentTeachers Names of the teachers who are away (case is ignored)
+     * @return One proposal per duty an absent teacher holds that day, empty if the date has no duties
+     */
+    public List<CoverageProposal> proposeCoverage(LocalDate date, Collection<String> absentTeachers) {
+        if (termPatternGroups == null || absentTeachers.isEmpty()) return Collections.emptyList();
+        SchoolYear year = calendar.getSchoolYear(); // the schedule only covers the active year
+        if (date.isBefore(year.getStartDate()) || date.isAfter(year.getEndDate())) return Collections.emptyList();
+        Day day = calendar.getDay(date);
+        if (day == null || !day.isSchoolDay()) return Collections.emptyList();
+        
+        DayPattern pattern = getDayPattern(day.getDate().getDayOfWeek(), day.isDay1());
+        int term = day.getTermNumber();
+        if (pattern == null || term < 0 || term >= termPatternGroups.size()) return Collections.emptyList();
+        List<Day> group = termPatternGroups.get(term).get(pattern);
+        if (group == null || group.isEmpty()) return Collections.emptyList();
+        
+        if (eligibility == null) {
+            buildEligibilityIndex(); // restored schedules never built one
+        }
+        if (absenceCoverage == null) {
+            absenceCoverage = new AbsenceCoverage(eligibility, getTeacherLoads());
+        }
+        return absenceCoverage.propose(day, group.get(0), term / 2, absentTeachers);
+    }
+
+    /**
+     * Finds the teachers who could take over or trade one duty a teacher holds, without changing the schedule.
+     * Partners come from the eligibility index and are checked against the quota and consecutive duty
+     * rules on both sides using tables that are built once and kept until the schedule changes.
+     * See SwapFinder.
+     * 
+     * @param teacherName The teacher giving up the duty
+     * @param term The term (0-3)
+     * @param dayOfWeek The weekday
+     * @param isDay1 Whether the cell is for Day 1
+     * @param timeSlot The duty time slot index
+     * @return The valid swaps, best load impact first; empty if the teacher does not hold the duty
+     */
+    public List<SwapOption> findSwaps(String teacherName, int term, DayOfWeek dayOfWeek, boolean isDay1, int timeSlot) {
+        SwapFinder finder = getSwapFinder();
+        DayPattern pattern = getDayPattern(dayOfWeek, isDay1);
+        if (finder == null || pattern == null || term < 0 || term >= termPatternGroups.size()) return Collections.emptyList();
+        List<Day> days = termPatternGroups.get(term).get(pattern);
+        if (days == null || days.isEmpty()) return Collections.emptyList();
+        
+        int teacher = finder.positionOf(teacherName);
+        int cell = finder.indexOfCell(term, days.get(0), timeSlot);
+        if (teacher < 0 || cell < 0) return Collections.emptyList();
+        return finder.findSwaps(teacher, cell);
+    }
+
+    /**
+     * Finds the swaps for every duty a teacher holds
+     * 
+     * @param teacherName The teacher giving up a duty
+     * @return The valid swaps per held cell, keyed by cell label in schedule order
+     */
+    public Map<String, List<SwapOption>> findSwaps(String teacherName) {
+        Map<String, List<SwapOption>> swaps = new LinkedHashMap<>();
+        SwapFinder finder = getSwapFinder();
+        int teacher = finder == null ? -1 : finder.positionOf(teacherName);
+        if (teacher < 0) return swaps;
+        
+        for (int cell : finder.getHeldCells(teacher)) {
+            swaps.put(finder.getCellLabel(cell), finder.findSwaps(teacher, cell));
+        }
+        return swaps;
+    }
+
+    /**
+     * Gets every cell a teacher holds across the year, from the teacher to duty index,
+     * so the cost is the size of the result rather than a scan of the calendar
+     * 
+     * @param teacherName The teacher's name
+     * @return The cells, by term, weekday and time slot; empty if the teacher holds none
+     */
+    public List<AssignedDuty> getTeacherDuties(String teacherName) {
+        return dutyIndex.getDuties(teacherName);
+    }
+
+    private SwapFinder getSwapFinder() {
+        if (termPatternGroups == null) return null;
+        if (eligibility == null) {
+            buildEligibilityIndex(); // restored schedules never built one
+        }
+        if (swapFinder == null) {
+            swapFinder = new SwapFinder(this, eligibility);
+        }
+        return swapFinder;
+    }
+
+    /**
+     * Drops the coverage and swap tables, which are rebuilt from the schedule on the next query
+     */
+    private void dropDerivedIndices() {
+        absenceCoverage = null;
+        swapFinder = null;
+    }
+
+    /**
+     * Re-solves the schedule after a teacher's profile was edited.
+     * 
+     * Only the cells the teacher currently holds are released. The teacher is then placed again
+     * using the normal rules, and any released cell left empty is offered to the rest of the staff.
+     * Every other cell keeps its assignment.
+     * 
+     * @param teacher The edited teacher
+     * @return One line per cell whose teachers changed
+     */
+    public List<String> reassignTeacher(Teacher teacher) {
+        if (termPatternGroups == null) return Collections.emptyList();
+        if (eligibility != null) {
+            eligibility.update(teacher);
+        }
+        dropDerivedIndices();
+        Map<String, String> before = snapshotAssignments();
+        
+        List<PatternCell> released = new ArrayList<>();
+        for (PatternCell cell : getPatternCells()) {
+            if (cell.getTeachers().removeIf(name -> name.equals(teacher.getName()))) {
+                dutyIndex.removeAll(teacher.getName(), cell.duty);
+                released.add(cell);
+            }
+        }
+        
+        // Place the edited teacher first, then let everyone else pick up what they left behind
+        fillCells(teacher, getPatternCells());
+        for (Teacher other : teachers) {
+            if (other != teacher) {
+                fillCells(other, released);
+            }
+        }
+        
+        return diffAssignments(before, snapshotAssignments());
+    }
+
+    /**
+     * Re-solves the schedule after a day was turned into (or out of) a school day.
+     * 
+     * The day is added to or removed from its (term, pattern) group, which changes what every
+     * cell of that pattern is worth. The day keeps its place in the Day 1 / Day 2 rotation, so
+     * later days do not move to other patterns; the rotation is only worked out again when the
+     * calendar is rebuilt. Only that pattern's cells are released and filled again,
+     * starting with the teachers who held them before so the schedule moves as little as possible.
+     * 
+     * @param day The edited day
+     * @return One line per cell whose teachers changed
+     */
+    public List<String> reassignDay(Day day) {
+        if (termPatternGroups == null) return Collections.emptyList();
+        DayPattern pattern = getDayPattern(day.getDate().getDayOfWeek(), day.isDay1());
+        if (pattern == null) return Collections.emptyList(); // weekends never carry duties
+        
+        int term = day.getTermNumber();
+        dropDerivedIndices();
+        Map<String, String> before = snapshotAssignments();
+        List<Day> group = termPatternGroups.get(term).computeIfAbsent(pattern, p -> new ArrayList<>());
+        Day oldTemplate = group.isEmpty() ? null : group.get(0);
+        
+        // Keep the group sorted by date so its first day stays the pattern's template
+        group.remove(day);
+        if (day.isSchoolDay()) {
+            if (day.getDuties().isEmpty()) {
+                calendar.initializeDuties(day);
+            }
+            int insertAt = 0;
+            while (insertAt < group.size() && group.get(insertAt).getDate().isBefore(day.getDate())) {
+                insertAt++;
+            }
+            group.add(insertAt, day);
+        }
+        Day newTemplate = group.isEmpty() ? null : group.get(0);
+        linkCalendarTemplates();
+        
+        // Release the whole pattern, carrying the teacher lists over if the template day changed
+        Set<String> previousTeachers = new LinkedHashSet<>();
+        if (oldTemplate != null) {
+            for (Duty duty : oldTemplate.getDuties()) {
+                List<String> names = oldTemplate.isDay1() ? duty.getDay1Teachers() : duty.getDay2Teachers();
+                previousTeachers.addAll(names);
+                for (String name : names) {
+                    dutyIndex.remove(name, duty);
+                }
+                names.clear();
+            }
+        }
+        if (newTemplate == null) {
+            return diffAssignments(before, snapshotAssignments());
+        }
+        
+        List<PatternCell> released = new ArrayList<>();
+        for (Duty duty : newTemplate.getDuties()) {
+            released.add(new PatternCell(term, newTemplate, duty));
+        }
+        for (Teacher teacher : teachers) {
+            if (previousTeachers.contains(teacher.getName())) {
+                fillCells(teacher, released);
+            }
+        }
+        for (Teacher teacher : teachers) {
+            if (!previousTeachers.contains(teacher.getName())) {
+                fillCells(teacher, released);
+            }
+        }
+        
+        return diffAssignments(before, snapshotAssignments());
+    }
+
+    /**
+     * Offers a set of cells to one teacher, semester by semester.
+     * The teacher's counters are rebuilt from the current schedule first, so quota and
+     * consecutive duty checks see everything they already hold.
+     * 
+     * @param teacher The teacher to place
+     * @param cells The cells the teacher may take
+     */
+    private void fillCells(Teacher teacher, List<PatternCell> cells) {
+        if (teacher.getMaxDutiesPerSemester() <= 0 || cells.isEmpty()) return;
+        
+        for (int semester = 0; semester < 2; semester++) {
+            if (!teacher.hasClassInSemester(semester)) continue;
+            final int currentSemester = semester;
+            if (cells.stream().noneMatch(cell -> cell.term / 2 == currentSemester)) continue;
+            
+            restoreSemesterState(teacher, semester);
+            int numberOfDutiesNeeded = teacher.getMaxDutiesPerSemester();
+            
+            // Non-hall duties first, the same priority as the main passes
+            for (boolean isHallDuty : new boolean[] {false, true}) {
+                for (PatternCell cell : cells) {
+                    if (teacher.getDutiesThisSemester() >= numberOfDutiesNeeded) break;
+                    if (cell.term / 2 != semester) continue;
+                    tryAssignDutyToTeacher(teacher, cell.day, cell.duty, cell.term, isHallDuty, numberOfDutiesNeeded);
+                }
+            }
+        }
+    }
+
+    /**
+     * Rebuilds a teacher's duty counter and assigned duty set for one semester from the schedule.
+     * 
+     * @param teacher The teacher to rebuild
+     * @param semester The semester (0 or 1)
+     */
+    private void restoreSemesterState(Teacher teacher, int semester) {
+        teacher.resetDutiesForNewSemester();
+        for (PatternCell cell : getPatternCells()) {
+            if (cell.term / 2 == semester && cell.getTeachers().contains(teacher.getName())) {
+                DayPattern pattern = getDayPattern(cell.day.getDate().getDayOfWeek(), cell.day.isDay1());
+                teacher.assignDuty(cell.duty, termPatternGroups.get(cell.term).get(pattern).size());
+            }
+        }
+    }
+
+    /**
+     * Gets every (term, pattern, slot) cell in the schedule, backed by the first day of each pattern
+     * 
+     * @return List of all pattern cells
+     */
+    List<PatternCell> getPatternCells() {
+        List<PatternCell> cells = new ArrayList<>();
+        for (int term = 0; term < termPatternGroups.size(); term++) {
+            for (DayPattern pattern : DayPattern.values()) {
+                List<Day> days = termPatternGroups.get(term).get(pattern);
+                if (days == null || days.isEmpty()) continue;
+                for (Duty duty : days.get(0).getDuties()) {
+                    cells.add(new PatternCell(term, days.get(0), duty));
+                }
+            }
+        }
+        return cells;
+    }
+
+    /**
+     * Captures the teachers on every cell, keyed by a readable cell label
+     * 
+     * @return Map of cell label to the teachers assigned there
+     */
+    private Map<String, String> snapshotAssignments() {
+        Map<String, String> snapshot = new LinkedHashMap<>();
+        for (PatternCell cell : getPatternCells()) {
+            snapshot.put(getCellLabel(cell), String.join(", ", cell.getTeachers()));
+        }
+        return snapshot;
+    }
+
+    /**
+     * Gets the readable label of a cell, e.g. "Term 1 MONDAY_DAY1 Hall Duty"
+     * 
+     * @param cell The cell
+     * @return The label used in snapshots, diffs and swap options
+     */
+    String getCellLabel(PatternCell cell) {
+        return getCellLabel(cell.term, getDayPattern(cell.day.getDate().getDayOfWeek(), cell.day.isDay1()), cell.duty.getName());
+    }
+
+    private String getCellLabel(int term, DayPattern pattern, String dutyName) {
+        return "Term " + (term + 1) + " " + pattern + " " + dutyName;
+    }
+
+    /**
+     * Puts an imported assignment back on its cell if the teacher can still hold it under the same
+     * rules as tryAssignDutyToTeacher: their timetable, no consecutive duties and their semester quota,
+     * counted against the seeds already kept. A seed that fails is released, its cell left open.
+     * 
+     * The teacher's counters are rebuilt from the schedule only when the seeds move them to another
+     * semester; within a semester each kept seed is added to them, so the whole import costs one
+     * rebuild per teacher and semester rather than one per seed.
+     * 
+     * @param teacher The teacher named on the imported cell
+     * @param cell The cell
+     * @param countedSemester The semester each teacher's counters hold, updated here
+     * @return true if the assignment was kept
+     */
+    private boolean keepSeededDuty(Teacher teacher, PatternCell cell, Map<Teacher, Integer> countedSemester) {
+        metrics.recordCandidate();
+        int semester = cell.term / 2;
+        if (!teacher.hasClassInSemester(semester)) return reject(RejectionRuleEnum.QUOTA_OVERFLOW); // no quota in a semester off
+        List<String> cellTeachers = cell.getTeachers();
+        if (cellTeachers.contains(teacher.getName())) return reject(RejectionRuleEnum.ALREADY_HELD);
+        if (cellTeachers.size() >= 2) return reject(RejectionRuleEnum.CELL_FILLED);
+        
+        // Count the seeds kept so far in this semester, so both rules see the whole semester
+        Integer counted = countedSemester.put(teacher, semester);
+        if (counted == null || counted != semester) {
+            restoreSemesterState(teacher, semester);
+        }
+        RejectionRuleEnum rule = DutyAssignmentRules.findRejection(teacher, DutyAssignmentRules.getTimeSlot(cell.duty.getTimeSlot()));
+        if (rule != null) return reject(rule);
+        
+        List<Day> patternDays = termPatternGroups.get(cell.term).get(getDayPattern(cell.day.getDate().getDayOfWeek(), cell.day.isDay1()));
+        if (teacher.getDutiesThisSemester() + patternDays.size() > teacher.getMaxDutiesPerSemester()) {
+            return reject(RejectionRuleEnum.QUOTA_OVERFLOW);
+        }
+        teacher.assignDuty(cell.duty, patternDays.size());
+        cellTeachers.add(teacher.getName());
+        dutyIndex.add(teacher.getName(), cell.term, cell.day, cell.duty, patternDays);
+        metrics.recordAssignment();
+        slotsFilled++;
+        return true;
+    }
+
+    /**
+     * Reads the term of an exported schedule row
+     * 
+     * @param termText The term column, e.g. "Term 1"
+     * @return The term (0-3), or -1 if the text is not a term
+     */
+    private int parseTerm(String termText) {
+        try {
+            int term = Integer.parseInt(termText.replaceAll("[^0-9]", "")) - 1;
+            return term >= 0 && term < 4 ? term : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Reads the weekday of an exported schedule row
+     * 
+     * @param dayText The day column, e.g. "MONDAY"
+     * @return The weekday, or null if the text is not a school weekday
+     */
+    private DayOfWeek parseDayOfWeek(String dayText) {
+        try {
+            DayOfWeek dayOfWeek = DayOfWeek.valueOf(dayText.trim().toUpperCase());
+            return getDayPattern(dayOfWeek, true) != null ? dayOfWeek : null;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Lists the cells whose teachers differ between two snapshots
+     * 
+     * @param before Snapshot taken before the change
+     * @param after Snapshot taken after the change
+     * @return One "cell: old -> new" line per changed cell
+     */
+    private List<String> diffAssignments(Map<String, String> before, Map<String, String> after) {
+        Set<String> cellLabels = new LinkedHashSet<>(before.keySet());
+        cellLabels.addAll(after.keySet());
+        
+        List<String> changes = new ArrayList<>();
+        for (String cellLabel : cellLabels) {
+            String oldTeachers = before.getOrDefault(cellLabel, "");
+            String newTeachers = after.getOrDefault(cellLabel, "");
+            if (!oldTeachers.equals(newTeachers)) {
+                changes.add(String.format("%s: %s -> %s", cellLabel,
+                    oldTeachers.isEmpty() ? "UNASSIGNED" : oldTeachers,
+                    newTeachers.isEmpty() ? "UNASSIGNED" : newTeachers));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Gets how many teachers cover one (term, pattern, slot) cell.
+     * Safe to call from another thread while duties are being assigned; it only reads list sizes.
+     * 
+     * @param term The term (0-3)
+     * @param dayOfWeek The weekday
+     * @param isDay1 Whether the cell is for Day 1
+     * @param timeSlot The duty time slot index
+     * @return Number of teachers on the cell, or -1 if the pattern has no school days (or assignment has not started)
+     */
+    public int getCellStaffing(int term, DayOfWeek dayOfWeek, boolean isDay1, int timeSlot) {
+        List<Map<DayPattern, List<Day>>> groups = termPatternGroups;
+        DayPattern pattern = getDayPattern(dayOfWeek, isDay1);
+        if (groups == null || pattern == null || term >= groups.size()) return -1;
+        
+        List<Day> days = groups.get(term).get(pattern);
+        if (days == null || days.isEmpty()) return -1;
+        
+        int staffing = 0;
+        for (Duty duty : days.get(0).getDuties(timeSlot)) {
+            if (duty != null) {
+                staffing += isDay1 ? duty.getDay1Teachers().size() : duty.getDay2Teachers().size();
+            }
+        }
+        return staffing;
+    }
+
+    /**
+     * Gets the (semester, slot) candidate index built by the last assignDuties
+     * 
+     * @return The eligibility index, or null before duties have been assigned
+     */
+    public EligibilityIndex getEligibilityIndex() {
+        return eligibility;
+    }
+
+    /**
+     * Counts the duty cells covered by a given range of teachers, e.g. (0, 0) for unfilled duties
+     * or (2, Integer.MAX_VALUE) for duties shared by two or more teachers
+     * 
+     * @param minTeachers The fewest teachers a counted cell may have
+     * @param maxTeachers The most teachers a counted cell may have
+     * @return Number of (term, pattern, duty) cells in the range, 0 before assignment has started
+     */
+    public int countCellsWithStaffing(int minTeachers, int maxTeachers) {
+        if (termPatternGroups == null) return 0;
+        
+        int count = 0;
+        for (PatternCell cell : getPatternCells()) {
+            int staffing = cell.getTeachers().size();
+            if (staffing >= minTeachers && staffing <= maxTeachers) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Gets the duty units each teacher holds across the year, where a cell is worth its pattern count.
+     * Uses indexed reads so it can run alongside an assignment in progress.
+     * 
+     * @return Map of teacher name to duty units held
+     */
+    public Map<String, Integer> getTeacherLoads() {
+        Map<String, Integer> loads = new HashMap<>();
+        List<Map<DayPattern, List<Day>>> groups = termPatternGroups;
+        if (groups == null) return loads;
+        
+        for (int term = 0; term < groups.size(); term++) {
+            for (Map.Entry<DayPattern, List<Day>> entry : groups.get(term).entrySet()) {
+                List<Day> days = entry.getValue();
+                if (days.isEmpty()) continue;
+                Day templateDay = days.get(0);
+                for (Duty duty : templateDay.getDuties()) {
+                    List<String> names = templateDay.isDay1() ? duty.getDay1Teachers() : duty.getDay2Teachers();
+                    for (int i = 0; i < names.size(); i++) {
+                        loads.merge(names.get(i), days.size(), Integer::sum);
+                    }
+                }
+            }
+        }
+        return loads;
+    }
+
+    /**
+     * Gets the duty units a teacher should hold across the year
+     * 
+     * @param teacher The teacher to check
+     * @return The semester maximum times the number of semesters the teacher has classes in
+     */
+    public int getYearlyQuota(Teacher teacher) {
+        int quota = 0;
+        for (int semester = 0; semester < 2; semester++) {
+            if (teacher.hasClassInSemester(semester)) {
+                quota += Math.max(teacher.getMaxDutiesPerSemester(), 0);
+            }
+        }
+        return quota;
+    }
+
+    /**
+     * Copies the current assignment into an immutable snapshot that other threads can read
+     * 
+     * @param engine The engine that produced the assignment
+     * @return The snapshot
+     */
+    public ScheduleSnapshot captureSnapshot(AssignmentEngineEnum engine) {
+        return ScheduleSnapshot.capture(engine, this, teachers, 0);
     }
-} 
\ No newline at end of file
+}
@@ -18,6 +18,8 @@ import java.util.Set;
  *      
  *  Methods:
  * 	  - canAssignDuty, boolean, checks if a teacher can be assigned a duty based on their schedule
+ *    - findRejection, RejectionRuleEnum, gets the first rule that stops a teacher taking a duty
+ *    - findStaticRejection, RejectionRuleEnum, gets the first timetable rule that stops a teacher taking a duty
  *    - canDoAdjacentPeriodDuty, boolean, checks if a teacher can do a duty based on their schedule in adjacent periods
  *    - hasClassDuringTimeSlot, boolean, checks if a teacher has a class during the specified time slot
  *    - getTimeSlot, int, converts a duty time slot string to a schedule index
@@ -31,6 +33,9 @@ public class DutyAssignmentRules {
     private static final String DAY_1_IDENTIFIER = "D1";
     private static final String DAY_2_IDENTIFIER = "D2";
     
+    // Number of schedule time slots getTimeSlot can return (0-6)
+    public static final int TIME_SLOT_COUNT = 7;
+    
     // Time slot constants
     //private static final int PERIOD_1_SLOT = 0;
     private static final int PERIOD_2_SLOT = 1;
@@ -71,7 +76,9 @@ public class DutyAssignmentRules {
     }};
     
     /**
-     * Determines if it's a Day 1 or Day 2 based on the slot number
+     * Determines if it's a Day 1 or Day 2 from the day of the month alone.
+     * Only a fallback for days outside a Calendar; a calendar's days use the rotation
+     * it works out from the school days (see Calendar.applyRotation).
      * @param date The date to check
      * @return true if it's Day 1 (odd slot), false if Day 2 (even slot)
      */
@@ -102,17 +109,44 @@ public class DutyAssignmentRules {
      */
     public static boolean canAssignDuty(Teacher teacher, int timeSlot) {
         if (timeSlot == -1){ System.out.println("ERROR: Invalid time slot " + timeSlot); return false; }
+        return findRejection(teacher, timeSlot) == null;
+    }
+
+    /**
+     * Gets the first schedule rule that stops a teacher taking a duty, checked in the same
+     * order as canAssignDuty
+     * @param teacher The teacher to check
+     * @param timeSlot The time slot for the duty
+     * @return the rule that rejects the teacher, or null if the teacher can take the duty
+     */
+    public static RejectionRuleEnum findRejection(Teacher teacher, int timeSlot) {
+        if (timeSlot == -1) return RejectionRuleEnum.INVALID_SLOT;
+        
+        RejectionRuleEnum staticRule = findStaticRejection(teacher, timeSlot);
+        if (staticRule != null) return staticRule;
+        
+        // Check for consecutive duties
+        if (hasConsecutiveDuty(teacher, timeSlot)) return RejectionRuleEnum.CONSECUTIVE_DUTY;
         
+        return null;
+    }
+
+    /**
+     * Gets the first rule that stops a teacher taking a duty based on their timetable alone.
+     * These answers never change while duties are assigned, so they can be computed once
+     * (see EligibilityIndex)
+     * @param teacher The teacher to check
+     * @param timeSlot The time slot for the duty
+     * @return the rule that rejects the teacher, or null if the timetable allows the duty
+     */
+    public static RejectionRuleEnum findStaticRejection(Teacher teacher, int timeSlot) {
         // Check if teacher has classes during the duty time slot
-        if (hasClassDuringTimeSlot(teacher, timeSlot)) return false;
+        if (hasClassDuringTimeSlot(teacher, timeSlot)) return RejectionRuleEnum.CLASS_CONFLICT;
         
         // Check adjacent period rules
-        if (!canDoAdjacentPeriodDuty(teacher, timeSlot)) return false;
-        
-        // Check for consecutive duties
-        if (hasConsecutiveDuty(teacher, timeSlot)) return false;
+        if (!canDoAdjacentPeriodDuty(teacher, timeSlot)) return RejectionRuleEnum.ADJACENT_PERIOD;
         
-        return true;
+        return null;
     }
 
     /**
@@ -190,7 +224,7 @@ public class DutyAssignmentRules {
      * @param timeSlot The time slot for the potential duty
      * @return true if the teacher has a duty within 2 time slots before or after
      */
-    private static boolean hasConsecutiveDuty(Teacher teacher, int timeSlot) {
+    public static boolean hasConsecutiveDuty(Teacher teacher, int timeSlot) {
         Set<Duty> assignedDuties = teacher.getAssignedDuties();
         
         // Check duties within 2 time slots before and after
@@ -0,0 +1,202 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * EligibilityIndex.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    EligibilityIndex class, an inverted index from (semester, time slot) to the teachers whose
+ *    timetable allows a duty there. The timetable rules (class conflicts, Lunch A/B adjacency),
+ *    zero-duty teachers and semesters without classes never change while duties are assigned, so
+ *    they are checked once per teacher and slot when the index is built instead of on every pass.
+ *    Candidates are kept as one BitSet per (semester, slot) over the teachers' list positions;
+ *    the rule that rejected each (teacher, slot) is kept in a byte table for the metrics.
+ *    Only the consecutive duty and quota rules still need checking per candidate.
+ *    Rosters of PARALLEL_THRESHOLD teachers or more are indexed on the common fork/join pool.
+ *
+ *  Methods:
+ * 	  - build, EligibilityIndex, builds the index for a list of teachers
+ *    - update, void, re-indexes one teacher after their timetable was edited
+ *    - isCandidate, boolean, checks if a teacher's timetable allows a duty in a semester and slot
+ *    - getCandidates, BitSet, gets the teachers whose timetable allows a duty in a semester and slot
+ *    - getCandidateCount, int, gets how many teachers can take a duty in a semester and slot
+ *    - getAnyCandidates, BitSet, gets the teachers who can take a duty in at least one semester and slot
+ *    - getStaticRejection, RejectionRuleEnum, gets the timetable rule that rejects a teacher for a slot
+ *    - indexOf, int, gets a teacher's position in the index
+ *    - getTeacher, Teacher, gets the teacher at a position in the index
+ *    - size, int, gets the number of teachers indexed
+ *
+*/
+
+public class EligibilityIndex {
+    public static final int SEMESTERS = 2;
+    public static final int PARALLEL_THRESHOLD = 1024;
+    private static final int SLOTS = DutyAssignmentRules.TIME_SLOT_COUNT;
+    private static final int PERIODS_PER_SEMESTER = 5;
+    private static final byte ELIGIBLE = 0;
+    private static final RejectionRuleEnum[] RULES = RejectionRuleEnum.values();
+
+    private final List<Teacher> teachers;
+    private final Map<Teacher, Integer> positions;
+    private final byte[] staticRules;     // [teacher * SLOTS + slot], rule ordinal + 1, or ELIGIBLE
+    private final boolean[] active;       // [teacher * SEMESTERS + semester], has duties and classes that semester
+    private final BitSet[] candidates;    // [semester * SLOTS + slot]
+
+    private EligibilityIndex(List<Teacher> teachers) {
+        this.teachers = new ArrayList<>(teachers);
+        this.positions = new IdentityHashMap<>(teachers.size() * 2);
+        this.staticRules = new byte[teachers.size() * SLOTS];
+        this.active = new boolean[teachers.size() * SEMESTERS];
+        this.candidates = new BitSet[SEMESTERS * SLOTS];
+        for (int i = 0; i < candidates.length; i++) {
+            candidates[i] = new BitSet(teachers.size());
+        }
+    }
+
+    /**
+     * Builds the index for a list of teachers
+     * @param teachers the teachers, indexed by their position in this list
+     * @return the index
+     */
+    public static EligibilityIndex build(List<Teacher> teachers) {
+        EligibilityIndex index = new EligibilityIndex(teachers);
+        IntStream rows = IntStream.range(0, teachers.size());
+        if (teachers.size() >= PARALLEL_THRESHOLD) {
+            rows = rows.parallel();
+        }
+        // Each teacher only writes its own rows of the arrays, so they can be filled in parallel
+        rows.forEach(index::indexRow);
+
+        // BitSets are not thread safe, so the candidate sets are filled afterwards from the rows
+        for (int teacher = 0; teacher < teachers.size(); teacher++) {
+            index.positions.put(index.teachers.get(teacher), teacher);
+            index.setCandidateBits(teacher);
+        }
+        return index;
+    }
+
+    /**
+     * Re-indexes one teacher after their timetable was edited
+     * @param teacher the edited teacher, ignored if they were not in the original list
+     */
+    public void update(Teacher teacher) {
+        Integer position = positions.get(teacher);
+        if (position == null) return;
+        indexRow(position);
+        setCandidateBits(position);
+    }
+
+    /**
+     * Checks if a teacher's timetable allows a duty in a semester and slot
+     * @param semester the semester (0 or 1)
+     * @param timeSlot the schedule time slot from DutyAssignmentRules.getTimeSlot
+     * @param teacher the teacher's position in the index
+     * @return true if the teacher is a candidate
+     */
+    public boolean isCandidate(int semester, int timeSlot, int teacher) {
+        return candidates[semester * SLOTS + timeSlot].get(teacher);
+    }
+
+    /**
+     * Gets the teachers whose timetable allows a duty in a semester and slot.
+     * The set is the index's own; callers must not change it.
+     * @param semester the semester (0 or 1)
+     * @param timeSlot the schedule time slot from DutyAssignmentRules.getTimeSlot
+     * @return bits set at the positions of the candidate teachers
+     */
+    public BitSet getCandidates(int semester, int timeSlot) {
+        return candidates[semester * SLOTS + timeSlot];
+    }
+
+    /**
+     * Gets how many teachers can take a duty in a semester and slot
+     * @param semester the semester (0 or 1)
+     * @param timeSlot the schedule time slot from DutyAssignmentRules.getTimeSlot
+     * @return number of candidate teachers
+     */
+    public int getCandidateCount(int semester, int timeSlot) {
+        return candidates[semester * SLOTS + timeSlot].cardinality();
+    }
+
+    /**
+     * Gets the teachers whose timetable allows a duty in at least one semester and slot,
+     * the only teachers a pass over the roster needs to visit
+     * @return a new set with bits at the positions of those teachers
+     */
+    public BitSet getAnyCandidates() {
+        BitSet any = new BitSet(teachers.size());
+        for (BitSet slotCandidates : candidates) {
+            any.or(slotCandidates);
+        }
+        return any;
+    }
+
+    /**
+     * Gets the timetable rule that rejects a teacher for a slot, as DutyAssignmentRules.findStaticRejection would
+     * @param teacher the teacher's position in the index
+     * @param timeSlot the schedule time slot from DutyAssignmentRules.getTimeSlot
+     * @return the rejecting rule, or null if the timetable allows the duty
+     */
+    public RejectionRuleEnum getStaticRejection(int teacher, int timeSlot) {
+        byte rule = staticRules[teacher * SLOTS + timeSlot];
+        return rule == ELIGIBLE ? null : RULES[rule - 1];
+    }
+
+    /**
+     * Gets a teacher's position in the index
+     * @param teacher the teacher to find
+     * @return the position, or -1 if the teacher was not indexed
+     */
+    public int indexOf(Teacher teacher) {
+        Integer position = positions.get(teacher);
+        return position == null ? -1 : position;
+    }
+
+    public Teacher getTeacher(int position) {
+        return teachers.get(position);
+    }
+
+    public int size() {
+        return teachers.size();
+    }
+
+    private void indexRow(int position) {
+        Teacher teacher = teachers.get(position);
+        for (int slot = 0; slot < SLOTS; slot++) {
+            RejectionRuleEnum rule = DutyAssignmentRules.findStaticRejection(teacher, slot);
+            staticRules[position * SLOTS + slot] = rule == null ? ELIGIBLE : (byte) (rule.ordinal() + 1);
+        }
+        List<String> schedule = teacher.getSchedule();
+        for (int semester = 0; semester < SEMESTERS; semester++) {
+            active[position * SEMESTERS + semester] = teacher.getMaxDutiesPerSemester() > 0
+                && hasClasses(schedule, semester);
+        }
+    }
+
+    private void setCandidateBits(int position) {
+        for (int semester = 0; semester < SEMESTERS; semester++) {
+            for (int slot = 0; slot < SLOTS; slot++) {
+                boolean candidate = active[position * SEMESTERS + semester] && staticRules[position * SLOTS + slot] == ELIGIBLE;
+                candidates[semester * SLOTS + slot].set(position, candidate);
+            }
+        }
+    }
+
+    private static boolean hasClasses(List<String> schedule, int semester) {
+        int start = semester * PERIODS_PER_SEMESTER;
+        for (int period = start; period < start + PERIODS_PER_SEMESTER && period < schedule.size(); period++) {
+            if (!schedule.get(period).isEmpty()) return true;
+        }
+        return false;
+    }
+}
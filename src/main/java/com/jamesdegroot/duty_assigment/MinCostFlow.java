@@ -0,0 +1,218 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.Arrays;
+
+/**
+ * MinCostFlow.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    MinCostFlow class, a minimum cost maximum flow solver using successive shortest paths.
+ *    Each augmenting path is found with Dijkstra over reduced costs (Johnson potentials), so edge
+ *    costs must start non-negative. The graph is stored as primitive arrays (a forward-star list
+ *    where edge e and its reverse edge e ^ 1 sit side by side) to keep large rosters cheap.
+ *
+ *  Methods:
+ * 	  - addEdge, int, adds a directed edge and returns its id
+ *    - solve, long, pushes as much flow as possible from source to sink at the lowest cost
+ *    - getFlow, int, gets the flow on an edge after solving
+ *
+*/
+
+class MinCostFlow {
+    private static final int INITIAL_EDGES = 64;
+    private static final long INFINITE = Long.MAX_VALUE / 4;
+
+    private final int nodeCount;
+    private final int[] firstEdge;  // first outgoing edge of each node, -1 if none
+    private int[] nextEdge;         // next outgoing edge of the same node
+    private int[] target;
+    private int[] capacity;         // remaining capacity
+    private int[] initialCapacity;
+    private long[] cost;
+    private int edgeCount;
+
+    MinCostFlow(int nodeCount) {
+        this.nodeCount = nodeCount;
+        this.firstEdge = new int[nodeCount];
+        Arrays.fill(firstEdge, -1);
+        nextEdge = new int[INITIAL_EDGES];
+        target = new int[INITIAL_EDGES];
+        capacity = new int[INITIAL_EDGES];
+        initialCapacity = new int[INITIAL_EDGES];
+        cost = new long[INITIAL_EDGES];
+    }
+
+    /**
+     * Adds a directed edge and its zero capacity reverse edge
+     * @param from the tail node
+     * @param to the head node
+     * @param edgeCapacity how much flow the edge can carry
+     * @param edgeCost the cost per unit of flow, must not be negative
+     * @return the edge id, for getFlow
+     */
+    int addEdge(int from, int to, int edgeCapacity, long edgeCost) {
+        if (edgeCost < 0) throw new IllegalArgumentException("Edge costs must not be negative: " + edgeCost);
+        int id = edgeCount;
+        link(from, to, edgeCapacity, edgeCost);
+        link(to, from, 0, -edgeCost);
+        return id;
+    }
+
+    /**
+     * Pushes as much flow as possible from source to sink at the lowest total cost
+     * @param source the source node
+     * @param sink the sink node
+     * @return the amount of flow pushed
+     */
+    long solve(int source, int sink) {
+        long[] potential = new long[nodeCount];
+        long[] distance = new long[nodeCount];
+        int[] viaEdge = new int[nodeCount];
+        IndexedHeap heap = new IndexedHeap(nodeCount);
+        long flow = 0;
+
+        while (true) {
+            Arrays.fill(distance, INFINITE);
+            Arrays.fill(viaEdge, -1);
+            distance[source] = 0;
+            heap.push(source, 0);
+            while (!heap.isEmpty()) {
+                int node = heap.pop();
+                for (int e = firstEdge[node]; e >= 0; e = nextEdge[e]) {
+                    if (capacity[e] == 0) continue;
+                    int next = target[e];
+                    long reduced = distance[node] + cost[e] + potential[node] - potential[next];
+                    if (reduced < distance[next]) {
+                        distance[next] = reduced;
+                        viaEdge[next] = e;
+                        heap.push(next, reduced);
+                    }
+                }
+            }
+            if (distance[sink] >= INFINITE) break;
+
+            for (int node = 0; node < nodeCount; node++) {
+                if (distance[node] < INFINITE) potential[node] += distance[node];
+            }
+
+            int pushed = Integer.MAX_VALUE;
+            for (int node = sink; node != source; node = target[viaEdge[node] ^ 1]) {
+                pushed = Math.min(pushed, capacity[viaEdge[node]]);
+            }
+            for (int node = sink; node != source; node = target[viaEdge[node] ^ 1]) {
+                int e = viaEdge[node];
+                capacity[e] -= pushed;
+                capacity[e ^ 1] += pushed;
+            }
+            flow += pushed;
+        }
+        return flow;
+    }
+
+    /**
+     * Gets the flow on an edge after solving
+     * @param edge the id returned by addEdge
+     * @return the units of flow on the edge
+     */
+    int getFlow(int edge) {
+        return initialCapacity[edge] - capacity[edge];
+    }
+
+    private void link(int from, int to, int edgeCapacity, long edgeCost) {
+        if (edgeCount == target.length) {
+            int size = edgeCount * 2;
+            nextEdge = Arrays.copyOf(nextEdge, size);
+            target = Arrays.copyOf(target, size);
+            capacity = Arrays.copyOf(capacity, size);
+            initialCapacity = Arrays.copyOf(initialCapacity, size);
+            cost = Arrays.copyOf(cost, size);
+        }
+        target[edgeCount] = to;
+        capacity[edgeCount] = edgeCapacity;
+        initialCapacity[edgeCount] = edgeCapacity;
+        cost[edgeCount] = edgeCost;
+        nextEdge[edgeCount] = firstEdge[from];
+        firstEdge[from] = edgeCount;
+        edgeCount++;
+    }
+
+    // Binary min-heap of nodes keyed by distance, with decrease-key through a position table
+    private static class IndexedHeap {
+        private final int[] nodes;
+        private final long[] keys;
+        private final int[] positions; // position of each node in the heap, -1 if absent
+        private int size;
+
+        IndexedHeap(int capacity) {
+            nodes = new int[capacity];
+            keys = new long[capacity];
+            positions = new int[capacity];
+            Arrays.fill(positions, -1);
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void push(int node, long key) {
+            int at = positions[node];
+            if (at < 0) {
+                at = size++;
+                nodes[at] = node;
+                positions[node] = at;
+            }
+            keys[at] = key;
+            siftUp(at);
+        }
+
+        int pop() {
+            int top = nodes[0];
+            positions[top] = -1;
+            size--;
+            if (size > 0) {
+                move(size, 0);
+                siftDown(0);
+            }
+            return top;
+        }
+
+        private void siftUp(int at) {
+            while (at > 0) {
+                int parent = (at - 1) / 2;
+                if (keys[parent] <= keys[at]) break;
+                swap(at, parent);
+                at = parent;
+            }
+        }
+
+        private void siftDown(int at) {
+            while (true) {
+                int smallest = at;
+                int left = at * 2 + 1;
+                int right = left + 1;
+                if (left < size && keys[left] < keys[smallest]) smallest = left;
+                if (right < size && keys[right] < keys[smallest]) smallest = right;
+                if (smallest == at) return;
+                swap(at, smallest);
+                at = smallest;
+            }
+        }
+
+        private void move(int from, int to) {
+            nodes[to] = nodes[from];
+            keys[to] = keys[from];
+            positions[nodes[to]] = to;
+        }
+
+        private void swap(int a, int b) {
+            int node = nodes[a];
+            long key = keys[a];
+            move(b, a);
+            nodes[b] = node;
+            keys[b] = key;
+            positions[node] = b;
+        }
+    }
+}
@@ -0,0 +1,289 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import com.jamesdegroot.metrics.AssignmentMetrics;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * MinCostFlowScheduler.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    MinCostFlowScheduler class, assigns duties by solving each semester once as a transportation
+ *    problem measured in cells. Each teacher supplies as many cells as their semester quota could
+ *    hold, each cell demands one teacher, and a teacher can reach a cell when their timetable allows
+ *    its time slot (EligibilityIndex). Because eligibility only depends on the time slot, teachers
+ *    connect to one hub per slot and each hub connects to its slot's cells, so the graph stays small
+ *    for large rosters:
+ *
+ *      source -> teacher (one edge per cell the quota could hold, each dearer than the last)
+ *             -> teacher slot group (one cell, slots 0-2, 3-5 and 6 are consecutive)
+ *             -> slot hub (one cell, a teacher takes at most one cell per slot)
+ *             -> sink (one edge of one teacher per cell, hall cells cost a little more)
+ *
+ *    A teacher's duties must be at least three slots apart (DutyAssignmentRules.hasConsecutiveDuty),
+ *    so no two can share a slot group; the group edges keep the flow from planning them. Every unit
+ *    of flow is one whole cell from one teacher, so the minimum cost maximum flow covers as many cells
+ *    as it can, spreads them over the least loaded teachers and prefers non-hall duties. Each hub's
+ *    teachers are then paired with its cells, the largest cell to the teacher with the most quota
+ *    left, and applied through DutyAssigner.tryAssignDutyToTeacher, which enforces the exact rules the
+ *    flow relaxes (quota in duty units, consecutive duties across group edges, hall gating).
+ *    Cells the rules turn down are repaired from the least loaded candidates who have no consecutive
+ *    duty and quota left, non-hall cells before the hall cells they gate. A cell only gets a second
+ *    teacher once no cell of the semester is empty, so every cell is filled once before any twice.
+ *    Every teacher's semester count is reset once per semester, so the quota holds over the semester.
+ *
+ *  Methods:
+ * 	  - run, boolean, assigns duties for both semesters
+ *    - solveSemester, List, builds and solves the flow for one semester and returns its pairs
+ *    - pairHub, void, turns one slot hub's flow into teacher and cell pairs
+ *    - commitPairs, void, assigns the pairs of hall or non-hall cells
+ *    - commit, boolean, assigns a teacher to a cell through the assigner's rules
+ *    - repair, boolean, fills places the flow could not place from the least loaded candidates
+ *
+*/
+
+class MinCostFlowScheduler {
+    private static final int SOURCE = 0;
+    private static final int SINK = 1;
+    private static final int FIRST_TEACHER_NODE = 2;
+    private static final int FIRST_PLACE = 0;
+    private static final int SECOND_PLACE = 1;
+    private static final int SLOT_GROUP_WIDTH = 3; // slots closer than this are consecutive duties
+    private static final long LOAD_COST = 4;      // per cell a teacher was already given this semester
+    private static final long HALL_COST = 1;      // a hall cell costs this much more than a non-hall cell
+    private static final String HALL = "Hall";
+
+    private final DutyAssigner assigner;
+    private final EligibilityIndex index;
+    private final AssignmentMetrics metrics = AssignmentMetrics.get();
+
+    // State of the semester being scheduled
+    private int semester;
+    private List<DutyAssigner.PatternCell> cells;
+    private int[] cellSlot;
+    private int[] cellWorth;
+    private boolean[] cellHall;
+
+    MinCostFlowScheduler(DutyAssigner assigner, EligibilityIndex index) {
+        this.assigner = assigner;
+        this.index = index;
+    }
+
+    /**
+     * Assigns duties for both semesters, one flow each. The semester counts and held duties are reset
+     * once per semester, so the flow, its commit and the repair all share them. A semester's cells are
+     * emptied before it is solved and the assigner is told when it is done.
+     * @return true if both semesters ran, false if the assigner asked to stop part way
+     */
+    boolean run() {
+        for (semester = 0; semester < EligibilityIndex.SEMESTERS; semester++) {
+            if (assigner.isStopRequested()) return false;
+            for (int teacher = 0; teacher < index.size(); teacher++) {
+                index.getTeacher(teacher).resetDutiesForNewSemester();
+            }
+            assigner.clearSemester(semester);
+            collectCells();
+            List<int[]> pairs = solveSemester();
+            // Non-hall cells first, they gate the hall cells
+            commitPairs(pairs, false);
+            if (!repair(false, FIRST_PLACE)) return false;
+            commitPairs(pairs, true);
+            if (!repair(true, FIRST_PLACE)) return false;
+            if (!repair(false, SECOND_PLACE) || !repair(true, SECOND_PLACE)) return false;
+            metrics.recordPass();
+            assigner.semesterSolved();
+        }
+        return true;
+    }
+
+    /**
+     * Builds and solves the flow for one semester
+     * @return the (teacher, cell) pairs the flow found
+     */
+    private List<int[]> solveSemester() {
+        int teachers = index.size();
+        int slots = DutyAssignmentRules.TIME_SLOT_COUNT;
+        int groups = (slots + SLOT_GROUP_WIDTH - 1) / SLOT_GROUP_WIDTH;
+        int firstGroup = FIRST_TEACHER_NODE + teachers;
+        int firstHub = firstGroup + teachers * groups;
+        MinCostFlow flow = new MinCostFlow(firstHub + slots);
+        List<int[]> pairs = new ArrayList<>();
+
+        boolean[] slotUsed = new boolean[slots];
+        int smallestWorth = Integer.MAX_VALUE;
+        for (int cell = 0; cell < cells.size(); cell++) {
+            if (cellSlot[cell] < 0) continue;
+            slotUsed[cellSlot[cell]] = true;
+            smallestWorth = Math.min(smallestWorth, cellWorth[cell]);
+        }
+        if (smallestWorth == Integer.MAX_VALUE) return pairs;
+
+        // Teachers: one edge per cell their quota could hold, each dearer than the last, keeps the load balanced
+        int[] hubEdges = new int[teachers * slots];
+        for (int teacher = 0; teacher < teachers; teacher++) {
+            boolean[] groupUsed = new boolean[groups];
+            int reachable = 0;
+            for (int slot = 0; slot < slots; slot++) {
+                hubEdges[teacher * slots + slot] = -1;
+                if (slotUsed[slot] && index.isCandidate(semester, slot, teacher)) {
+                    int group = slot / SLOT_GROUP_WIDTH;
+                    hubEdges[teacher * slots + slot] = flow.addEdge(firstGroup + teacher * groups + group, firstHub + slot, 1, 0);
+                    if (!groupUsed[group]) {
+                        groupUsed[group] = true;
+                        flow.addEdge(FIRST_TEACHER_NODE + teacher, firstGroup + teacher * groups + group, 1, 0);
+                        reachable++;
+                    }
+                }
+            }
+            int most = Math.min(Math.max(index.getTeacher(teacher).getMaxDutiesPerSemester(), 0) / smallestWorth, reachable);
+            for (int given = 0; given < most; given++) {
+                flow.addEdge(SOURCE, FIRST_TEACHER_NODE + teacher, 1, given * LOAD_COST);
+            }
+        }
+
+        // Cells: one teacher each
+        int[] cellEdges = new int[cells.size()];
+        for (int cell = 0; cell < cells.size(); cell++) {
+            cellEdges[cell] = cellSlot[cell] < 0 ? -1
+                : flow.addEdge(firstHub + cellSlot[cell], SINK, 1, cellHall[cell] ? HALL_COST : 0);
+        }
+        flow.solve(SOURCE, SINK);
+
+        int[] planned = new int[teachers];
+        for (int slot = 0; slot < slots; slot++) {
+            pairHub(flow, slot, hubEdges, cellEdges, planned, pairs);
+        }
+        return pairs;
+    }
+
+    /**
+     * Turns one slot hub's flow into (teacher, cell) pairs. Every teacher with a unit into the hub
+     * and every cell with a unit out of it is one whole cell, so the two lists are the same length;
+     * the largest cells go to the teachers with the most quota left after their earlier pairs
+     * @param flow the solved flow
+     * @param slot the hub's time slot
+     * @param hubEdges the teacher group to hub edge of each teacher and slot, -1 if none
+     * @param cellEdges the hub to sink edge of each cell, -1 if none
+     * @param planned the duty units each teacher was paired with so far, updated
+     * @param pairs the list the pairs are added to
+     */
+    private void pairHub(MinCostFlow flow, int slot, int[] hubEdges, int[] cellEdges, int[] planned, List<int[]> pairs) {
+        int slots = DutyAssignmentRules.TIME_SLOT_COUNT;
+        List<Integer> hubTeachers = new ArrayList<>();
+        for (int teacher = 0; teacher < index.size(); teacher++) {
+            int edge = hubEdges[teacher * slots + slot];
+            if (edge >= 0 && flow.getFlow(edge) > 0) hubTeachers.add(teacher);
+        }
+        List<Integer> hubCells = new ArrayList<>();
+        for (int cell = 0; cell < cells.size(); cell++) {
+            if (cellSlot[cell] == slot && cellEdges[cell] >= 0 && flow.getFlow(cellEdges[cell]) > 0) hubCells.add(cell);
+        }
+        hubTeachers.sort((a, b) -> {
+            int leftA = index.getTeacher(a).getMaxDutiesPerSemester() - planned[a];
+            int leftB = index.getTeacher(b).getMaxDutiesPerSemester() - planned[b];
+            return leftA != leftB ? Integer.compare(leftB, leftA) : Integer.compare(a, b);
+        });
+        hubCells.sort((a, b) -> cellWorth[a] != cellWorth[b] ? Integer.compare(cellWorth[b], cellWorth[a]) : Integer.compare(a, b));
+        for (int i = 0; i < Math.min(hubTeachers.size(), hubCells.size()); i++) {
+            int teacher = hubTeachers.get(i);
+            int cell = hubCells.get(i);
+            planned[teacher] += cellWorth[cell];
+            pairs.add(new int[] {teacher, cell});
+        }
+    }
+
+    /**
+     * Assigns the pairs of hall or non-hall cells, the rules may turn some down
+     * @param pairs the (teacher, cell) pairs of the flow
+     * @param hall whether to assign the hall cells
+     */
+    private void commitPairs(List<int[]> pairs, boolean hall) {
+        for (int[] pair : pairs) {
+            if (cellHall[pair[1]] == hall) {
+                commit(pair[0], pair[1]);
+            }
+        }
+    }
+
+    /**
+     * Fills one place of the hall or non-hall cells, trying each cell's candidates from least to most
+     * loaded. Candidates with a consecutive duty or too little quota left are skipped, as the assigner
+     * would. Second places are only filled once no cell of the semester is empty.
+     * @param hall whether to repair the hall cells (after the non-hall cells they wait on)
+     * @param place the place to fill, FIRST_PLACE or SECOND_PLACE
+     * @return true if the repair finished, false if the assigner asked to stop
+     */
+    private boolean repair(boolean hall, int place) {
+        if (place > FIRST_PLACE) {
+            for (DutyAssigner.PatternCell cell : cells) {
+                if (cell.getTeachers().isEmpty()) return true; // every cell once before any cell twice
+            }
+        }
+        for (int cell = 0; cell < cells.size(); cell++) {
+            if (cellHall[cell] != hall || cellSlot[cell] < 0 || cells.get(cell).getTeachers().size() != place) continue;
+            if (assigner.isStopRequested()) return false;
+
+            List<Integer> order = new ArrayList<>();
+            BitSet candidates = index.getCandidates(semester, cellSlot[cell]);
+            for (int teacher = candidates.nextSetBit(0); teacher >= 0; teacher = candidates.nextSetBit(teacher + 1)) {
+                Teacher person = index.getTeacher(teacher);
+                if (person.getDutiesThisSemester() + cellWorth[cell] > person.getMaxDutiesPerSemester()) continue;
+                if (DutyAssignmentRules.hasConsecutiveDuty(person, cellSlot[cell])) continue;
+                order.add(teacher);
+            }
+            order.sort((a, b) -> {
+                int loadA = index.getTeacher(a).getDutiesThisSemester();
+                int loadB = index.getTeacher(b).getDutiesThisSemester();
+                return loadA != loadB ? Integer.compare(loadA, loadB) : Integer.compare(a, b);
+            });
+            for (int i = 0; i < order.size() && !commit(order.get(i), cell); i++) {
+                // the next candidate is tried until one is assigned
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Assigns a teacher to a cell through the assigner's rules: the one teacher rules for an empty
+     * cell, the two teacher rules for its second place. An empty hall cell still held back by an
+     * empty non-hall cell at this point has nobody left to wait for, so it takes the two teacher rules.
+     * @param teacher the teacher's position in the eligibility index
+     * @param cell the cell's position in the semester
+     * @return true if the teacher was assigned
+     */
+    private boolean commit(int teacher, int cell) {
+        DutyAssigner.PatternCell patternCell = cells.get(cell);
+        Teacher person = index.getTeacher(teacher);
+        if (patternCell.getTeachers().contains(person.getName())) return false;
+
+        int needed = person.getMaxDutiesPerSemester();
+        if (patternCell.getTeachers().isEmpty()
+                && !(cellHall[cell] && assigner.isHallGated(patternCell.day, patternCell.duty))) {
+            return assigner.tryAssignDutyToTeacher(person, patternCell.day, patternCell.duty, patternCell.term, cellHall[cell], needed);
+        }
+        return assigner.tryAssignDutyToTeacherFinalPass(person, patternCell.day, patternCell.duty, patternCell.term, needed);
+    }
+
+    private void collectCells() {
+        cells = new ArrayList<>();
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            if (cell.term / 2 == semester) {
+                cells.add(cell);
+            }
+        }
+        cellSlot = new int[cells.size()];
+        cellWorth = new int[cells.size()];
+        cellHall = new boolean[cells.size()];
+        for (int cell = 0; cell < cells.size(); cell++) {
+            DutyAssigner.PatternCell patternCell = cells.get(cell);
+            cellSlot[cell] = DutyAssignmentRules.getTimeSlot(patternCell.duty.getTimeSlot());
+            cellWorth[cell] = assigner.getPatternCount(patternCell);
+            cellHall[cell] = patternCell.duty.getName().contains(HALL);
+        }
+    }
+}
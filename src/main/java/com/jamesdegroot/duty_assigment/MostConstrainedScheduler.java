@@ -0,0 +1,311 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.metrics.AssignmentMetrics;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * MostConstrainedScheduler.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    MostConstrainedScheduler class, assigns duties one semester at a time with a priority queue
+ *    of teachers instead of fixed passes in file order. A teacher's priority is the number of
+ *    cells they can still take divided by the duty units they still need, so teachers with the
+ *    fewest options are served first and cannot be starved by teachers earlier in the file.
+ *    The chosen teacher takes the open cell with the fewest other candidates (non-hall duties first).
+ *    After every assignment only the affected priorities change: the assigned teacher's (quota and
+ *    consecutive duties), the other candidates of a cell that filled up, and the candidates of hall
+ *    duties that filling a non-hall duty unblocked. Stale queue entries are skipped by version.
+ *    Each semester is one pass: every teacher's semester count and held duties are reset once, then a
+ *    one-teacher-per-duty stage and a two-teachers-per-duty stage run against those same counters, so
+ *    no teacher goes over their semester quota or takes consecutive duties across the two stages
+ *    (DutyAssigner.tryAssignDutyToTeacher and tryAssignDutyToTeacherFinalPass make every assignment).
+ *    The second stage first covers the hall cells the first stage held back, and a cell only gets a
+ *    second teacher once no cell of the semester is empty, so every cell is filled once before any
+ *    cell is filled twice.
+ *
+ *  Methods:
+ * 	  - run, boolean, assigns duties for both semesters
+ *    - runStage, boolean, assigns one stage of a semester with a given number of teachers per duty
+ *    - canTake, boolean, checks if a teacher can take a cell right now
+ *    - refreshTeacher, void, re-checks every cell for one teacher
+ *    - updateCandidate, void, records whether a teacher can take a cell
+ *    - chooseCell, int, picks the open cell a teacher should take
+ *    - pushChanged, void, queues a fresh priority for every teacher whose options changed
+ *
+*/
+
+class MostConstrainedScheduler {
+    private static final int SINGLE_STAFFED = 1;
+    private static final int DOUBLE_STAFFED = 2;
+    private static final String HALL = "Hall";
+
+    private final DutyAssigner assigner;
+    private final EligibilityIndex index;
+    private final AssignmentMetrics metrics = AssignmentMetrics.get();
+
+    // State of the semester and stage being scheduled
+    private int semester;
+    private int maxTeachers;
+    private List<DutyAssigner.PatternCell> cells;
+    private int[] cellSlot;              // schedule time slot of each cell
+    private int[] cellWorth;             // duty units of each cell (its pattern's day count)
+    private boolean[] cellHall;
+    private List<List<Integer>> gatedBy; // hall cells each non-hall cell is holding back
+    private BitSet[] cellCandidates;     // teachers who can take each cell right now
+    private int[] cellCandidateCount;
+    private int[] openCells;             // cells each teacher can take right now
+    private int[] versions;              // bumped whenever a teacher's priority changes
+    private BitSet changed;              // teachers whose priority changed since the last push
+    private int emptyCells;              // cells of the semester without a teacher
+    private PriorityQueue<QueueEntry> queue;
+
+    // One queued priority of a teacher, stale once the teacher's version moves on
+    private static class QueueEntry {
+        final double priority;
+        final int teacher;
+        final int version;
+
+        QueueEntry(double priority, int teacher, int version) {
+            this.priority = priority;
+            this.teacher = teacher;
+            this.version = version;
+        }
+    }
+
+    MostConstrainedScheduler(DutyAssigner assigner, EligibilityIndex index) {
+        this.assigner = assigner;
+        this.index = index;
+    }
+
+    /**
+     * Assigns duties for both semesters, one pass each. The semester counts and held duties are reset
+     * once per semester and shared by the one teacher and two teacher stages. A semester's cells are
+     * emptied before it is solved and the assigner is told when it is done, so an AnytimeSolver can
+     * publish the schedule after each semester.
+     * @return true if every semester ran, false if the assigner asked to stop part way
+     */
+    boolean run() {
+        for (semester = 0; semester < EligibilityIndex.SEMESTERS; semester++) {
+            for (int teacher = 0; teacher < index.size(); teacher++) {
+                index.getTeacher(teacher).resetDutiesForNewSemester();
+            }
+            assigner.clearSemester(semester);
+            collectCells();
+            if (!runStage(SINGLE_STAFFED) || !runStage(DOUBLE_STAFFED)) return false;
+            metrics.recordPass();
+            assigner.semesterSolved();
+        }
+        return true;
+    }
+
+    /**
+     * Assigns one stage of a semester with a given number of teachers per duty
+     * @param teachersPerDuty the most teachers a duty may have in this stage
+     * @return true if the stage finished, false if the assigner asked to stop
+     */
+    private boolean runStage(int teachersPerDuty) {
+        maxTeachers = teachersPerDuty;
+        int teachers = index.size();
+        cellCandidates = new BitSet[cells.size()];
+        cellCandidateCount = new int[cells.size()];
+        for (int cell = 0; cell < cells.size(); cell++) {
+            cellCandidates[cell] = new BitSet(teachers);
+        }
+        openCells = new int[teachers];
+        versions = new int[teachers];
+        changed = new BitSet(teachers);
+        queue = new PriorityQueue<>((a, b) -> a.priority != b.priority
+            ? Double.compare(a.priority, b.priority) : Integer.compare(a.teacher, b.teacher));
+
+        emptyCells = 0;
+        for (DutyAssigner.PatternCell cell : cells) {
+            if (cell.getTeachers().isEmpty()) emptyCells++;
+        }
+        for (int teacher = 0; teacher < teachers; teacher++) {
+            refreshTeacher(teacher);
+        }
+        pushChanged();
+
+        while (!queue.isEmpty()) {
+            if (assigner.isStopRequested()) return false;
+            QueueEntry entry = queue.poll();
+            int teacher = entry.teacher;
+            if (entry.version != versions[teacher] || openCells[teacher] == 0) continue;
+
+            int cell = chooseCell(teacher);
+            boolean wasEmpty = cells.get(cell).getTeachers().isEmpty();
+            if (!assign(teacher, cell)) {
+                // The rules said no after all; drop the cell for this teacher and queue them again
+                updateCandidate(teacher, cell, false);
+                pushChanged();
+                continue;
+            }
+
+            refreshTeacher(teacher);
+            if (wasEmpty && --emptyCells == 0 && maxTeachers > SINGLE_STAFFED) {
+                // The last empty cell is covered, so every staffed cell opens for a second teacher
+                for (int other = 0; other < teachers; other++) {
+                    refreshTeacher(other);
+                }
+            }
+            if (cells.get(cell).getTeachers().size() >= maxTeachers || emptyCells > 0) {
+                BitSet others = cellCandidates[cell];
+                for (int other = others.nextSetBit(0); other >= 0; other = others.nextSetBit(other + 1)) {
+                    updateCandidate(other, cell, false);
+                }
+            }
+            if (maxTeachers == SINGLE_STAFFED) {
+                for (int hallCell : gatedBy.get(cell)) {
+                    BitSet possible = index.getCandidates(semester, cellSlot[hallCell]);
+                    for (int other = possible.nextSetBit(0); other >= 0; other = possible.nextSetBit(other + 1)) {
+                        updateCandidate(other, hallCell, canTake(other, hallCell));
+                    }
+                }
+            }
+            pushChanged();
+        }
+        return true;
+    }
+
+    /**
+     * Gathers the semester's cells with their slot, worth, type and the hall cells they hold back
+     */
+    private void collectCells() {
+        cells = new ArrayList<>();
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            if (cell.term / 2 == semester) {
+                cells.add(cell);
+            }
+        }
+        cellSlot = new int[cells.size()];
+        cellWorth = new int[cells.size()];
+        cellHall = new boolean[cells.size()];
+        gatedBy = new ArrayList<>();
+        Map<Duty, Integer> cellOfDuty = new IdentityHashMap<>();
+        for (int cell = 0; cell < cells.size(); cell++) {
+            DutyAssigner.PatternCell patternCell = cells.get(cell);
+            cellSlot[cell] = DutyAssignmentRules.getTimeSlot(patternCell.duty.getTimeSlot());
+            cellWorth[cell] = assigner.getPatternCount(patternCell);
+            cellHall[cell] = patternCell.duty.getName().contains(HALL);
+            cellOfDuty.put(patternCell.duty, cell);
+            gatedBy.add(new ArrayList<>());
+        }
+
+        // A hall duty waits on the non-hall duties isHallGated looks at on the same day
+        for (int cell = 0; cell < cells.size(); cell++) {
+            if (!cellHall[cell] || cellSlot[cell] < 0) continue;
+            for (Duty other : cells.get(cell).day.getDutySchedule()[cellSlot[cell]]) {
+                Integer gate = other == null ? null : cellOfDuty.get(other);
+                if (gate != null && !cellHall[gate]) {
+                    gatedBy.get(gate).add(cell);
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks if a teacher can take a cell right now, under the same rules as tryAssignDutyToTeacher
+     * @param teacher the teacher's position in the eligibility index
+     * @param cell the cell's position in the semester
+     * @return true if assigning would succeed
+     */
+    private boolean canTake(int teacher, int cell) {
+        int slot = cellSlot[cell];
+        if (slot < 0 || !index.isCandidate(semester, slot, teacher)) return false;
+
+        DutyAssigner.PatternCell patternCell = cells.get(cell);
+        Teacher person = index.getTeacher(teacher);
+        int staffed = patternCell.getTeachers().size();
+        if (staffed >= maxTeachers || (staffed > 0 && emptyCells > 0)) return false; // every cell once before any cell twice
+        if (person.hasDutyAssigned(patternCell.duty) || patternCell.getTeachers().contains(person.getName())) return false;
+        if (person.getDutiesThisSemester() + cellWorth[cell] > person.getMaxDutiesPerSemester()) return false;
+        if (maxTeachers == SINGLE_STAFFED && cellHall[cell] && assigner.isHallGated(patternCell.day, patternCell.duty)) {
+            return false;
+        }
+        return !DutyAssignmentRules.hasConsecutiveDuty(person, slot);
+    }
+
+    /**
+     * Re-checks every cell for one teacher, after their quota or duties changed
+     * @param teacher the teacher's position in the eligibility index
+     */
+    private void refreshTeacher(int teacher) {
+        for (int cell = 0; cell < cells.size(); cell++) {
+            updateCandidate(teacher, cell, canTake(teacher, cell));
+        }
+    }
+
+    /**
+     * Records whether a teacher can take a cell, keeping the counts in step
+     * @param teacher the teacher's position in the eligibility index
+     * @param cell the cell's position in the semester
+     * @param canTake whether the teacher can take the cell now
+     */
+    private void updateCandidate(int teacher, int cell, boolean canTake) {
+        if (cellCandidates[cell].get(teacher) == canTake) return;
+        cellCandidates[cell].set(teacher, canTake);
+        int change = canTake ? 1 : -1;
+        cellCandidateCount[cell] += change;
+        openCells[teacher] += change;
+        changed.set(teacher);
+    }
+
+    /**
+     * Picks the open cell a teacher should take: the emptiest cell, then non-hall before hall
+     * (in the one teacher stage), then the cell with the fewest other candidates, then the earliest cell
+     * @param teacher the teacher's position in the eligibility index
+     * @return the cell's position in the semester
+     */
+    private int chooseCell(int teacher) {
+        int best = -1;
+        for (int cell = 0; cell < cells.size(); cell++) {
+            if (!cellCandidates[cell].get(teacher)) continue;
+            if (best < 0 || isBetterCell(cell, best)) {
+                best = cell;
+            }
+        }
+        return best;
+    }
+
+    private boolean isBetterCell(int cell, int best) {
+        int staffed = cells.get(cell).getTeachers().size();
+        int bestStaffed = cells.get(best).getTeachers().size();
+        if (staffed != bestStaffed) return staffed < bestStaffed;
+        if (maxTeachers == SINGLE_STAFFED && cellHall[cell] != cellHall[best]) return !cellHall[cell];
+        return cellCandidateCount[cell] < cellCandidateCount[best];
+    }
+
+    private boolean assign(int teacher, int cell) {
+        DutyAssigner.PatternCell patternCell = cells.get(cell);
+        Teacher person = index.getTeacher(teacher);
+        int needed = person.getMaxDutiesPerSemester();
+        return maxTeachers == SINGLE_STAFFED
+            ? assigner.tryAssignDutyToTeacher(person, patternCell.day, patternCell.duty, patternCell.term, cellHall[cell], needed)
+            : assigner.tryAssignDutyToTeacherFinalPass(person, patternCell.day, patternCell.duty, patternCell.term, needed);
+    }
+
+    /**
+     * Queues a fresh priority for every teacher whose options or quota changed
+     */
+    private void pushChanged() {
+        for (int teacher = changed.nextSetBit(0); teacher >= 0; teacher = changed.nextSetBit(teacher + 1)) {
+            versions[teacher]++;
+            if (openCells[teacher] > 0) {
+                Teacher person = index.getTeacher(teacher);
+                int remaining = Math.max(person.getMaxDutiesPerSemester() - person.getDutiesThisSemester(), 1);
+                queue.add(new QueueEntry((double) openCells[teacher] / remaining, teacher, versions[teacher]));
+            }
+        }
+        changed.clear();
+    }
+}
@@ -0,0 +1,26 @@
+package com.jamesdegroot.duty_assigment;
+
+/**
+ * RejectionRuleEnum.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose: 
+ *    RejectionRuleEnum enum, used to record which rule turned a teacher down for a duty
+ *      
+ *  Methods:
+ * 	  - none
+ * 
+*/
+
+public enum RejectionRuleEnum {
+    CLASS_CONFLICT,     // Teacher has a class during the duty
+    ADJACENT_PERIOD,    // Lunch duty next to a period the teacher teaches
+    CONSECUTIVE_DUTY,   // Teacher already has a duty within two time slots
+    QUOTA_OVERFLOW,     // Duty is worth more than the teacher has left this semester
+    HALL_GATING,        // Hall duty held back while a non-hall duty in the slot is unfilled
+    CELL_FILLED,        // Duty already has its teacher (two in the final pass)
+    ALREADY_HELD,       // Teacher already holds this duty
+    WRONG_DUTY_TYPE,    // Pass is looking for hall duties and this is not one (or the reverse)
+    INVALID_SLOT        // Duty's time slot could not be read
+}
@@ -0,0 +1,275 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.calendar.SchoolYear;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * ScheduleSnapshot.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    ScheduleSnapshot class, an immutable copy of a finished assignment and its quality.
+ *    The teachers on every (term, pattern, slot) cell are copied out of the calendar, so the
+ *    snapshot stays valid while another engine reuses the same days and duties, and it can be
+ *    read from any thread. A snapshot is better than another when it breaks the rules less
+ *    (fewer teachers over a semester's quota, then fewer pairs of consecutive duties), then when
+ *    it leaves fewer cells empty, then fewer teachers under their quota. A schedule that fills
+ *    more cells by breaking a rule never wins over one that keeps them.
+ *    It also copies how many teachers cover each (term, weekday, day type, time slot) and each
+ *    teacher's load and yearly quota, so a view can draw the schedule without touching the calendar.
+ *
+ *  Methods:
+ * 	  - capture, ScheduleSnapshot, copies the current assignment of an assigner
+ *    - apply, void, puts the copied teachers back onto the calendar's duties
+ *    - isBetterThan, boolean, compares the quality of two snapshots
+ *    - getEngine, AssignmentEngineEnum, gets the engine that produced the assignment
+ *    - getUnfilledCells, int, gets the number of cells without a teacher
+ *    - getTeachersUnderQuota, int, gets the number of teachers below their yearly quota
+ *    - getTeachersOverQuota, int, gets the number of teachers above their quota in a semester
+ *    - getConsecutiveDuties, int, gets the number of duty pairs a teacher holds within two time slots
+ *    - getElapsedMillis, long, gets how long after the solve started the snapshot was taken
+ *    - getTeachers, List<String>, gets the teachers the snapshot holds for a duty
+ *    - getCellStaffing, int, gets how many teachers covered one (term, pattern, slot) cell
+ *    - getTeacherNames, List<String>, gets the names of the assigned teachers in roster order
+ *    - getTeacherLoads, int[], gets the duty units each teacher held across the year, in roster order
+ *    - getYearlyQuotas, int[], gets the duty units each teacher should hold across the year, in roster order
+ *
+*/
+
+public final class ScheduleSnapshot {
+    private static final int WEEKDAYS = 5;
+    private static final int DAY_TYPES = 2;
+    private static final int NO_SCHOOL = -1;
+
+    private final AssignmentEngineEnum engine;
+    private final int unfilledCells;
+    private final int teachersUnderQuota;
+    private final int teachersOverQuota;
+    private final int consecutiveDuties;
+    private final long elapsedMillis;
+    private final Map<Duty, List<String>> day1Teachers; // keyed by the template day's duty
+    private final Map<Duty, List<String>> day2Teachers;
+    private final int[] cellStaffing;            // [term][weekday][day type][time slot], NO_SCHOOL without school days
+    private final List<String> teacherNames;
+    private final int[] teacherLoads;
+    private final int[] yearlyQuotas;
+
+    private ScheduleSnapshot(AssignmentEngineEnum engine, int unfilledCells, int teachersUnderQuota,
+            int teachersOverQuota, int consecutiveDuties, long elapsedMillis, Map<Duty, List<String>> day1Teachers,
+            Map<Duty, List<String>> day2Teachers, int[] cellStaffing, List<String> teacherNames, int[] teacherLoads,
+            int[] yearlyQuotas) {
+        this.engine = engine;
+        this.unfilledCells = unfilledCells;
+        this.teachersUnderQuota = teachersUnderQuota;
+        this.teachersOverQuota = teachersOverQuota;
+        this.consecutiveDuties = consecutiveDuties;
+        this.elapsedMillis = elapsedMillis;
+        this.day1Teachers = day1Teachers;
+        this.day2Teachers = day2Teachers;
+        this.cellStaffing = cellStaffing;
+        this.teacherNames = teacherNames;
+        this.teacherLoads = teacherLoads;
+        this.yearlyQuotas = yearlyQuotas;
+    }
+
+    /**
+     * Copies the current assignment of an assigner and scores it
+     * @param engine the engine that produced the assignment
+     * @param assigner the assigner holding the assignment
+     * @param teachers the teachers that were assigned
+     * @param elapsedMillis time since the solve started
+     * @return the snapshot
+     */
+    static ScheduleSnapshot capture(AssignmentEngineEnum engine, DutyAssigner assigner, List<Teacher> teachers, long elapsedMillis) {
+        Map<Duty, List<String>> day1 = new IdentityHashMap<>();
+        Map<Duty, List<String>> day2 = new IdentityHashMap<>();
+        Map<String, int[]> semesterUnits = new HashMap<>();
+        Map<String, int[][]> semesterSlots = new HashMap<>(); // [semester][time slot] cells held
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            List<String> names = Collections.unmodifiableList(new ArrayList<>(cell.getTeachers()));
+            (cell.day.isDay1() ? day1 : day2).put(cell.duty, names);
+
+            int semester = cell.term / 2;
+            int slot = DutyAssignmentRules.getTimeSlot(cell.duty.getTimeSlot());
+            for (String name : names) {
+                semesterUnits.computeIfAbsent(name, key -> new int[EligibilityIndex.SEMESTERS])[semester] += assigner.getPatternCount(cell);
+                if (slot >= 0) {
+                    semesterSlots.computeIfAbsent(name, key -> new int[EligibilityIndex.SEMESTERS][DutyAssignmentRules.TIME_SLOT_COUNT])[semester][slot]++;
+                }
+            }
+        }
+
+        Map<String, Integer> loads = assigner.getTeacherLoads();
+        List<String> names = new ArrayList<>(teachers.size());
+        int[] teacherLoads = new int[teachers.size()];
+        int[] yearlyQuotas = new int[teachers.size()];
+        int under = 0;
+        int over = 0;
+        for (Teacher teacher : teachers) {
+            int load = loads.getOrDefault(teacher.getName(), 0);
+            teacherLoads[names.size()] = load;
+            yearlyQuotas[names.size()] = assigner.getYearlyQuota(teacher);
+            names.add(teacher.getName());
+            if (load < assigner.getYearlyQuota(teacher)) under++;
+            int[] units = semesterUnits.get(teacher.getName());
+            for (int semester = 0; units != null && semester < EligibilityIndex.SEMESTERS; semester++) {
+                int quota = teacher.hasClassInSemester(semester) ? Math.max(teacher.getMaxDutiesPerSemester(), 0) : 0;
+                if (units[semester] > quota) {
+                    over++;
+                    break;
+                }
+            }
+        }
+        int consecutive = 0;
+        for (int[][] slots : semesterSlots.values()) {
+            for (int[] held : slots) {
+                consecutive += countConsecutivePairs(held);
+            }
+        }
+
+        int[] staffing = new int[SchoolYear.TERMS * WEEKDAYS * DAY_TYPES * Day.TIME_SLOTS];
+        for (int term = 0; term < SchoolYear.TERMS; term++) {
+            for (int weekday = 0; weekday < WEEKDAYS; weekday++) {
+                for (int dayType = 0; dayType < DAY_TYPES; dayType++) {
+                    for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
+                        staffing[getCellIndex(term, weekday, dayType, timeSlot)] =
+                            assigner.getCellStaffing(term, DayOfWeek.of(weekday + 1), dayType == 0, timeSlot);
+                    }
+                }
+            }
+        }
+        return new ScheduleSnapshot(engine, assigner.countCellsWithStaffing(0, 0), under, over, consecutive, elapsedMillis,
+            Collections.unmodifiableMap(day1), Collections.unmodifiableMap(day2), staffing,
+            Collections.unmodifiableList(names), teacherLoads, yearlyQuotas);
+    }
+
+    /**
+     * Counts the pairs of cells one teacher holds in a semester within two time slots of each other,
+     * the pairs DutyAssignmentRules.hasConsecutiveDuty would have refused
+     * @param held the number of cells held in each time slot
+     * @return the number of pairs
+     */
+    private static int countConsecutivePairs(int[] held) {
+        int pairs = 0;
+        for (int slot = 0; slot < held.length; slot++) {
+            pairs += held[slot] * (held[slot] - 1) / 2;
+            for (int next = slot + 1; next < held.length && next - slot <= 2; next++) {
+                pairs += held[slot] * held[next];
+            }
+        }
+        return pairs;
+    }
+
+    /**
+     * Puts the copied teachers back onto the calendar's duties, replacing what is there
+     */
+    void apply() {
+        for (Map.Entry<Duty, List<String>> entry : day1Teachers.entrySet()) {
+            entry.getKey().getDay1Teachers().clear();
+            entry.getKey().getDay1Teachers().addAll(entry.getValue());
+        }
+        for (Map.Entry<Duty, List<String>> entry : day2Teachers.entrySet()) {
+            entry.getKey().getDay2Teachers().clear();
+            entry.getKey().getDay2Teachers().addAll(entry.getValue());
+        }
+    }
+
+    /**
+     * Compares the quality of two snapshots
+     * @param other the snapshot to beat, may be null
+     * @return true if this snapshot has fewer teachers over quota, then fewer consecutive duties,
+     *         then fewer empty cells, then fewer teachers under quota
+     */
+    public boolean isBetterThan(ScheduleSnapshot other) {
+        if (other == null) return true;
+        if (teachersOverQuota != other.teachersOverQuota) return teachersOverQuota < other.teachersOverQuota;
+        if (consecutiveDuties != other.consecutiveDuties) return consecutiveDuties < other.consecutiveDuties;
+        if (unfilledCells != other.unfilledCells) return unfilledCells < other.unfilledCells;
+        return teachersUnderQuota < other.teachersUnderQuota;
+    }
+
+    public AssignmentEngineEnum getEngine() {
+        return engine;
+    }
+
+    public int getUnfilledCells() {
+        return unfilledCells;
+    }
+
+    public int getTeachersUnderQuota() {
+        return teachersUnderQuota;
+    }
+
+    public int getTeachersOverQuota() {
+        return teachersOverQuota;
+    }
+
+    public int getConsecutiveDuties() {
+        return consecutiveDuties;
+    }
+
+    public long getElapsedMillis() {
+        return elapsedMillis;
+    }
+
+    /**
+     * Gets the teachers the snapshot holds for a duty of a pattern's first day
+     * @param duty the duty
+     * @param isDay1 whether to read the Day 1 or the Day 2 teachers
+     * @return the teachers, empty if the duty is not a cell of the snapshot
+     */
+    public List<String> getTeachers(Duty duty, boolean isDay1) {
+        return (isDay1 ? day1Teachers : day2Teachers).getOrDefault(duty, Collections.emptyList());
+    }
+
+    /**
+     * Gets how many teachers covered one (term, pattern, slot) cell, as DutyAssigner.getCellStaffing did
+     * @param term the term, 0 to 3
+     * @param dayOfWeek the weekday
+     * @param isDay1 whether the cell is on Day 1 or Day 2
+     * @param timeSlot the time slot of the day
+     * @return the number of teachers, or -1 if the term has no school days of that pattern
+     */
+    public int getCellStaffing(int term, DayOfWeek dayOfWeek, boolean isDay1, int timeSlot) {
+        int weekday = dayOfWeek.getValue() - 1;
+        if (term < 0 || term >= SchoolYear.TERMS || weekday >= WEEKDAYS || timeSlot < 0 || timeSlot >= Day.TIME_SLOTS) {
+            return NO_SCHOOL;
+        }
+        return cellStaffing[getCellIndex(term, weekday, isDay1 ? 0 : 1, timeSlot)];
+    }
+
+    public List<String> getTeacherNames() {
+        return teacherNames;
+    }
+
+    public int[] getTeacherLoads() {
+        return Arrays.copyOf(teacherLoads, teacherLoads.length);
+    }
+
+    public int[] getYearlyQuotas() {
+        return Arrays.copyOf(yearlyQuotas, yearlyQuotas.length);
+    }
+
+    private static int getCellIndex(int term, int weekday, int dayType, int timeSlot) {
+        return ((term * WEEKDAYS + weekday) * DAY_TYPES + dayType) * Day.TIME_SLOTS + timeSlot;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s: %d teachers over quota, %d consecutive duties, %d unfilled cells, %d teachers under quota (after %d ms)",
+            engine.name().toLowerCase().replace('_', '-'), teachersOverQuota, consecutiveDuties, unfilledCells,
+            teachersUnderQuota, elapsedMillis);
+    }
+}
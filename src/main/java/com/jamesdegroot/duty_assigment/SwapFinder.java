@@ -0,0 +1,269 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * SwapFinder.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    SwapFinder class, finds every valid partner for passing on or trading one duty.
+ *    Built once from the finished schedule, it keeps per teacher and semester the duty units
+ *    held and how many cells they hold in each time slot, which gives a small slot bit mask.
+ *    The cells each teacher holds come from the assigner's teacher to duty index.
+ *    Partners come from the EligibilityIndex set for the duty's (semester, slot), so the
+ *    timetable part of DutyAssignmentRules.canAssignDuty is already checked. The rest is a few
+ *    integer checks per partner and per duty the partner holds:
+ *      - consecutive duties: the mask of the slots the receiver keeps, ANDed with the slots
+ *        within two of the new duty (NEAR_SLOTS), must be empty
+ *      - quota: the receiver's semester units may not go over their maximum (or, for a teacher
+ *        already over it, may not grow)
+ *    Options are ranked by load impact (see SwapOption), then by the partner's load.
+ *
+ *  Methods:
+ * 	  - findSwaps, List<SwapOption>, finds the hand over and exchange partners for one held cell
+ *    - getHeldCells, List<Integer>, gets the cells a teacher holds
+ *    - indexOfCell, int, finds a cell by its term, pattern day and day schedule position
+ *    - getCellLabel, String, gets the readable label of a cell
+ *    - positionOf, int, finds a teacher's position in the eligibility index by name
+ *
+*/
+
+class SwapFinder {
+    private static final int SLOTS = DutyAssignmentRules.TIME_SLOT_COUNT;
+    private static final int SEMESTERS = EligibilityIndex.SEMESTERS;
+    private static final int CONSECUTIVE_SLOT_GAP = 2; // as in DutyAssignmentRules.hasConsecutiveDuty
+    private static final int[] NEAR_SLOTS = new int[SLOTS]; // slots that clash with each slot
+
+    static {
+        for (int slot = 0; slot < SLOTS; slot++) {
+            for (int other = Math.max(slot - CONSECUTIVE_SLOT_GAP, 0); other <= Math.min(slot + CONSECUTIVE_SLOT_GAP, SLOTS - 1); other++) {
+                NEAR_SLOTS[slot] |= 1 << other;
+            }
+        }
+    }
+
+    private final EligibilityIndex index;
+    private final List<DutyAssigner.PatternCell> cells;
+    private final Map<String, Integer> positions = new HashMap<>(); // teacher name to index position
+    private final String[] cellLabels;
+    private final int[] cellSemester;
+    private final int[] cellSlot;
+    private final int[] cellWorth;
+    private final int[][] cellHolders;  // index positions of each cell's teachers
+    private final int[][] heldCells;    // cells each teacher holds, by index position, once each however often they are listed
+    private final int[] loads;          // [teacher * SEMESTERS + semester], duty units held
+    private final byte[] slotCounts;    // [(teacher * SEMESTERS + semester) * SLOTS + slot], cells held
+    private final int[] slotMasks;      // [teacher * SEMESTERS + semester], bit i set if a cell in slot i is held
+
+    SwapFinder(DutyAssigner assigner, EligibilityIndex index) {
+        this.index = index;
+        this.cells = assigner.getPatternCells();
+        int teachers = index.size();
+        cellLabels = new String[cells.size()];
+        cellSemester = new int[cells.size()];
+        cellSlot = new int[cells.size()];
+        cellWorth = new int[cells.size()];
+        cellHolders = new int[cells.size()][];
+        loads = new int[teachers * SEMESTERS];
+        slotCounts = new byte[teachers * SEMESTERS * SLOTS];
+        slotMasks = new int[teachers * SEMESTERS];
+
+        for (int teacher = teachers - 1; teacher >= 0; teacher--) {
+            positions.put(index.getTeacher(teacher).getName(), teacher); // first of a repeated name wins
+        }
+
+        Map<Duty, Integer> cellOfDuty = new IdentityHashMap<>(); // template duty to its cell
+        for (int cell = 0; cell < cells.size(); cell++) {
+            DutyAssigner.PatternCell patternCell = cells.get(cell);
+            cellLabels[cell] = assigner.getCellLabel(patternCell);
+            cellSemester[cell] = patternCell.term / 2;
+            cellSlot[cell] = DutyAssignmentRules.getTimeSlot(patternCell.duty.getTimeSlot());
+            cellWorth[cell] = assigner.getPatternCount(patternCell);
+            cellOfDuty.put(patternCell.duty, cell);
+
+            List<String> names = patternCell.getTeachers();
+            int[] holders = new int[names.size()];
+            int count = 0;
+            for (String name : names) {
+                Integer teacher = positions.get(name);
+                if (teacher == null) continue;
+                holders[count++] = teacher;
+                int row = teacher * SEMESTERS + cellSemester[cell];
+                loads[row] += cellWorth[cell];
+                if (cellSlot[cell] >= 0) {
+                    slotCounts[row * SLOTS + cellSlot[cell]]++;
+                    slotMasks[row] |= 1 << cellSlot[cell];
+                }
+            }
+            cellHolders[cell] = Arrays.copyOf(holders, count);
+        }
+        heldCells = new int[teachers][];
+        for (int teacher = 0; teacher < teachers; teacher++) {
+            String name = index.getTeacher(teacher).getName();
+            if (positions.get(name) != teacher) {
+                heldCells[teacher] = new int[0]; // the cells of a repeated name go to its first teacher
+                continue;
+            }
+            List<AssignedDuty> duties = assigner.getTeacherDuties(name);
+            int[] held = new int[duties.size()];
+            int count = 0;
+            for (AssignedDuty duty : duties) {
+                Integer cell = cellOfDuty.get(duty.getDuty());
+                if (cell != null) {
+                    held[count++] = cell;
+                }
+            }
+            heldCells[teacher] = Arrays.copyOf(held, count);
+            Arrays.sort(heldCells[teacher]); // schedule order
+        }
+    }
+
+    /**
+     * Finds the hand over and exchange partners for one cell a teacher holds
+     * @param teacher the teacher's position in the eligibility index
+     * @param cell the cell, as returned by indexOfCell or getHeldCells
+     * @return the valid options, best load impact first; empty if the teacher does not hold the cell
+     */
+    List<SwapOption> findSwaps(int teacher, int cell) {
+        List<SwapOption> options = new ArrayList<>();
+        int slot = cellSlot[cell];
+        if (slot < 0 || !holds(cell, teacher)) return options;
+
+        int semester = cellSemester[cell];
+        int worth = cellWorth[cell];
+        Teacher giver = index.getTeacher(teacher);
+        int giverLoad = loads[teacher * SEMESTERS + semester];
+        int giverMask = slotMask(teacher, semester, slot);
+
+        BitSet partners = index.getCandidates(semester, slot);
+        for (int partner = partners.nextSetBit(0); partner >= 0; partner = partners.nextSetBit(partner + 1)) {
+            if (partner == teacher || holds(cell, partner)) continue;
+            Teacher taker = index.getTeacher(partner);
+            int partnerLoad = loads[partner * SEMESTERS + semester];
+            int partnerMask = slotMasks[partner * SEMESTERS + semester];
+
+            // Hand over: the partner takes the duty, the teacher keeps nothing in its place
+            if ((partnerMask & NEAR_SLOTS[slot]) == 0 && quotaAllows(taker, partnerLoad, partnerLoad + worth)) {
+                options.add(option(SwapTypeEnum.HAND_OVER, giver, taker, cell, -1,
+                    giverLoad, giverLoad - worth, partnerLoad, partnerLoad + worth));
+            }
+
+            // Exchange: one of the partner's duties the same semester comes back
+            for (int other : heldCells[partner]) {
+                int otherSlot = cellSlot[other];
+                if (cellSemester[other] != semester || other == cell || otherSlot < 0 || holds(other, teacher)) continue;
+                if (!index.isCandidate(semester, otherSlot, teacher)) continue;
+                if ((giverMask & NEAR_SLOTS[otherSlot]) != 0) continue;
+                if ((slotMask(partner, semester, otherSlot) & NEAR_SLOTS[slot]) != 0) continue;
+
+                int giverAfter = giverLoad - worth + cellWorth[other];
+                int partnerAfter = partnerLoad - cellWorth[other] + worth;
+                if (!quotaAllows(giver, giverLoad, giverAfter) || !quotaAllows(taker, partnerLoad, partnerAfter)) continue;
+                options.add(option(SwapTypeEnum.EXCHANGE, giver, taker, cell, other,
+                    giverLoad, giverAfter, partnerLoad, partnerAfter));
+            }
+        }
+
+        options.sort((a, b) -> a.getLoadImpact() != b.getLoadImpact()
+            ? Integer.compare(a.getLoadImpact(), b.getLoadImpact())
+            : a.getPartnerLoadAfter() != b.getPartnerLoadAfter()
+                ? Integer.compare(a.getPartnerLoadAfter(), b.getPartnerLoadAfter())
+                : a.getPartner().compareTo(b.getPartner()));
+        return options;
+    }
+
+    /**
+     * Gets the cells a teacher holds
+     * @param teacher the teacher's position in the eligibility index
+     * @return the cells, in schedule order
+     */
+    List<Integer> getHeldCells(int teacher) {
+        List<Integer> result = new ArrayList<>(heldCells[teacher].length);
+        for (int cell : heldCells[teacher]) {
+            result.add(cell);
+        }
+        return result;
+    }
+
+    /**
+     * Finds a cell by its term, pattern day and position in the day's schedule
+     * @param term the term (0-3)
+     * @param templateDay the first day of the pattern
+     * @param dayScheduleIndex the duty's position in the day's schedule (0-10)
+     * @return the cell, or -1 if there is none
+     */
+    int indexOfCell(int term, Day templateDay, int dayScheduleIndex) {
+        for (int cell = 0; cell < cells.size(); cell++) {
+            DutyAssigner.PatternCell patternCell = cells.get(cell);
+            if (patternCell.term == term && patternCell.day == templateDay) {
+                for (Duty duty : templateDay.getDuties(dayScheduleIndex)) {
+                    if (duty == patternCell.duty) return cell;
+                }
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Gets the readable label of a cell
+     * @param cell the cell
+     * @return the label, as DutyAssigner.getCellLabel
+     */
+    String getCellLabel(int cell) {
+        return cellLabels[cell];
+    }
+
+    /**
+     * Finds a teacher's position in the eligibility index by name
+     * @param name the teacher's name as it appears on the schedule
+     * @return the position, or -1 if no teacher has that name
+     */
+    int positionOf(String name) {
+        return positions.getOrDefault(name, -1);
+    }
+
+    private SwapOption option(SwapTypeEnum type, Teacher giver, Teacher taker, int cell, int other,
+            int giverBefore, int giverAfter, int partnerBefore, int partnerAfter) {
+        int max = Math.max(giver.getMaxDutiesPerSemester(), 0);
+        int partnerMax = Math.max(taker.getMaxDutiesPerSemester(), 0);
+        int impact = Math.abs(giverAfter - max) - Math.abs(giverBefore - max)
+            + Math.abs(partnerAfter - partnerMax) - Math.abs(partnerBefore - partnerMax);
+        return new SwapOption(type, giver.getName(), taker.getName(), cellLabels[cell],
+            other < 0 ? null : cellLabels[other], impact, giverAfter, partnerAfter);
+    }
+
+    private boolean holds(int cell, int teacher) {
+        for (int holder : cellHolders[cell]) {
+            if (holder == teacher) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Gets the slots a teacher holds cells in during a semester, leaving out one cell
+     * @param teacher the teacher's position in the eligibility index
+     * @param semester the semester (0 or 1)
+     * @param withoutSlot the slot of the cell being given up
+     * @return bit i set if a cell in slot i is still held
+     */
+    private int slotMask(int teacher, int semester, int withoutSlot) {
+        int row = teacher * SEMESTERS + semester;
+        return slotCounts[row * SLOTS + withoutSlot] > 1 ? slotMasks[row] : slotMasks[row] & ~(1 << withoutSlot);
+    }
+
+    private static boolean quotaAllows(Teacher teacher, int before, int after) {
+        return after <= teacher.getMaxDutiesPerSemester() || after <= before;
+    }
+}
@@ -0,0 +1,86 @@
+package com.jamesdegroot.duty_assigment;
+
+/**
+ * SwapOption.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    SwapOption class, one valid way for a teacher to pass on or trade one of their duties.
+ *    The load impact is how much the swap changes the two teachers' distance from their
+ *    semester quotas together: negative moves both closer to their quota, positive further away.
+ *
+ *  Methods:
+ * 	  - getType, SwapTypeEnum, gets whether the duty is handed over or exchanged
+ *    - getTeacher, String, gets the teacher giving up the duty
+ *    - getPartner, String, gets the teacher taking it
+ *    - getGivenDuty, String, gets the cell the teacher gives up
+ *    - getReceivedDuty, String, gets the cell the teacher takes back, or null for a hand over
+ *    - getLoadImpact, int, gets the change in distance from quota of both teachers together
+ *    - getTeacherLoadAfter, int, gets the teacher's semester duty units after the swap
+ *    - getPartnerLoadAfter, int, gets the partner's semester duty units after the swap
+ *
+*/
+
+public final class SwapOption {
+    private final SwapTypeEnum type;
+    private final String teacher;
+    private final String partner;
+    private final String givenDuty;
+    private final String receivedDuty;
+    private final int loadImpact;
+    private final int teacherLoadAfter;
+    private final int partnerLoadAfter;
+
+    SwapOption(SwapTypeEnum type, String teacher, String partner, String givenDuty, String receivedDuty,
+            int loadImpact, int teacherLoadAfter, int partnerLoadAfter) {
+        this.type = type;
+        this.teacher = teacher;
+        this.partner = partner;
+        this.givenDuty = givenDuty;
+        this.receivedDuty = receivedDuty;
+        this.loadImpact = loadImpact;
+        this.teacherLoadAfter = teacherLoadAfter;
+        this.partnerLoadAfter = partnerLoadAfter;
+    }
+
+    public SwapTypeEnum getType() {
+        return type;
+    }
+
+    public String getTeacher() {
+        return teacher;
+    }
+
+    public String getPartner() {
+        return partner;
+    }
+
+    public String getGivenDuty() {
+        return givenDuty;
+    }
+
+    public String getReceivedDuty() {
+        return receivedDuty;
+    }
+
+    public int getLoadImpact() {
+        return loadImpact;
+    }
+
+    public int getTeacherLoadAfter() {
+        return teacherLoadAfter;
+    }
+
+    public int getPartnerLoadAfter() {
+        return partnerLoadAfter;
+    }
+
+    @Override
+    public String toString() {
+        String trade = type == SwapTypeEnum.HAND_OVER
+            ? String.format("%s hands %s to %s", teacher, givenDuty, partner)
+            : String.format("%s trades %s with %s for %s", teacher, givenDuty, partner, receivedDuty);
+        return String.format("%s (load impact %+d, loads after %d / %d)", trade, loadImpact, teacherLoadAfter, partnerLoadAfter);
+    }
+}
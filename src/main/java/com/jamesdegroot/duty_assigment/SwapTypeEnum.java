@@ -0,0 +1,19 @@
+package com.jamesdegroot.duty_assigment;
+
+/**
+ * SwapTypeEnum.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose: 
+ *    SwapTypeEnum enum, used to tell the kinds of duty swap apart
+ *      
+ *  Methods:
+ * 	  - none
+ * 
+*/
+
+public enum SwapTypeEnum {
+    HAND_OVER,  // The partner takes the duty and gives nothing back
+    EXCHANGE    // One-for-one trade, each side takes the other's duty
+}
@@ -0,0 +1,108 @@
+package com.jamesdegroot.duty_assigment;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+
+/**
+ * TeacherDutyIndex.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    TeacherDutyIndex class, the reverse of the schedule: teacher name to the cells they hold.
+ *    Teacher.getAssignedDuties is only the working set of the current pass and is cleared
+ *    every semester, so it can not answer "all of a teacher's duties this year". The
+ *    DutyAssigner keeps this index up to date wherever it puts a teacher on a cell or takes
+ *    one off, and rebuilds it when a whole schedule is restored, so a lookup costs only the
+ *    size of its result instead of a scan of every day.
+ *
+ *  Methods:
+ * 	  - add, void, records that a teacher holds a cell
+ *    - remove, void, records that a teacher was taken off a cell once
+ *    - removeAll, void, records that a teacher no longer holds a cell at all
+ *    - clear, void, forgets every assignment
+ *    - getDuties, List<AssignedDuty>, gets the cells a teacher holds, by term, weekday and time slot
+ *    - getDutyCount, int, gets how many cells a teacher holds
+ *
+*/
+
+class TeacherDutyIndex {
+    private final Map<String, Map<Duty, AssignedDuty>> byTeacher = new HashMap<>(); // keyed by the template day's duty
+
+    /**
+     * Records that a teacher holds a cell
+     * @param teacherName the teacher's name as it appears on the duty
+     * @param term the term (0-3)
+     * @param templateDay the first day of the pattern
+     * @param duty the duty on the template day
+     * @param patternDays the pattern's group of days
+     */
+    void add(String teacherName, int term, Day templateDay, Duty duty, List<Day> patternDays) {
+        Map<Duty, AssignedDuty> duties = byTeacher.computeIfAbsent(teacherName, name -> new IdentityHashMap<>());
+        AssignedDuty held = duties.get(duty);
+        if (held != null) {
+            held.timesListed++;
+        } else {
+            duties.put(duty, new AssignedDuty(term, templateDay, duty, patternDays));
+        }
+    }
+
+    /**
+     * Records that a teacher was taken off a cell once
+     * @param teacherName the teacher's name as it appeared on the duty
+     * @param duty the duty on the template day
+     */
+    void remove(String teacherName, Duty duty) {
+        Map<Duty, AssignedDuty> duties = byTeacher.get(teacherName);
+        AssignedDuty held = duties == null ? null : duties.get(duty);
+        if (held == null) return;
+        if (--held.timesListed == 0) {
+            removeAll(teacherName, duty);
+        }
+    }
+
+    /**
+     * Records that a teacher no longer holds a cell at all
+     * @param teacherName the teacher's name as it appeared on the duty
+     * @param duty the duty on the template day
+     */
+    void removeAll(String teacherName, Duty duty) {
+        Map<Duty, AssignedDuty> duties = byTeacher.get(teacherName);
+        if (duties == null) return;
+        duties.remove(duty);
+        if (duties.isEmpty()) byTeacher.remove(teacherName);
+    }
+
+    void clear() {
+        byTeacher.clear();
+    }
+
+    /**
+     * Gets the cells a teacher holds
+     * @param teacherName the teacher's name
+     * @return the cells, by term, weekday, Day 1 before Day 2 and time slot; empty if the teacher holds none
+     */
+    List<AssignedDuty> getDuties(String teacherName) {
+        Map<Duty, AssignedDuty> duties = byTeacher.get(teacherName);
+        if (duties == null) return Collections.emptyList();
+        List<AssignedDuty> result = new ArrayList<>(duties.values());
+        result.sort(Comparator.comparingInt(AssignedDuty::getTerm)
+            .thenComparing(AssignedDuty::getDayOfWeek)
+            .thenComparing(duty -> !duty.isDay1())
+            .thenComparingInt(duty -> DutyAssignmentRules.getTimeSlot(duty.getDuty().getTimeSlot())));
+        return result;
+    }
+
+    int getDutyCount(String teacherName) {
+        Map<Duty, AssignedDuty> duties = byTeacher.get(teacherName);
+        return duties == null ? 0 : duties.size();
+    }
+}
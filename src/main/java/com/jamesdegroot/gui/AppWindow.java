@@ -2,6 +2,8 @@ package com.jamesdegroot.gui;
 
 import com.jamesdegroot.GenerateDutyCalendar;
 import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.io.ScheduleDiff;
+import com.jamesdegroot.metrics.AssignmentMetrics;
 import com.jamesdegroot.teacher.Teacher;
 
 import javax.swing.JFrame;
@@ -15,6 +17,7 @@ import javax.swing.JScrollPane;
 import javax.swing.BorderFactory;
 import javax.swing.JDialog;
 import javax.swing.JOptionPane;
+import javax.swing.SwingWorker;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 import java.awt.GridLayout;
@@ -25,11 +28,14 @@ import java.io.PrintStream;
 import java.awt.CardLayout;
 import java.awt.FlowLayout;
 import java.util.List;
+import java.util.concurrent.ExecutionException;
 import java.awt.Color;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
 import java.awt.event.FocusAdapter;
 import java.awt.event.FocusEvent;
+import java.awt.event.WindowAdapter;
+import java.awt.event.WindowEvent;
 
 /**
  * AppWindow.java
@@ -48,6 +54,8 @@ import java.awt.event.FocusEvent;
  *    - showHelpDialog, void, shows the help dialog
  *    - showTeacherEditor, void, shows the teacher profile editor dialog
  *    - showDayEditor, void, shows the day editor dialog
+ *    - showCoverageView, void, shows the live coverage heatmap dialog
+ *    - showChangesView, void, shows what changed since the last assignment or an earlier schedule CSV
  *    - assignDuties, void, handles the duty assignment process
  *    - styleButton, void, styles the button
  *    - CustomOutputStream, class, custom output stream for redirecting system output to the console output
@@ -87,9 +95,16 @@ public class AppWindow {
     private static final String HELP_BUTTON_TEXT = "Help";
     private static final String EDIT_TEACHER_BUTTON_TEXT = "Edit Teacher";
     private static final String EDIT_DAY_BUTTON_TEXT = "Edit Day";
+    private static final String COVERAGE_BUTTON_TEXT = "Coverage";
+    private static final String CHANGES_BUTTON_TEXT = "Changes";
     private static final String SHOW_CONSOLE_TEXT = "Show Console";
     private static final String HIDE_CONSOLE_TEXT = "Hide Console";
     private static final String ASSIGN_DUTIES_TEXT = "Assign Duties";
+    private static final String ASSIGNING_DUTIES_TEXT = "Assigning...";
+    private static final String COVERAGE_DIALOG_TITLE = "Duty Coverage";
+    private static final String CHANGES_DIALOG_TITLE = "Schedule Changes";
+    private static final String ASSIGN_FAILED_TITLE = "Assignment Failed";
+    private static final String ASSIGN_FAILED_MESSAGE = "Duties could not be assigned: ";
     
     // Layout constants
     private static final int LAYOUT_GAP = 5;
@@ -112,6 +127,9 @@ public class AppWindow {
     private JPanel cardPanel;
     private FileNameExtensionFilter csvFilter;
     private FileNameExtensionFilter icsFilter;
+    private JButton assignDutiesButton;
+    private JDialog coverageDialog;
+    private CoverageHeatmapPanel coverageHeatmap;
 
     /**
      * Constructor for the AppWindow class.
@@ -168,7 +186,7 @@ public class AppWindow {
         JPanel bottomPanel = new JPanel(new FlowLayout(FlowLayout.CENTER, LAYOUT_GAP, LAYOUT_GAP));
         bottomPanel.setBorder(BorderFactory.createEmptyBorder(0, 0, BOTTOM_PADDING, 0));
         
-        JButton assignDutiesButton = new JButton(ASSIGN_DUTIES_TEXT);
+        assignDutiesButton = new JButton(ASSIGN_DUTIES_TEXT);
         styleButton(assignDutiesButton);
         assignDutiesButton.addActionListener(e -> assignDuties());
         bottomPanel.add(assignDutiesButton);
@@ -318,8 +336,16 @@ public class AppWindow {
         JButton editDayButton = new JButton(EDIT_DAY_BUTTON_TEXT);
         styleButton(editDayButton);
         editDayButton.addActionListener(e -> showDayEditor());
+        JButton coverageButton = new JButton(COVERAGE_BUTTON_TEXT);
+        styleButton(coverageButton);
+        coverageButton.addActionListener(e -> showCoverageView());
+        JButton changesButton = new JButton(CHANGES_BUTTON_TEXT);
+        styleButton(changesButton);
+        changesButton.addActionListener(e -> showChangesView());
         centerButtonPanel.add(editTeacherButton);
         centerButtonPanel.add(editDayButton);
+        centerButtonPanel.add(coverageButton);
+        centerButtonPanel.add(changesButton);
         leftButtonPanel.add(centerButtonPanel, BorderLayout.CENTER);
         
         JPanel rightButtonPanel = new JPanel(new BorderLayout());
@@ -439,7 +465,7 @@ public class AppWindow {
         }
         
         Teacher firstTeacher = appLogic.getTeachers().get(0);
-        TeacherProfileEditor editor = new TeacherProfileEditor(frame, firstTeacher, appLogic.getTeachers());
+        TeacherProfileEditor editor = new TeacherProfileEditor(frame, appLogic, firstTeacher, appLogic.getTeachers());
         editor.setVisible(true);
     }
 
@@ -456,10 +482,75 @@ public class AppWindow {
         }
         
         List<Day> days = appLogic.getCalendar().getDaysOfYear();
-        DayEditor editor = new DayEditor(frame, days.get(0), days);
+        DayEditor editor = new DayEditor(frame, appLogic, days.get(0), days);
         editor.setVisible(true);
     }
 
+    /**
+     * Shows the coverage heatmap in a non-modal dialog so it can be watched while duties are assigned.
+     * The heatmap polls the schedule only while the dialog is open.
+     */
+    private void showCoverageView() {
+        if (coverageDialog == null) {
+            CoverageHeatmapPanel heatmap = new CoverageHeatmapPanel(appLogic);
+            coverageHeatmap = heatmap;
+            coverageDialog = new JDialog(frame, COVERAGE_DIALOG_TITLE, false);
+            coverageDialog.add(new JScrollPane(heatmap));
+            coverageDialog.addWindowListener(new WindowAdapter() {
+                @Override
+                public void windowClosing(WindowEvent evt) {
+                    heatmap.stopRefreshing();
+                }
+
+                @Override
+                public void windowActivated(WindowEvent evt) {
+                    heatmap.startRefreshing();
+                }
+            });
+            coverageDialog.pack();
+            coverageDialog.setLocationRelativeTo(frame);
+        }
+        coverageDialog.setVisible(true);
+    }
+
+    /**
+     * Shows what changed in the schedule: since the previous assignment if duties have been assigned
+     * more than once, otherwise against an earlier duty schedule CSV the user picks.
+     */
+    private void showChangesView() {
+        if (!appLogic.hasAssignedDuties()) {
+            JOptionPane.showMessageDialog(frame, 
+                "Please assign duties first.", 
+                "No Schedule", 
+                JOptionPane.WARNING_MESSAGE);
+            return;
+        }
+        
+        ScheduleDiff diff = appLogic.diffWithLastRun();
+        if (diff == null) {
+            fileChooser.resetChoosableFileFilters();
+            fileChooser.setFileFilter(csvFilter);
+            fileChooser.setAcceptAllFileFilterUsed(false);
+            if (fileChooser.showOpenDialog(frame) != JFileChooser.APPROVE_OPTION) {
+                return;
+            }
+            diff = appLogic.diffWithSchedule(fileChooser.getSelectedFile());
+            if (diff == null) {
+                JOptionPane.showMessageDialog(frame, 
+                    "Could not read a duty schedule from " + fileChooser.getSelectedFile().getName(), 
+                    "Not a Duty Schedule", 
+                    JOptionPane.ERROR_MESSAGE);
+                return;
+            }
+        }
+        
+        JDialog changesDialog = new JDialog(frame, CHANGES_DIALOG_TITLE, false);
+        changesDialog.add(new ScheduleDiffPanel(diff));
+        changesDialog.pack();
+        changesDialog.setLocationRelativeTo(frame);
+        changesDialog.setVisible(true);
+    }
+
     /**
      * Handles the duty assignment process
      */
@@ -484,16 +575,50 @@ public class AppWindow {
         System.out.println("\nAssigning duties for all terms...");
         System.out.println("=".repeat(GenerateDutyCalendar.NUM_OF_SEPERATORS_CHAR));
         
-        // Perform duty assignment
-        appLogic.assignDuties();
-        
-        // Write schedule to CSV file after all assignments are complete
+        // Perform duty assignment off the event thread so the coverage view can repaint while it runs
         String outputPath = "src/main/resources/duty_schedule.csv";
-        com.jamesdegroot.io.WriteScheduleToDisk.writeDutyScheduleToCSV(appLogic.getCalendar(), outputPath);
-        
-        // Show completion message
-        System.out.println("\nDuty assignment completed and schedule saved to: " + outputPath);
-        System.out.println("=".repeat(GenerateDutyCalendar.NUM_OF_SEPERATORS_CHAR));
+        assignDutiesButton.setEnabled(false);
+        assignDutiesButton.setText(ASSIGNING_DUTIES_TEXT);
+        new SwingWorker<Void, Void>() {
+            @Override
+            protected Void doInBackground() {
+                appLogic.assignDuties();
+                
+                // Write schedule to CSV file after all assignments are complete
+                appLogic.exportScheduleToCSV(outputPath);
+                return null;
+            }
+
+            @Override
+            protected void done() {
+                assignDutiesButton.setEnabled(true);
+                assignDutiesButton.setText(ASSIGN_DUTIES_TEXT);
+                try {
+                    get();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                } catch (ExecutionException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    System.err.println("Error: duty assignment failed: " + cause);
+                    JOptionPane.showMessageDialog(frame, 
+                        ASSIGN_FAILED_MESSAGE + (cause.getMessage() != null ? cause.getMessage() : cause), 
+                        ASSIGN_FAILED_TITLE, 
+                        JOptionPane.ERROR_MESSAGE);
+                    return;
+                }
+                
+                // Redraw from the finished schedule's snapshot
+                if (coverageHeatmap != null) {
+                    coverageHeatmap.refresh();
+                }
+                
+                // Show completion message
+                System.out.println("\nDuty assignment completed and schedule saved to: " + outputPath);
+                AssignmentMetrics.get().printSummary(System.out);
+                System.out.println("=".repeat(GenerateDutyCalendar.NUM_OF_SEPERATORS_CHAR));
+            }
+        }.execute();
     }
 
     /**
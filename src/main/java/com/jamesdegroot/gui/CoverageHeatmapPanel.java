@@ -0,0 +1,333 @@
+package com.jamesdegroot.gui;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.duty_assigment.ScheduleSnapshot;
+
+import javax.swing.JPanel;
+import javax.swing.Timer;
+import java.awt.Color;
+import java.awt.Dimension;
+import java.awt.Font;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.event.MouseEvent;
+import java.awt.image.BufferedImage;
+import java.time.DayOfWeek;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * CoverageHeatmapPanel.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    CoverageHeatmapPanel class, draws duty coverage as a term x weekday x slot heatmap
+ *    (unfilled, single and double staffed) with a bar per teacher showing their load.
+ *    Each tile is rendered once into a cached image and only re-rendered when the
+ *    staffing of its cell changes, so the view can refresh while duties are being assigned.
+ *    It draws from the immutable ScheduleSnapshot of the current schedule, never from the
+ *    calendar an assignment may be changing on another thread.
+ *
+ *  Methods:
+ * 	  - CoverageHeatmapPanel, constructor, creates a new CoverageHeatmapPanel object
+ *    - startRefreshing, void, starts polling the schedule for changes
+ *    - stopRefreshing, void, stops polling the schedule
+ *    - refresh, void, invalidates the tiles whose cells changed in the latest snapshot and repaints them
+ *    - paintComponent, void, draws the heatmap and the teacher load bars
+ *    - renderTile, BufferedImage, renders one cell tile
+ *    - renderLoadBars, BufferedImage, renders the teacher load bars
+ *    - getToolTipText, String, describes the cell or teacher under the mouse
+ *
+*/
+
+public class CoverageHeatmapPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    // Grid dimensions
+    private static final int TERMS = 4;
+    private static final int WEEKDAYS = 5;
+    private static final int DAY_TYPES = 2;
+    private static final int COLUMNS_PER_TERM = WEEKDAYS * DAY_TYPES;
+    private static final int CELL_COUNT = TERMS * COLUMNS_PER_TERM * Day.TIME_SLOTS;
+
+    // Layout constants
+    private static final int TILE_WIDTH = 16;
+    private static final int TILE_HEIGHT = 16;
+    private static final int TILE_GAP = 1;
+    private static final int TERM_GAP = 12;
+    private static final int LEFT_MARGIN = 130;
+    private static final int TOP_MARGIN = 40;
+    private static final int SECTION_GAP = 30;
+    private static final int BAR_WIDTH = 6;
+    private static final int BAR_AREA_HEIGHT = 120;
+    private static final int RIGHT_MARGIN = 20;
+    private static final int BOTTOM_MARGIN = 20;
+    private static final int REFRESH_INTERVAL_MS = 100;
+
+    // Colours
+    private static final Color NO_SCHOOL_COLOR = new Color(220, 220, 220);
+    private static final Color UNFILLED_COLOR = new Color(214, 69, 65);
+    private static final Color SINGLE_COLOR = new Color(140, 200, 120);
+    private static final Color DOUBLE_COLOR = new Color(40, 120, 60);
+    private static final Color UNDER_QUOTA_COLOR = new Color(240, 160, 40);
+    private static final Color AT_QUOTA_COLOR = new Color(40, 120, 60);
+    private static final Color OVER_QUOTA_COLOR = new Color(214, 69, 65);
+    private static final Color QUOTA_LINE_COLOR = Color.DARK_GRAY;
+
+    // Text constants
+    private static final String[] WEEKDAY_LETTERS = {"M", "T", "W", "T", "F"};
+    private static final String TERM_LABEL_PREFIX = "Term ";
+    private static final String LOAD_LABEL = "Teacher load (bar) vs quota (line)";
+    private static final String CELL_TOOLTIP_FORMAT = "Term %d %s Day %d %s: %s";
+    private static final String TEACHER_TOOLTIP_FORMAT = "%s: %d / %d duty units";
+    private static final String NO_SCHOOL_TEXT = "no school days";
+    private static final String STAFFED_FORMAT = "%d teacher(s)";
+    private static final int NO_SCHOOL = -1;
+
+    private final GenerateDutyCalendar appLogic;
+    private final BufferedImage[] tileCache = new BufferedImage[CELL_COUNT];
+    private final int[] tileState = new int[CELL_COUNT];
+    private BufferedImage loadBarCache;
+    private int[] teacherLoads = new int[0];
+    private int[] teacherQuotas = new int[0];
+    private List<String> teacherNames = List.of();
+    private final Timer refreshTimer;
+
+    /**
+     * Constructor for the CoverageHeatmapPanel class.
+     * @param appLogic the logic for the application, read for the current schedule snapshot
+     */
+    public CoverageHeatmapPanel(GenerateDutyCalendar appLogic) {
+        this.appLogic = appLogic;
+        Arrays.fill(tileState, Integer.MIN_VALUE); // forces every tile to render on first refresh
+        refreshTimer = new Timer(REFRESH_INTERVAL_MS, e -> refresh());
+        setBackground(Color.WHITE);
+        setToolTipText(""); // enables getToolTipText(MouseEvent)
+        refresh();
+    }
+
+    /**
+     * Starts polling the schedule for changes.
+     */
+    public void startRefreshing() {
+        refreshTimer.start();
+    }
+
+    /**
+     * Stops polling the schedule.
+     */
+    public void stopRefreshing() {
+        refreshTimer.stop();
+    }
+
+    /**
+     * Reads the staffing of every cell from the latest schedule snapshot, drops the cached tiles
+     * of cells that changed and repaints only their areas. The load bars are repainted only if a
+     * load changed.
+     */
+    public void refresh() {
+        ScheduleSnapshot snapshot = appLogic.getScheduleSnapshot();
+
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            int state = snapshot == null ? NO_SCHOOL : snapshot.getCellStaffing(
+                getTerm(cell), getWeekday(cell), isDay1(cell), getTimeSlot(cell));
+            if (state != tileState[cell]) {
+                tileState[cell] = state;
+                tileCache[cell] = null;
+                repaint(getTileX(cell), getTileY(cell), TILE_WIDTH, TILE_HEIGHT);
+            }
+        }
+
+        int[] newLoads = snapshot == null ? new int[0] : snapshot.getTeacherLoads();
+        int[] newQuotas = snapshot == null ? new int[0] : snapshot.getYearlyQuotas();
+        teacherNames = snapshot == null ? List.of() : snapshot.getTeacherNames();
+        if (!Arrays.equals(newLoads, teacherLoads) || !Arrays.equals(newQuotas, teacherQuotas)) {
+            boolean sizeChanged = newLoads.length != teacherLoads.length;
+            teacherLoads = newLoads;
+            teacherQuotas = newQuotas;
+            loadBarCache = null;
+            if (sizeChanged) {
+                revalidate();
+                repaint();
+            } else {
+                repaint(LEFT_MARGIN, getBarAreaY(), teacherLoads.length * BAR_WIDTH, BAR_AREA_HEIGHT);
+            }
+        }
+    }
+
+    @Override
+    public Dimension getPreferredSize() {
+        int heatmapWidth = TERMS * (COLUMNS_PER_TERM * (TILE_WIDTH + TILE_GAP) + TERM_GAP);
+        int barsWidth = teacherLoads.length * BAR_WIDTH;
+        return new Dimension(LEFT_MARGIN + Math.max(heatmapWidth, barsWidth) + RIGHT_MARGIN,
+            getBarAreaY() + BAR_AREA_HEIGHT + BOTTOM_MARGIN);
+    }
+
+    /**
+     * Draws the heatmap from the tile cache and the load bars from their cached image.
+     * @param g the graphics context
+     */
+    @Override
+    protected void paintComponent(Graphics g) {
+        super.paintComponent(g);
+        g.setColor(Color.BLACK);
+        g.setFont(new Font(Font.SANS_SERIF, Font.PLAIN, 11));
+
+        // Term and weekday headings
+        for (int term = 0; term < TERMS; term++) {
+            int termX = getTileX(getCellIndex(term, 0, true, 0));
+            g.drawString(TERM_LABEL_PREFIX + (term + 1), termX, TOP_MARGIN - 22);
+            for (int weekday = 0; weekday < WEEKDAYS; weekday++) {
+                int x = getTileX(getCellIndex(term, weekday, true, 0));
+                g.drawString(WEEKDAY_LETTERS[weekday], x + TILE_WIDTH / 2, TOP_MARGIN - 6);
+            }
+        }
+
+        // Slot names down the left side
+        for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
+            int y = TOP_MARGIN + timeSlot * (TILE_HEIGHT + TILE_GAP) + TILE_HEIGHT - 4;
+            g.drawString(timeSlot < Duty.DUTY_NAMES.length ? Duty.DUTY_NAMES[timeSlot] : "Slot " + (timeSlot + 1), 4, y);
+        }
+
+        // Tiles, rendering only the ones that were invalidated
+        Rectangle clip = g.getClipBounds();
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            int x = getTileX(cell);
+            int y = getTileY(cell);
+            if (clip != null && !clip.intersects(x, y, TILE_WIDTH, TILE_HEIGHT)) continue;
+            if (tileCache[cell] == null) {
+                tileCache[cell] = renderTile(tileState[cell]);
+            }
+            g.drawImage(tileCache[cell], x, y, null);
+        }
+
+        // Teacher load bars
+        g.setColor(Color.BLACK);
+        g.drawString(LOAD_LABEL, 4, getBarAreaY() - 6);
+        if (loadBarCache == null && teacherLoads.length > 0) {
+            loadBarCache = renderLoadBars();
+        }
+        if (loadBarCache != null) {
+            g.drawImage(loadBarCache, LEFT_MARGIN, getBarAreaY(), null);
+        }
+    }
+
+    /**
+     * Renders one cell tile.
+     * @param staffing the number of teachers on the cell, or NO_SCHOOL
+     * @return the rendered tile
+     */
+    private BufferedImage renderTile(int staffing) {
+        BufferedImage tile = new BufferedImage(TILE_WIDTH, TILE_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = tile.createGraphics();
+        if (staffing == NO_SCHOOL) {
+            g.setColor(NO_SCHOOL_COLOR);
+        } else if (staffing == 0) {
+            g.setColor(UNFILLED_COLOR);
+        } else if (staffing == 1) {
+            g.setColor(SINGLE_COLOR);
+        } else {
+            g.setColor(DOUBLE_COLOR);
+        }
+        g.fillRect(0, 0, TILE_WIDTH, TILE_HEIGHT);
+        g.dispose();
+        return tile;
+    }
+
+    /**
+     * Renders the teacher load bars, one per teacher in file order, scaled to the largest load or quota.
+     * @return the rendered bars
+     */
+    private BufferedImage renderLoadBars() {
+        BufferedImage bars = new BufferedImage(teacherLoads.length * BAR_WIDTH, BAR_AREA_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = bars.createGraphics();
+        g.setColor(Color.WHITE);
+        g.fillRect(0, 0, bars.getWidth(), bars.getHeight());
+
+        int scale = 1;
+        for (int i = 0; i < teacherLoads.length; i++) {
+            scale = Math.max(scale, Math.max(teacherLoads[i], teacherQuotas[i]));
+        }
+
+        for (int i = 0; i < teacherLoads.length; i++) {
+            int barHeight = teacherLoads[i] * BAR_AREA_HEIGHT / scale;
+            int quotaY = BAR_AREA_HEIGHT - teacherQuotas[i] * BAR_AREA_HEIGHT / scale;
+            if (teacherLoads[i] < teacherQuotas[i]) {
+                g.setColor(UNDER_QUOTA_COLOR);
+            } else if (teacherLoads[i] == teacherQuotas[i]) {
+                g.setColor(AT_QUOTA_COLOR);
+            } else {
+                g.setColor(OVER_QUOTA_COLOR);
+            }
+            g.fillRect(i * BAR_WIDTH, BAR_AREA_HEIGHT - barHeight, BAR_WIDTH - 1, barHeight);
+            g.setColor(QUOTA_LINE_COLOR);
+            g.drawLine(i * BAR_WIDTH, Math.min(quotaY, BAR_AREA_HEIGHT - 1), i * BAR_WIDTH + BAR_WIDTH - 2, Math.min(quotaY, BAR_AREA_HEIGHT - 1));
+        }
+        g.dispose();
+        return bars;
+    }
+
+    /**
+     * Describes the cell or teacher under the mouse.
+     * @param event the mouse event
+     * @return the tooltip text, or null if the mouse is not over a tile or bar
+     */
+    @Override
+    public String getToolTipText(MouseEvent event) {
+        for (int cell = 0; cell < CELL_COUNT; cell++) {
+            int x = getTileX(cell);
+            int y = getTileY(cell);
+            if (event.getX() >= x && event.getX() < x + TILE_WIDTH && event.getY() >= y && event.getY() < y + TILE_HEIGHT) {
+                int timeSlot = getTimeSlot(cell);
+                return String.format(CELL_TOOLTIP_FORMAT, getTerm(cell) + 1, getWeekday(cell), isDay1(cell) ? 1 : 2,
+                    timeSlot < Duty.DUTY_NAMES.length ? Duty.DUTY_NAMES[timeSlot] : "Slot " + (timeSlot + 1),
+                    tileState[cell] == NO_SCHOOL ? NO_SCHOOL_TEXT : String.format(STAFFED_FORMAT, tileState[cell]));
+            }
+        }
+
+        int barIndex = (event.getX() - LEFT_MARGIN) / BAR_WIDTH;
+        if (event.getX() >= LEFT_MARGIN && event.getY() >= getBarAreaY() && barIndex < teacherLoads.length && barIndex < teacherNames.size()) {
+            return String.format(TEACHER_TOOLTIP_FORMAT, teacherNames.get(barIndex), teacherLoads[barIndex], teacherQuotas[barIndex]);
+        }
+        return null;
+    }
+
+    // Cell index layout: [term][weekday][day type][time slot]
+    private static int getCellIndex(int term, int weekday, boolean isDay1, int timeSlot) {
+        return ((term * WEEKDAYS + weekday) * DAY_TYPES + (isDay1 ? 0 : 1)) * Day.TIME_SLOTS + timeSlot;
+    }
+
+    private static int getTimeSlot(int cell) {
+        return cell % Day.TIME_SLOTS;
+    }
+
+    private static boolean isDay1(int cell) {
+        return (cell / Day.TIME_SLOTS) % DAY_TYPES == 0;
+    }
+
+    private static DayOfWeek getWeekday(int cell) {
+        return DayOfWeek.of((cell / (Day.TIME_SLOTS * DAY_TYPES)) % WEEKDAYS + 1);
+    }
+
+    private static int getTerm(int cell) {
+        return cell / (Day.TIME_SLOTS * COLUMNS_PER_TERM);
+    }
+
+    private static int getTileX(int cell) {
+        int column = (cell / Day.TIME_SLOTS) % COLUMNS_PER_TERM;
+        return LEFT_MARGIN + getTerm(cell) * (COLUMNS_PER_TERM * (TILE_WIDTH + TILE_GAP) + TERM_GAP)
+            + column * (TILE_WIDTH + TILE_GAP);
+    }
+
+    private static int getTileY(int cell) {
+        return TOP_MARGIN + getTimeSlot(cell) * (TILE_HEIGHT + TILE_GAP);
+    }
+
+    private static int getBarAreaY() {
+        return TOP_MARGIN + Day.TIME_SLOTS * (TILE_HEIGHT + TILE_GAP) + SECTION_GAP;
+    }
+}
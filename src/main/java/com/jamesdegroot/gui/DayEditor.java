@@ -3,10 +3,12 @@ package com.jamesdegroot.gui;
 import com.jamesdegroot.GenerateDutyCalendar;
 import com.jamesdegroot.calendar.Day;
 import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.duty_assigment.CoverageProposal;
 import javax.swing.*;
 import java.awt.*;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
 import java.util.List;
 
 /**
@@ -24,6 +26,10 @@ import java.util.List;
  *    - updateForm, void, updates the form with the current day object
  *    - createRow, JPanel, creates a new row for the form
  *    - createLabeledField, JPanel, creates a new labeled field for the form
+ *    - saveDay, void, applies the school day edit and re-solves the duties affected by it
+ *    - recalculate, void, shows what the school day edit would change, on a copy of the schedule
+ *    - coverAbsences, void, asks who is away and shows the proposed replacements
+ *    - teachersText, String, gets who is on a duty this day from the calendar's on-duty table
  * 
 */
 
@@ -56,6 +62,7 @@ public class DayEditor extends JDialog {
     // Button constants
     private static final String SAVE_BUTTON_TEXT = "Save";
     private static final String CANCEL_BUTTON_TEXT = "Cancel";
+    private static final String COVER_BUTTON_TEXT = "Cover Absences";
     private static final int BUTTON_WIDTH = 80;
     private static final int BUTTON_HEIGHT = 25;
     
@@ -71,13 +78,24 @@ public class DayEditor extends JDialog {
     private static final String TIME_SLOT_PREFIX = "Slot ";
     private static final String UNASSIGNED_TEXT = "UNASSIGNED";
     
+    // Absence coverage constants
+    private static final String ABSENT_PROMPT = "Teachers away today (comma separated):";
+    private static final String ABSENT_TITLE = "Cover Absences";
+    private static final String ABSENT_SEPARATOR = ",";
+    private static final String NO_COVER_NEEDED_TEXT = "None of those teachers have a duty today.";
+    private static final String COVERAGE_FORMAT = "Cover proposed in %d ms for %d duty(ies):%n";
+    
+    private GenerateDutyCalendar appLogic;
     private Day day;
     private List<Day> allDays;
     private JComboBox<String> daySearch;
     private JPanel formPanel;
+    private WhatIfPanel whatIfOutput;
+    private boolean schoolDay;         // the school day checkbox, applied to the day on Save
     
-    public DayEditor(JFrame parent, Day day, List<Day> allDays) {
+    public DayEditor(JFrame parent, GenerateDutyCalendar appLogic, Day day, List<Day> allDays) {
         super(parent, WINDOW_TITLE, true);
+        this.appLogic = appLogic;
         this.day = day;
         this.allDays = allDays;
         
@@ -108,6 +126,10 @@ public class DayEditor extends JDialog {
         
         add(new JScrollPane(formPanel), BorderLayout.CENTER);
         
+        // What-if output, filled each time the school day checkbox changes
+        whatIfOutput = new WhatIfPanel();
+        add(whatIfOutput, BorderLayout.SOUTH);
+        
         pack();
         setLocationRelativeTo(parent);
     }
@@ -148,10 +170,14 @@ public class DayEditor extends JDialog {
      */
     private void updateForm() {
         formPanel.removeAll();
+        schoolDay = day.isSchoolDay();
         
         // School Day Checkbox
-        JCheckBox schoolDayCheck = new JCheckBox(SCHOOL_DAY_CHECKBOX_TEXT, day.isSchoolDay());
-        schoolDayCheck.addActionListener(e -> day.setSchoolDay(schoolDayCheck.isSelected()));
+        JCheckBox schoolDayCheck = new JCheckBox(SCHOOL_DAY_CHECKBOX_TEXT, schoolDay);
+        schoolDayCheck.addActionListener(e -> {
+            schoolDay = schoolDayCheck.isSelected();
+            recalculate();
+        });
         formPanel.add(createRow(DAY_TYPE_LABEL, schoolDayCheck));
         
         // Duties
@@ -176,7 +202,7 @@ public class DayEditor extends JDialog {
                     
                     // Teacher
                     JTextField teacherField = new JTextField(
-                        duty.getTeacher() != null ? duty.getTeacher() : "", TEACHER_FIELD_WIDTH);
+                        teachersText(duty, timeSlot * Day.DUTIES_PER_SLOT + position), TEACHER_FIELD_WIDTH);
                     dutyPanel.add(createLabeledField(TEACHER_LABEL, teacherField));
                     
                     dutiesPanel.add(dutyPanel);
@@ -201,6 +227,7 @@ public class DayEditor extends JDialog {
         
         saveButton.addActionListener(e -> {
             // Save changes
+            saveDay();
             System.out.println("\nUpdated Day Schedule:");
             System.out.println("=".repeat(GenerateDutyCalendar.NUM_OF_SEPERATORS_CHAR));
             System.out.println("Date: " + day.getDate().format(DateTimeFormatter.ofPattern(DATE_FORMAT_PATTERN)));
@@ -219,7 +246,7 @@ public class DayEditor extends JDialog {
                                 TIME_SLOT_PREFIX + (timeSlot + 1),
                                 duty.getName(),
                                 duty.getRoom(),
-                                duty.getTeacher() != null ? duty.getTeacher() : UNASSIGNED_TEXT);
+                                teachersText(duty, timeSlot * Day.DUTIES_PER_SLOT + position));
                         }
                     }
                 }
@@ -229,7 +256,13 @@ public class DayEditor extends JDialog {
         
         cancelButton.addActionListener(e -> dispose());
         
+        JButton coverButton = new JButton(COVER_BUTTON_TEXT);
+        styleButton(coverButton);
+        coverButton.setEnabled(day.isSchoolDay());
+        coverButton.addActionListener(e -> coverAbsences());
+        
         buttonPanel.add(saveButton);
+        buttonPanel.add(coverButton);
         buttonPanel.add(cancelButton);
         formPanel.add(buttonPanel);
         
@@ -237,6 +270,76 @@ public class DayEditor extends JDialog {
         formPanel.repaint();
     }
     
+    /**
+     * Applies the school day checkbox to the day and re-solves only the duties affected by it
+     */
+    private void saveDay() {
+        if (schoolDay == day.isSchoolDay()) return;
+        day.setSchoolDay(schoolDay);
+        appLogic.reassignDay(day);
+    }
+    
+    /**
+     * Shows the cells the school day edit would change, worked out on a copy of the teachers
+     * and schedule. Nothing changes until Save.
+     */
+    private void recalculate() {
+        if (!appLogic.hasAssignedDuties()) {
+            whatIfOutput.showNotAssigned();
+            return;
+        }
+        
+        long start = System.nanoTime();
+        List<String> changes = appLogic.previewDayEdit(day, schoolDay);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        whatIfOutput.showChanges(changes, elapsedMs);
+    }
+    
+    /**
+     * Asks who is away on this day and shows the proposed replacements for their duties
+     */
+    private void coverAbsences() {
+        if (!appLogic.hasAssignedDuties()) {
+            whatIfOutput.showNotAssigned();
+            return;
+        }
+        String input = JOptionPane.showInputDialog(this, ABSENT_PROMPT, ABSENT_TITLE, JOptionPane.QUESTION_MESSAGE);
+        if (input == null || input.isBlank()) return;
+        
+        List<String> absentTeachers = new ArrayList<>();
+        for (String name : input.split(ABSENT_SEPARATOR)) {
+            if (!name.isBlank()) absentTeachers.add(name.trim());
+        }
+        
+        long start = System.nanoTime();
+        List<CoverageProposal> proposals = appLogic.proposeCoverage(day.getDate(), absentTeachers);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        
+        StringBuilder text = new StringBuilder(String.format(COVERAGE_FORMAT, elapsedMs, proposals.size()));
+        if (proposals.isEmpty()) {
+            text.append(NO_COVER_NEEDED_TEXT);
+        }
+        for (CoverageProposal proposal : proposals) {
+            text.append(proposal).append('\n');
+        }
+        whatIfOutput.showText(text.toString());
+    }
+    
+    /**
+     * Gets who is on a duty this day. Only the first day of each pattern holds the teachers,
+     * so they are read through the calendar's on-duty table rather than from this day's copy.
+     * @param duty this day's copy of the duty
+     * @param dutyIndex the duty's position in the day's schedule
+     * @return the teachers, comma separated, or UNASSIGNED
+     */
+    private String teachersText(Duty duty, int dutyIndex) {
+        List<String> teachers = appLogic.getCalendar().getTeachersOnDuty(day.getDate(), dutyIndex);
+        if (teachers.isEmpty()) {
+            return duty.getTeacher() != null ? duty.getTeacher() : UNASSIGNED_TEXT;
+        }
+        return String.join(", ", teachers);
+    }
+    
     /**
      * Creates a new row for the form
      * @param label the label for the row
@@ -0,0 +1,190 @@
+package com.jamesdegroot.gui;
+
+import com.jamesdegroot.io.ScheduleChange;
+import com.jamesdegroot.io.ScheduleDiff;
+
+import javax.swing.BorderFactory;
+import javax.swing.JButton;
+import javax.swing.JFileChooser;
+import javax.swing.JLabel;
+import javax.swing.JPanel;
+import javax.swing.JScrollPane;
+import javax.swing.JTable;
+import javax.swing.filechooser.FileNameExtensionFilter;
+import javax.swing.table.AbstractTableModel;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.BorderLayout;
+import java.awt.Color;
+import java.awt.Component;
+import java.awt.Dimension;
+import java.awt.FlowLayout;
+import java.awt.Font;
+import java.io.File;
+import java.util.List;
+
+/**
+ * ScheduleDiffPanel.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    ScheduleDiffPanel class, lists what changed between two duty schedules (see ScheduleDiff),
+ *    one row per added, removed or replaced teacher, coloured by the kind of change,
+ *    with a button to save the changes as a CSV.
+ *
+ *  Methods:
+ * 	  - ScheduleDiffPanel, constructor, creates a new ScheduleDiffPanel object
+ *    - saveChanges, void, asks for a file and writes the changes to it as a CSV
+ *    - ChangeTableModel, class, table model over the diff's changes
+ *    - ChangeRenderer, class, colours each row by the kind of change
+ *
+*/
+
+public class ScheduleDiffPanel extends JPanel {
+    private static final long serialVersionUID = 1L;
+
+    // Layout constants
+    private static final int PANEL_WIDTH = 900;
+    private static final int PANEL_HEIGHT = 500;
+    private static final int LAYOUT_GAP = 5;
+    private static final int BORDER_PADDING = 10;
+
+    // Font settings
+    private static final String DEFAULT_FONT_FAMILY = "Arial";
+    private static final int DEFAULT_FONT_SIZE = 14;
+
+    // Colours
+    private static final Color ADDED_COLOR = new Color(220, 240, 210);
+    private static final Color REMOVED_COLOR = new Color(245, 215, 210);
+    private static final Color CHANGED_COLOR = new Color(250, 235, 200);
+
+    // Text constants
+    private static final String[] COLUMN_NAMES = {"Change", "Term", "Day", "Day Type", "Duty", "Before", "After"};
+    private static final String NO_CHANGES_TEXT = "The schedules are the same";
+    private static final String SAVE_BUTTON_TEXT = "Save CSV";
+    private static final String CSV_FILTER_DESCRIPTION = "CSV Files (*.csv)";
+    private static final String CSV_EXTENSION = "csv";
+    private static final String DEFAULT_FILE_NAME = "schedule_changes.csv";
+    private static final String NO_TEACHER_TEXT = "-";
+
+    private final ScheduleDiff diff;
+
+    /**
+     * Constructor for the ScheduleDiffPanel class.
+     * @param diff the changes to list
+     */
+    public ScheduleDiffPanel(ScheduleDiff diff) {
+        super(new BorderLayout(LAYOUT_GAP, LAYOUT_GAP));
+        this.diff = diff;
+        setBorder(BorderFactory.createEmptyBorder(BORDER_PADDING, BORDER_PADDING, BORDER_PADDING, BORDER_PADDING));
+
+        JLabel summaryLabel = new JLabel(diff.isEmpty() ? NO_CHANGES_TEXT : diff.getSummary());
+        summaryLabel.setFont(new Font(DEFAULT_FONT_FAMILY, Font.BOLD, DEFAULT_FONT_SIZE));
+        add(summaryLabel, BorderLayout.NORTH);
+
+        JTable table = new JTable(new ChangeTableModel(diff.getChanges()));
+        ChangeRenderer renderer = new ChangeRenderer(diff.getChanges());
+        table.setDefaultRenderer(Object.class, renderer);
+        table.setDefaultRenderer(Number.class, renderer); // the term and day type columns sort as numbers
+        table.setAutoCreateRowSorter(true);
+        JScrollPane scrollPane = new JScrollPane(table);
+        scrollPane.setPreferredSize(new Dimension(PANEL_WIDTH, PANEL_HEIGHT));
+        add(scrollPane, BorderLayout.CENTER);
+
+        JButton saveButton = new JButton(SAVE_BUTTON_TEXT);
+        saveButton.setEnabled(!diff.isEmpty());
+        saveButton.addActionListener(e -> saveChanges());
+        JPanel buttonPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, LAYOUT_GAP, 0));
+        buttonPanel.add(saveButton);
+        add(buttonPanel, BorderLayout.SOUTH);
+    }
+
+    /**
+     * Asks for a file and writes the changes to it as a CSV.
+     */
+    private void saveChanges() {
+        JFileChooser fileChooser = new JFileChooser();
+        fileChooser.setFileFilter(new FileNameExtensionFilter(CSV_FILTER_DESCRIPTION, CSV_EXTENSION));
+        fileChooser.setSelectedFile(new File(DEFAULT_FILE_NAME));
+        if (fileChooser.showSaveDialog(this) == JFileChooser.APPROVE_OPTION) {
+            File file = fileChooser.getSelectedFile();
+            if (diff.writeCSV(file)) {
+                System.out.println("Schedule changes have been written to: " + file.getAbsolutePath());
+            }
+        }
+    }
+
+    /**
+     * Table model over the diff's changes, one row per change
+     */
+    private static class ChangeTableModel extends AbstractTableModel {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ScheduleChange> changes;
+
+        ChangeTableModel(List<ScheduleChange> changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public int getRowCount() {
+            return changes.size();
+        }
+
+        @Override
+        public int getColumnCount() {
+            return COLUMN_NAMES.length;
+        }
+
+        @Override
+        public String getColumnName(int column) {
+            return COLUMN_NAMES[column];
+        }
+
+        @Override
+        public Class<?> getColumnClass(int column) {
+            return column == 1 || column == 3 ? Integer.class : String.class;
+        }
+
+        @Override
+        public Object getValueAt(int row, int column) {
+            ScheduleChange change = changes.get(row);
+            switch (column) {
+                case 0: return change.getType().name();
+                case 1: return change.getTerm();
+                case 2: return change.getDayOfWeek().name();
+                case 3: return change.getRotationDay();
+                case 4: return change.getDutyName();
+                case 5: return change.getTeacherBefore() != null ? change.getTeacherBefore() : NO_TEACHER_TEXT;
+                default: return change.getTeacherAfter() != null ? change.getTeacherAfter() : NO_TEACHER_TEXT;
+            }
+        }
+    }
+
+    /**
+     * Colours each row by the kind of change, following the table's sort order
+     */
+    private static class ChangeRenderer extends DefaultTableCellRenderer {
+        private static final long serialVersionUID = 1L;
+
+        private final List<ScheduleChange> changes;
+
+        ChangeRenderer(List<ScheduleChange> changes) {
+            this.changes = changes;
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value, boolean isSelected,
+                boolean hasFocus, int row, int column) {
+            Component cell = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (!isSelected) {
+                switch (changes.get(table.convertRowIndexToModel(row)).getType()) {
+                    case ADDED: cell.setBackground(ADDED_COLOR); break;
+                    case REMOVED: cell.setBackground(REMOVED_COLOR); break;
+                    default: cell.setBackground(CHANGED_COLOR); break;
+                }
+            }
+            return cell;
+        }
+    }
+}
@@ -1,13 +1,17 @@
 package com.jamesdegroot.gui;
 
 import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.duty_assigment.AssignedDuty;
+import com.jamesdegroot.duty_assigment.SwapOption;
 import com.jamesdegroot.teacher.Teacher;
 import com.jamesdegroot.teacher.TeacherTypeEnum;
 import com.jamesdegroot.teacher.TeacherScheduleStatusEnum;
 
 import javax.swing.*;
 import java.awt.*;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 /**
  * TeacherProfileEditor.java
@@ -24,6 +28,11 @@ import java.util.List;
  *    - updateForm, void, updates the form with the current teacher object
  *    - createRow, JPanel, creates a new row for the form
  *    - createLabeledField, JPanel, creates a new labeled field for the form
+ *    - applyEdits, void, copies the edited schedule and type onto a teacher
+ *    - saveEdits, void, applies the edits to the teacher and re-solves the duties they affect
+ *    - recalculate, void, shows what the edits would change, on a copy of the schedule
+ *    - showSwaps, void, lists who could take over or trade each of this teacher's duties
+ *    - showDuties, void, lists every duty this teacher holds across the year
  * 
 */
 
@@ -70,6 +79,9 @@ public class TeacherProfileEditor extends JDialog {
     // Button constants
     private static final String SAVE_BUTTON_TEXT = "Save";
     private static final String CANCEL_BUTTON_TEXT = "Cancel";
+    private static final String RECALCULATE_BUTTON_TEXT = "What-if";
+    private static final String SWAPS_BUTTON_TEXT = "Swaps";
+    private static final String DUTIES_BUTTON_TEXT = "Duties";
     private static final int BUTTON_WIDTH = 80;
     private static final int BUTTON_HEIGHT = 25;
     
@@ -77,13 +89,30 @@ public class TeacherProfileEditor extends JDialog {
     private static final int FLOW_LAYOUT_GAP = 5;
     private static final int FLOW_LAYOUT_V_GAP = 2;
     
+    // Output panel constants
+    private static final String NO_DUTIES_TEXT = "This teacher holds no duties.";
+    private static final String NO_SWAPS_TEXT = "  no valid swaps";
+    private static final String SWAPS_FORMAT = "Swaps found in %d ms:%n";
+    private static final int MAX_SWAPS_SHOWN = 5; // per duty
+    private static final String DUTY_LIST_FORMAT = "%d duty cell(s), %d day(s) of duty this year:%n";
+    private static final String SAVED_CHANGES_TITLE = "Duty Changes";
+    private static final String SAVED_CHANGES_FORMAT = "Saving changed %d cell(s):%n";
+    private static final int CHANGE_LIST_ROWS = 10;
+    private static final int CHANGE_LIST_COLUMNS = 60;
+    
+    private GenerateDutyCalendar appLogic;
     private Teacher teacher;
     private List<Teacher> allTeachers;
     private JComboBox<String> teacherSearch;
     private JPanel formPanel;
+    private JComboBox<TeacherTypeEnum> typeCombo;
+    private JTextField[] scheduleFields;
+    private WhatIfPanel whatIfOutput;
+    private boolean previewed;         // a what-if was run since the form was filled
     
-    public TeacherProfileEditor(JFrame parent, Teacher teacher, List<Teacher> allTeachers) {
+    public TeacherProfileEditor(JFrame parent, GenerateDutyCalendar appLogic, Teacher teacher, List<Teacher> allTeachers) {
         super(parent, WINDOW_TITLE, true);
+        this.appLogic = appLogic;
         this.teacher = teacher;
         this.allTeachers = allTeachers;
         
@@ -114,6 +143,10 @@ public class TeacherProfileEditor extends JDialog {
         
         add(new JScrollPane(formPanel), BorderLayout.CENTER);
         
+        // What-if output, filled by the What-if button
+        whatIfOutput = new WhatIfPanel();
+        add(whatIfOutput, BorderLayout.SOUTH);
+        
         pack();
         setLocationRelativeTo(parent);
     }
@@ -151,13 +184,14 @@ public class TeacherProfileEditor extends JDialog {
      */
     private void updateForm() {
         formPanel.removeAll();
+        previewed = false;
         
         // Name
         JTextField nameField = new JTextField(teacher.getName());
         formPanel.add(createRow(NAME_LABEL, nameField));
         
         // Type
-        JComboBox<TeacherTypeEnum> typeCombo = new JComboBox<>(TeacherTypeEnum.values());
+        typeCombo = new JComboBox<>(TeacherTypeEnum.values());
         typeCombo.setSelectedItem(teacher.getJobType());
         formPanel.add(createRow(TYPE_LABEL, typeCombo));
         
@@ -181,6 +215,7 @@ public class TeacherProfileEditor extends JDialog {
         // Schedule
         JPanel schedulePanel = new JPanel();
         schedulePanel.setLayout(new BoxLayout(schedulePanel, BoxLayout.Y_AXIS));
+        scheduleFields = new JTextField[NUM_PERIODS];
         for (int i = 0; i < NUM_PERIODS; i++) {
             JPanel periodPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, FLOW_LAYOUT_GAP, FLOW_LAYOUT_V_GAP));
             JLabel periodLabel = new JLabel(PERIOD_LABEL_PREFIX + (i + 1) + ":");
@@ -189,6 +224,7 @@ public class TeacherProfileEditor extends JDialog {
             
             JTextField scheduleField = new JTextField(teacher.getSchedule().get(i));
             scheduleField.setPreferredSize(new Dimension(SCHEDULE_FIELD_WIDTH, SCHEDULE_FIELD_HEIGHT));
+            scheduleFields[i] = scheduleField;
             periodPanel.add(scheduleField);
             schedulePanel.add(periodPanel);
         }
@@ -205,10 +241,16 @@ public class TeacherProfileEditor extends JDialog {
         
         JButton saveButton = new JButton(SAVE_BUTTON_TEXT);
         JButton cancelButton = new JButton(CANCEL_BUTTON_TEXT);
+        JButton recalculateButton = new JButton(RECALCULATE_BUTTON_TEXT);
+        JButton swapsButton = new JButton(SWAPS_BUTTON_TEXT);
+        JButton dutiesButton = new JButton(DUTIES_BUTTON_TEXT);
         
         // Style buttons
         styleButton(saveButton);
         styleButton(cancelButton);
+        styleButton(recalculateButton);
+        styleButton(swapsButton);
+        styleButton(dutiesButton);
         
         // Set fixed button size
         Dimension buttonSize = new Dimension(BUTTON_WIDTH, BUTTON_HEIGHT);
@@ -216,11 +258,20 @@ public class TeacherProfileEditor extends JDialog {
         saveButton.setPreferredSize(buttonSize);
         cancelButton.setMaximumSize(buttonSize);
         cancelButton.setPreferredSize(buttonSize);
+        recalculateButton.setMaximumSize(buttonSize);
+        recalculateButton.setPreferredSize(buttonSize);
+        swapsButton.setMaximumSize(buttonSize);
+        swapsButton.setPreferredSize(buttonSize);
+        dutiesButton.setMaximumSize(buttonSize);
+        dutiesButton.setPreferredSize(buttonSize);
+        
+        recalculateButton.addActionListener(e -> recalculate());
+        swapsButton.addActionListener(e -> showSwaps());
+        dutiesButton.addActionListener(e -> showDuties());
         
         saveButton.addActionListener(e -> {
             // Save changes
-            teacher.setJobType((TeacherTypeEnum) typeCombo.getSelectedItem());
-            // Add other save logic here
+            saveEdits();
             System.out.println("\nUpdated Teacher Summary:");
             System.out.println("=".repeat(GenerateDutyCalendar.NUM_OF_SEPERATORS_CHAR));
             for (Teacher t : allTeachers) {
@@ -232,6 +283,9 @@ public class TeacherProfileEditor extends JDialog {
         
         cancelButton.addActionListener(e -> dispose());
         
+        buttonPanel.add(recalculateButton);
+        buttonPanel.add(swapsButton);
+        buttonPanel.add(dutiesButton);
         buttonPanel.add(saveButton);
         buttonPanel.add(cancelButton);
         
@@ -240,6 +294,103 @@ public class TeacherProfileEditor extends JDialog {
         formPanel.repaint();
     }
     
+    /**
+     * Copies the edited schedule and type onto a teacher and recomputes their load and quota
+     * @param target the teacher to edit, this teacher or a copy of it
+     */
+    private void applyEdits(Teacher target) {
+        for (int i = 0; i < NUM_PERIODS; i++) {
+            target.addScheduleItem(scheduleFields[i].getText().trim(), i);
+        }
+        target.calculateTimeAllocation();
+        target.setJobType((TeacherTypeEnum) typeCombo.getSelectedItem());
+        target.calculateMaxDutiesPerSemester();
+    }
+    
+    /**
+     * Applies the edits to the teacher and re-solves the duties affected by them. The changed
+     * cells are listed unless a what-if already showed them.
+     */
+    private void saveEdits() {
+        applyEdits(teacher);
+        List<String> changes = appLogic.reassignTeacher(teacher);
+        if (!previewed && !changes.isEmpty()) {
+            String text = String.format(SAVED_CHANGES_FORMAT, changes.size()) + String.join("\n", changes);
+            JTextArea changeList = new JTextArea(text, CHANGE_LIST_ROWS, CHANGE_LIST_COLUMNS);
+            changeList.setEditable(false);
+            JOptionPane.showMessageDialog(this, new JScrollPane(changeList), SAVED_CHANGES_TITLE, JOptionPane.INFORMATION_MESSAGE);
+        }
+    }
+    
+    /**
+     * Shows the cells the edits would change, worked out on a copy of the teachers and schedule.
+     * Nothing changes until Save.
+     */
+    private void recalculate() {
+        if (!appLogic.hasAssignedDuties()) {
+            whatIfOutput.showNotAssigned();
+            return;
+        }
+        
+        long start = System.nanoTime();
+        List<String> changes = appLogic.previewTeacherEdit(teacher, this::applyEdits);
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        previewed = true;
+        whatIfOutput.showChanges(changes, elapsedMs);
+    }
+    
+    /**
+     * Lists every duty this teacher holds across the year, with its first and last date
+     */
+    private void showDuties() {
+        if (!appLogic.hasAssignedDuties()) {
+            whatIfOutput.showNotAssigned();
+            return;
+        }
+        
+        List<AssignedDuty> duties = appLogic.getTeacherDuties(teacher.getName());
+        if (duties.isEmpty()) {
+            whatIfOutput.showText(NO_DUTIES_TEXT);
+            return;
+        }
+        int days = duties.stream().mapToInt(AssignedDuty::getDutyUnits).sum();
+        StringBuilder text = new StringBuilder(String.format(DUTY_LIST_FORMAT, duties.size(), days));
+        for (AssignedDuty duty : duties) {
+            List<LocalDate> dates = duty.getDates();
+            text.append(duty).append(", ").append(dates.get(0)).append(" to ").append(dates.get(dates.size() - 1)).append('\n');
+        }
+        whatIfOutput.showText(text.toString());
+    }
+    
+    /**
+     * Lists the best few teachers who could take over or trade each duty this teacher holds
+     */
+    private void showSwaps() {
+        if (!appLogic.hasAssignedDuties()) {
+            whatIfOutput.showNotAssigned();
+            return;
+        }
+        
+        long start = System.nanoTime();
+        Map<String, List<SwapOption>> swaps = appLogic.findSwaps(teacher.getName());
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+        
+        StringBuilder text = new StringBuilder(String.format(SWAPS_FORMAT, elapsedMs));
+        if (swaps.isEmpty()) {
+            text.append(NO_DUTIES_TEXT);
+        }
+        for (Map.Entry<String, List<SwapOption>> entry : swaps.entrySet()) {
+            text.append(entry.getKey()).append('\n');
+            if (entry.getValue().isEmpty()) {
+                text.append(NO_SWAPS_TEXT).append('\n');
+            }
+            for (SwapOption option : entry.getValue().subList(0, Math.min(MAX_SWAPS_SHOWN, entry.getValue().size()))) {
+                text.append("  ").append(option).append('\n');
+            }
+        }
+        whatIfOutput.showText(text.toString());
+    }
+    
     /**
      * Creates a new row for the form
      * @param label the label for the row
@@ -0,0 +1,74 @@
+package com.jamesdegroot.gui;
+
+import javax.swing.BorderFactory;
+import javax.swing.JScrollPane;
+import javax.swing.JTextArea;
+import java.util.List;
+
+/**
+ * WhatIfPanel.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    WhatIfPanel class, the read-only output area the editors show what-if changes,
+ *    swaps, duties and coverage proposals in.
+ *
+ *  Methods:
+ * 	  - WhatIfPanel, constructor, creates a new WhatIfPanel object
+ *    - showText, void, shows a block of text, scrolled to the top
+ *    - showNotAssigned, void, shows that duties have to be assigned first
+ *    - showChanges, void, shows the cells a what-if would change and how long it took
+ *
+*/
+
+public class WhatIfPanel extends JScrollPane {
+    private static final long serialVersionUID = 1L;
+
+    // What-if panel constants
+    private static final String WHAT_IF_TITLE = "What-if Changes";
+    private static final int WHAT_IF_ROWS = 6;
+    private static final int WHAT_IF_COLUMNS = 60;
+    private static final String NOT_ASSIGNED_TEXT = "Assign duties first to see what changes.";
+    private static final String NO_CHANGES_TEXT = "No duty changes.";
+    private static final String RECALCULATED_FORMAT = "Recalculated in %d ms, %d cell(s) would change (Save to apply):%n";
+
+    private final JTextArea output;
+
+    /**
+     * Constructor for the WhatIfPanel class.
+     */
+    public WhatIfPanel() {
+        output = new JTextArea(WHAT_IF_ROWS, WHAT_IF_COLUMNS);
+        output.setEditable(false);
+        setViewportView(output);
+        setBorder(BorderFactory.createTitledBorder(WHAT_IF_TITLE));
+    }
+
+    /**
+     * Shows a block of text, scrolled to the top
+     * @param text the text to show
+     */
+    public void showText(String text) {
+        output.setText(text);
+        output.setCaretPosition(0);
+    }
+
+    /**
+     * Shows that duties have to be assigned before anything can be worked out
+     */
+    public void showNotAssigned() {
+        showText(NOT_ASSIGNED_TEXT);
+    }
+
+    /**
+     * Shows the cells a what-if would change
+     * @param changes one line per changed cell
+     * @param elapsedMs how long the what-if took
+     */
+    public void showChanges(List<String> changes, long elapsedMs) {
+        StringBuilder text = new StringBuilder(String.format(RECALCULATED_FORMAT, elapsedMs, changes.size()));
+        text.append(changes.isEmpty() ? NO_CHANGES_TEXT : String.join("\n", changes));
+        showText(text.toString());
+    }
+}
@@ -0,0 +1,57 @@
+package com.jamesdegroot.io;
+
+import java.io.File;
+
+/**
+ * DistrictSchool.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    DistrictSchool class, one school of a district file: its name, its teacher linear and the
+ *    ICS calendar it runs on. Each school is solved on its own with no state shared with the others.
+ *
+ *  Methods:
+ * 	  - getName, String, gets the school's name
+ *    - getDirectoryName, String, gets the name of the school's output directory
+ *    - getIcsFile, File, gets the school's calendar
+ *    - getTeacherFile, File, gets the school's teacher linear
+ *
+*/
+
+public final class DistrictSchool {
+    private final String name;
+    private final File icsFile;
+    private final File teacherFile;
+
+    public DistrictSchool(String name, File icsFile, File teacherFile) {
+        this.name = name;
+        this.icsFile = icsFile;
+        this.teacherFile = teacherFile;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Gets the name of the school's output directory
+     * @return the name with anything but letters, digits, dots, dashes and underscores replaced by _
+     */
+    public String getDirectoryName() {
+        return name.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    public File getIcsFile() {
+        return icsFile;
+    }
+
+    public File getTeacherFile() {
+        return teacherFile;
+    }
+
+    @Override
+    public String toString() {
+        return name + " (" + teacherFile + ", " + icsFile + ")";
+    }
+}
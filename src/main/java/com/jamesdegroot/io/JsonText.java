@@ -0,0 +1,45 @@
+package com.jamesdegroot.io;
+
+/**
+ * JsonText.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    JsonText class, used to quote strings for the small JSON documents the app writes
+ *    (batch summaries, service responses and JSON schedule exports)
+ *
+ *  Methods:
+ * 	  - quote, String, quotes and escapes a string as a JSON string literal
+ *
+*/
+
+public class JsonText {
+
+    /**
+     * Quotes and escapes a string as a JSON string literal.
+     * @param value the string to quote, null is written as an empty string
+     * @return the quoted, escaped string
+     */
+    public static String quote(String value) {
+        if (value == null) return "\"\"";
+        StringBuilder quoted = new StringBuilder(value.length() + 2).append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': quoted.append("\\\""); break;
+                case '\\': quoted.append("\\\\"); break;
+                case '\n': quoted.append("\\n"); break;
+                case '\r': quoted.append("\\r"); break;
+                case '\t': quoted.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        quoted.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        quoted.append(c);
+                    }
+            }
+        }
+        return quoted.append('"').toString();
+    }
+}
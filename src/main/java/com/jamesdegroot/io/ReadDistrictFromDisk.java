@@ -0,0 +1,110 @@
+package com.jamesdegroot.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * ReadDistrictFromDisk.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    Reads a district file, the list of schools a board runs the scheduler for.
+ *    One school per line: name, teacher linear CSV and, optionally, the school's own ICS
+ *    calendar; schools without one use the board's calendar. Relative paths are taken from
+ *    the district file's directory. Blank lines and lines starting with # are skipped, and a
+ *    first line starting with "school" is a header. Names with commas go in double quotes.
+ *
+ *      school,teachers,ics
+ *      North Secondary,north/teachers.csv,north/calendar.ics
+ *      South Secondary,south/teachers.csv
+ *
+ *  Methods:
+ * 	  - readDistrict, List<DistrictSchool>, reads and checks the schools of a district file
+ *
+*/
+
+public class ReadDistrictFromDisk {
+    private static final String FIELD_SEPARATOR = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)"; // commas outside quotes
+    private static final String COMMENT_PREFIX = "#";
+    private static final String HEADER_PREFIX = "school";
+    private static final int NAME_COLUMN = 0;
+    private static final int TEACHERS_COLUMN = 1;
+    private static final int ICS_COLUMN = 2;
+
+    /**
+     * Reads and checks the schools of a district file
+     * @param file the district file
+     * @param defaultIcsFile the calendar of schools that do not name their own, may be null
+     * @return the schools in file order, or null if the file can not be read or a line is invalid
+     */
+    public static List<DistrictSchool> readDistrict(File file, File defaultIcsFile) {
+        List<DistrictSchool> schools = new ArrayList<>();
+        Set<String> directoryNames = new HashSet<>();
+        File baseDir = file.getAbsoluteFile().getParentFile();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line;
+            int lineNumber = 0;
+            boolean firstLine = true;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith(COMMENT_PREFIX)) continue;
+                boolean header = firstLine && line.toLowerCase(Locale.ROOT).startsWith(HEADER_PREFIX);
+                firstLine = false;
+                if (header) continue;
+
+                String[] fields = line.split(FIELD_SEPARATOR, -1);
+                String name = field(fields, NAME_COLUMN);
+                String teachers = field(fields, TEACHERS_COLUMN);
+                String ics = field(fields, ICS_COLUMN);
+                if (name.isEmpty() || teachers.isEmpty()) {
+                    return error(file, lineNumber, "a school needs a name and a teacher file");
+                }
+
+                DistrictSchool school = new DistrictSchool(name,
+                    ics.isEmpty() ? defaultIcsFile : resolve(baseDir, ics), resolve(baseDir, teachers));
+                if (!directoryNames.add(school.getDirectoryName().toLowerCase(Locale.ROOT))) {
+                    return error(file, lineNumber, "school " + name + " is listed twice");
+                }
+                if (!school.getTeacherFile().isFile()) {
+                    return error(file, lineNumber, "teacher file not found: " + school.getTeacherFile());
+                }
+                if (school.getIcsFile() == null || !school.getIcsFile().isFile()) {
+                    return error(file, lineNumber, "calendar file not found for " + name
+                        + (school.getIcsFile() != null ? ": " + school.getIcsFile() : " (and no --ics given)"));
+                }
+                schools.add(school);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading district file: " + e.getMessage());
+            return null;
+        }
+        if (schools.isEmpty()) {
+            System.err.println("Error: no schools in district file " + file);
+            return null;
+        }
+        return schools;
+    }
+
+    private static String field(String[] fields, int column) {
+        return column < fields.length ? fields[column].replace("\"", "").trim() : "";
+    }
+
+    private static File resolve(File baseDir, String path) {
+        File resolved = new File(path);
+        return resolved.isAbsolute() ? resolved : new File(baseDir, path);
+    }
+
+    private static List<DistrictSchool> error(File file, int lineNumber, String message) {
+        System.err.println("Error in district file " + file + " line " + lineNumber + ": " + message);
+        return null;
+    }
+}
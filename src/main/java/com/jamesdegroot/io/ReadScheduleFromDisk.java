@@ -0,0 +1,83 @@
+package com.jamesdegroot.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * ReadScheduleFromDisk.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    ReadScheduleFromDisk class, reads a duty schedule CSV written by WriteScheduleToDisk back in,
+ *    e.g. last year's schedule to warm start the next one from (see DutyAssigner.assignDutiesWarmStart).
+ *    The rows come back in the layout of WriteScheduleToDisk.collectScheduleRows.
+ *
+ *  Methods:
+ * 	  - readDutyScheduleFromCSV, List<String[]>, reads the rows of a duty schedule CSV
+ *    - splitTeachers, List<String>, splits a " + " joined teacher cell into names
+ *
+*/
+
+public class ReadScheduleFromDisk {
+    private static final String FIELD_SEPARATOR = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)"; // commas outside quotes
+    private static final int COLUMNS = 5;
+    private static final Pattern TEACHER_SPLIT = Pattern.compile(Pattern.quote(WriteScheduleToDisk.TEACHER_SEPARATOR.trim()));
+
+    /**
+     * Reads the rows of a duty schedule CSV
+     * @param file the CSV, as written by WriteScheduleToDisk.writeDutyScheduleToCSV
+     * @return one row per term, weekday and duty (columns as WriteScheduleToDisk's *_COLUMN),
+     *         or null if the file can not be read or is not a duty schedule
+     */
+    public static List<String[]> readDutyScheduleFromCSV(File file) {
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String header = reader.readLine();
+            if (header == null || !header.trim().equals(WriteScheduleToDisk.CSV_HEADER)) {
+                System.err.println("Error: " + file + " is not a duty schedule CSV (header " + header + ")");
+                return null;
+            }
+            String line;
+            int lineNumber = 1;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) continue;
+                String[] fields = line.split(FIELD_SEPARATOR, -1);
+                if (fields.length != COLUMNS) {
+                    System.err.println("Error in duty schedule " + file + " line " + lineNumber + ": expected "
+                        + COLUMNS + " columns, got " + fields.length);
+                    return null;
+                }
+                for (int i = 0; i < fields.length; i++) {
+                    fields[i] = fields[i].replace("\"", "").trim();
+                }
+                rows.add(fields);
+            }
+        } catch (IOException e) {
+            System.err.println("Error reading duty schedule: " + e.getMessage());
+            return null;
+        }
+        return rows;
+    }
+
+    /**
+     * Splits a teacher cell of the CSV into names
+     * @param joined the cell, names joined with " + "
+     * @return the names in order, empty for an empty cell
+     */
+    public static List<String> splitTeachers(String joined) {
+        if (joined == null || joined.isBlank()) return Collections.emptyList();
+        List<String> names = new ArrayList<>(Arrays.asList(TEACHER_SPLIT.split(joined)));
+        names.replaceAll(String::trim);
+        names.removeIf(String::isEmpty);
+        return names;
+    }
+}
@@ -0,0 +1,92 @@
+package com.jamesdegroot.io;
+
+import java.time.DayOfWeek;
+
+/**
+ * ScheduleChange.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    ScheduleChange class, one teacher assignment that differs between two duty schedules,
+ *    on one (term, weekday, duty, Day 1/Day 2) cell. Made by ScheduleDiff.
+ *
+ *  Methods:
+ * 	  - getType, ScheduleChangeTypeEnum, gets whether the teacher was added, removed or replaced
+ *    - getTerm, int, gets the term (1-4)
+ *    - getDayOfWeek, DayOfWeek, gets the weekday
+ *    - getRotationDay, int, gets the rotation day (1 for Day 1, 2 for Day 2)
+ *    - getDutyName, String, gets the duty
+ *    - getTeacherBefore, String, gets the teacher in the first schedule, or null if one was added
+ *    - getTeacherAfter, String, gets the teacher in the second schedule, or null if one was removed
+ *    - getCellLabel, String, gets the readable label of the cell
+ *    - toString, String, formats the change as one line
+ *
+*/
+
+public final class ScheduleChange {
+    private static final String CELL_LABEL_FORMAT = "Term %d %s Day %d %s";
+    private static final String NO_TEACHER_TEXT = "UNASSIGNED";
+
+    private final ScheduleChangeTypeEnum type;
+    private final int term;
+    private final DayOfWeek dayOfWeek;
+    private final int rotationDay;
+    private final String dutyName;
+    private final String teacherBefore;
+    private final String teacherAfter;
+
+    ScheduleChange(ScheduleChangeTypeEnum type, int term, DayOfWeek dayOfWeek, int rotationDay, String dutyName,
+            String teacherBefore, String teacherAfter) {
+        this.type = type;
+        this.term = term;
+        this.dayOfWeek = dayOfWeek;
+        this.rotationDay = rotationDay;
+        this.dutyName = dutyName;
+        this.teacherBefore = teacherBefore;
+        this.teacherAfter = teacherAfter;
+    }
+
+    public ScheduleChangeTypeEnum getType() {
+        return type;
+    }
+
+    public int getTerm() {
+        return term;
+    }
+
+    public DayOfWeek getDayOfWeek() {
+        return dayOfWeek;
+    }
+
+    public int getRotationDay() {
+        return rotationDay;
+    }
+
+    public String getDutyName() {
+        return dutyName;
+    }
+
+    public String getTeacherBefore() {
+        return teacherBefore;
+    }
+
+    public String getTeacherAfter() {
+        return teacherAfter;
+    }
+
+    /**
+     * Gets the readable label of the cell, e.g. "Term 1 MONDAY Day 1 [per 1] Hall"
+     * @return the label
+     */
+    public String getCellLabel() {
+        return String.format(CELL_LABEL_FORMAT, term, dayOfWeek, rotationDay, dutyName);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-8s %s: %s -> %s", type, getCellLabel(),
+            teacherBefore != null ? teacherBefore : NO_TEACHER_TEXT,
+            teacherAfter != null ? teacherAfter : NO_TEACHER_TEXT);
+    }
+}
@@ -0,0 +1,20 @@
+package com.jamesdegroot.io;
+
+/**
+ * ScheduleChangeTypeEnum.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose: 
+ *    ScheduleChangeTypeEnum enum, used to tell the kinds of change between two duty schedules apart
+ *      
+ *  Methods:
+ * 	  - none
+ * 
+*/
+
+public enum ScheduleChangeTypeEnum {
+    ADDED,      // A teacher is on the duty now and no one left it
+    REMOVED,    // A teacher left the duty and no one took their place
+    CHANGED     // A teacher left the duty and another took their place
+}
@@ -0,0 +1,334 @@
+package com.jamesdegroot.io;
+
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import com.jamesdegroot.calendar.Duty;
+
+/**
+ * ScheduleDiff.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    ScheduleDiff class, what changed between two duty schedules, e.g. the run before and after
+ *    a regenerate or two duty_schedule.csv exports. Both sides are rows in the layout of
+ *    WriteScheduleToDisk.collectScheduleRows. Each side is turned into one packed int key per
+ *    (term, weekday, duty slot, Day 1/Day 2) cell, sorted (exports already are, so this is
+ *    usually just a check), and the two key arrays are walked together once. Cells whose teacher
+ *    text is the same on both sides are skipped without splitting the names.
+ *
+ *    Per cell, a teacher who left and one who joined are paired up as CHANGED; the rest are
+ *    ADDED or REMOVED. A name listed twice on a cell counts once. Changes come out in key order:
+ *    term, weekday, duty slot, Day 1 before Day 2.
+ *
+ *  Methods:
+ * 	  - compare, ScheduleDiff, compares two schedules given as rows
+ *    - compare, ScheduleDiff, compares two duty schedule CSV files
+ *    - getChanges, List<ScheduleChange>, gets every changed teacher assignment in cell order
+ *    - getCount, int, gets how many changes there are of one type
+ *    - getCellsCompared, int, gets how many cells the two schedules have between them
+ *    - isEmpty, boolean, checks if the schedules are the same
+ *    - getSummary, String, gets the counts as one line
+ *    - toText, String, formats the summary and one line per change
+ *    - writeCSV, boolean, writes one row per change to a CSV file
+ *    - buildSide, Side, packs one schedule into sorted cell keys
+ *    - compareCell, void, adds the changes of one cell
+ *
+*/
+
+public final class ScheduleDiff {
+    // Cell key layout: term, weekday (1-7), duty slot, then Day 1 (0) or Day 2 (1) in the lowest bit
+    private static final int ROTATION_BITS = 1;
+    private static final int SLOT_BITS = 11;
+    private static final int WEEKDAY_BITS = 3;
+    private static final int SLOT_SHIFT = ROTATION_BITS;
+    private static final int WEEKDAY_SHIFT = SLOT_SHIFT + SLOT_BITS;
+    private static final int TERM_SHIFT = WEEKDAY_SHIFT + WEEKDAY_BITS;
+    private static final int MAX_SLOTS = 1 << SLOT_BITS;
+    private static final int MAX_TERM = (1 << (Integer.SIZE - 1 - TERM_SHIFT)) - 1;
+    private static final String TERM_PREFIX = "Term ";
+
+    // CSV output
+    private static final String CSV_HEADER = "Change,Term,Day,Day Type,Duty,Before,After";
+    private static final String DAY_TYPE_PREFIX = "Day ";
+    private static final String SUMMARY_FORMAT = "%d changes over %d cells: %d added, %d removed, %d changed";
+
+    // Duty slots in schedule order, so slot keys sort the way the export lists duties
+    private static final Map<String, Integer> KNOWN_SLOTS = new HashMap<>();
+    static {
+        for (int slot = 0; slot < Duty.DUTY_NAMES.length; slot++) {
+            KNOWN_SLOTS.put(Duty.DUTY_NAMES[slot], slot);
+        }
+    }
+
+    private final List<ScheduleChange> changes;
+    private final int cellsCompared;
+    private final Map<ScheduleChangeTypeEnum, Integer> counts = new EnumMap<>(ScheduleChangeTypeEnum.class);
+
+    // One schedule packed for the merge: keys ascending, teachers[i] the " + " joined names of keys[i]
+    private static final class Side {
+        private final int[] keys;
+        private final String[] teachers;
+
+        Side(int[] keys, String[] teachers) {
+            this.keys = keys;
+            this.teachers = teachers;
+        }
+    }
+
+    private ScheduleDiff(List<ScheduleChange> changes, int cellsCompared) {
+        this.changes = Collections.unmodifiableList(changes);
+        this.cellsCompared = cellsCompared;
+        for (ScheduleChangeTypeEnum type : ScheduleChangeTypeEnum.values()) {
+            counts.put(type, 0);
+        }
+        for (ScheduleChange change : changes) {
+            counts.merge(change.getType(), 1, Integer::sum);
+        }
+    }
+
+    /**
+     * Compares two schedules given as rows
+     * @param before the first schedule, rows as WriteScheduleToDisk.collectScheduleRows
+     * @param after the second schedule, rows as WriteScheduleToDisk.collectScheduleRows
+     * @return the changes from the first schedule to the second
+     */
+    public static ScheduleDiff compare(List<String[]> before, List<String[]> after) {
+        List<String> slotNames = new ArrayList<>(Arrays.asList(Duty.DUTY_NAMES));
+        Map<String, Integer> slots = new HashMap<>(KNOWN_SLOTS);
+        Side old = buildSide(before, slots, slotNames);
+        Side now = buildSide(after, slots, slotNames);
+
+        // One pass over both sorted key arrays
+        List<ScheduleChange> changes = new ArrayList<>();
+        int i = 0;
+        int j = 0;
+        int cells = 0;
+        while (i < old.keys.length || j < now.keys.length) {
+            int oldKey = i < old.keys.length ? old.keys[i] : Integer.MAX_VALUE;
+            int newKey = j < now.keys.length ? now.keys[j] : Integer.MAX_VALUE;
+            cells++;
+            if (oldKey == newKey) {
+                if (!old.teachers[i].equals(now.teachers[j])) {
+                    compareCell(oldKey, old.teachers[i], now.teachers[j], slotNames, changes);
+                }
+                i++;
+                j++;
+            } else if (oldKey < newKey) {
+                compareCell(oldKey, old.teachers[i++], "", slotNames, changes);
+            } else {
+                compareCell(newKey, "", now.teachers[j++], slotNames, changes);
+            }
+        }
+        return new ScheduleDiff(changes, cells);
+    }
+
+    /**
+     * Compares two duty schedule CSV files
+     * @param before the first schedule, as written by WriteScheduleToDisk.writeDutyScheduleToCSV
+     * @param after the second schedule
+     * @return the changes from the first schedule to the second, or null if either file can not be read
+     */
+    public static ScheduleDiff compare(File before, File after) {
+        List<String[]> beforeRows = ReadScheduleFromDisk.readDutyScheduleFromCSV(before);
+        List<String[]> afterRows = beforeRows != null ? ReadScheduleFromDisk.readDutyScheduleFromCSV(after) : null;
+        return afterRows != null ? compare(beforeRows, afterRows) : null;
+    }
+
+    /**
+     * Gets every changed teacher assignment
+     * @return the changes in cell order (term, weekday, duty slot, Day 1 before Day 2)
+     */
+    public List<ScheduleChange> getChanges() {
+        return changes;
+    }
+
+    public int getCount(ScheduleChangeTypeEnum type) {
+        return counts.get(type);
+    }
+
+    public int getCellsCompared() {
+        return cellsCompared;
+    }
+
+    public boolean isEmpty() {
+        return changes.isEmpty();
+    }
+
+    /**
+     * Gets the counts as one line, e.g. "3 changes over 440 cells: 1 added, 0 removed, 2 changed"
+     * @return the summary
+     */
+    public String getSummary() {
+        return String.format(SUMMARY_FORMAT, changes.size(), cellsCompared, getCount(ScheduleChangeTypeEnum.ADDED),
+            getCount(ScheduleChangeTypeEnum.REMOVED), getCount(ScheduleChangeTypeEnum.CHANGED));
+    }
+
+    /**
+     * Formats the summary and one line per change, for the console or a text file
+     * @return the text
+     */
+    public String toText() {
+        StringBuilder text = new StringBuilder(getSummary()).append(System.lineSeparator());
+        for (ScheduleChange change : changes) {
+            text.append(change).append(System.lineSeparator());
+        }
+        return text.toString();
+    }
+
+    /**
+     * Writes one row per change to a CSV file
+     * @param file the file to write
+     * @return true if it was written
+     */
+    public boolean writeCSV(File file) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(file))) {
+            writer.println(CSV_HEADER);
+            for (ScheduleChange change : changes) {
+                writer.println(String.join(",", change.getType().name(), TERM_PREFIX + change.getTerm(),
+                    change.getDayOfWeek().name(), DAY_TYPE_PREFIX + change.getRotationDay(),
+                    csvField(change.getDutyName()),
+                    csvField(change.getTeacherBefore() != null ? change.getTeacherBefore() : ""),
+                    csvField(change.getTeacherAfter() != null ? change.getTeacherAfter() : "")));
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing schedule changes: " + e.getMessage());
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Packs one schedule into cell keys, two per row (Day 1 and Day 2), sorted ascending.
+     * Rows that can not be read are skipped with an error, and a cell listed twice keeps its first row.
+     * @param rows the schedule's rows
+     * @param slots duty name to slot, grown with duties that are not in Duty.DUTY_NAMES
+     * @param slotNames slot to duty name, grown alongside slots
+     * @return the packed schedule
+     */
+    private static Side buildSide(List<String[]> rows, Map<String, Integer> slots, List<String> slotNames) {
+        int[] keys = new int[rows.size() * 2];
+        String[] teachers = new String[keys.length];
+        int count = 0;
+        boolean sorted = true;
+        for (String[] row : rows) {
+            int term = parseTerm(row[WriteScheduleToDisk.TERM_COLUMN]);
+            DayOfWeek dayOfWeek = parseDayOfWeek(row[WriteScheduleToDisk.DAY_COLUMN]);
+            String dutyName = row[WriteScheduleToDisk.DUTY_COLUMN];
+            if (term < 0 || dayOfWeek == null) {
+                System.err.println("Error: skipping schedule row " + String.join(",", row));
+                continue;
+            }
+            Integer slot = slots.get(dutyName);
+            if (slot == null) {
+                if (slotNames.size() >= MAX_SLOTS) {
+                    System.err.println("Error: too many duties, skipping " + dutyName);
+                    continue;
+                }
+                slot = slotNames.size();
+                slots.put(dutyName, slot);
+                slotNames.add(dutyName);
+            }
+            int cellKey = (term << TERM_SHIFT) | (dayOfWeek.getValue() << WEEKDAY_SHIFT) | (slot << SLOT_SHIFT);
+            for (int rotation = 0; rotation < 2; rotation++) {
+                keys[count] = cellKey | rotation;
+                teachers[count] = row[rotation == 0 ? WriteScheduleToDisk.DAY1_TEACHERS_COLUMN : WriteScheduleToDisk.DAY2_TEACHERS_COLUMN];
+                sorted &= count == 0 || keys[count - 1] < keys[count];
+                count++;
+            }
+        }
+        if (sorted) {
+            return new Side(Arrays.copyOf(keys, count), Arrays.copyOf(teachers, count));
+        }
+
+        // Sort key and row position together, then keep the first row of each cell
+        long[] order = new long[count];
+        for (int i = 0; i < count; i++) {
+            order[i] = ((long) keys[i] << Integer.SIZE) | i;
+        }
+        Arrays.sort(order);
+        int[] sortedKeys = new int[count];
+        String[] sortedTeachers = new String[count];
+        int unique = 0;
+        for (long entry : order) {
+            int key = (int) (entry >>> Integer.SIZE);
+            if (unique > 0 && sortedKeys[unique - 1] == key) {
+                System.err.println("Error: cell listed twice in schedule, keeping the first: " + describeKey(key, slotNames));
+                continue;
+            }
+            sortedKeys[unique] = key;
+            sortedTeachers[unique] = teachers[(int) entry];
+            unique++;
+        }
+        return new Side(Arrays.copyOf(sortedKeys, unique), Arrays.copyOf(sortedTeachers, unique));
+    }
+
+    /**
+     * Adds the changes of one cell, pairing a teacher who left with one who joined as CHANGED
+     * @param key the cell key
+     * @param before the " + " joined teachers in the first schedule, empty if none or the cell is new
+     * @param after the " + " joined teachers in the second schedule, empty if none or the cell is gone
+     * @param slotNames slot to duty name
+     * @param changes the list to add to
+     */
+    private static void compareCell(int key, String before, String after, List<String> slotNames, List<ScheduleChange> changes) {
+        List<String> left = new ArrayList<>(new LinkedHashSet<>(ReadScheduleFromDisk.splitTeachers(before)));
+        List<String> joined = new ArrayList<>(new LinkedHashSet<>(ReadScheduleFromDisk.splitTeachers(after)));
+        List<String> stayed = new ArrayList<>(left);
+        stayed.retainAll(joined);
+        left.removeAll(stayed);
+        joined.removeAll(stayed);
+        if (left.isEmpty() && joined.isEmpty()) return; // only the order or a repeated name differs
+
+        int term = key >>> TERM_SHIFT;
+        DayOfWeek dayOfWeek = DayOfWeek.of((key >>> WEEKDAY_SHIFT) & ((1 << WEEKDAY_BITS) - 1));
+        String dutyName = slotNames.get((key >>> SLOT_SHIFT) & (MAX_SLOTS - 1));
+        int rotationDay = (key & 1) + 1;
+        for (int n = 0; n < Math.max(left.size(), joined.size()); n++) {
+            String teacherBefore = n < left.size() ? left.get(n) : null;
+            String teacherAfter = n < joined.size() ? joined.get(n) : null;
+            ScheduleChangeTypeEnum type = teacherBefore == null ? ScheduleChangeTypeEnum.ADDED
+                : teacherAfter == null ? ScheduleChangeTypeEnum.REMOVED : ScheduleChangeTypeEnum.CHANGED;
+            changes.add(new ScheduleChange(type, term, dayOfWeek, rotationDay, dutyName, teacherBefore, teacherAfter));
+        }
+    }
+
+    private static String describeKey(int key, List<String> slotNames) {
+        return TERM_PREFIX + (key >>> TERM_SHIFT) + " " + DayOfWeek.of((key >>> WEEKDAY_SHIFT) & ((1 << WEEKDAY_BITS) - 1))
+            + " " + DAY_TYPE_PREFIX + ((key & 1) + 1) + " " + slotNames.get((key >>> SLOT_SHIFT) & (MAX_SLOTS - 1));
+    }
+
+    private static int parseTerm(String termText) {
+        if (termText == null || !termText.startsWith(TERM_PREFIX)) return -1;
+        try {
+            int term = Integer.parseInt(termText.substring(TERM_PREFIX.length()).trim());
+            return term >= 0 && term <= MAX_TERM ? term : -1;
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private static DayOfWeek parseDayOfWeek(String dayText) {
+        try {
+            return DayOfWeek.valueOf(dayText.trim());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            return null;
+        }
+    }
+
+    private static String csvField(String value) {
+        return value.contains(",") || value.contains("\"") ? "\"" + value.replace("\"", "\"\"") + "\"" : value;
+    }
+}
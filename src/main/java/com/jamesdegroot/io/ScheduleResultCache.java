@@ -0,0 +1,323 @@
+package com.jamesdegroot.io;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import com.jamesdegroot.calendar.Calendar;
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.duty_assigment.AssignmentEngineEnum;
+import com.jamesdegroot.teacher.Teacher;
+
+/**
+ * ScheduleResultCache.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    ScheduleResultCache class, an on-disk cache of finished duty assignments and their exports.
+ *    Entries are content addressed: the key is a SHA-256 hash of the loaded teachers, the calendar's
+ *    school days and the engine, so regenerating an unchanged schedule can skip the assignment.
+ *    Hashing the loaded model (not the raw files) means whitespace, line endings and ICS timestamps
+ *    do not change the key, while edits made in the GUI do.
+ *
+ *    Each entry is a directory named after its key holding assignment.tsv (the teachers on every
+ *    duty), duty_schedule.csv and duty_schedule.json. Entries are written to a temporary directory
+ *    and renamed into place, so a half written entry is never read. When the cache grows past its
+ *    size cap the least recently used entries are deleted.
+ *
+ *  Methods:
+ * 	  - ScheduleResultCache, constructor, opens (and creates) a cache directory with a size cap
+ *    - getDefaultDirectory, File, gets the cache directory used by the GUI
+ *    - computeKey, String, hashes the teachers, school days and engine into a cache key
+ *    - restore, boolean, puts a cached assignment back onto a calendar
+ *    - store, void, saves a calendar's assignment and its exports under a key
+ *    - copyExport, boolean, copies a cached export to an output path
+ *    - evict, void, deletes least recently used entries until the cache fits its cap
+ *    - getDirectory, File, gets the cache directory
+ *
+*/
+
+public class ScheduleResultCache {
+    // Bump when the rules or the entry layout change, so old entries are never reused
+    private static final String CACHE_FORMAT_VERSION = "duty-cache-1";
+
+    // Cache defaults
+    public static final long DEFAULT_MAX_BYTES = 64L * 1024 * 1024;
+    private static final String DEFAULT_DIRECTORY_NAME = ".teacher_duty_calendar/cache";
+
+    // Entry file names
+    private static final String ASSIGNMENT_FILE = "assignment.tsv";
+    public static final String CSV_EXPORT = "duty_schedule.csv";
+    public static final String JSON_EXPORT = "duty_schedule.json";
+    private static final String TEMP_PREFIX = ".tmp-";
+
+    // assignment.tsv layout: date, time slot, position, Day 1 teachers, Day 2 teachers
+    private static final String COLUMN_SEPARATOR = "\t";
+    private static final String TEACHER_SEPARATOR = " + ";
+    private static final String TEACHER_SPLIT_PATTERN = " \\+ ";
+    private static final int ASSIGNMENT_COLUMNS = 5;
+    private static final String FIELD_SEPARATOR = "\u001f"; // keeps hashed fields from running together
+
+    private final File directory;
+    private final long maxBytes;
+
+    /**
+     * Opens a cache directory, creating it if needed.
+     * @param directory where entries are stored
+     * @param maxBytes the size cap, least recently used entries are evicted past it
+     */
+    public ScheduleResultCache(File directory, long maxBytes) {
+        this.directory = directory;
+        this.maxBytes = maxBytes;
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            System.err.println("Error creating schedule cache directory: " + directory);
+        }
+    }
+
+    /**
+     * Gets the cache directory used by the GUI, under the user's home directory.
+     * @return the default cache directory
+     */
+    public static File getDefaultDirectory() {
+        return new File(System.getProperty("user.home"), DEFAULT_DIRECTORY_NAME);
+    }
+
+    /**
+     * Hashes the teachers, the calendar's school days (with their rotation day and term) and the engine into a cache key.
+     * @param teachers the loaded (and possibly edited) teachers
+     * @param calendar the loaded calendar
+     * @param engine the engine that will assign duties
+     * @return the key as 64 hex characters
+     */
+    public static String computeKey(List<Teacher> teachers, Calendar calendar, AssignmentEngineEnum engine) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, CACHE_FORMAT_VERSION);
+            update(digest, engine.name());
+            for (Teacher teacher : teachers) {
+                update(digest, teacher.getName());
+                update(digest, String.valueOf(teacher.getJobType()));
+                update(digest, Integer.toString(teacher.getMaxDutiesPerSemester()));
+                update(digest, Double.toString(teacher.getTimeAllocation()));
+                for (String period : teacher.getSchedule()) {
+                    update(digest, period);
+                }
+            }
+            for (Day day : calendar.getDaysOfYear()) {
+                update(digest, day.getDate() + (day.isSchoolDay() ? "S" : "N") + day.getRotationDay() + "T" + day.getTermNumber());
+            }
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Puts a cached assignment back onto a calendar. Every duty's teacher lists are cleared first,
+     * then the cached teachers are added. Nothing is changed if the entry does not fit the calendar.
+     * @param key the cache key
+     * @param calendar the calendar to fill, with its days already initialized
+     * @return true if the entry existed and was applied
+     */
+    public boolean restore(String key, Calendar calendar) {
+        Path entry = directory.toPath().resolve(key);
+        Path assignmentFile = entry.resolve(ASSIGNMENT_FILE);
+        if (!Files.isRegularFile(assignmentFile)) return false;
+
+        Map<LocalDate, Day> daysByDate = new HashMap<>();
+        for (Day day : calendar.getDaysOfYear()) {
+            daysByDate.put(day.getDate(), day);
+        }
+
+        // Read and check every row before touching the calendar
+        List<Duty> duties = new ArrayList<>();
+        List<String[]> rows = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(assignmentFile, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isEmpty()) continue;
+                String[] row = line.split(COLUMN_SEPARATOR, -1);
+                if (row.length != ASSIGNMENT_COLUMNS) return false;
+                Day day = daysByDate.get(LocalDate.parse(row[0]));
+                int timeSlot = Integer.parseInt(row[1]);
+                int position = Integer.parseInt(row[2]);
+                if (day == null || timeSlot < 0 || timeSlot >= Day.TIME_SLOTS
+                        || position < 0 || position >= Day.DUTIES_PER_SLOT
+                        || day.getDutySchedule()[timeSlot][position] == null) {
+                    return false;
+                }
+                duties.add(day.getDutySchedule()[timeSlot][position]);
+                rows.add(row);
+            }
+        } catch (IOException | DateTimeParseException | NumberFormatException e) {
+            System.err.println("Error reading cached schedule " + key + ": " + e.getMessage());
+            return false;
+        }
+
+        for (Day day : calendar.getDaysOfYear()) {
+            for (Duty duty : day.getDuties()) {
+                duty.getDay1Teachers().clear();
+                duty.getDay2Teachers().clear();
+            }
+        }
+        for (int i = 0; i < rows.size(); i++) {
+            addTeachers(duties.get(i).getDay1Teachers(), rows.get(i)[3]);
+            addTeachers(duties.get(i).getDay2Teachers(), rows.get(i)[4]);
+        }
+        touch(entry);
+        return true;
+    }
+
+    /**
+     * Saves a calendar's assignment and its CSV and JSON exports under a key, then evicts
+     * old entries if the cache is over its cap.
+     * @param key the cache key
+     * @param calendar the calendar with assigned duties
+     */
+    public void store(String key, Calendar calendar) {
+        Path entry = directory.toPath().resolve(key);
+        if (Files.isDirectory(entry)) {
+            touch(entry);
+            return;
+        }
+
+        Path temp = directory.toPath().resolve(TEMP_PREFIX + key + "-" + System.nanoTime());
+        try {
+            Files.createDirectories(temp);
+            try (PrintWriter writer = new PrintWriter(Files.newBufferedWriter(temp.resolve(ASSIGNMENT_FILE), StandardCharsets.UTF_8))) {
+                for (Day day : calendar.getDaysOfYear()) {
+                    Duty[][] dutySchedule = day.getDutySchedule();
+                    for (int timeSlot = 0; timeSlot < dutySchedule.length; timeSlot++) {
+                        for (int position = 0; position < dutySchedule[timeSlot].length; position++) {
+                            Duty duty = dutySchedule[timeSlot][position];
+                            if (duty == null || (duty.getDay1Teachers().isEmpty() && duty.getDay2Teachers().isEmpty())) continue;
+                            writer.println(String.join(COLUMN_SEPARATOR, day.getDate().toString(),
+                                Integer.toString(timeSlot), Integer.toString(position),
+                                String.join(TEACHER_SEPARATOR, duty.getDay1Teachers()),
+                                String.join(TEACHER_SEPARATOR, duty.getDay2Teachers())));
+                        }
+                    }
+                }
+            }
+            WriteScheduleToDisk.writeDutyScheduleToCSV(calendar, temp.resolve(CSV_EXPORT).toString());
+            WriteScheduleToDisk.writeDutyScheduleToJSON(calendar, temp.resolve(JSON_EXPORT).toString());
+            Files.move(temp, entry, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Another run may have stored the same key first, which is fine
+            if (!Files.isDirectory(entry)) {
+                System.err.println("Error storing cached schedule " + key + ": " + e.getMessage());
+            }
+            deleteTree(temp);
+        }
+        evict();
+    }
+
+    /**
+     * Copies a cached export to an output path.
+     * @param key the cache key
+     * @param exportName CSV_EXPORT or JSON_EXPORT
+     * @param outputPath where to copy the export
+     * @return true if the export was cached and copied
+     */
+    public boolean copyExport(String key, String exportName, String outputPath) {
+        Path export = directory.toPath().resolve(key).resolve(exportName);
+        if (!Files.isRegularFile(export)) return false;
+        try {
+            Files.copy(export, Path.of(outputPath), StandardCopyOption.REPLACE_EXISTING);
+            return true;
+        } catch (IOException e) {
+            System.err.println("Error copying cached export " + export + ": " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Deletes least recently used entries until the cache fits its size cap.
+     * An entry's last use is the modified time of its directory, updated on every hit.
+     */
+    public synchronized void evict() {
+        File[] entries = directory.listFiles(file -> file.isDirectory() && !file.getName().startsWith(TEMP_PREFIX));
+        if (entries == null) return;
+
+        long[] sizes = new long[entries.length];
+        long total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            sizes[i] = sizeOf(entries[i].toPath());
+            total += sizes[i];
+        }
+        if (total <= maxBytes) return;
+
+        Integer[] order = new Integer[entries.length];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        final long[] lastUsed = Arrays.stream(entries).mapToLong(File::lastModified).toArray();
+        Arrays.sort(order, Comparator.comparingLong(i -> lastUsed[i]));
+
+        for (int i = 0; i < order.length && total > maxBytes; i++) {
+            deleteTree(entries[order[i]].toPath());
+            total -= sizes[order[i]];
+        }
+    }
+
+    public File getDirectory() {
+        return directory;
+    }
+
+    private static void update(MessageDigest digest, String field) {
+        digest.update(field.getBytes(StandardCharsets.UTF_8));
+        digest.update(FIELD_SEPARATOR.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void addTeachers(List<String> teachers, String joined) {
+        if (!joined.isEmpty()) {
+            teachers.addAll(Arrays.asList(joined.split(TEACHER_SPLIT_PATTERN)));
+        }
+    }
+
+    private static void touch(Path entry) {
+        try {
+            Files.setLastModifiedTime(entry, FileTime.fromMillis(System.currentTimeMillis()));
+        } catch (IOException e) {
+            // Only affects eviction order
+        }
+    }
+
+    private static long sizeOf(Path entry) {
+        try (Stream<Path> files = Files.walk(entry)) {
+            return files.filter(Files::isRegularFile).mapToLong(path -> path.toFile().length()).sum();
+        } catch (IOException e) {
+            return 0;
+        }
+    }
+
+    private static void deleteTree(Path root) {
+        if (!Files.exists(root)) return;
+        try (Stream<Path> files = Files.walk(root)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Error deleting " + root + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.jamesdegroot.io;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * SyntheticSchoolGenerator.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    SyntheticSchoolGenerator class, used to write realistic but made up school data for testing at scale.
+ *    Teacher linears use the same column layout as the real export (S1-D1(A) D2(B), ...), with chosen
+ *    numbers of guidance, co-op, gym, credit recovery and part-time teachers.
+ *    Calendars cover N school years with holidays, PA days, exams and recurring events,
+ *    written in the same ICS style as the board's calendar export.
+ *    The same seed and settings always produce byte-identical files. Rows are streamed to disk,
+ *    so 100k teacher rosters need no more memory than small ones.
+ *
+ *  Usage:
+ *    java -cp teacher_duty_calendar.jar com.jamesdegroot.io.SyntheticSchoolGenerator --out dir
+ *         [--teachers 96] [--guidance 3] [--coop 2] [--gym 4] [--credit-recovery 1] [--part-time 10]
+ *         [--years 1] [--start-year 2024] [--seed 1]
+ *
+ *  Methods:
+ * 	  - main, void, writes a teacher linear and a calendar from command line options
+ *    - writeTeacherLinear, void, writes the teacher CSV
+ *    - writeCalendar, void, writes the ICS calendar
+ *    - getTeacherFileName, String, gets the default teacher CSV name for the current settings
+ *    - getCalendarFileName, String, gets the default ICS name for the current settings
+ *    - setTeachers, setGuidance, setCoop, setGym, setCreditRecovery, setPartTime, setYears, setStartYear, setSeed,
+ *      void, set the generator settings
+ *
+*/
+
+public class SyntheticSchoolGenerator {
+    // Teacher linear layout, matching the real export
+    private static final String LINEAR_HEADER = "Teacher,S1-D1(A) D2(B),S1-D1(B) D2(A),S1-D1(C) D2(D),S1-D1(D) D2(C),"
+        + "S1-D1(Extra2) D2(Extra1),S2-D1(A) D2(B),S2-D1(B) D2(A),S2-D1(C) D2(D),S2-D1(D) D2(C)";
+    private static final int PERIOD_COLUMNS = 9;
+    private static final int EXTRA_PERIOD_COLUMN = 4;                    // S1 extra period, rarely filled
+    private static final int[] BASE_PERIOD_COLUMNS = {0, 1, 2, 3, 5, 6, 7, 8};
+    private static final int FULL_TIME_PERIODS = 6;
+    private static final int MIN_PART_TIME_PERIODS = 2;
+    private static final int MAX_PART_TIME_PERIODS = 5;
+    private static final double EXTRA_PERIOD_CHANCE = 0.04;
+    private static final double STACKED_COURSE_CHANCE = 0.2;             // two sections in one period
+    private static final int MAX_SPECIAL_PERIODS = 3;
+
+    // Course codes. Regular codes must not contain any of the special codes Teacher looks for.
+    private static final String[] REGULAR_COURSES = {
+        "ENG1D1", "ENG2D1", "ENG3U1", "ENG4U1", "MPM1D1", "MPM2D1", "MCR3U1", "MHF4U1", "MCV4U1",
+        "SNC1W1", "SNC2D1", "SBI3U1", "SCH4U1", "SPH3U1", "CHW3M1", "CGF3M1", "FSF1D1", "FSF2D1",
+        "AVI1O1", "AMU2O1", "ADA3M1", "TEJ2O1", "TDJ3M1", "ICS3U1", "ICS4U1", "BAF3M1", "BBI2O1",
+        "HFN2O1", "HHS4U1", "CIA4U1", "LWSBD1", "ENG4C1", "MAP4C1", "SVN3M1", "TTJ2O1"
+    };
+    private static final String[] GUIDANCE_COURSES = {"GLE1OL", "GLE2ON", "GLE1ON", "2GUID1"};
+    private static final String[] COOP_COURSES = {"1CO3PD", "1CO4PD", "1COOP2"};
+    private static final String[] GYM_COURSES = {"PPL1OF", "PPL2OM", "PPL3OQ", "PPL4OF"};
+    private static final String[] CREDIT_RECOVERY_COURSES = {"1RCENG", "1RCMAT", "RCRSCI"};
+    private static final String ROOM_PREFIX = ", Rm ";
+    private static final int MIN_ROOM = 101;
+    private static final int ROOM_RANGE = 350;
+    private static final int MAX_SECTION = 12;
+
+    // Names, combined and then numbered once the combinations run out
+    private static final String[] LAST_NAMES = {
+        "Addison", "Alam", "Aristegui", "Bailey", "Bennett", "Boucher", "Brooks", "Campbell", "Chen", "Cochrane",
+        "Cote", "Davies", "Desjardins", "Edwards", "Evans", "Fernandes", "Foster", "Fraser", "Gagnon", "Gill",
+        "Graham", "Hamilton", "Harris", "Ibrahim", "Jackson", "Johnston", "Kaur", "Kelly", "Khan", "Lalonde",
+        "Lam", "Leblanc", "Lee", "MacDonald", "Martin", "Mitchell", "Morin", "Murray", "Nguyen", "O'Brien",
+        "Patel", "Pelletier", "Phillips", "Pike", "Reid", "Roberts", "Robinson", "Roy", "Scott", "Singh",
+        "Smith", "Stewart", "Tremblay", "Walker", "Wang", "White", "Wilson", "Wong", "Young", "Zhang"
+    };
+    private static final String[] FIRST_NAMES = {
+        "Aisha", "Alex", "Amanda", "Andre", "Anna", "Ben", "Carmen", "Chris", "Daniel", "David",
+        "Diane", "Emily", "Emmanuelle", "Farah", "Gabriel", "Grace", "Hannah", "Ian", "Jasmine", "Jean",
+        "Jennifer", "Joel", "Julie", "Karen", "Kevin", "Laura", "Lyn Anne", "Marcus", "Maria", "Mark",
+        "Mauro", "Michael", "Mike", "Natalie", "Nicole", "Omar", "Patrick", "Priya", "Rachel", "Raj",
+        "Robert", "Sam", "Sarah", "Sophie", "Stephanie", "Steven", "Tanya", "Thomas", "Wendy", "Yvonne"
+    };
+
+    private static final long NAME_STEP = 7919;  // prime, so it visits every combination once
+
+    // Calendar layout, matching the board's export
+    private static final String[] CALENDAR_HEADER = {
+        "BEGIN:VCALENDAR", "VERSION:2.0", "NAME:Calendar", "X-WR-CALNAME:Calendar", "CALSCALE:GREGORIAN",
+        "METHOD:PUBLISH", "PRODID:-//jamesdegroot//Synthetic School Calendar//EN"
+    };
+    private static final String CALENDAR_END = "END:VCALENDAR";
+    private static final String HOLIDAY_SUMMARY = "Holidays";
+    private static final String PA_DAY_SUMMARY = "PA Days (no school for students)";
+    private static final String STAFF_MEETING_SUMMARY = "Staff Meeting";
+    private static final String SUMMER_SCHOOL_SUMMARY = "Summer School*";
+    private static final int SUMMER_SCHOOL_WEEKS = 5;
+    private static final int STAFF_MEETINGS_PER_YEAR = 10;
+    private static final DateTimeFormatter ICS_DATE = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final long CALENDAR_SEED_MIX = 0x5DEECE66DL;  // keeps the calendar independent of the roster
+
+    // Command line options
+    private static final String OUT_OPTION = "--out";
+    private static final String TEACHERS_OPTION = "--teachers";
+    private static final String GUIDANCE_OPTION = "--guidance";
+    private static final String COOP_OPTION = "--coop";
+    private static final String GYM_OPTION = "--gym";
+    private static final String CREDIT_RECOVERY_OPTION = "--credit-recovery";
+    private static final String PART_TIME_OPTION = "--part-time";
+    private static final String YEARS_OPTION = "--years";
+    private static final String START_YEAR_OPTION = "--start-year";
+    private static final String SEED_OPTION = "--seed";
+
+    // Teacher roles, the first five in the same order as the role counts
+    private enum Role { GUIDANCE, COOP, GYM, CREDIT_RECOVERY, PART_TIME, REGULAR }
+
+    private int teachers = 96;
+    private int guidance = 3;
+    private int coop = 2;
+    private int gym = 4;
+    private int creditRecovery = 1;
+    private int partTime = 10;
+    private int years = 1;
+    private int startYear = 2024;
+    private long seed = 1;
+
+    public static void main(String[] args) {
+        SyntheticSchoolGenerator generator = new SyntheticSchoolGenerator();
+        File outputDir = null;
+        try {
+            for (int i = 0; i + 1 < args.length; i += 2) {
+                String value = args[i + 1];
+                switch (args[i]) {
+                    case OUT_OPTION: outputDir = new File(value); break;
+                    case TEACHERS_OPTION: generator.setTeachers(Integer.parseInt(value)); break;
+                    case GUIDANCE_OPTION: generator.setGuidance(Integer.parseInt(value)); break;
+                    case COOP_OPTION: generator.setCoop(Integer.parseInt(value)); break;
+                    case GYM_OPTION: generator.setGym(Integer.parseInt(value)); break;
+                    case CREDIT_RECOVERY_OPTION: generator.setCreditRecovery(Integer.parseInt(value)); break;
+                    case PART_TIME_OPTION: generator.setPartTime(Integer.parseInt(value)); break;
+                    case YEARS_OPTION: generator.setYears(Integer.parseInt(value)); break;
+                    case START_YEAR_OPTION: generator.setStartYear(Integer.parseInt(value)); break;
+                    case SEED_OPTION: generator.setSeed(Long.parseLong(value)); break;
+                    default:
+                        System.err.println("Error: unknown option " + args[i]);
+                        System.exit(2);
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: expected a number, " + e.getMessage());
+            System.exit(2);
+        }
+        if (outputDir == null) {
+            System.err.println("Usage: SyntheticSchoolGenerator --out <dir> [--teachers N] [--guidance N] [--coop N] [--gym N]"
+                + " [--credit-recovery N] [--part-time N] [--years N] [--start-year YYYY] [--seed N]");
+            System.exit(2);
+        }
+        if (!outputDir.isDirectory() && !outputDir.mkdirs()) {
+            System.err.println("Error: could not create output directory " + outputDir);
+            System.exit(2);
+        }
+
+        try {
+            File teacherFile = new File(outputDir, generator.getTeacherFileName());
+            File calendarFile = new File(outputDir, generator.getCalendarFileName());
+            generator.writeTeacherLinear(teacherFile);
+            generator.writeCalendar(calendarFile);
+            System.out.println(teacherFile.getPath());
+            System.out.println(calendarFile.getPath());
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Error generating data: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    /**
+     * Writes the teacher CSV. Special roles (guidance, co-op, gym, credit recovery) get one to three
+     * periods of their course code; part-time teachers get 2-5 periods, everyone else a full 6.
+     * Roles are spread through the file in a seeded order rather than grouped together.
+     * @param file the CSV file to write
+     * @throws IOException if the file cannot be written
+     * @throws IllegalArgumentException if the role counts add up to more than the number of teachers
+     */
+    public void writeTeacherLinear(File file) throws IOException {
+        int special = guidance + coop + gym + creditRecovery + partTime;
+        if (teachers < 0 || special > teachers || Math.min(Math.min(guidance, coop), Math.min(Math.min(gym, creditRecovery), partTime)) < 0) {
+            throw new IllegalArgumentException("role counts (" + special + ") must fit in the number of teachers (" + teachers + ")");
+        }
+
+        Random random = new Random(seed);
+        String[] lastNames = shuffled(LAST_NAMES, random);
+        String[] firstNames = shuffled(FIRST_NAMES, random);
+        int nameCombinations = lastNames.length * firstNames.length;
+
+        // Roles are drawn row by row from what is left, so no per-row role list is kept
+        int[] roleCounts = {guidance, coop, gym, creditRecovery, partTime};
+        int remainingSpecial = special;
+
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            writer.println(LINEAR_HEADER);
+            for (int row = 0; row < teachers; row++) {
+                // Pick this row's role so the specials are spread evenly over the rows left
+                Role role = Role.REGULAR;
+                if (remainingSpecial > 0 && random.nextInt(teachers - row) < remainingSpecial) {
+                    int pick = random.nextInt(remainingSpecial);
+                    for (int r = 0; r < roleCounts.length; r++) {
+                        if (pick < roleCounts[r]) {
+                            role = Role.values()[r];
+                            roleCounts[r]--;
+                            break;
+                        }
+                        pick -= roleCounts[r];
+                    }
+                    remainingSpecial--;
+                }
+
+                // Step through the name combinations by a prime so neighbouring rows do not share a first name
+                int combination = (int) ((row * NAME_STEP) % nameCombinations);
+                String name = lastNames[combination % lastNames.length] + ", " + firstNames[combination / lastNames.length];
+                if (row >= nameCombinations) {
+                    name += " " + (row / nameCombinations + 1);
+                }
+                writer.println(formatTeacherRow(name, role, random));
+            }
+        }
+    }
+
+    /**
+     * Writes the ICS calendar, one school year after another starting in September of the start year.
+     * Each year has Thanksgiving, winter break, Family Day, March break, Easter and Victoria Day holidays,
+     * six PA days (some on seeded weeks), semester exams, a last day of school, monthly staff meetings
+     * (as a recurring event) and weekly summer school events.
+     * @param file the ICS file to write
+     * @throws IOException if the file cannot be written
+     */
+    public void writeCalendar(File file) throws IOException {
+        Random random = new Random(seed ^ CALENDAR_SEED_MIX);
+        int[] uid = {(int) (Math.abs(seed % 1_000_000) * 100)};
+
+        try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+            for (String line : CALENDAR_HEADER) {
+                writer.println(line);
+            }
+            for (int year = startYear; year < startYear + years; year++) {
+                int nextYear = year + 1;
+                LocalDate laborDay = LocalDate.of(year, 9, 1).with(TemporalAdjusters.firstInMonth(DayOfWeek.MONDAY));
+                LocalDate thanksgiving = LocalDate.of(year, 10, 1).with(TemporalAdjusters.dayOfWeekInMonth(2, DayOfWeek.MONDAY));
+                LocalDate winterBreak = LocalDate.of(year, 12, 21).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+                LocalDate familyDay = LocalDate.of(nextYear, 2, 1).with(TemporalAdjusters.dayOfWeekInMonth(3, DayOfWeek.MONDAY));
+                LocalDate marchBreak = LocalDate.of(nextYear, 3, 8).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+                LocalDate easter = easterSunday(nextYear);
+                LocalDate victoriaDay = LocalDate.of(nextYear, 5, 24).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                LocalDate semester2Start = LocalDate.of(nextYear, 2, 1).with(TemporalAdjusters.nextOrSame(DayOfWeek.MONDAY));
+                LocalDate semester1ExamStart = semester2Start.minusDays(10);
+                LocalDate lastDay = LocalDate.of(nextYear, 6, 26).with(TemporalAdjusters.previousOrSame(DayOfWeek.THURSDAY));
+                LocalDate semester2ExamStart = lastDay.minusDays(6);
+
+                // Holidays (DTEND is exclusive, as in the board's export)
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, thanksgiving, 1, null);
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, winterBreak, 5, null);
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, winterBreak.plusWeeks(1), 5, null);
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, familyDay, 1, null);
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, marchBreak, 5, null);
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, easter.minusDays(2), 1, null);
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, easter.plusDays(1), 1, null);
+                writeEvent(writer, uid, HOLIDAY_SUMMARY, victoriaDay, 1, null);
+
+                // PA days, on a seeded Friday near the usual week
+                writeEvent(writer, uid, PA_DAY_SUMMARY, nearbyFriday(LocalDate.of(year, 9, 20), random), 1, null);
+                writeEvent(writer, uid, PA_DAY_SUMMARY, nearbyFriday(LocalDate.of(year, 11, 22), random), 1, null);
+                writeEvent(writer, uid, PA_DAY_SUMMARY, semester2Start.minusDays(3), 1, null);
+                writeEvent(writer, uid, PA_DAY_SUMMARY, nearbyFriday(semester2Start.plusDays(7), random), 1, null);
+                LocalDate springPaDay = nearbyFriday(LocalDate.of(nextYear, 4, 11), random);
+                if (springPaDay.equals(easter.minusDays(2))) springPaDay = springPaDay.plusWeeks(1); // already Good Friday
+                writeEvent(writer, uid, PA_DAY_SUMMARY, springPaDay, 1, null);
+                writeEvent(writer, uid, PA_DAY_SUMMARY, lastDay.plusDays(1), 1, null);
+
+                // Exams and milestones
+                writeEvent(writer, uid, "Exams - Semester 1", semester1ExamStart, 3, null);
+                writeEvent(writer, uid, "Exams - Semester 1", semester1ExamStart.plusDays(3), 4, null);
+                writeEvent(writer, uid, "First Day of Semester 2", semester2Start, 1, null);
+                writeEvent(writer, uid, "Exams - Semester 2", semester2ExamStart, 3, null);
+                writeEvent(writer, uid, "Exams - Semester 2", semester2ExamStart.plusDays(4), 2, null);
+                writeEvent(writer, uid, "Last Day of School", lastDay, 1, null);
+
+                // Recurring events
+                LocalDate firstMeeting = laborDay.plusWeeks(2).with(TemporalAdjusters.nextOrSame(DayOfWeek.WEDNESDAY));
+                writeEvent(writer, uid, STAFF_MEETING_SUMMARY, firstMeeting, 1,
+                    "RRULE:FREQ=MONTHLY;BYDAY=" + ((firstMeeting.getDayOfMonth() - 1) / 7 + 1) + "WE;COUNT=" + STAFF_MEETINGS_PER_YEAR);
+                LocalDate summerSchool = LocalDate.of(nextYear, 7, 2);
+                for (int week = 0; week < SUMMER_SCHOOL_WEEKS; week++) {
+                    writeEvent(writer, uid, SUMMER_SCHOOL_SUMMARY, summerSchool, 4, null);
+                    summerSchool = summerSchool.plusWeeks(1).with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+                }
+            }
+            writer.println(CALENDAR_END);
+        }
+    }
+
+    /**
+     * Gets the default teacher CSV name for the current settings
+     * @return e.g. "teachers-96-s1.csv"
+     */
+    public String getTeacherFileName() {
+        return "teachers-" + teachers + "-s" + seed + ".csv";
+    }
+
+    /**
+     * Gets the default ICS name for the current settings
+     * @return e.g. "calendar-2024-1y-s1.ics"
+     */
+    public String getCalendarFileName() {
+        return "calendar-" + startYear + "-" + years + "y-s" + seed + ".ics";
+    }
+
+    /**
+     * Formats one teacher row in the linear's CSV layout
+     * @param name the teacher's "Last, First" name
+     * @param role the teacher's role
+     * @param random the roster's random source
+     * @return the CSV row
+     */
+    private static String formatTeacherRow(String name, Role role, Random random) {
+        String[] cells = new String[PERIOD_COLUMNS];
+        Arrays.fill(cells, "");
+        List<Integer> freeColumns = new ArrayList<>();
+        for (int column : BASE_PERIOD_COLUMNS) freeColumns.add(column);
+        Collections.shuffle(freeColumns, random);
+
+        int periods = role == Role.PART_TIME
+            ? MIN_PART_TIME_PERIODS + random.nextInt(MAX_PART_TIME_PERIODS - MIN_PART_TIME_PERIODS + 1)
+            : FULL_TIME_PERIODS;
+        String[] specialCourses = getSpecialCourses(role);
+        int specialPeriods = specialCourses == null ? 0 : 1 + random.nextInt(MAX_SPECIAL_PERIODS);
+
+        for (int i = 0; i < periods; i++) {
+            String[] courses = i < specialPeriods ? specialCourses : REGULAR_COURSES;
+            cells[freeColumns.get(i)] = formatCell(courses, random);
+        }
+        if (random.nextDouble() < EXTRA_PERIOD_CHANCE) {
+            cells[EXTRA_PERIOD_COLUMN] = formatCell(REGULAR_COURSES, random);
+        }
+
+        StringBuilder row = new StringBuilder().append('"').append(name).append('"');
+        for (String cell : cells) {
+            row.append(',');
+            if (!cell.isEmpty()) row.append('"').append(cell).append('"');
+        }
+        return row.toString();
+    }
+
+    private static String formatCell(String[] courses, Random random) {
+        String cell = formatCourse(courses, random);
+        if (random.nextDouble() < STACKED_COURSE_CHANCE) {
+            cell += ", " + formatCourse(courses, random);
+        }
+        return cell;
+    }
+
+    private static String formatCourse(String[] courses, Random random) {
+        // Plain concatenation rather than String.format, which dominates the time on 100k rosters
+        int section = 1 + random.nextInt(MAX_SECTION);
+        return courses[random.nextInt(courses.length)] + (section < 10 ? "-0" : "-") + section
+            + ROOM_PREFIX + (MIN_ROOM + random.nextInt(ROOM_RANGE));
+    }
+
+    private static String[] getSpecialCourses(Role role) {
+        switch (role) {
+            case GUIDANCE: return GUIDANCE_COURSES;
+            case COOP: return COOP_COURSES;
+            case GYM: return GYM_COURSES;
+            case CREDIT_RECOVERY: return CREDIT_RECOVERY_COURSES;
+            default: return null;
+        }
+    }
+
+    /**
+     * Writes one all-day VEVENT in the board export's layout
+     * @param writer the ICS writer
+     * @param uid the running event id
+     * @param summary the event title
+     * @param start the first day
+     * @param days the number of days (DTEND is the day after the last)
+     * @param rule an RRULE line for recurring events, or null
+     */
+    private static void writeEvent(PrintWriter writer, int[] uid, String summary, LocalDate start, int days, String rule) {
+        writer.println("BEGIN:VEVENT");
+        writer.println("DESCRIPTION:" + summary);
+        writer.println("DTEND;VALUE=DATE:" + start.plusDays(days).format(ICS_DATE));
+        writer.println("DTSTAMP:" + start.minusMonths(3).format(ICS_DATE) + "T120000Z");
+        writer.println("DTSTART;VALUE=DATE:" + start.format(ICS_DATE));
+        if (rule != null) writer.println(rule);
+        writer.println("LOCATION:");
+        writer.println("SEQUENCE:0");
+        writer.println("SUMMARY:" + summary);
+        writer.println("UID:" + (uid[0]++));
+        writer.println("END:VEVENT");
+    }
+
+    /**
+     * Picks the Friday on or after a date, or the one a week later, by the seed
+     */
+    private static LocalDate nearbyFriday(LocalDate around, Random random) {
+        return around.with(TemporalAdjusters.nextOrSame(DayOfWeek.FRIDAY)).plusWeeks(random.nextInt(2));
+    }
+
+    /**
+     * Gets Easter Sunday for a year (anonymous Gregorian algorithm)
+     */
+    private static LocalDate easterSunday(int year) {
+        int a = year % 19;
+        int b = year / 100;
+        int c = year % 100;
+        int d = b / 4;
+        int e = b % 4;
+        int f = (b + 8) / 25;
+        int g = (b - f + 1) / 3;
+        int h = (19 * a + b - d - g + 15) % 30;
+        int i = c / 4;
+        int k = c % 4;
+        int l = (32 + 2 * e + 2 * i - h - k) % 7;
+        int m = (a + 11 * h + 22 * l) / 451;
+        int month = (h + l - 7 * m + 114) / 31;
+        int day = ((h + l - 7 * m + 114) % 31) + 1;
+        return LocalDate.of(year, month, day);
+    }
+
+    private static String[] shuffled(String[] values, Random random) {
+        List<String> list = new ArrayList<>(Arrays.asList(values));
+        Collections.shuffle(list, random);
+        return list.toArray(new String[0]);
+    }
+
+    public void setTeachers(int teachers) {
+        this.teachers = teachers;
+    }
+
+    public void setGuidance(int guidance) {
+        this.guidance = guidance;
+    }
+
+    public void setCoop(int coop) {
+        this.coop = coop;
+    }
+
+    public void setGym(int gym) {
+        this.gym = gym;
+    }
+
+    public void setCreditRecovery(int creditRecovery) {
+        this.creditRecovery = creditRecovery;
+    }
+
+    public void setPartTime(int partTime) {
+        this.partTime = partTime;
+    }
+
+    public void setYears(int years) {
+        this.years = years;
+    }
+
+    public void setStartYear(int startYear) {
+        this.startYear = startYear;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+}
@@ -3,6 +3,7 @@ package com.jamesdegroot.io;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.PrintWriter;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.jamesdegroot.calendar.Calendar;
@@ -14,19 +15,32 @@ import com.jamesdegroot.calendar.Duty;
  * Name: James de Groot
  * Date: January 13, 2025
  *
- * 	Purpose: 
- *    WriteScheduleToDisk class, used to write the duty schedule to a CSV file
- *      
+ * 	Purpose:
+ *    WriteScheduleToDisk class, used to write the duty schedule to a CSV or JSON file
+ *
  *  Methods:
  * 	  - writeDutyScheduleToCSV, void, writes the duty schedule to a CSV file
- * 
+ *    - writeDutyScheduleToJSON, void, writes the duty schedule to a JSON file
+ *    - collectScheduleRows, List<String[]>, collects one row per term, weekday and duty
+ *
 */
 
 public class WriteScheduleToDisk {
     // CSV file constants
-    private static final String CSV_HEADER = "Term,Day,Duty,Day 1 Teachers,Day 2 Teachers";
+    static final String CSV_HEADER = "Term,Day,Duty,Day 1 Teachers,Day 2 Teachers";
     private static final String CSV_FORMAT = "%s,%s,%s,%s,%s%n";
-    
+    static final String TEACHER_SEPARATOR = " + "; // This cant use commas because in the csv it will be read as different columns
+
+    // JSON file constants
+    private static final String JSON_ROW_FORMAT = "{\"term\":%s,\"day\":%s,\"duty\":%s,\"day1Teachers\":%s,\"day2Teachers\":%s}";
+
+    // Row column indices
+    public static final int TERM_COLUMN = 0;
+    public static final int DAY_COLUMN = 1;
+    public static final int DUTY_COLUMN = 2;
+    public static final int DAY1_TEACHERS_COLUMN = 3;
+    public static final int DAY2_TEACHERS_COLUMN = 4;
+
     /**
      * Writes the duty schedule to a CSV file.
      * @param calendar The calendar containing the duty schedule
@@ -35,64 +49,129 @@ public class WriteScheduleToDisk {
     public static void writeDutyScheduleToCSV(Calendar calendar, String outputPath) {
         try (PrintWriter writer = new PrintWriter(new FileWriter(outputPath))) {
             writer.println(CSV_HEADER);
-            
-            // Process each term
-            for (int term = 1; term <= 4; term++) {
-                // Process each weekday (Monday to Friday)
-                for (int dayOfWeek = 1; dayOfWeek <= 5; dayOfWeek++) {
-                    final int currentDayOfWeek = dayOfWeek;
-                    
-                    // Get Day 1 and Day 2 samples for this weekday
-                    List<Day> daysForWeekday = calendar.getDaysOfYear().stream()
-                        .filter(Day::isSchoolDay)
-                        .filter(day -> day.getDate().getDayOfWeek().getValue() == currentDayOfWeek)
-                        .toList();
-                    
-                    if (!daysForWeekday.isEmpty()) {
-                        // Get separate Day 1 and Day 2 samples
-                        Day day1Sample = daysForWeekday.stream()
-                            .filter(Day::isDay1)
-                            .findFirst()
-                            .orElse(null);
-                            
-                        Day day2Sample = daysForWeekday.stream()
-                            .filter(day -> !day.isDay1())
-                            .findFirst()
-                            .orElse(null);
-                        
-                        // Use either day as template (they should have same duty structure)
-                        Day templateDay = day1Sample != null ? day1Sample : day2Sample;
-                        if (templateDay != null) {
-                            String weekdayName = templateDay.getDate().getDayOfWeek().toString();
-                            
-                            // Write duties for this weekday
-                            Duty[][] dutySchedule = templateDay.getDutySchedule();
-                            for (int timeSlot = 0; timeSlot < dutySchedule.length; timeSlot++) {
-                                for (int pos = 0; pos < dutySchedule[timeSlot].length; pos++) {
-                                    Duty duty1 = day1Sample != null ? day1Sample.getDutySchedule()[timeSlot][pos] : null;
-                                    Duty duty2 = day2Sample != null ? day2Sample.getDutySchedule()[timeSlot][pos] : null;
-                                    
-                                    // Use either duty as template (they should have same name)
-                                    Duty templateDuty = duty1 != null ? duty1 : duty2;
-                                    if (templateDuty != null) {
-                                        writer.printf(CSV_FORMAT,
-                                            "Term " + term,
-                                            weekdayName,
-                                            templateDuty.getName(),
-                                            duty1 != null ? String.join(" + ", duty1.getDay1Teachers()) : "", // This cant use commas because in the csv it will be read as different columns
-                                            duty2 != null ? String.join(" + ", duty2.getDay2Teachers()) : "");
-                                    }
+            for (String[] row : collectScheduleRows(calendar)) {
+                writer.printf(CSV_FORMAT,
+                    row[TERM_COLUMN],
+                    row[DAY_COLUMN],
+                    row[DUTY_COLUMN],
+                    row[DAY1_TEACHERS_COLUMN],
+                    row[DAY2_TEACHERS_COLUMN]);
+            }
+
+            System.out.println("Duty schedule has been written to: " + outputPath);
+
+        } catch (IOException e) {
+            System.err.println("Error writing CSV file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Writes the duty schedule to a JSON file, as an array with one object per CSV row.
+     * Teacher lists are written as JSON arrays rather than " + " joined strings.
+     * @param calendar The calendar containing the duty schedule
+     * @param outputPath The path to write the JSON file to
+     */
+    public static void writeDutyScheduleToJSON(Calendar calendar, String outputPath) {
+        try (PrintWriter writer = new PrintWriter(new FileWriter(outputPath))) {
+            List<String[]> rows = collectScheduleRows(calendar);
+            writer.println("[");
+            for (int i = 0; i < rows.size(); i++) {
+                String[] row = rows.get(i);
+                writer.print(String.format(JSON_ROW_FORMAT,
+                    JsonText.quote(row[TERM_COLUMN]),
+                    JsonText.quote(row[DAY_COLUMN]),
+                    JsonText.quote(row[DUTY_COLUMN]),
+                    toJsonArray(row[DAY1_TEACHERS_COLUMN]),
+                    toJsonArray(row[DAY2_TEACHERS_COLUMN])));
+                writer.println(i < rows.size() - 1 ? "," : "");
+            }
+            writer.println("]");
+
+            System.out.println("Duty schedule has been written to: " + outputPath);
+
+        } catch (IOException e) {
+            System.err.println("Error writing JSON file: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Collects the schedule as rows of (term, weekday, duty, Day 1 teachers, Day 2 teachers),
+     * the layout of the CSV export. Teacher names in a cell are joined with " + ".
+     * @param calendar The calendar containing the duty schedule
+     * @return One row per term, weekday and duty
+     */
+    public static List<String[]> collectScheduleRows(Calendar calendar) {
+        List<String[]> rows = new ArrayList<>();
+
+        // Process each term
+        for (int term = 1; term <= 4; term++) {
+            // Process each weekday (Monday to Friday)
+            for (int dayOfWeek = 1; dayOfWeek <= 5; dayOfWeek++) {
+                final int currentDayOfWeek = dayOfWeek;
+
+                // Get Day 1 and Day 2 samples for this weekday
+                List<Day> daysForWeekday = calendar.getDaysOfYear().stream()
+                    .filter(Day::isSchoolDay)
+                    .filter(day -> day.getDate().getDayOfWeek().getValue() == currentDayOfWeek)
+                    .toList();
+
+                if (!daysForWeekday.isEmpty()) {
+                    // Get separate Day 1 and Day 2 samples
+                    Day day1Sample = daysForWeekday.stream()
+                        .filter(Day::isDay1)
+                        .findFirst()
+                        .orElse(null);
+
+                    Day day2Sample = daysForWeekday.stream()
+                        .filter(day -> !day.isDay1())
+                        .findFirst()
+                        .orElse(null);
+
+                    // Use either day as template (they should have same duty structure)
+                    Day templateDay = day1Sample != null ? day1Sample : day2Sample;
+                    if (templateDay != null) {
+                        String weekdayName = templateDay.getDate().getDayOfWeek().toString();
+
+                        // Collect duties for this weekday
+                        Duty[][] dutySchedule = templateDay.getDutySchedule();
+                        for (int timeSlot = 0; timeSlot < dutySchedule.length; timeSlot++) {
+                            for (int pos = 0; pos < dutySchedule[timeSlot].length; pos++) {
+                                Duty duty1 = day1Sample != null ? day1Sample.getDutySchedule()[timeSlot][pos] : null;
+                                Duty duty2 = day2Sample != null ? day2Sample.getDutySchedule()[timeSlot][pos] : null;
+
+                                // Use either duty as template (they should have same name)
+                                Duty templateDuty = duty1 != null ? duty1 : duty2;
+                                if (templateDuty != null) {
+                                    rows.add(new String[] {
+                                        "Term " + term,
+                                        weekdayName,
+                                        templateDuty.getName(),
+                                        duty1 != null ? String.join(TEACHER_SEPARATOR, duty1.getDay1Teachers()) : "",
+                                        duty2 != null ? String.join(TEACHER_SEPARATOR, duty2.getDay2Teachers()) : ""
+                                    });
                                 }
                             }
                         }
                     }
                 }
             }
-            
-            System.out.println("Duty schedule has been written to: " + outputPath);
-            
-        } catch (IOException e) {
-            System.err.println("Error writing CSV file: " + e.getMessage());
         }
+        return rows;
+    }
+
+    /**
+     * Converts a " + " joined teacher list into a JSON array
+     * @param teachers The joined teacher names
+     * @return JSON array of names
+     */
+    private static String toJsonArray(String teachers) {
+        if (teachers.isEmpty()) return "[]";
+        StringBuilder array = new StringBuilder("[");
+        String[] names = teachers.split(" \\+ ");
+        for (int i = 0; i < names.length; i++) {
+            if (i > 0) array.append(',');
+            array.append(JsonText.quote(names[i]));
+        }
+        return array.append(']').toString();
     }
 }
@@ -0,0 +1,226 @@
+package com.jamesdegroot.metrics;
+
+import java.io.PrintStream;
+import java.lang.management.ManagementFactory;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import com.jamesdegroot.duty_assigment.RejectionRuleEnum;
+
+/**
+ * AssignmentMetrics.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    AssignmentMetrics class, process-wide counters and timers for loading and assigning duties.
+ *    Every counter is a LongAdder, which stripes its count across cells under contention, so
+ *    parallel jobs do not fight over one cache line and recording stays a few nanoseconds.
+ *    Published over JMX as com.jamesdegroot:type=AssignmentMetrics and printed as a summary at
+ *    the end of a run. Counts are totals since start (or the last reset) across all runs.
+ *
+ *  Methods:
+ * 	  - get, AssignmentMetrics, gets the shared registry, registering it with JMX on first use
+ *    - recordCandidate, void, counts one (teacher, duty) pair checked
+ *    - recordAssignment, void, counts one duty assigned
+ *    - recordRejection, void, counts one candidate turned down by a rule
+ *    - recordPass, void, counts one assignment pass
+ *    - recordPhase, void, adds wall time to a phase
+ *    - printSummary, void, prints the summary
+ *    - getCandidateEvaluations, long, gets how many (teacher, duty) pairs were checked
+ *    - getAssignments, long, gets how many duties were assigned
+ *    - getRejections, long, gets the rejections for one rule
+ *    - getRejectionsByRule, Map<String, Long>, gets the rejected candidates by rule
+ *    - getPassesExecuted, long, gets how many assignment passes ran
+ *    - getPhaseMillis, Map<String, Double>, gets the total wall time of each phase
+ *    - getPhaseCounts, Map<String, Long>, gets how many times each phase ran
+ *    - getSummary, String, gets the summary text
+ *    - reset, void, sets every counter and timer back to zero
+ *
+*/
+
+public class AssignmentMetrics implements AssignmentMetricsMXBean {
+    private static final String OBJECT_NAME = "com.jamesdegroot:type=AssignmentMetrics";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+    private static final String SUMMARY_RULE = "-".repeat(60);
+
+    private static final AssignmentMetrics INSTANCE = new AssignmentMetrics();
+    private static volatile boolean registered;
+
+    private final LongAdder candidateEvaluations = new LongAdder();
+    private final LongAdder assignments = new LongAdder();
+    private final LongAdder passes = new LongAdder();
+    private final LongAdder[] rejections = newAdders(RejectionRuleEnum.values().length);
+    private final LongAdder[] phaseNanos = newAdders(MetricsPhaseEnum.values().length);
+    private final LongAdder[] phaseCounts = newAdders(MetricsPhaseEnum.values().length);
+
+    private AssignmentMetrics() {
+    }
+
+    /**
+     * Gets the shared registry, registering it with the platform MBean server on first use.
+     * @return the metrics registry
+     */
+    public static AssignmentMetrics get() {
+        if (!registered) {
+            register();
+        }
+        return INSTANCE;
+    }
+
+    private static synchronized void register() {
+        if (registered) return;
+        registered = true;
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName(OBJECT_NAME);
+            if (!server.isRegistered(name)) {
+                server.registerMBean(INSTANCE, name);
+            }
+        } catch (JMException | SecurityException e) {
+            System.err.println("Error registering assignment metrics with JMX: " + e.getMessage());
+        }
+    }
+
+    public void recordCandidate() {
+        candidateEvaluations.increment();
+    }
+
+    public void recordAssignment() {
+        assignments.increment();
+    }
+
+    public void recordRejection(RejectionRuleEnum rule) {
+        rejections[rule.ordinal()].increment();
+    }
+
+    public void recordPass() {
+        passes.increment();
+    }
+
+    /**
+     * Adds wall time to a phase
+     * @param phase the phase that ran
+     * @param nanos how long it took, from System.nanoTime differences
+     */
+    public void recordPhase(MetricsPhaseEnum phase, long nanos) {
+        phaseNanos[phase.ordinal()].add(nanos);
+        phaseCounts[phase.ordinal()].increment();
+    }
+
+    /**
+     * Prints the summary
+     * @param out where to print, e.g. System.out, or System.err in batch mode
+     */
+    public void printSummary(PrintStream out) {
+        out.print(getSummary());
+        out.flush();
+    }
+
+    @Override
+    public long getCandidateEvaluations() {
+        return candidateEvaluations.sum();
+    }
+
+    @Override
+    public long getAssignments() {
+        return assignments.sum();
+    }
+
+    public long getRejections(RejectionRuleEnum rule) {
+        return rejections[rule.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getRejectionsByRule() {
+        Map<String, Long> byRule = new LinkedHashMap<>();
+        for (RejectionRuleEnum rule : RejectionRuleEnum.values()) {
+            byRule.put(rule.name(), getRejections(rule));
+        }
+        return byRule;
+    }
+
+    @Override
+    public long getPassesExecuted() {
+        return passes.sum();
+    }
+
+    @Override
+    public Map<String, Double> getPhaseMillis() {
+        Map<String, Double> millis = new LinkedHashMap<>();
+        for (MetricsPhaseEnum phase : MetricsPhaseEnum.values()) {
+            millis.put(phase.name(), phaseNanos[phase.ordinal()].sum() / NANOS_PER_MILLI);
+        }
+        return millis;
+    }
+
+    @Override
+    public Map<String, Long> getPhaseCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (MetricsPhaseEnum phase : MetricsPhaseEnum.values()) {
+            counts.put(phase.name(), phaseCounts[phase.ordinal()].sum());
+        }
+        return counts;
+    }
+
+    /**
+     * Gets the summary text: candidates and assignments, rejections by rule (with their share
+     * of all rejections) and the wall time of every phase that ran.
+     * @return the summary, one item per line
+     */
+    @Override
+    public String getSummary() {
+        StringBuilder summary = new StringBuilder();
+        summary.append("\nAssignment Metrics:\n").append(SUMMARY_RULE).append('\n');
+        long candidates = getCandidateEvaluations();
+        summary.append(String.format(Locale.ROOT, "%-24s %,14d%n", "Candidate evaluations", candidates));
+        summary.append(String.format(Locale.ROOT, "%-24s %,14d%n", "Assignments", getAssignments()));
+        summary.append(String.format(Locale.ROOT, "%-24s %,14d%n", "Passes executed", getPassesExecuted()));
+
+        long totalRejections = 0;
+        for (RejectionRuleEnum rule : RejectionRuleEnum.values()) {
+            totalRejections += getRejections(rule);
+        }
+        summary.append("\nRejections by rule:\n");
+        for (RejectionRuleEnum rule : RejectionRuleEnum.values()) {
+            long count = getRejections(rule);
+            if (count == 0) continue;
+            summary.append(String.format(Locale.ROOT, "  %-22s %,14d  %5.1f%%%n", rule.name(), count,
+                100.0 * count / totalRejections));
+        }
+
+        summary.append("\nPhase wall time:\n");
+        for (MetricsPhaseEnum phase : MetricsPhaseEnum.values()) {
+            long count = phaseCounts[phase.ordinal()].sum();
+            if (count == 0) continue;
+            summary.append(String.format(Locale.ROOT, "  %-22s %,14.3f ms  (%d run%s)%n", phase.name(),
+                phaseNanos[phase.ordinal()].sum() / NANOS_PER_MILLI, count, count == 1 ? "" : "s"));
+        }
+        summary.append(SUMMARY_RULE).append('\n');
+        return summary.toString();
+    }
+
+    @Override
+    public void reset() {
+        candidateEvaluations.reset();
+        assignments.reset();
+        passes.reset();
+        for (LongAdder adder : rejections) adder.reset();
+        for (LongAdder adder : phaseNanos) adder.reset();
+        for (LongAdder adder : phaseCounts) adder.reset();
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
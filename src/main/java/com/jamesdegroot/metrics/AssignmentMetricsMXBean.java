@@ -0,0 +1,35 @@
+package com.jamesdegroot.metrics;
+
+import java.util.Map;
+
+/**
+ * AssignmentMetricsMXBean.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose: 
+ *    AssignmentMetricsMXBean interface, the JMX view of AssignmentMetrics
+ *    (com.jamesdegroot:type=AssignmentMetrics in jconsole or VisualVM)
+ *      
+ *  Methods:
+ * 	  - getCandidateEvaluations, long, gets how many (teacher, duty) pairs were checked
+ *    - getAssignments, long, gets how many duties were assigned
+ *    - getRejectionsByRule, Map<String, Long>, gets the rejected candidates by rule
+ *    - getPassesExecuted, long, gets how many assignment passes ran
+ *    - getPhaseMillis, Map<String, Double>, gets the total wall time of each phase
+ *    - getPhaseCounts, Map<String, Long>, gets how many times each phase ran
+ *    - getSummary, String, gets the printed summary
+ *    - reset, void, sets every counter and timer back to zero
+ * 
+*/
+
+public interface AssignmentMetricsMXBean {
+    long getCandidateEvaluations();
+    long getAssignments();
+    Map<String, Long> getRejectionsByRule();
+    long getPassesExecuted();
+    Map<String, Double> getPhaseMillis();
+    Map<String, Long> getPhaseCounts();
+    String getSummary();
+    void reset();
+}
@@ -0,0 +1,38 @@
+package com.jamesdegroot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * AssignmentPassEvent.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    AssignmentPassEvent class, a flight recorder event timing one assignment pass over every teacher
+ *
+ *  Methods:
+ * 	  - none, fields are set directly before the event is committed
+ *
+*/
+
+@Name(FlightRecording.EVENT_PREFIX + "AssignmentPass")
+@Label("Assignment Pass")
+@Category(FlightRecording.EVENT_CATEGORY)
+@Description("One pass of the duty assigner over every teacher")
+@StackTrace(false)
+public class AssignmentPassEvent extends Event {
+    @Label("Pass")
+    public String pass;
+
+    @Label("Teacher Count")
+    public int teacherCount;
+
+    @Label("Slots Filled")
+    @Description("Duty slots assigned during this pass")
+    public int slotsFilled;
+}
@@ -0,0 +1,34 @@
+package com.jamesdegroot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * CalendarInitializationEvent.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    CalendarInitializationEvent class, a flight recorder event timing the days and duties of the year being built
+ *
+ *  Methods:
+ * 	  - none, fields are set directly before the event is committed
+ *
+*/
+
+@Name(FlightRecording.EVENT_PREFIX + "CalendarInitialization")
+@Label("Calendar Initialization")
+@Category(FlightRecording.EVENT_CATEGORY)
+@Description("Builds the days and duty grids of the school year")
+@StackTrace(false)
+public class CalendarInitializationEvent extends Event {
+    @Label("Days")
+    public int days;
+
+    @Label("School Days")
+    public int schoolDays;
+}
@@ -0,0 +1,74 @@
+package com.jamesdegroot.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.text.ParseException;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+
+/**
+ * FlightRecording.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    FlightRecording class, starts and stops a JDK Flight Recorder recording around a run.
+ *    The recording uses the JDK's "profile" settings and carries the app's own events
+ *    (ICS parse, teacher CSV parse, calendar initialization, assignment passes, teacher
+ *    assignments and exports) so a profile lines up with the phases of a run.
+ *    Open the file in JDK Mission Control, or print the events with
+ *    jfr print --categories "Teacher Duty Calendar" recording.jfr
+ *
+ *  Methods:
+ * 	  - start, FlightRecording, starts a recording that will be written to a file
+ *    - stop, void, stops the recording and writes it to its file
+ *
+*/
+
+public class FlightRecording {
+    public static final String EVENT_PREFIX = "com.jamesdegroot.";
+    public static final String EVENT_CATEGORY = "Teacher Duty Calendar";
+    private static final String SETTINGS = "profile";
+
+    private final Recording recording;
+    private final File destination;
+
+    private FlightRecording(Recording recording, File destination) {
+        this.recording = recording;
+        this.destination = destination;
+    }
+
+    /**
+     * Starts a recording that will be written to a file when stopped
+     * @param destination the .jfr file to write
+     * @return the running recording, or null if the flight recorder could not be started
+     */
+    public static FlightRecording start(File destination) {
+        try {
+            Recording recording = new Recording(Configuration.getConfiguration(SETTINGS));
+            recording.setName("teacher_duty_calendar");
+            recording.setToDisk(true);
+            recording.setDestination(destination.toPath());
+            recording.start();
+            return new FlightRecording(recording, destination);
+        } catch (IOException | ParseException | IllegalStateException | SecurityException e) {
+            System.err.println("Error starting flight recording: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Stops the recording and writes it to its file
+     */
+    public void stop() {
+        try {
+            recording.stop();
+            System.err.println("Flight recording has been written to: " + destination.getAbsolutePath());
+        } catch (IllegalStateException e) {
+            System.err.println("Error writing flight recording: " + e.getMessage());
+        } finally {
+            recording.close();
+        }
+    }
+}
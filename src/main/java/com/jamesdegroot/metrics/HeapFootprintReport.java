@@ -0,0 +1,400 @@
+package com.jamesdegroot.metrics;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.calendar.Calendar;
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.calendar.Holiday;
+import com.jamesdegroot.io.SyntheticSchoolGenerator;
+import com.jamesdegroot.teacher.Teacher;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+
+/**
+ * HeapFootprintReport.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    HeapFootprintReport class, a diagnostics command that walks a loaded calendar and roster and
+ *    reports object counts and estimated retained bytes per model type (Day, Duty, Teacher, Holiday,
+ *    String). Each type's bytes include the arrays, lists, sets and dates only it holds; Strings are
+ *    counted once each, however many objects share them. Sizes are estimated from the HotSpot object
+ *    layout (12 byte headers, 8 byte alignment, 4 byte references with compressed oops) rather than
+ *    read from the heap, so they are repeatable from run to run. The model types' own sizes are
+ *    worked out from their declared fields, so a new field is counted without editing the report.
+ *    With --compare-years the same walk is run on synthetic schools of 1, 2, ... years so the
+ *    footprint can be tracked as the calendar grows.
+ *
+ *  Usage:
+ *    java -cp teacher_duty_calendar.jar com.jamesdegroot.metrics.HeapFootprintReport
+ *         --ics calendar.ics --teachers teachers.csv [--no-assign]
+ *    java -cp teacher_duty_calendar.jar com.jamesdegroot.metrics.HeapFootprintReport
+ *         --compare-years 1,2,5 [--compare-teachers 96] [--no-assign]
+ *
+ *  Methods:
+ * 	  - main, void, runs the report and exits with its status
+ *    - run, int, parses the arguments and prints the report or comparison
+ *    - measure, HeapFootprintReport, loads (and optionally assigns) one calendar and roster and walks it
+ *    - walk, void, tallies the calendar and teachers
+ *    - printReport, void, prints the per type table
+ *    - getTotalBytes, long, gets the estimated bytes of every tallied type
+ *    - getCount, long, gets the object count of one type
+ *
+*/
+
+public class HeapFootprintReport {
+    // Exit codes
+    public static final int EXIT_OK = 0;
+    public static final int EXIT_USAGE = 2;
+
+    // Report rows
+    public static final String DAY = "Day";
+    public static final String DUTY = "Duty";
+    public static final String TEACHER = "Teacher";
+    public static final String HOLIDAY = "Holiday";
+    public static final String STRING = "String";
+    public static final String CONTAINERS = "Calendar lists";
+
+    // HotSpot layout
+    private static final int OBJECT_HEADER = 12;
+    private static final int ARRAY_HEADER = 16;
+    private static final int ALIGNMENT = 8;
+    private static final int HASH_NODE_FIELDS = 4; // hash int plus key, value and next references
+    private static final int ARRAY_LIST_DEFAULT_CAPACITY = 10;
+    private static final int HASH_MAP_DEFAULT_CAPACITY = 16;
+    private static final double HASH_MAP_LOAD_FACTOR = 0.75;
+    private static final int LATIN1_LIMIT = 0xFF;
+
+    private static final String ROW_FORMAT = "%-16s %,12d %,16d %,12.1f%n";
+    private static final String COMPARE_FORMAT = "%6d %10d %10d %10d %10d %12d %,14.1f%n";
+    private static final String USAGE =
+        "Usage: java -cp teacher_duty_calendar.jar com.jamesdegroot.metrics.HeapFootprintReport --ics <calendar.ics>\n"
+        + "       --teachers <teachers.csv> [--no-assign]\n"
+        + "   or: ... HeapFootprintReport --compare-years 1,2,5 [--compare-teachers N] [--no-assign]";
+    private static final double BYTES_PER_KB = 1024.0;
+
+    private final int referenceSize = usesCompressedOops() ? 4 : 8;
+    private final Map<String, long[]> tallies = new LinkedHashMap<>(); // type -> {count, bytes}
+    private final Set<Object> seen = Collections.newSetFromMap(new IdentityHashMap<>());
+    private final Map<Class<?>, Long> shallowSizes = new HashMap<>(); // model type -> header and fields, aligned
+
+    private HeapFootprintReport() {
+        for (String type : new String[] {DAY, DUTY, TEACHER, HOLIDAY, STRING, CONTAINERS}) {
+            tallies.put(type, new long[2]);
+        }
+    }
+
+    public static void main(String[] args) {
+        System.exit(run(args));
+    }
+
+    /**
+     * Parses the arguments and prints the report or comparison
+     * @param args the command line arguments
+     * @return the process exit code
+     */
+    public static int run(String[] args) {
+        File icsFile = null;
+        File teacherFile = null;
+        int[] compareYears = null;
+        int compareTeachers = 96;
+        boolean assign = true;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String option = args[i];
+                if (option.equals("--no-assign")) {
+                    assign = false;
+                    continue;
+                }
+                if (option.equals("--help") || i + 1 >= args.length) {
+                    System.err.println(USAGE);
+                    return EXIT_USAGE;
+                }
+                String value = args[++i];
+                switch (option) {
+                    case "--ics": icsFile = new File(value); break;
+                    case "--teachers": teacherFile = new File(value); break;
+                    case "--compare-years": compareYears = parseList(value); break;
+                    case "--compare-teachers": compareTeachers = Integer.parseInt(value); break;
+                    default:
+                        System.err.println("Error: unknown option " + option);
+                        System.err.println(USAGE);
+                        return EXIT_USAGE;
+                }
+            }
+        } catch (NumberFormatException e) {
+            System.err.println("Error: expected a number, got " + e.getMessage());
+            return EXIT_USAGE;
+        }
+
+        if (compareYears != null) {
+            return compare(compareYears, compareTeachers, assign);
+        }
+        if (icsFile == null || teacherFile == null || !icsFile.isFile() || !teacherFile.isFile()) {
+            System.err.println("Error: --ics and --teachers must name existing files");
+            System.err.println(USAGE);
+            return EXIT_USAGE;
+        }
+        HeapFootprintReport report = measure(icsFile, teacherFile, assign);
+        System.out.println("\nHeap footprint of " + icsFile.getName() + " and " + teacherFile.getName()
+            + (assign ? " (after assigning duties)" : " (before assigning duties)"));
+        report.printReport();
+        return EXIT_OK;
+    }
+
+    /**
+     * Runs the walk on synthetic schools of each number of years and prints one row per size
+     */
+    private static int compare(int[] years, int teachers, boolean assign) {
+        System.out.println("\nHeap footprint by calendar size (" + teachers + " teachers"
+            + (assign ? ", after assigning duties)" : ", before assigning duties)"));
+        System.out.printf(Locale.ROOT, "%6s %10s %10s %10s %10s %12s %14s%n", "years", "days", "duties",
+            "holidays", "teachers", "strings", "estimated KB");
+        File workDir = null;
+        try {
+            workDir = Files.createTempDirectory("duty-footprint").toFile();
+            for (int yearCount : years) {
+                SyntheticSchoolGenerator generator = new SyntheticSchoolGenerator();
+                generator.setTeachers(teachers);
+                generator.setYears(yearCount);
+                File icsFile = new File(workDir, generator.getCalendarFileName());
+                File teacherFile = new File(workDir, generator.getTeacherFileName());
+                generator.writeCalendar(icsFile);
+                generator.writeTeacherLinear(teacherFile);
+
+                HeapFootprintReport report = measure(icsFile, teacherFile, assign);
+                System.out.printf(Locale.ROOT, COMPARE_FORMAT, yearCount, report.getCount(DAY), report.getCount(DUTY),
+                    report.getCount(HOLIDAY), report.getCount(TEACHER), report.getCount(STRING),
+                    report.getTotalBytes() / BYTES_PER_KB);
+                icsFile.delete();
+                teacherFile.delete();
+            }
+        } catch (IOException e) {
+            System.err.println("Error writing synthetic inputs: " + e.getMessage());
+            return EXIT_USAGE;
+        } finally {
+            if (workDir != null) workDir.delete();
+        }
+        return EXIT_OK;
+    }
+
+    /**
+     * Loads (and optionally assigns) one calendar and roster and walks it
+     * @param icsFile the calendar to load
+     * @param teacherFile the roster to load
+     * @param assign whether to assign duties before walking, so teacher lists are filled
+     * @return the finished report
+     */
+    public static HeapFootprintReport measure(File icsFile, File teacherFile, boolean assign) {
+        GenerateDutyCalendar appLogic = new GenerateDutyCalendar();
+        appLogic.setVerbose(false);
+        appLogic.loadCalendar(icsFile);
+        appLogic.processFile(teacherFile);
+        if (assign) {
+            appLogic.assignDuties();
+        }
+        HeapFootprintReport report = new HeapFootprintReport();
+        report.walk(appLogic.getCalendar(), appLogic.getTeachers());
+        return report;
+    }
+
+    /**
+     * Tallies the calendar and teachers
+     * @param calendar the loaded calendar
+     * @param teachers the loaded teachers
+     */
+    public void walk(Calendar calendar, List<Teacher> teachers) {
+        tally(CONTAINERS, objectSize(1, 0) + listBytes(calendar.getDaysOfYear()) + listBytes(calendar.getEvents())
+            + listBytes(teachers));
+
+        for (Day day : calendar.getDaysOfYear()) {
+            Duty[][] schedule = day.getDutySchedule();
+            long bytes = shallowSize(Day.class) + dateBytes(day.getDate()) + arrayBytes(schedule.length, referenceSize);
+            for (Duty[] slot : schedule) {
+                bytes += arrayBytes(slot.length, referenceSize);
+                for (Duty duty : slot) {
+                    if (duty != null) walkDuty(duty);
+                }
+            }
+            tally(DAY, bytes);
+        }
+
+        for (Holiday holiday : calendar.getEvents()) {
+            tally(HOLIDAY, shallowSize(Holiday.class) + dateBytes(holiday.getStartDate()) + dateBytes(holiday.getEndDate()));
+            stringBytes(holiday.getSummary());
+            stringBytes(holiday.getDescription());
+        }
+
+        for (Teacher teacher : teachers) {
+            // The dutiesPerTerm array holds one counter per term
+            long bytes = shallowSize(Teacher.class)
+                + arrayBytes(4, Integer.BYTES) + listBytes(teacher.getSchedule()) + hashSetBytes(teacher.getAssignedDuties().size());
+            tally(TEACHER, bytes);
+            stringBytes(teacher.getName());
+            for (String period : teacher.getSchedule()) {
+                stringBytes(period);
+            }
+        }
+    }
+
+    private void walkDuty(Duty duty) {
+        if (!seen.add(duty)) return;
+        tally(DUTY, shallowSize(Duty.class) + listBytes(duty.getDay1Teachers()) + listBytes(duty.getDay2Teachers()));
+        stringBytes(duty.getName());
+        stringBytes(duty.getDescription());
+        stringBytes(duty.getRoom());
+        stringBytes(duty.getTimeSlot());
+        for (String name : duty.getDay1Teachers()) stringBytes(name);
+        for (String name : duty.getDay2Teachers()) stringBytes(name);
+    }
+
+    /**
+     * Prints the per type table
+     */
+    public void printReport() {
+        System.out.println("-".repeat(60));
+        System.out.printf(Locale.ROOT, "%-16s %12s %16s %12s%n", "type", "count", "estimated bytes", "KB");
+        for (Map.Entry<String, long[]> entry : tallies.entrySet()) {
+            long[] tally = entry.getValue();
+            System.out.printf(Locale.ROOT, ROW_FORMAT, entry.getKey(), tally[0], tally[1], tally[1] / BYTES_PER_KB);
+        }
+        System.out.println("-".repeat(60));
+        System.out.printf(Locale.ROOT, "%-16s %12s %,16d %,12.1f%n", "Total", "", getTotalBytes(), getTotalBytes() / BYTES_PER_KB);
+        System.out.println("Estimates assume " + referenceSize + " byte references, 12 byte headers and 8 byte alignment.");
+    }
+
+    /**
+     * Gets the estimated bytes of every tallied type
+     * @return total estimated bytes
+     */
+    public long getTotalBytes() {
+        long total = 0;
+        for (long[] tally : tallies.values()) {
+            total += tally[1];
+        }
+        return total;
+    }
+
+    /**
+     * Gets the object count of one type
+     * @param type one of the row names, e.g. DAY
+     * @return number of objects of that type
+     */
+    public long getCount(String type) {
+        return tallies.get(type)[0];
+    }
+
+    private void tally(String type, long bytes) {
+        long[] tally = tallies.get(type);
+        tally[0]++;
+        tally[1] += bytes;
+    }
+
+    private void stringBytes(String value) {
+        if (value == null || !seen.add(value)) return;
+        boolean latin1 = value.chars().allMatch(c -> c <= LATIN1_LIMIT);
+        // hash int, coder byte, hashIsZero boolean and the value reference, then the byte[]
+        tally(STRING, align(OBJECT_HEADER + Integer.BYTES + 2L + referenceSize)
+            + arrayBytes(value.length(), latin1 ? 1 : 2));
+    }
+
+    private long dateBytes(LocalDate date) {
+        if (date == null || !seen.add(date)) return 0;
+        return align(OBJECT_HEADER + Integer.BYTES + 2L * Short.BYTES);
+    }
+
+    private long listBytes(List<?> list) {
+        // ArrayList: modCount, size and the elementData reference; empty lists share one array
+        long bytes = align(OBJECT_HEADER + 2L * Integer.BYTES + referenceSize);
+        if (!list.isEmpty()) {
+            bytes += arrayBytes(Math.max(list.size(), ARRAY_LIST_DEFAULT_CAPACITY), referenceSize);
+        }
+        return bytes;
+    }
+
+    private long hashSetBytes(int size) {
+        // HashSet wraps a HashMap whose table is allocated on the first add and doubles past 75% full
+        long bytes = objectSize(1, 0) + align(OBJECT_HEADER + 4L * Integer.BYTES + Float.BYTES + 4L * referenceSize);
+        if (size > 0) {
+            int capacity = HASH_MAP_DEFAULT_CAPACITY;
+            while (size > capacity * HASH_MAP_LOAD_FACTOR) capacity *= 2;
+            bytes += arrayBytes(capacity, referenceSize);
+            bytes += size * align(OBJECT_HEADER + Integer.BYTES + (HASH_NODE_FIELDS - 1L) * referenceSize);
+        }
+        return bytes;
+    }
+
+    /**
+     * Works out the size of one object of a type from its declared instance fields
+     * @param type the model type
+     * @return the header and fields, aligned
+     */
+    private long shallowSize(Class<?> type) {
+        return shallowSizes.computeIfAbsent(type, key -> {
+            long bytes = OBJECT_HEADER;
+            for (Field field : key.getDeclaredFields()) {
+                if (Modifier.isStatic(field.getModifiers())) continue;
+                Class<?> fieldType = field.getType();
+                if (!fieldType.isPrimitive()) {
+                    bytes += referenceSize;
+                } else if (fieldType == long.class || fieldType == double.class) {
+                    bytes += Long.BYTES;
+                } else if (fieldType == int.class || fieldType == float.class) {
+                    bytes += Integer.BYTES;
+                } else if (fieldType == short.class || fieldType == char.class) {
+                    bytes += Short.BYTES;
+                } else {
+                    bytes += Byte.BYTES; // boolean and byte
+                }
+            }
+            return align(bytes);
+        });
+    }
+
+    private long objectSize(int references, int booleans) {
+        return align(OBJECT_HEADER + (long) references * referenceSize + booleans);
+    }
+
+    private static long arrayBytes(int length, int elementSize) {
+        return align(ARRAY_HEADER + (long) length * elementSize);
+    }
+
+    private static long align(long bytes) {
+        return (bytes + ALIGNMENT - 1) / ALIGNMENT * ALIGNMENT;
+    }
+
+    private static boolean usesCompressedOops() {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            return hotSpot == null || Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue());
+        } catch (IllegalArgumentException e) {
+            return true;
+        }
+    }
+
+    private static int[] parseList(String value) {
+        List<Integer> values = new ArrayList<>();
+        for (String part : value.split(",")) {
+            if (!part.isBlank()) values.add(Integer.parseInt(part.trim()));
+        }
+        return values.stream().mapToInt(Integer::intValue).toArray();
+    }
+}
@@ -0,0 +1,39 @@
+package com.jamesdegroot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * IcsParseEvent.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    IcsParseEvent class, a flight recorder event timing one ICS calendar file being read
+ *
+ *  Methods:
+ * 	  - none, fields are set directly before the event is committed
+ *
+*/
+
+@Name(FlightRecording.EVENT_PREFIX + "IcsParse")
+@Label("ICS Parse")
+@Category(FlightRecording.EVENT_CATEGORY)
+@Description("Reads the holidays and events of an ICS calendar file")
+@StackTrace(false)
+public class IcsParseEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytesRead;
+
+    @Label("Events Loaded")
+    public int eventsLoaded;
+}
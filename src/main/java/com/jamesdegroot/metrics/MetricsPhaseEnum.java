@@ -0,0 +1,30 @@
+package com.jamesdegroot.metrics;
+
+/**
+ * MetricsPhaseEnum.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose: 
+ *    MetricsPhaseEnum enum, used to name the timed phases of a run
+ *      
+ *  Methods:
+ * 	  - none
+ * 
+*/
+
+public enum MetricsPhaseEnum {
+    LOAD_ICS,               // Reading the ICS file
+    INITIALIZE_CALENDAR,    // Building the days and duties of the year
+    LOAD_TEACHERS,          // Reading the teacher CSV
+    ASSIGN,                 // The whole assignment, all passes included
+    ELIGIBILITY_INDEX,      // Building the (semester, slot) candidate index
+    FIRST_PASS,             // Greedy pass 1
+    SECOND_PASS,            // Greedy pass 2
+    THIRD_PASS,             // Greedy pass 3
+    FINAL_PASS,             // Pass allowing two teachers per duty
+    MOST_CONSTRAINED,       // Most-constrained-first scheduler, both semesters
+    MIN_COST_FLOW,          // Min-cost flow scheduler, both semesters
+    WARM_START,             // Seeding from a previous schedule and filling what is left
+    EXPORT                  // Writing the schedule to disk
+}
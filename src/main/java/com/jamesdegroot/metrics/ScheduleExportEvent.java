@@ -0,0 +1,42 @@
+package com.jamesdegroot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * ScheduleExportEvent.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    ScheduleExportEvent class, a flight recorder event timing the duty schedule being written to disk
+ *
+ *  Methods:
+ * 	  - none, fields are set directly before the event is committed
+ *
+*/
+
+@Name(FlightRecording.EVENT_PREFIX + "ScheduleExport")
+@Label("Schedule Export")
+@Category(FlightRecording.EVENT_CATEGORY)
+@Description("Writes the duty schedule to a CSV or JSON file")
+@StackTrace(false)
+public class ScheduleExportEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Format")
+    public String format;
+
+    @Label("Bytes Written")
+    @DataAmount
+    public long bytesWritten;
+
+    @Label("Copied From Cache")
+    public boolean fromCache;
+}
@@ -0,0 +1,41 @@
+package com.jamesdegroot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * TeacherAssignmentEvent.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    TeacherAssignmentEvent class, a flight recorder event timing one teacher's duties being assigned in one pass
+ *
+ *  Methods:
+ * 	  - none, fields are set directly before the event is committed
+ *
+*/
+
+@Name(FlightRecording.EVENT_PREFIX + "TeacherAssignment")
+@Label("Teacher Assignment")
+@Category(FlightRecording.EVENT_CATEGORY)
+@Description("Assigns duties to one teacher during one pass")
+@StackTrace(false)
+public class TeacherAssignmentEvent extends Event {
+    @Label("Teacher")
+    public String teacher;
+
+    @Label("Pass")
+    public String pass;
+
+    @Label("Slots Filled")
+    @Description("Duty slots assigned to this teacher during this pass")
+    public int slotsFilled;
+
+    @Label("Duties This Semester")
+    public int dutiesThisSemester;
+}
@@ -0,0 +1,39 @@
+package com.jamesdegroot.metrics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * TeacherCsvParseEvent.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    TeacherCsvParseEvent class, a flight recorder event timing one teacher CSV file being read
+ *
+ *  Methods:
+ * 	  - none, fields are set directly before the event is committed
+ *
+*/
+
+@Name(FlightRecording.EVENT_PREFIX + "TeacherCsvParse")
+@Label("Teacher CSV Parse")
+@Category(FlightRecording.EVENT_CATEGORY)
+@Description("Reads the teachers and their timetables from a teacher CSV file")
+@StackTrace(false)
+public class TeacherCsvParseEvent extends Event {
+    @Label("File")
+    public String file;
+
+    @Label("Bytes Read")
+    @DataAmount
+    public long bytesRead;
+
+    @Label("Teacher Count")
+    public int teacherCount;
+}
@@ -0,0 +1,21 @@
+package com.jamesdegroot.server;
+
+/**
+ * JobStatusEnum.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose: 
+ *    JobStatusEnum enum, used to represent where a scheduling job is in its lifecycle
+ *      
+ *  Methods:
+ * 	  - none
+ * 
+*/
+
+public enum JobStatusEnum {
+    QUEUED,     // Accepted, waiting for a worker
+    RUNNING,    // Loading, assigning or exporting
+    DONE,       // Results are ready to download
+    FAILED      // Stopped with an error, see the job's error message
+}
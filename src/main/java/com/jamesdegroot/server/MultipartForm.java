@@ -0,0 +1,111 @@
+package com.jamesdegroot.server;
+
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MultipartForm.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    MultipartForm class, a minimal multipart/form-data reader for the scheduling service uploads.
+ *    Parts are kept as raw bytes, keyed by their form field name.
+ *
+ *  Methods:
+ * 	  - parse, MultipartForm, splits a request body into its named parts
+ *    - getBoundary, String, reads the boundary from a Content-Type header
+ *    - getPart, byte[], gets the bytes of a named part
+ *    - getText, String, gets a named part as UTF-8 text
+ *
+*/
+
+public class MultipartForm {
+    private static final String MULTIPART_TYPE = "multipart/form-data";
+    private static final String BOUNDARY_PARAMETER = "boundary=";
+    private static final String HEADER_END = "\r\n\r\n";
+    private static final String LINE_END = "\r\n";
+    private static final String NAME_ATTRIBUTE = "name=\"";
+
+    private final Map<String, byte[]> parts = new HashMap<>();
+
+    private MultipartForm() {
+    }
+
+    /**
+     * Splits a request body into its named parts.
+     * The body is read as ISO-8859-1 so every byte maps to exactly one char and back.
+     * @param contentType the request's Content-Type header
+     * @param body the request body
+     * @return the parsed form, or null if the body is not multipart/form-data or a part's name is not closed
+     */
+    public static MultipartForm parse(String contentType, byte[] body) {
+        String boundary = getBoundary(contentType);
+        if (boundary == null) return null;
+
+        MultipartForm form = new MultipartForm();
+        String text = new String(body, StandardCharsets.ISO_8859_1);
+        String delimiter = "--" + boundary;
+
+        int partStart = text.indexOf(delimiter);
+        while (partStart >= 0) {
+            int headerStart = partStart + delimiter.length();
+            if (text.startsWith("--", headerStart)) break; // closing delimiter
+            int headerEnd = text.indexOf(HEADER_END, headerStart);
+            int nextDelimiter = text.indexOf(LINE_END + delimiter, headerStart);
+            if (headerEnd < 0 || nextDelimiter < 0 || headerEnd > nextDelimiter) break;
+
+            String headers = text.substring(headerStart, headerEnd);
+            int nameStart = headers.indexOf(NAME_ATTRIBUTE);
+            if (nameStart >= 0) {
+                nameStart += NAME_ATTRIBUTE.length();
+                int nameEnd = headers.indexOf('"', nameStart);
+                if (nameEnd < 0) return null; // name="... without its closing quote
+                String name = headers.substring(nameStart, nameEnd);
+                String content = text.substring(headerEnd + HEADER_END.length(), nextDelimiter);
+                form.parts.put(name, content.getBytes(StandardCharsets.ISO_8859_1));
+            }
+            partStart = nextDelimiter + LINE_END.length();
+        }
+        return form;
+    }
+
+    /**
+     * Reads the boundary from a Content-Type header.
+     * @param contentType the Content-Type header value
+     * @return the boundary, or null if the header is not multipart/form-data
+     */
+    public static String getBoundary(String contentType) {
+        if (contentType == null || !contentType.toLowerCase().startsWith(MULTIPART_TYPE)) return null;
+        int boundaryStart = contentType.indexOf(BOUNDARY_PARAMETER);
+        if (boundaryStart < 0) return null;
+        String boundary = contentType.substring(boundaryStart + BOUNDARY_PARAMETER.length());
+        int parameterEnd = boundary.indexOf(';');
+        if (parameterEnd >= 0) boundary = boundary.substring(0, parameterEnd);
+        boundary = boundary.trim();
+        if (boundary.startsWith("\"") && boundary.endsWith("\"") && boundary.length() > 1) {
+            boundary = boundary.substring(1, boundary.length() - 1);
+        }
+        return boundary.isEmpty() ? null : boundary;
+    }
+
+    /**
+     * Gets the bytes of a named part.
+     * @param name the form field name
+     * @return the part's bytes, or null if there is no such part
+     */
+    public byte[] getPart(String name) {
+        return parts.get(name);
+    }
+
+    /**
+     * Gets a named part as UTF-8 text.
+     * @param name the form field name
+     * @return the part's text, or null if there is no such part
+     */
+    public String getText(String name) {
+        byte[] part = parts.get(name);
+        return part == null ? null : new String(part, StandardCharsets.UTF_8).trim();
+    }
+}
@@ -0,0 +1,196 @@
+package com.jamesdegroot.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Locale;
+import java.util.stream.Stream;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.duty_assigment.AssignmentEngineEnum;
+import com.jamesdegroot.io.JsonText;
+import com.jamesdegroot.io.ScheduleResultCache;
+
+/**
+ * SchedulingJob.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    SchedulingJob class, one upload to the scheduling service: its inputs, status and results.
+ *    Each job works in its own temporary directory with its own GenerateDutyCalendar,
+ *    so jobs never share state.
+ *
+ *  Methods:
+ * 	  - SchedulingJob, constructor, creates a queued job for an ICS and teacher CSV upload
+ *    - run, void, runs load -> assign -> export and records the outcome
+ *    - getResultFile, Path, gets the CSV or JSON export of a finished job
+ *    - deleteFiles, void, removes the job's temporary directory
+ *    - toJson, String, describes the job for the status endpoint
+ *    - getId, String, gets the job id
+ *    - getCacheKey, String, gets the hash of the job's inputs
+ *    - getStatus, JobStatusEnum, gets the job status
+ *    - isLarge, boolean, checks if the job runs in the large job lane
+ *
+*/
+
+public class SchedulingJob {
+    // Work directory file names
+    private static final String WORK_DIR_PREFIX = "duty-job-";
+    private static final String ICS_FILE_NAME = "calendar.ics";
+    private static final String TEACHER_FILE_NAME = "teachers.csv";
+    private static final String CSV_RESULT_NAME = "duty_schedule.csv";
+    private static final String JSON_RESULT_NAME = "duty_schedule.json";
+
+    // Result formats
+    public static final String CSV_FORMAT = "csv";
+    public static final String JSON_FORMAT = "json";
+
+    private static final String STATUS_JSON_FORMAT =
+        "{\"id\":%s,\"status\":%s,\"engine\":%s,\"teachers\":%d,\"lane\":%s,\"queued_ms\":%.3f,\"run_ms\":%.3f,\"error\":%s}";
+    private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+    private final String id;
+    private final String cacheKey;
+    private final AssignmentEngineEnum engine;
+    private final int estimatedTeachers;
+    private final boolean large;
+    private final long createdNanos;
+    private final ScheduleResultCache resultCache;
+    private byte[] icsBytes;
+    private byte[] teacherBytes;
+    private volatile JobStatusEnum status = JobStatusEnum.QUEUED;
+    private volatile String error;
+    private volatile long startedNanos;
+    private volatile long finishedNanos;
+    private Path workDir;
+
+    /**
+     * Creates a queued job for an ICS and teacher CSV upload.
+     * @param id the job id
+     * @param cacheKey the hash of the inputs and engine
+     * @param engine the engine to assign duties with
+     * @param icsBytes the uploaded calendar
+     * @param teacherBytes the uploaded teacher linear
+     * @param estimatedTeachers the number of teacher rows, used to pick the job's lane
+     * @param large whether the job runs in the large job lane
+     * @param resultCache the on-disk result cache shared by all jobs, or null for none
+     */
+    public SchedulingJob(String id, String cacheKey, AssignmentEngineEnum engine, byte[] icsBytes, byte[] teacherBytes,
+            int estimatedTeachers, boolean large, ScheduleResultCache resultCache) {
+        this.id = id;
+        this.cacheKey = cacheKey;
+        this.engine = engine;
+        this.icsBytes = icsBytes;
+        this.teacherBytes = teacherBytes;
+        this.estimatedTeachers = estimatedTeachers;
+        this.large = large;
+        this.resultCache = resultCache;
+        this.createdNanos = System.nanoTime();
+    }
+
+    /**
+     * Runs load -> assign -> export in the job's own directory and records the outcome.
+     * The uploaded bytes are released once they are on disk.
+     */
+    public void run() {
+        startedNanos = System.nanoTime();
+        status = JobStatusEnum.RUNNING;
+        try {
+            workDir = Files.createTempDirectory(WORK_DIR_PREFIX + id + "-");
+            File icsFile = workDir.resolve(ICS_FILE_NAME).toFile();
+            File teacherFile = workDir.resolve(TEACHER_FILE_NAME).toFile();
+            Files.write(icsFile.toPath(), icsBytes);
+            Files.write(teacherFile.toPath(), teacherBytes);
+            icsBytes = null;
+            teacherBytes = null;
+
+            GenerateDutyCalendar appLogic = new GenerateDutyCalendar();
+            appLogic.setVerbose(false);
+            appLogic.setEngine(engine);
+            appLogic.setResultCache(resultCache);
+            appLogic.loadCalendar(icsFile);
+            if (appLogic.getCalendar().getEvents().isEmpty()) {
+                throw new IllegalArgumentException("no events found in the uploaded calendar");
+            }
+            appLogic.processFile(teacherFile);
+            if (appLogic.getTeachers().isEmpty()) {
+                throw new IllegalArgumentException("no teachers found in the uploaded teacher file");
+            }
+            appLogic.assignDuties();
+
+            appLogic.exportScheduleToCSV(workDir.resolve(CSV_RESULT_NAME).toString());
+            appLogic.exportScheduleToJSON(workDir.resolve(JSON_RESULT_NAME).toString());
+            status = JobStatusEnum.DONE;
+        } catch (Exception e) {
+            error = e.getMessage() != null ? e.getMessage() : e.toString();
+            status = JobStatusEnum.FAILED;
+            System.err.println("Error: scheduling job " + id + " failed: " + error);
+        } finally {
+            finishedNanos = System.nanoTime();
+        }
+    }
+
+    /**
+     * Gets the CSV or JSON export of a finished job.
+     * @param format "csv" or "json"
+     * @return the result file, or null if the job is not done or the format is unknown
+     */
+    public Path getResultFile(String format) {
+        if (status != JobStatusEnum.DONE) return null;
+        if (CSV_FORMAT.equals(format)) return workDir.resolve(CSV_RESULT_NAME);
+        if (JSON_FORMAT.equals(format)) return workDir.resolve(JSON_RESULT_NAME);
+        return null;
+    }
+
+    /**
+     * Removes the job's temporary directory.
+     */
+    public void deleteFiles() {
+        if (workDir == null) return;
+        try (Stream<Path> files = Files.walk(workDir)) {
+            files.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        } catch (IOException e) {
+            System.err.println("Error deleting job files for " + id + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Describes the job for the status endpoint.
+     * @return the job as a JSON object
+     */
+    public String toJson() {
+        long now = System.nanoTime();
+        long started = startedNanos;
+        long finished = finishedNanos;
+        double queuedMs = ((started != 0 ? started : now) - createdNanos) / NANOS_PER_MILLI;
+        double runMs = started == 0 ? 0 : ((finished != 0 ? finished : now) - started) / NANOS_PER_MILLI;
+        return String.format(Locale.ROOT, STATUS_JSON_FORMAT,
+            JsonText.quote(id),
+            JsonText.quote(status.name().toLowerCase(Locale.ROOT)),
+            JsonText.quote(engine.name().toLowerCase(Locale.ROOT)),
+            estimatedTeachers,
+            JsonText.quote(large ? "large" : "small"),
+            queuedMs,
+            runMs,
+            error == null ? "null" : JsonText.quote(error));
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getCacheKey() {
+        return cacheKey;
+    }
+
+    public JobStatusEnum getStatus() {
+        return status;
+    }
+
+    public boolean isLarge() {
+        return large;
+    }
+}
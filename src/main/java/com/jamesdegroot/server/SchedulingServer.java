@@ -0,0 +1,521 @@
+package com.jamesdegroot.server;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.jamesdegroot.duty_assigment.AssignmentEngineEnum;
+import com.jamesdegroot.io.JsonText;
+import com.jamesdegroot.io.ScheduleResultCache;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+/**
+ * SchedulingServer.java
+ * Name: James de Groot
+ * Date: January 13, 2025
+ *
+ * 	Purpose:
+ *    SchedulingServer class, a small local HTTP service that runs scheduling jobs on uploaded
+ *    ICS and teacher CSV files, so other tools can request schedules without the GUI.
+ *    Built on the JDK's com.sun.net.httpserver, no extra dependencies.
+ *
+ *    Jobs are split into two lanes by roster size. Each lane has its own fixed pool of worker
+ *    threads and a bounded queue, so a few huge rosters cannot starve the small ones and a
+ *    flood of uploads is turned away with 503 instead of piling up in memory.
+ *    Identical uploads (same calendar, teachers and engine) share one job and its results.
+ *
+ *  Endpoints:
+ *    POST /jobs                      multipart form with "ics" and "teachers" files, optional "engine"
+ *                                    -> 202 {"id":..., "status":..., "cached":...}
+ *    GET  /jobs/{id}                 job status as JSON
+ *    GET  /jobs/{id}/result?format=csv|json
+ *                                    streams the finished schedule (409 while the job is not done)
+ *    GET  /health                    queue depth and job counts
+ *
+ *  Usage:
+ *    java -cp teacher_duty_calendar.jar com.jamesdegroot.server.SchedulingServer
+ *         [--port 8085] [--bind 127.0.0.1] [--small-workers N] [--large-workers N] [--cache cacheDir]
+ *
+ *  Methods:
+ * 	  - SchedulingServer, constructor, binds the server and creates the worker lanes
+ *    - start, void, starts accepting requests
+ *    - stop, void, stops the server, the workers and deletes job files
+ *    - getPort, int, gets the bound port (useful when bound to port 0)
+ *    - setResultCache, void, sets the on-disk result cache shared by all jobs
+ *    - submitJob, Submission, queues a job or returns the existing job for identical inputs
+ *    - getJob, SchedulingJob, looks up a job by id
+ *    - findReusableJob, SchedulingJob, finds a job for identical inputs that has not failed
+ *    - queueJob, SchedulingJob, creates a job and hands it to the lane for its roster size
+ *    - handleJobs, void, routes /jobs requests
+ *    - handleHealth, void, answers /health requests
+ *    - createJob, void, handles POST /jobs
+ *    - sendStatus, void, handles GET /jobs/{id}
+ *    - sendResult, void, handles GET /jobs/{id}/result
+ *    - rememberJob, void, records a job and evicts the oldest finished jobs past the limit
+ *    - hashInputs, String, hashes the engine and uploaded files into a cache key
+ *    - countTeacherRows, int, counts the data rows of a teacher CSV
+ *    - readBody, byte[], reads a request body up to the upload limit
+ *    - sendJson, void, sends a JSON response
+ *    - sendError, void, sends a JSON error response
+ *    - createLane, ThreadPoolExecutor, creates a fixed pool of workers in front of a bounded queue
+ *
+*/
+
+public class SchedulingServer {
+    // Server defaults
+    public static final int DEFAULT_PORT = 8085;
+    public static final String DEFAULT_BIND_ADDRESS = "127.0.0.1";
+    public static final int DEFAULT_LARGE_WORKERS = 1;
+    public static final int LARGE_JOB_TEACHERS = 500;      // rosters above this many rows use the large lane
+    private static final int QUEUE_CAPACITY = 32;          // queued jobs per lane before returning 503
+    private static final int MAX_RETAINED_JOBS = 256;      // finished jobs kept for status and result requests
+    private static final int MAX_UPLOAD_BYTES = 64 * 1024 * 1024;
+    private static final int STOP_DELAY_SECONDS = 1;
+
+    // Request fields and paths
+    private static final String ICS_FIELD = "ics";
+    private static final String TEACHERS_FIELD = "teachers";
+    private static final String ENGINE_FIELD = "engine";
+    private static final String JOBS_PATH = "/jobs";
+    private static final String HEALTH_PATH = "/health";
+    private static final String RESULT_SEGMENT = "result";
+    private static final String FORMAT_PARAMETER = "format=";
+
+    // Command line options
+    private static final String PORT_OPTION = "--port";
+    private static final String BIND_OPTION = "--bind";
+    private static final String SMALL_WORKERS_OPTION = "--small-workers";
+    private static final String LARGE_WORKERS_OPTION = "--large-workers";
+    private static final String CACHE_OPTION = "--cache";
+
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+    private static final String CSV_TYPE = "text/csv; charset=utf-8";
+    private static final String CREATED_JSON_FORMAT = "{\"id\":%s,\"status\":%s,\"cached\":%b}";
+    private static final String HEALTH_JSON_FORMAT =
+        "{\"status\":\"ok\",\"jobs\":%d,\"small_queue\":%d,\"large_queue\":%d,\"small_active\":%d,\"large_active\":%d}";
+
+    private final HttpServer server;
+    private final ThreadPoolExecutor smallJobWorkers;
+    private final ThreadPoolExecutor largeJobWorkers;
+    private final ExecutorService requestThreads;
+    private final Map<String, SchedulingJob> jobsById = new LinkedHashMap<>();
+    private final Map<String, SchedulingJob> jobsByKey = new HashMap<>();
+    private final AtomicInteger jobCounter = new AtomicInteger();
+    private volatile ScheduleResultCache resultCache;
+
+    /**
+     * The job a submission was given, and whether it was an existing job for identical inputs
+     */
+    public static final class Submission {
+        private final SchedulingJob job;
+        private final boolean reused;
+
+        Submission(SchedulingJob job, boolean reused) {
+            this.job = job;
+            this.reused = reused;
+        }
+
+        public SchedulingJob getJob() {
+            return job;
+        }
+
+        public boolean isReused() {
+            return reused;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        System.setProperty("java.awt.headless", "true");
+        int port = DEFAULT_PORT;
+        String bindAddress = DEFAULT_BIND_ADDRESS;
+        int smallWorkers = defaultSmallWorkers();
+        int largeWorkers = DEFAULT_LARGE_WORKERS;
+        ScheduleResultCache resultCache = null;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case PORT_OPTION: port = Integer.parseInt(args[i + 1]); break;
+                case BIND_OPTION: bindAddress = args[i + 1]; break;
+                case SMALL_WORKERS_OPTION: smallWorkers = Integer.parseInt(args[i + 1]); break;
+                case LARGE_WORKERS_OPTION: largeWorkers = Integer.parseInt(args[i + 1]); break;
+                case CACHE_OPTION: resultCache = new ScheduleResultCache(new File(args[i + 1]), ScheduleResultCache.DEFAULT_MAX_BYTES); break;
+                default:
+                    System.err.println("Error: unknown option " + args[i]);
+                    System.exit(2);
+            }
+        }
+
+        SchedulingServer service = new SchedulingServer(new InetSocketAddress(bindAddress, port), smallWorkers, largeWorkers);
+        service.setResultCache(resultCache);
+        Runtime.getRuntime().addShutdownHook(new Thread(service::stop));
+        service.start();
+        System.out.println("Scheduling service listening on http://" + bindAddress + ":" + service.getPort());
+    }
+
+    /**
+     * Binds the server and creates the worker lanes.
+     * @param address the address and port to bind, port 0 picks a free port
+     * @param smallWorkers the number of jobs that may run at once in the small lane
+     * @param largeWorkers the number of jobs that may run at once in the large lane
+     * @throws IOException if the address cannot be bound
+     */
+    public SchedulingServer(InetSocketAddress address, int smallWorkers, int largeWorkers) throws IOException {
+        smallJobWorkers = createLane(smallWorkers);
+        largeJobWorkers = createLane(largeWorkers);
+        requestThreads = Executors.newFixedThreadPool(Math.max(2, smallWorkers));
+        server = HttpServer.create(address, 0);
+        server.setExecutor(requestThreads);
+        server.createContext(JOBS_PATH, this::handleJobs);
+        server.createContext(HEALTH_PATH, this::handleHealth);
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+    }
+
+    /**
+     * Stops the server, the workers and deletes job files.
+     */
+    public void stop() {
+        server.stop(STOP_DELAY_SECONDS);
+        smallJobWorkers.shutdownNow();
+        largeJobWorkers.shutdownNow();
+        requestThreads.shutdownNow();
+        synchronized (jobsById) {
+            jobsById.values().forEach(SchedulingJob::deleteFiles);
+            jobsById.clear();
+            jobsByKey.clear();
+        }
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Sets the on-disk result cache, which keeps finished schedules across restarts
+     * and after jobs are evicted from memory.
+     * @param resultCache the cache to share between jobs, or null for none
+     */
+    public void setResultCache(ScheduleResultCache resultCache) {
+        this.resultCache = resultCache;
+    }
+
+    /**
+     * Queues a job, or returns the existing job when identical inputs were already submitted
+     * and that job has not failed.
+     * @param engine the engine to assign duties with
+     * @param icsBytes the uploaded calendar
+     * @param teacherBytes the uploaded teacher linear
+     * @return the queued or existing job
+     * @throws RejectedExecutionException if the job's lane queue is full
+     */
+    public Submission submitJob(AssignmentEngineEnum engine, byte[] icsBytes, byte[] teacherBytes) {
+        String cacheKey = hashInputs(engine, icsBytes, teacherBytes);
+        synchronized (jobsById) {
+            SchedulingJob existing = findReusableJob(cacheKey);
+            return existing != null ? new Submission(existing, true)
+                : new Submission(queueJob(cacheKey, engine, icsBytes, teacherBytes), false);
+        }
+    }
+
+    /**
+     * Looks up a job by id.
+     * @param id the job id
+     * @return the job, or null if it is unknown or was evicted
+     */
+    public SchedulingJob getJob(String id) {
+        synchronized (jobsById) {
+            return jobsById.get(id);
+        }
+    }
+
+    /**
+     * Finds a job for identical inputs that is queued, running or done. Callers hold the jobsById lock.
+     * @param cacheKey the hash of the inputs and engine
+     * @return the job, or null if there is none or it failed
+     */
+    private SchedulingJob findReusableJob(String cacheKey) {
+        SchedulingJob existing = jobsByKey.get(cacheKey);
+        return existing != null && existing.getStatus() != JobStatusEnum.FAILED ? existing : null;
+    }
+
+    /**
+     * Creates a job and hands it to the lane for its roster size. Callers hold the jobsById lock.
+     * @return the queued job
+     * @throws RejectedExecutionException if the lane's queue is full
+     */
+    private SchedulingJob queueJob(String cacheKey, AssignmentEngineEnum engine, byte[] icsBytes, byte[] teacherBytes) {
+        int teacherRows = countTeacherRows(teacherBytes);
+        boolean large = teacherRows > LARGE_JOB_TEACHERS;
+        String id = jobCounter.incrementAndGet() + "-" + cacheKey.substring(0, 12);
+        SchedulingJob job = new SchedulingJob(id, cacheKey, engine, icsBytes, teacherBytes, teacherRows, large, resultCache);
+        (large ? largeJobWorkers : smallJobWorkers).execute(job::run);
+        rememberJob(job);
+        return job;
+    }
+
+    /**
+     * Routes /jobs requests.
+     * @param exchange the HTTP exchange
+     */
+    private void handleJobs(HttpExchange exchange) throws IOException {
+        try {
+            String[] segments = exchange.getRequestURI().getPath().substring(JOBS_PATH.length()).split("/");
+            String method = exchange.getRequestMethod();
+            // segments: [""] for /jobs, ["", id] for /jobs/{id}, ["", id, "result"] for results
+            if (segments.length <= 1 && method.equals("POST")) {
+                createJob(exchange);
+            } else if (segments.length == 2 && method.equals("GET")) {
+                sendStatus(exchange, segments[1]);
+            } else if (segments.length == 3 && segments[2].equals(RESULT_SEGMENT) && method.equals("GET")) {
+                sendResult(exchange, segments[1]);
+            } else {
+                sendError(exchange, 404, "no such endpoint: " + method + " " + exchange.getRequestURI().getPath());
+            }
+        } catch (Exception e) {
+            System.err.println("Error handling request " + exchange.getRequestURI() + ": " + e.getMessage());
+            sendError(exchange, 500, String.valueOf(e.getMessage()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Answers /health requests with queue depths and the number of retained jobs.
+     * @param exchange the HTTP exchange
+     */
+    private void handleHealth(HttpExchange exchange) throws IOException {
+        int jobs;
+        synchronized (jobsById) {
+            jobs = jobsById.size();
+        }
+        try {
+            sendJson(exchange, 200, String.format(HEALTH_JSON_FORMAT, jobs,
+                smallJobWorkers.getQueue().size(), largeJobWorkers.getQueue().size(),
+                smallJobWorkers.getActiveCount(), largeJobWorkers.getActiveCount()));
+        } finally {
+            exchange.close();
+        }
+    }
+
+    /**
+     * Handles POST /jobs: reads the upload and queues a job for it.
+     * @param exchange the HTTP exchange
+     */
+    private void createJob(HttpExchange exchange) throws IOException {
+        byte[] body = readBody(exchange.getRequestBody());
+        if (body == null) {
+            sendError(exchange, 413, "upload larger than " + MAX_UPLOAD_BYTES + " bytes");
+            return;
+        }
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        if (MultipartForm.getBoundary(contentType) == null) {
+            sendError(exchange, 415, "expected a multipart/form-data upload");
+            return;
+        }
+        MultipartForm form = MultipartForm.parse(contentType, body);
+        if (form == null) {
+            sendError(exchange, 400, "the multipart/form-data upload is malformed");
+            return;
+        }
+        byte[] icsBytes = form.getPart(ICS_FIELD);
+        byte[] teacherBytes = form.getPart(TEACHERS_FIELD);
+        if (icsBytes == null || teacherBytes == null) {
+            sendError(exchange, 400, "the upload needs \"" + ICS_FIELD + "\" and \"" + TEACHERS_FIELD + "\" files");
+            return;
+        }
+        AssignmentEngineEnum engine = AssignmentEngineEnum.GREEDY;
+        String engineName = form.getText(ENGINE_FIELD);
+        if (engineName != null && !engineName.isEmpty()) {
+            engine = AssignmentEngineEnum.fromName(engineName);
+            if (engine == null) {
+                sendError(exchange, 400, "unknown engine " + engineName);
+                return;
+            }
+        }
+
+        Submission submission;
+        try {
+            submission = submitJob(engine, icsBytes, teacherBytes);
+        } catch (RejectedExecutionException e) {
+            sendError(exchange, 503, "the job queue is full, try again later");
+            return;
+        }
+        SchedulingJob job = submission.getJob();
+        exchange.getResponseHeaders().set("Location", JOBS_PATH + "/" + job.getId());
+        sendJson(exchange, submission.isReused() ? 200 : 202, String.format(CREATED_JSON_FORMAT,
+            JsonText.quote(job.getId()), JsonText.quote(job.getStatus().name().toLowerCase()), submission.isReused()));
+    }
+
+    /**
+     * Handles GET /jobs/{id}.
+     * @param exchange the HTTP exchange
+     * @param id the job id
+     */
+    private void sendStatus(HttpExchange exchange, String id) throws IOException {
+        SchedulingJob job = getJob(id);
+        if (job == null) {
+            sendError(exchange, 404, "unknown job " + id);
+            return;
+        }
+        sendJson(exchange, 200, job.toJson());
+    }
+
+    /**
+     * Handles GET /jobs/{id}/result, streaming the export file rather than loading it into memory.
+     * @param exchange the HTTP exchange
+     * @param id the job id
+     */
+    private void sendResult(HttpExchange exchange, String id) throws IOException {
+        SchedulingJob job = getJob(id);
+        if (job == null) {
+            sendError(exchange, 404, "unknown job " + id);
+            return;
+        }
+        if (job.getStatus() != JobStatusEnum.DONE) {
+            sendError(exchange, 409, "job " + id + " is " + job.getStatus().name().toLowerCase());
+            return;
+        }
+
+        String format = SchedulingJob.CSV_FORMAT;
+        String query = exchange.getRequestURI().getQuery();
+        if (query != null) {
+            for (String parameter : query.split("&")) {
+                if (parameter.startsWith(FORMAT_PARAMETER)) format = parameter.substring(FORMAT_PARAMETER.length());
+            }
+        }
+        Path resultFile = job.getResultFile(format);
+        if (resultFile == null) {
+            sendError(exchange, 400, "unknown format " + format + ", use csv or json");
+            return;
+        }
+
+        exchange.getResponseHeaders().set("Content-Type", SchedulingJob.CSV_FORMAT.equals(format) ? CSV_TYPE : JSON_TYPE);
+        exchange.sendResponseHeaders(200, 0); // 0 = chunked, the file is streamed
+        try (OutputStream out = exchange.getResponseBody()) {
+            Files.copy(resultFile, out);
+        }
+    }
+
+    /**
+     * Records a job and evicts the oldest finished jobs once more than MAX_RETAINED_JOBS are kept.
+     * Queued and running jobs are never evicted. Callers hold the jobsById lock.
+     * @param job the new job
+     */
+    private void rememberJob(SchedulingJob job) {
+        jobsById.put(job.getId(), job);
+        jobsByKey.put(job.getCacheKey(), job);
+        Iterator<SchedulingJob> oldest = jobsById.values().iterator();
+        while (jobsById.size() > MAX_RETAINED_JOBS && oldest.hasNext()) {
+            SchedulingJob candidate = oldest.next();
+            JobStatusEnum status = candidate.getStatus();
+            if (status == JobStatusEnum.DONE || status == JobStatusEnum.FAILED) {
+                oldest.remove();
+                jobsByKey.remove(candidate.getCacheKey(), candidate);
+                candidate.deleteFiles();
+            }
+        }
+    }
+
+    /**
+     * Hashes the engine and uploaded files into a cache key. Lengths are mixed in so
+     * different splits of the same bytes between the two files give different keys.
+     * @return the SHA-256 hash as hex
+     */
+    private static String hashInputs(AssignmentEngineEnum engine, byte[] icsBytes, byte[] teacherBytes) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(engine.name().getBytes(StandardCharsets.UTF_8));
+            digest.update((":" + icsBytes.length + ":" + teacherBytes.length + ":").getBytes(StandardCharsets.UTF_8));
+            digest.update(icsBytes);
+            digest.update(teacherBytes);
+            StringBuilder hex = new StringBuilder();
+            for (byte b : digest.digest()) {
+                hex.append(String.format("%02x", b));
+            }
+            return hex.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    /**
+     * Counts the data rows of a teacher CSV (non-blank lines after the header).
+     * @param teacherBytes the uploaded teacher linear
+     * @return the number of teacher rows
+     */
+    private static int countTeacherRows(byte[] teacherBytes) {
+        int rows = 0;
+        boolean lineHasText = false;
+        for (byte b : teacherBytes) {
+            if (b == '\n') {
+                if (lineHasText) rows++;
+                lineHasText = false;
+            } else if (b != '\r' && b != ' ' && b != ',') {
+                lineHasText = true;
+            }
+        }
+        if (lineHasText) rows++;
+        return Math.max(0, rows - 1);
+    }
+
+    /**
+     * Reads a request body up to the upload limit.
+     * @param in the request body stream
+     * @return the body, or null if it is larger than MAX_UPLOAD_BYTES
+     */
+    private static byte[] readBody(InputStream in) throws IOException {
+        byte[] body = in.readNBytes(MAX_UPLOAD_BYTES + 1);
+        return body.length > MAX_UPLOAD_BYTES ? null : body;
+    }
+
+    private static void sendJson(HttpExchange exchange, int status, String json) throws IOException {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", JSON_TYPE);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sendError(HttpExchange exchange, int status, String message) throws IOException {
+        sendJson(exchange, status, "{\"error\":" + JsonText.quote(message) + "}");
+    }
+
+    /**
+     * Creates one worker lane: a fixed number of threads in front of a bounded queue.
+     * @param workers the number of jobs that may run at once
+     * @return the lane's executor, which rejects jobs once its queue is full
+     */
+    private static ThreadPoolExecutor createLane(int workers) {
+        int threads = Math.max(1, workers);
+        return new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(QUEUE_CAPACITY), new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    private static int defaultSmallWorkers() {
+        return Math.max(1, Runtime.getRuntime().availableProcessors() - DEFAULT_LARGE_WORKERS);
+    }
+}
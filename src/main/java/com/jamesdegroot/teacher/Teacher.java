@@ -37,6 +37,7 @@ import com.jamesdegroot.calendar.Duty;
  *    - getDutiesForTerm, int, gets the number of duties for a specific term
  *    - hasDutyInSemester, boolean, checks if the teacher has any duties in a specific semester
  *    - hasClassInSemester, boolean, checks if the teacher has any classes in a specific semester
+ *    - copy, Teacher, copies the teacher's timetable, type and quota, without their duties
  *    - assignDuty, void, assigns a duty to the teacher
  *    - hasDutyAssigned, boolean, checks if the teacher has a specific duty assigned
  *    - resetDutiesForNewSemester, void, resets the number of duties for a new semester
@@ -418,12 +419,32 @@ public class Teacher {
     }
 
     /**
-     * Checks if teacher has any classes in the given term
-     * @param term the term number (0-3)
-     * @return true if teacher has classes in this term
+     * Checks if teacher has any classes in the given semester
+     * @param semester the semester (0 or 1), periods 1-5 or 6-10
+     * @return true if at least one period in the semester is filled
+     */
+    public boolean hasClassInSemester(int semester) {
+        int periodsPerSemester = TOTAL_PERIODS / 2;
+        int start = semester * periodsPerSemester;
+        for (int period = start; period < start + periodsPerSemester && period < schedule.size(); period++) {
+            if (!schedule.get(period).isEmpty()) return true;
+        }
+        return false;
+    }
+
+    /**
+     * Copies the teacher's timetable, type and quota, without their assigned duties,
+     * e.g. to try an edit out without touching the teacher
+     * @return the copy
      */
-    public boolean hasClassInSemester(int term) {
-        return !schedule.stream().allMatch(String::isEmpty);
+    public Teacher copy() {
+        Teacher copy = new Teacher(name);
+        copy.schedule = new ArrayList<>(schedule);
+        copy.timeAllocation = timeAllocation;
+        copy.classScheduleStatus = classScheduleStatus;
+        copy.jobType = jobType;
+        copy.maxDutiesPerSemester = maxDutiesPerSemester;
+        return copy;
     }
 
     /**
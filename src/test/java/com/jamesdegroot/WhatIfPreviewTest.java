@@ -0,0 +1,129 @@
+package com.jamesdegroot;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.SchoolYear;
+import com.jamesdegroot.duty_assigment.DutyAssigner;
+import com.jamesdegroot.duty_assigment.ScheduleSnapshot;
+import com.jamesdegroot.io.WriteScheduleToDisk;
+import com.jamesdegroot.teacher.Teacher;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.util.List;
+
+/*
+ * Tests that a what-if is worked out on copies: the live teachers and schedule stay the same
+ * until the edit is applied, and applying it changes what the preview said it would and what
+ * the schedule snapshot the views draw from shows.
+ */
+public class WhatIfPreviewTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+    private static final String TEACHER_FILE = "src/main/resources/Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+
+    private GenerateDutyCalendar generator;
+
+    @Before
+    public void setUp() {
+        generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        generator.processFile(new File(TEACHER_FILE));
+        generator.assignDuties();
+    }
+
+    @Test
+    public void testTeacherPreviewChangesNothing() {
+        Teacher teacher = findTeacherWithDuties();
+        List<String> schedule = List.copyOf(teacher.getSchedule());
+        List<String[]> before = WriteScheduleToDisk.collectScheduleRows(generator.getCalendar());
+
+        List<String> changes = generator.previewTeacherEdit(teacher, this::clearSchedule);
+
+        assertFalse("Clearing a teacher's classes should release their duties", changes.isEmpty());
+        assertEquals(schedule, teacher.getSchedule());
+        assertSameRows(before, WriteScheduleToDisk.collectScheduleRows(generator.getCalendar()));
+    }
+
+    @Test
+    public void testTeacherPreviewMatchesSave() {
+        Teacher teacher = findTeacherWithDuties();
+        List<String> preview = generator.previewTeacherEdit(teacher, this::clearSchedule);
+
+        clearSchedule(teacher);
+        assertEquals(preview, generator.reassignTeacher(teacher));
+    }
+
+    @Test
+    public void testSaveUpdatesTheSnapshot() {
+        Teacher teacher = findTeacherWithDuties();
+        ScheduleSnapshot before = generator.getScheduleSnapshot();
+        assertNotNull(before);
+        int position = before.getTeacherNames().indexOf(teacher.getName());
+        assertTrue(before.getTeacherLoads()[position] > 0);
+
+        clearSchedule(teacher);
+        generator.reassignTeacher(teacher);
+
+        ScheduleSnapshot after = generator.getScheduleSnapshot();
+        assertNotSame(before, after);
+        assertEquals(0, after.getTeacherLoads()[position]);
+        DutyAssigner assigner = generator.getDutyAssigner();
+        for (int term = 0; term < SchoolYear.TERMS; term++) {
+            for (DayOfWeek dayOfWeek : List.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.FRIDAY)) {
+                for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
+                    assertEquals(assigner.getCellStaffing(term, dayOfWeek, true, timeSlot),
+                        after.getCellStaffing(term, dayOfWeek, true, timeSlot));
+                    assertEquals(assigner.getCellStaffing(term, dayOfWeek, false, timeSlot),
+                        after.getCellStaffing(term, dayOfWeek, false, timeSlot));
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testDayPreviewChangesNothing() {
+        Day day = generator.getCalendar().getDaysOfYear().stream().filter(Day::isSchoolDay).findFirst().orElseThrow();
+        List<String[]> before = WriteScheduleToDisk.collectScheduleRows(generator.getCalendar());
+
+        generator.previewDayEdit(day, false);
+
+        assertTrue(day.isSchoolDay());
+        assertSameRows(before, WriteScheduleToDisk.collectScheduleRows(generator.getCalendar()));
+    }
+
+    /**
+     * Empties every period of a teacher's timetable, which leaves them no duties
+     */
+    private void clearSchedule(Teacher teacher) {
+        for (int period = 0; period < teacher.getSchedule().size(); period++) {
+            teacher.addScheduleItem("", period);
+        }
+    }
+
+    /**
+     * Finds the first teacher who holds a duty
+     */
+    private Teacher findTeacherWithDuties() {
+        for (Teacher teacher : generator.getTeachers()) {
+            if (!generator.getTeacherDuties(teacher.getName()).isEmpty()) {
+                return teacher;
+            }
+        }
+        fail("No teacher holds a duty");
+        return null;
+    }
+
+    /**
+     * Checks two sets of schedule rows hold the same values
+     */
+    private void assertSameRows(List<String[]> expected, List<String[]> actual) {
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertArrayEquals(expected.get(i), actual.get(i));
+        }
+    }
+}
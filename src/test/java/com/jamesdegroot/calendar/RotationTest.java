@@ -0,0 +1,117 @@
+package com.jamesdegroot.calendar;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+
+import java.io.File;
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ * Tests the Day 1 / Day 2 rotation worked out from the sample calendar: the cycle only moves
+ * on school days, so holidays, weekends and month ends do not shift it, and it restarts at
+ * Day 1 on the first school day on or after a reset date.
+ */
+public class RotationTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+    private static final LocalDate BEFORE_THANKSGIVING = LocalDate.of(2024, 10, 11); // Friday
+    private static final LocalDate THANKSGIVING = LocalDate.of(2024, 10, 14);        // Monday holiday
+    private static final LocalDate AFTER_THANKSGIVING = LocalDate.of(2024, 10, 15);
+    private static final LocalDate MONTH_END = LocalDate.of(2024, 10, 31);           // Thursday
+    private static final LocalDate MONTH_START = LocalDate.of(2024, 11, 1);
+    private static final LocalDate SEMESTER_2 = LocalDate.of(2025, 2, 3);
+    private static final LocalDate MARCH_BREAK_RESET = LocalDate.of(2025, 3, 8);    // Saturday before March break, naturally back on Day 2
+    private static final int LONG_CYCLE = 4;
+
+    private GenerateDutyCalendar generator;
+    private Calendar calendar;
+
+    @Before
+    public void setUp() {
+        generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        calendar = generator.getCalendar();
+    }
+
+    @Test
+    public void testCycleOnlyMovesOnSchoolDays() {
+        assertCycle(Calendar.DEFAULT_CYCLE_LENGTH, List.of());
+    }
+
+    @Test
+    public void testHolidayDoesNotShiftTheCycle() {
+        assertFalse(calendar.isSchoolDay(THANKSGIVING));
+        assertTrue(calendar.isSchoolDay(BEFORE_THANKSGIVING));
+        assertTrue(calendar.isSchoolDay(AFTER_THANKSGIVING));
+        Day before = calendar.getDay(BEFORE_THANKSGIVING);
+        Day after = calendar.getDay(AFTER_THANKSGIVING);
+        assertNotEquals(before.isDay1(), after.isDay1());
+        // The day off holds the number the next school day gets
+        assertEquals(calendar.getRotationIndex(AFTER_THANKSGIVING), calendar.getRotationIndex(THANKSGIVING));
+    }
+
+    @Test
+    public void testMonthEndDoesNotShiftTheCycle() {
+        assertTrue(calendar.isSchoolDay(MONTH_END));
+        assertTrue(calendar.isSchoolDay(MONTH_START));
+        assertNotEquals(calendar.getDay(MONTH_END).isDay1(), calendar.getDay(MONTH_START).isDay1());
+    }
+
+    @Test
+    public void testResetDateRestartsAtDay1() {
+        generator.setDayRotation(Calendar.DEFAULT_CYCLE_LENGTH, List.of(SEMESTER_2, MARCH_BREAK_RESET));
+        assertCycle(Calendar.DEFAULT_CYCLE_LENGTH, List.of(SEMESTER_2, MARCH_BREAK_RESET));
+        assertTrue(calendar.getDay(firstSchoolDayFrom(SEMESTER_2)).isDay1());
+        assertEquals(1, calendar.getDay(firstSchoolDayFrom(MARCH_BREAK_RESET)).getRotationDay());
+    }
+
+    @Test
+    public void testLongerCycle() {
+        generator.setDayRotation(LONG_CYCLE, List.of(SEMESTER_2));
+        assertEquals(LONG_CYCLE, calendar.getCycleLength());
+        assertCycle(LONG_CYCLE, List.of(SEMESTER_2));
+        for (Day day : calendar.getDaysOfYear()) {
+            assertTrue(day.getRotationDay() >= 1 && day.getRotationDay() <= LONG_CYCLE);
+            assertEquals(day.getRotationDay() % 2 == 1, day.isDay1());
+        }
+    }
+
+    @Test
+    public void testInvalidCycleIsIgnored() {
+        generator.setDayRotation(0, List.of(SEMESTER_2));
+        assertEquals(Calendar.DEFAULT_CYCLE_LENGTH, calendar.getCycleLength());
+        assertCycle(Calendar.DEFAULT_CYCLE_LENGTH, List.of());
+    }
+
+    /**
+     * Walks the year in date order and checks each school day is one on from the school day
+     * before it, starting at Day 1 and going back to Day 1 on or after each reset date
+     */
+    private void assertCycle(int cycleLength, List<LocalDate> resetDates) {
+        int expected = 0;
+        int schoolDays = 0;
+        for (Day day : calendar.getDaysOfYear()) {
+            if (resetDates.contains(day.getDate())) {
+                expected = 0;
+            }
+            assertEquals(day.getDate().toString(), expected, calendar.getRotationIndex(day.getDate()));
+            assertEquals(day.getDate().toString(), expected + 1, day.getRotationDay());
+            if (day.isSchoolDay()) {
+                expected = (expected + 1) % cycleLength;
+                schoolDays++;
+            }
+        }
+        assertTrue("The sample year should have school days", schoolDays > 0);
+    }
+
+    private LocalDate firstSchoolDayFrom(LocalDate date) {
+        while (!calendar.isSchoolDay(date)) {
+            date = date.plusDays(1);
+        }
+        return date;
+    }
+}
@@ -0,0 +1,150 @@
+package com.jamesdegroot.calendar;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.List;
+
+/*
+ * Tests where the year and term boundaries come from: the built-in year, a config file,
+ * and the ICS events (first day of school, first day of semester 2, last day of school),
+ * and that every built day carries the term its date falls in.
+ */
+public class SchoolYearTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+
+    // The sample ICS names these, the rest of its boundaries come from the built-in year
+    private static final LocalDate ICS_SEMESTER_2 = LocalDate.of(2025, 2, 3);
+    private static final LocalDate ICS_LAST_DAY = LocalDate.of(2025, 6, 25);
+
+    // A config year that differs from the built-in one in every boundary
+    private static final LocalDate CONFIG_START = LocalDate.of(2024, 9, 4);
+    private static final LocalDate CONFIG_END = LocalDate.of(2025, 6, 27);
+    private static final LocalDate CONFIG_TERM_2 = LocalDate.of(2024, 11, 12);
+    private static final LocalDate CONFIG_TERM_3 = LocalDate.of(2025, 2, 4);
+    private static final LocalDate CONFIG_TERM_4 = LocalDate.of(2025, 4, 14);
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testTermsMeetAtTheirBoundaries() {
+        SchoolYear year = SchoolYear.defaultYear();
+        for (int term = 0; term < SchoolYear.TERMS; term++) {
+            assertEquals(term, year.getTerm(year.getTermStart(term)));
+            assertEquals(term, year.getTerm(year.getTermEnd(term)));
+            if (term > 0) {
+                assertEquals(year.getTermStart(term), year.getTermEnd(term - 1).plusDays(1));
+            }
+        }
+        assertEquals(year.getStartDate(), year.getTermStart(0));
+        assertEquals(year.getEndDate(), year.getTermEnd(SchoolYear.TERMS - 1));
+        // Dates outside the year count as term 4
+        assertEquals(SchoolYear.TERMS - 1, year.getTerm(year.getStartDate().minusDays(1)));
+        assertEquals(SchoolYear.TERMS - 1, year.getTerm(year.getEndDate().plusDays(1)));
+    }
+
+    @Test
+    public void testLoadFromConfig() throws IOException {
+        SchoolYear year = SchoolYear.load(writeConfig(CONFIG_TERM_3));
+        assertNotNull(year);
+        assertConfigYear(year);
+    }
+
+    @Test
+    public void testBadConfigIsRejected() throws IOException {
+        assertNull(SchoolYear.load(writeConfig(CONFIG_TERM_2.minusDays(1)))); // term 3 before term 2
+        File missing = folder.newFile("missing.properties");
+        Files.writeString(missing.toPath(), "year.start=2024-09-04\n");
+        assertNull(SchoolYear.load(missing));
+        assertNull(SchoolYear.load(new File(folder.getRoot(), "no-such-file.properties")));
+    }
+
+    @Test
+    public void testIcsEventsMoveTheirBoundaries() {
+        SchoolYear builtIn = SchoolYear.defaultYear();
+        SchoolYear year = loadCalendar(null).getSchoolYear();
+        assertEquals(builtIn.getStartDate(), year.getStartDate());
+        assertEquals(ICS_SEMESTER_2, year.getTermStart(2));
+        assertEquals(ICS_LAST_DAY, year.getEndDate());
+        // The ICS does not name terms 2 and 4
+        assertEquals(builtIn.getTermStart(1), year.getTermStart(1));
+        assertEquals(builtIn.getTermStart(3), year.getTermStart(3));
+        assertEquals(1, year.getTerm(ICS_SEMESTER_2.minusDays(1)));
+        assertEquals(2, year.getTerm(ICS_SEMESTER_2));
+    }
+
+    @Test
+    public void testEventsOutsideTheYearAreIgnored() {
+        SchoolYear builtIn = SchoolYear.defaultYear();
+        Holiday lastYear = new Holiday("First Day of Semester 2", LocalDate.of(2024, 2, 5), LocalDate.of(2024, 2, 6), "");
+        assertSame(builtIn, builtIn.withEvents(List.of(lastYear)));
+        Holiday outOfOrder = new Holiday("Last Day of School", LocalDate.of(2024, 10, 1), LocalDate.of(2024, 10, 2), "");
+        assertSame(builtIn, builtIn.withEvents(List.of(outOfOrder)));
+    }
+
+    @Test
+    public void testConfigWinsOverIcsEvents() throws IOException {
+        Calendar calendar = loadCalendar(SchoolYear.load(writeConfig(CONFIG_TERM_3)));
+        assertConfigYear(calendar.getSchoolYear());
+    }
+
+    @Test
+    public void testDaysCarryTheirTerm() throws IOException {
+        for (SchoolYear config : new SchoolYear[] {null, SchoolYear.load(writeConfig(CONFIG_TERM_3))}) {
+            Calendar calendar = loadCalendar(config);
+            SchoolYear year = calendar.getSchoolYear();
+            List<Day> days = calendar.getDaysOfYear();
+            assertEquals(year.getStartDate(), days.get(0).getDate());
+            assertEquals(year.getEndDate(), days.get(days.size() - 1).getDate());
+            for (Day day : days) {
+                int term = day.getTermNumber();
+                assertEquals(day.getDate().toString(), year.getTerm(day.getDate()), term);
+                assertEquals(term, calendar.getTermNumber(day.getDate()));
+                assertFalse(day.getDate().isBefore(year.getTermStart(term)));
+                assertFalse(day.getDate().isAfter(year.getTermEnd(term)));
+            }
+        }
+    }
+
+    private Calendar loadCalendar(SchoolYear schoolYear) {
+        GenerateDutyCalendar generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.setSchoolYear(schoolYear);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        return generator.getCalendar();
+    }
+
+    /**
+     * Writes a config file of the config year, with the given start of term 3
+     */
+    private File writeConfig(LocalDate term3Start) throws IOException {
+        File file = folder.newFile();
+        Files.writeString(file.toPath(), "year.start=" + CONFIG_START + "\n"
+            + "year.end=" + CONFIG_END + "\n"
+            + "term2.start=" + CONFIG_TERM_2 + "\n"
+            + "term3.start= " + term3Start + " \n"
+            + "term4.start=" + CONFIG_TERM_4 + "\n");
+        return file;
+    }
+
+    private void assertConfigYear(SchoolYear year) {
+        assertEquals(CONFIG_START, year.getStartDate());
+        assertEquals(CONFIG_END, year.getEndDate());
+        assertEquals(CONFIG_START, year.getTermStart(0));
+        assertEquals(CONFIG_TERM_2, year.getTermStart(1));
+        assertEquals(CONFIG_TERM_3, year.getTermStart(2));
+        assertEquals(CONFIG_TERM_4, year.getTermStart(3));
+        assertEquals(0, year.getTerm(CONFIG_TERM_2.minusDays(1)));
+        assertEquals(1, year.getTerm(CONFIG_TERM_2));
+        assertEquals(3, year.getTerm(CONFIG_END));
+    }
+}
@@ -0,0 +1,129 @@
+package com.jamesdegroot.duty_assigment;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.calendar.Calendar;
+import com.jamesdegroot.calendar.Day;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.teacher.Teacher;
+
+import java.io.File;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/*
+ * Tests the same-day covers proposed for absent teachers against who is on duty that day:
+ * one proposal per duty an absent teacher holds, and every cover is free in their timetable,
+ * not away, not already on the duty and not on another duty within two time slots.
+ */
+public class AbsenceCoverageTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+    private static final String TEACHER_FILE = "src/main/resources/Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+    private static final int ABSENT_COUNT = 3;
+
+    private GenerateDutyCalendar generator;
+    private Day day;
+    private Map<String, List<Integer>> busySlots; // who is on duty on the day, and in which time slots
+    private Map<String, List<String>> onDuty;     // duty name to the teachers on it that day
+    private List<String> absent;
+
+    @Before
+    public void setUp() {
+        generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        generator.processFile(new File(TEACHER_FILE));
+        generator.assignDuties();
+
+        Calendar calendar = generator.getCalendar();
+        day = calendar.getDaysOfYear().stream().filter(Day::isSchoolDay).findFirst().orElseThrow();
+        busySlots = new HashMap<>();
+        onDuty = new HashMap<>();
+        Set<String> names = new LinkedHashSet<>();
+        Duty[][] schedule = day.getDutySchedule();
+        for (int timeSlot = 0; timeSlot < Day.TIME_SLOTS; timeSlot++) {
+            for (int position = 0; position < Day.DUTIES_PER_SLOT; position++) {
+                Duty duty = schedule[timeSlot][position];
+                if (duty == null) continue;
+                List<String> teachers = calendar.getTeachersOnDuty(day.getDate(), timeSlot * Day.DUTIES_PER_SLOT + position);
+                onDuty.put(duty.getName(), teachers);
+                for (String name : teachers) {
+                    busySlots.computeIfAbsent(name, key -> new ArrayList<>()).add(DutyAssignmentRules.getTimeSlot(duty.getTimeSlot()));
+                    names.add(name);
+                }
+            }
+        }
+        absent = new ArrayList<>(names).subList(0, Math.min(ABSENT_COUNT, names.size()));
+        assertFalse("Someone should be on duty on " + day.getDate(), absent.isEmpty());
+    }
+
+    @Test
+    public void testOneProposalPerAbsentDuty() {
+        int expected = 0;
+        for (List<String> teachers : onDuty.values()) {
+            for (String name : teachers) {
+                if (absent.contains(name)) expected++;
+            }
+        }
+        List<CoverageProposal> proposals = generator.proposeCoverage(day.getDate(), absent);
+        assertEquals(expected, proposals.size());
+        for (CoverageProposal proposal : proposals) {
+            assertTrue(absent.contains(proposal.getAbsentTeacher()));
+            assertTrue(onDuty.get(proposal.getDuty().getName()).contains(proposal.getAbsentTeacher()));
+            assertEquals(day.getDate(), proposal.getDate());
+        }
+    }
+
+    @Test
+    public void testCoversKeepTheRules() {
+        Map<String, Teacher> teachersByName = new HashMap<>();
+        for (Teacher teacher : generator.getTeachers()) {
+            teachersByName.putIfAbsent(teacher.getName(), teacher);
+        }
+        int semester = day.getTermNumber() / 2;
+
+        for (CoverageProposal proposal : generator.proposeCoverage(day.getDate(), absent)) {
+            int slot = DutyAssignmentRules.getTimeSlot(proposal.getDuty().getTimeSlot());
+            List<String> covers = new ArrayList<>(proposal.getAlternatives());
+            if (proposal.hasReplacement()) covers.add(0, proposal.getReplacement());
+            for (String name : covers) {
+                Teacher teacher = teachersByName.get(name);
+                assertNotNull(proposal.toString(), teacher);
+                assertFalse(proposal + ": " + name + " is away", absent.contains(name));
+                assertFalse(proposal + ": " + name + " is already on the duty", onDuty.get(proposal.getDuty().getName()).contains(name));
+                assertNull(proposal + ": " + name + "'s timetable rules the duty out", DutyAssignmentRules.findStaticRejection(teacher, slot));
+                assertTrue(proposal + ": " + name + " has no classes that semester", teacher.hasClassInSemester(semester));
+                assertTrue(proposal + ": " + name + " takes no duties", teacher.getMaxDutiesPerSemester() > 0);
+            }
+            if (proposal.hasReplacement()) {
+                // The cover is on duty from now on, so later proposals of the day must not put them next to it
+                List<Integer> slots = busySlots.computeIfAbsent(proposal.getReplacement(), key -> new ArrayList<>());
+                for (int busy : slots) {
+                    assertTrue(proposal + ": the cover is on another duty " + Math.abs(busy - slot) + " slot(s) away",
+                        Math.abs(busy - slot) > 2);
+                }
+                slots.add(slot);
+            }
+        }
+    }
+
+    @Test
+    public void testNoCoverOnWeekends() {
+        LocalDate saturday = day.getDate().with(DayOfWeek.SATURDAY);
+        assertTrue(generator.proposeCoverage(saturday, absent).isEmpty());
+    }
+
+    @Test
+    public void testNoCoverForTeachersWithoutDuties() {
+        assertTrue(generator.proposeCoverage(day.getDate(), List.of("No Such Teacher")).isEmpty());
+    }
+}
@@ -0,0 +1,245 @@
+package com.jamesdegroot.duty_assigment;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.teacher.Teacher;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Tests the rules every assignment engine must keep over the whole schedule:
+ * no teacher ends a semester over their quota, and no teacher holds two duties
+ * within two time slots of each other in the same semester.
+ */
+public class EngineInvariantsTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+    private static final String SEED_FILE = "src/main/resources/duty_schedule.csv";
+    private static final long ANYTIME_BUDGET_MILLIS = 60_000; // long enough for every engine to finish
+    private static final String TEACHER_FILE = "src/main/resources/Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+
+    private GenerateDutyCalendar generator;
+
+    @Test
+    public void testMostConstrainedKeepsQuota() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MOST_CONSTRAINED);
+        assertWithinQuota(assigner);
+    }
+
+    @Test
+    public void testMostConstrainedHasNoConsecutiveDuties() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MOST_CONSTRAINED);
+        assertNoConsecutiveDuties(assigner);
+    }
+
+    @Test
+    public void testMostConstrainedCoversAsMuchAsGreedyUnderTheRules() {
+        int greedyEmpty = countGreedyEmptyCellsUnderTheRules();
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MOST_CONSTRAINED);
+        int empty = assigner.countCellsWithStaffing(0, 0);
+        assertTrue("most-constrained leaves " + empty + " cells empty, greedy under the same rules " + greedyEmpty,
+            empty <= greedyEmpty);
+    }
+
+    @Test
+    public void testMostConstrainedFillsEveryCellOnceBeforeTwice() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MOST_CONSTRAINED);
+        assertFilledOnceBeforeTwice(assigner);
+    }
+
+    @Test
+    public void testMinCostFlowKeepsQuota() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MIN_COST_FLOW);
+        assertWithinQuota(assigner);
+    }
+
+    @Test
+    public void testMinCostFlowHasNoConsecutiveDuties() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MIN_COST_FLOW);
+        assertNoConsecutiveDuties(assigner);
+    }
+
+    @Test
+    public void testMinCostFlowCoversAsMuchAsGreedyUnderTheRules() {
+        int greedyEmpty = countGreedyEmptyCellsUnderTheRules();
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MIN_COST_FLOW);
+        int empty = assigner.countCellsWithStaffing(0, 0);
+        assertTrue("min-cost flow leaves " + empty + " cells empty, greedy under the same rules " + greedyEmpty,
+            empty <= greedyEmpty);
+    }
+
+    @Test
+    public void testMinCostFlowFillsEveryCellOnceBeforeTwice() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.MIN_COST_FLOW);
+        assertFilledOnceBeforeTwice(assigner);
+    }
+
+    @Test
+    public void testAnytimeKeepsQuota() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.ANYTIME);
+        assertWithinQuota(assigner);
+        assertEquals(0, generator.getBestSnapshot().getTeachersOverQuota());
+    }
+
+    @Test
+    public void testAnytimeHasNoConsecutiveDuties() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.ANYTIME);
+        assertNoConsecutiveDuties(assigner);
+        assertEquals(0, generator.getBestSnapshot().getConsecutiveDuties());
+    }
+
+    @Test
+    public void testAnytimeLeavesNoMoreCellsEmptyThanGreedy() {
+        int greedyUnderTheRules = countGreedyEmptyCellsUnderTheRules();
+        ScheduleSnapshot greedy = ScheduleSnapshot.capture(AssignmentEngineEnum.GREEDY, generator.getDutyAssigner(),
+            generator.getTeachers(), 0);
+        solve(AssignmentEngineEnum.ANYTIME);
+        ScheduleSnapshot result = generator.getBestSnapshot();
+        assertNotNull(result);
+        if (greedy.getTeachersOverQuota() == 0 && greedy.getConsecutiveDuties() == 0) {
+            assertTrue(result + " vs " + greedy, result.getUnfilledCells() <= greedy.getUnfilledCells());
+        } else {
+            // Greedy only fills more by breaking the rules, so the result keeps them and beats greedy held to them
+            assertEquals(0, result.getTeachersOverQuota());
+            assertEquals(0, result.getConsecutiveDuties());
+            assertTrue(result + " vs " + greedyUnderTheRules + " for greedy under the rules",
+                result.getUnfilledCells() <= greedyUnderTheRules);
+        }
+    }
+
+    @Test
+    public void testWarmStartKeepsQuota() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.WARM_START);
+        assertWithinQuota(assigner);
+    }
+
+    @Test
+    public void testWarmStartHasNoConsecutiveDuties() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.WARM_START);
+        assertNoConsecutiveDuties(assigner);
+    }
+
+    /**
+     * Assigns the sample roster and calendar with one engine. The warm start is seeded with the
+     * greedy schedule shipped in the resources, which breaks both rules in places.
+     */
+    private DutyAssigner solve(AssignmentEngineEnum engine) {
+        generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.setEngine(engine);
+        generator.setTimeLimitMillis(ANYTIME_BUDGET_MILLIS);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        generator.processFile(new File(TEACHER_FILE));
+        if (engine == AssignmentEngineEnum.WARM_START) {
+            assertTrue(generator.loadWarmStart(new File(SEED_FILE)));
+        }
+        generator.assignDuties();
+        assertTrue("The engine should have assigned some duties", generator.hasAssignedDuties());
+        return generator.getDutyAssigner();
+    }
+
+    /**
+     * Counts the cells the greedy engine leaves empty once it is held to the rules the other engines keep:
+     * its assignments are walked in cell order and a teacher is only kept on a cell if it fits their
+     * semester quota and is not within two time slots of a cell they were already kept on that semester
+     */
+    private int countGreedyEmptyCellsUnderTheRules() {
+        DutyAssigner assigner = solve(AssignmentEngineEnum.GREEDY);
+        Map<String, Teacher> teachersByName = new HashMap<>();
+        for (Teacher teacher : generator.getTeachers()) {
+            teachersByName.putIfAbsent(teacher.getName(), teacher);
+        }
+        Map<String, int[]> units = new HashMap<>();
+        Map<String, List<Integer>[]> slots = new HashMap<>();
+        int empty = 0;
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            int semester = cell.term / 2;
+            int slot = DutyAssignmentRules.getTimeSlot(cell.duty.getTimeSlot());
+            boolean kept = false;
+            for (String name : new LinkedHashSet<>(cell.getTeachers())) {
+                Teacher teacher = teachersByName.get(name);
+                int[] held = units.computeIfAbsent(name, key -> new int[EligibilityIndex.SEMESTERS]);
+                @SuppressWarnings("unchecked")
+                List<Integer>[] heldSlots = slots.computeIfAbsent(name, key -> new List[] {new ArrayList<>(), new ArrayList<>()});
+                if (held[semester] + assigner.getPatternCount(cell) > teacher.getMaxDutiesPerSemester()) continue;
+                if (heldSlots[semester].stream().anyMatch(other -> Math.abs(other - slot) <= 2)) continue;
+                held[semester] += assigner.getPatternCount(cell);
+                heldSlots[semester].add(slot);
+                kept = true;
+            }
+            if (!kept) empty++;
+        }
+        return empty;
+    }
+
+    /**
+     * Checks that no cell of a semester has a second teacher while another cell of it is empty
+     */
+    private void assertFilledOnceBeforeTwice(DutyAssigner assigner) {
+        int[] empty = new int[EligibilityIndex.SEMESTERS];
+        int[] doubled = new int[EligibilityIndex.SEMESTERS];
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            int staffed = new LinkedHashSet<>(cell.getTeachers()).size();
+            if (staffed == 0) empty[cell.term / 2]++;
+            if (staffed > 1) doubled[cell.term / 2]++;
+        }
+        for (int semester = 0; semester < EligibilityIndex.SEMESTERS; semester++) {
+            assertTrue("semester " + (semester + 1) + " has " + doubled[semester] + " cells with two teachers and "
+                + empty[semester] + " empty cells", doubled[semester] == 0 || empty[semester] == 0);
+        }
+    }
+
+    /**
+     * Checks that every teacher holds at most getMaxDutiesPerSemester() units in each semester,
+     * and none in a semester without classes
+     */
+    private void assertWithinQuota(DutyAssigner assigner) {
+        Map<String, int[]> units = new HashMap<>();
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            for (String name : cell.getTeachers()) {
+                units.computeIfAbsent(name, key -> new int[EligibilityIndex.SEMESTERS])[cell.term / 2] += assigner.getPatternCount(cell);
+            }
+        }
+        for (Teacher teacher : generator.getTeachers()) {
+            int[] held = units.getOrDefault(teacher.getName(), new int[EligibilityIndex.SEMESTERS]);
+            for (int semester = 0; semester < EligibilityIndex.SEMESTERS; semester++) {
+                int quota = teacher.hasClassInSemester(semester) ? Math.max(teacher.getMaxDutiesPerSemester(), 0) : 0;
+                assertTrue(teacher.getName() + " holds " + held[semester] + " units in semester " + (semester + 1)
+                    + " over a quota of " + quota, held[semester] <= quota);
+            }
+        }
+    }
+
+    /**
+     * Checks that no teacher holds two duties of one semester within two time slots of each other,
+     * the rule DutyAssignmentRules.hasConsecutiveDuty applies
+     */
+    private void assertNoConsecutiveDuties(DutyAssigner assigner) {
+        Map<String, List<DutyAssigner.PatternCell>> held = new HashMap<>();
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            for (String name : cell.getTeachers()) {
+                held.computeIfAbsent(name, key -> new ArrayList<>()).add(cell);
+            }
+        }
+        for (Map.Entry<String, List<DutyAssigner.PatternCell>> entry : held.entrySet()) {
+            List<DutyAssigner.PatternCell> cells = entry.getValue();
+            for (int first = 0; first < cells.size(); first++) {
+                for (int second = first + 1; second < cells.size(); second++) {
+                    DutyAssigner.PatternCell a = cells.get(first);
+                    DutyAssigner.PatternCell b = cells.get(second);
+                    if (a.term / 2 != b.term / 2) continue;
+                    int gap = Math.abs(DutyAssignmentRules.getTimeSlot(a.duty.getTimeSlot())
+                        - DutyAssignmentRules.getTimeSlot(b.duty.getTimeSlot()));
+                    assertTrue(entry.getKey() + " holds consecutive duties " + assigner.getCellLabel(a)
+                        + " and " + assigner.getCellLabel(b), gap > 2);
+                }
+            }
+        }
+    }
+}
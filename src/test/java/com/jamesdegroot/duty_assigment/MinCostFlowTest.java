@@ -0,0 +1,97 @@
+package com.jamesdegroot.duty_assigment;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+/*
+ * Tests the min-cost flow solver on graphs small enough to check by hand.
+ */
+public class MinCostFlowTest {
+    private static final int SOURCE = 0;
+    private static final int SINK = 1;
+
+    @Test
+    public void testCancelsFlowToReachMaximum() {
+        // source -> a -> b -> sink is the cheapest path, but taking it alone blocks the second unit;
+        // the solver has to send flow back over a -> b to find source -> a -> sink and source -> b -> sink
+        int a = 2, b = 3;
+        MinCostFlow flow = new MinCostFlow(4);
+        int sourceA = flow.addEdge(SOURCE, a, 1, 1);
+        int sourceB = flow.addEdge(SOURCE, b, 1, 5);
+        int aB = flow.addEdge(a, b, 1, 0);
+        int aSink = flow.addEdge(a, SINK, 1, 5);
+        int bSink = flow.addEdge(b, SINK, 1, 1);
+
+        assertEquals(2, flow.solve(SOURCE, SINK));
+        assertEquals(0, flow.getFlow(aB));
+        assertEquals(1, flow.getFlow(sourceA));
+        assertEquals(1, flow.getFlow(sourceB));
+        assertEquals(1, flow.getFlow(aSink));
+        assertEquals(1, flow.getFlow(bSink));
+    }
+
+    @Test
+    public void testFindsCheapestAssignment() {
+        long[][] costs = {
+            {4, 1, 3},
+            {2, 0, 5},
+            {3, 2, 2}
+        };
+        int size = costs.length;
+        MinCostFlow flow = new MinCostFlow(2 + size * 2);
+        int[][] edges = new int[size][size];
+        for (int row = 0; row < size; row++) {
+            flow.addEdge(SOURCE, 2 + row, 1, 0);
+            flow.addEdge(2 + size + row, SINK, 1, 0);
+            for (int column = 0; column < size; column++) {
+                edges[row][column] = flow.addEdge(2 + row, 2 + size + column, 1, costs[row][column]);
+            }
+        }
+        assertEquals(size, flow.solve(SOURCE, SINK));
+
+        long total = 0;
+        for (int row = 0; row < size; row++) {
+            int used = 0;
+            for (int column = 0; column < size; column++) {
+                used += flow.getFlow(edges[row][column]);
+                total += flow.getFlow(edges[row][column]) * costs[row][column];
+            }
+            assertEquals("Every row should be assigned once", 1, used);
+        }
+        assertEquals(cheapestAssignment(costs), total);
+    }
+
+    @Test
+    public void testSplitsFlowOverCapacities() {
+        // Three units must go, the cheap edge only carries two
+        int middle = 2;
+        MinCostFlow flow = new MinCostFlow(3);
+        flow.addEdge(SOURCE, middle, 3, 0);
+        int cheap = flow.addEdge(middle, SINK, 2, 1);
+        int dear = flow.addEdge(middle, SINK, 5, 4);
+
+        assertEquals(3, flow.solve(SOURCE, SINK));
+        assertEquals(2, flow.getFlow(cheap));
+        assertEquals(1, flow.getFlow(dear));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void testRejectsNegativeCost() {
+        new MinCostFlow(2).addEdge(SOURCE, SINK, 1, -1);
+    }
+
+    /**
+     * Tries every permutation of a 3 by 3 cost matrix
+     */
+    private long cheapestAssignment(long[][] costs) {
+        long best = Long.MAX_VALUE;
+        for (int first = 0; first < 3; first++) {
+            for (int second = 0; second < 3; second++) {
+                if (second == first) continue;
+                int third = 3 - first - second;
+                best = Math.min(best, costs[0][first] + costs[1][second] + costs[2][third]);
+            }
+        }
+        return best;
+    }
+}
@@ -0,0 +1,216 @@
+package com.jamesdegroot.duty_assigment;
+
+import static org.junit.Assert.*;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.teacher.Teacher;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Tests the swaps SwapFinder offers against the rules worked out from the schedule itself:
+ * the partner's timetable allows the duty, nobody ends up with two duties within two time slots
+ * in a semester, and nobody is pushed further over their semester quota.
+ */
+public class SwapFinderTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+    private static final String TEACHER_FILE = "src/main/resources/Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+    private static final int TEACHERS_CHECKED = 10;
+
+    private GenerateDutyCalendar generator;
+    private DutyAssigner assigner;
+    private Map<String, DutyAssigner.PatternCell> cellsByLabel;
+    private Map<String, Teacher> teachersByName;
+
+    @Before
+    public void setUp() {
+        generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        generator.processFile(new File(TEACHER_FILE));
+        generator.assignDuties();
+        assigner = generator.getDutyAssigner();
+
+        cellsByLabel = new HashMap<>();
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            cellsByLabel.put(assigner.getCellLabel(cell), cell);
+        }
+        teachersByName = new HashMap<>();
+        for (Teacher teacher : generator.getTeachers()) {
+            teachersByName.putIfAbsent(teacher.getName(), teacher);
+        }
+    }
+
+    @Test
+    public void testListsEveryHeldDuty() {
+        for (Teacher teacher : teachersWithDuties()) {
+            Map<String, List<SwapOption>> swaps = generator.findSwaps(teacher.getName());
+            for (DutyAssigner.PatternCell cell : heldCells(teacher.getName())) {
+                assertTrue(teacher.getName() + " should have swaps listed for " + assigner.getCellLabel(cell),
+                    swaps.containsKey(assigner.getCellLabel(cell)));
+            }
+        }
+    }
+
+    @Test
+    public void testSwapsKeepTheRules() {
+        int checked = 0;
+        for (Teacher teacher : teachersWithDuties()) {
+            for (List<SwapOption> options : generator.findSwaps(teacher.getName()).values()) {
+                for (SwapOption option : options) {
+                    assertValid(option);
+                    checked++;
+                }
+            }
+        }
+        assertTrue("Some swaps should have been offered", checked > 0);
+    }
+
+    @Test
+    public void testSwapsAreRankedByLoadImpact() {
+        for (Teacher teacher : teachersWithDuties()) {
+            for (List<SwapOption> options : generator.findSwaps(teacher.getName()).values()) {
+                for (int i = 1; i < options.size(); i++) {
+                    assertTrue(options.get(i - 1).getLoadImpact() <= options.get(i).getLoadImpact());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testRepeatedNameGivesNoDuplicateOptions() {
+        // Lists an exchange partner a second time on the cell they would give back, as the greedy passes can;
+        // the partner still holds that cell once, so the exchange is offered once
+        SwapFinder finder = new SwapFinder(assigner, assigner.getEligibilityIndex());
+        for (Teacher teacher : generator.getTeachers()) {
+            int giver = finder.positionOf(teacher.getName());
+            for (int cell : finder.getHeldCells(giver)) {
+                for (SwapOption option : finder.findSwaps(giver, cell)) {
+                    if (option.getType() != SwapTypeEnum.EXCHANGE) continue;
+                    // The extra listing adds to the partner's load and keeps its slot held, so only an exchange
+                    // that does not raise the partner's load and is far from that slot can still be offered
+                    DutyAssigner.PatternCell given = cellsByLabel.get(option.getGivenDuty());
+                    DutyAssigner.PatternCell received = cellsByLabel.get(option.getReceivedDuty());
+                    int gap = Math.abs(DutyAssignmentRules.getTimeSlot(given.duty.getTimeSlot())
+                        - DutyAssignmentRules.getTimeSlot(received.duty.getTimeSlot()));
+                    if (assigner.getPatternCount(received) < assigner.getPatternCount(given) || gap <= 2) continue;
+                    List<String> names = received.getTeachers();
+                    names.add(option.getPartner());
+                    assigner.rebuildDutyIndex();
+                    int offered = countExchanges(new SwapFinder(assigner, assigner.getEligibilityIndex()), giver, cell, option);
+                    names.remove(names.size() - 1);
+                    assigner.rebuildDutyIndex();
+                    assertTrue("Offered " + offered + " times: " + option, offered <= 1);
+                    if (offered == 1) return;
+                }
+            }
+        }
+        fail("Some exchange should still be offered with the partner listed twice");
+    }
+
+    @Test
+    public void testUnknownTeacherHasNoSwaps() {
+        assertTrue(generator.findSwaps("No Such Teacher").isEmpty());
+    }
+
+    /**
+     * Checks one swap against the schedule: who takes which cell, and what each side holds after it
+     */
+    private void assertValid(SwapOption option) {
+        Teacher giver = teachersByName.get(option.getTeacher());
+        Teacher taker = teachersByName.get(option.getPartner());
+        DutyAssigner.PatternCell given = cellsByLabel.get(option.getGivenDuty());
+        assertNotNull(option.toString(), given);
+        assertNotEquals(option.toString(), giver.getName(), taker.getName());
+        assertTrue(option + ": the teacher should hold the duty", given.getTeachers().contains(giver.getName()));
+        assertFalse(option + ": the partner already holds the duty", given.getTeachers().contains(taker.getName()));
+
+        DutyAssigner.PatternCell received = null;
+        if (option.getType() == SwapTypeEnum.EXCHANGE) {
+            received = cellsByLabel.get(option.getReceivedDuty());
+            assertNotNull(option.toString(), received);
+            assertEquals(option + ": an exchange stays in one semester", given.term / 2, received.term / 2);
+            assertTrue(option + ": the partner should hold the duty coming back", received.getTeachers().contains(taker.getName()));
+        } else {
+            assertNull(option.getReceivedDuty());
+        }
+
+        assertCanHold(option, taker, given, received);
+        if (received != null) {
+            assertCanHold(option, giver, received, given);
+        }
+    }
+
+    /**
+     * Checks a teacher can take a cell while giving up another: the timetable allows it, nothing they
+     * keep that semester is within two time slots, and their semester units do not grow past the quota
+     */
+    private void assertCanHold(SwapOption option, Teacher teacher, DutyAssigner.PatternCell taken, DutyAssigner.PatternCell givenUp) {
+        int semester = taken.term / 2;
+        int slot = DutyAssignmentRules.getTimeSlot(taken.duty.getTimeSlot());
+        assertNull(option + ": " + teacher.getName() + "'s timetable rules the duty out",
+            DutyAssignmentRules.findStaticRejection(teacher, slot));
+        assertTrue(option + ": " + teacher.getName() + " has no classes that semester", teacher.hasClassInSemester(semester));
+
+        int before = 0;
+        int after = assigner.getPatternCount(taken);
+        for (DutyAssigner.PatternCell cell : heldCells(teacher.getName())) {
+            if (cell.term / 2 != semester) continue;
+            before += assigner.getPatternCount(cell);
+            if (cell == givenUp || sameCell(cell, givenUp)) continue;
+            after += assigner.getPatternCount(cell);
+            int gap = Math.abs(DutyAssignmentRules.getTimeSlot(cell.duty.getTimeSlot()) - slot);
+            assertTrue(option + ": " + teacher.getName() + " would also hold " + assigner.getCellLabel(cell), gap > 2);
+        }
+        assertTrue(option + ": " + teacher.getName() + " would go over quota with " + after + " units",
+            after <= teacher.getMaxDutiesPerSemester() || after <= before);
+    }
+
+    private int countExchanges(SwapFinder finder, int giver, int cell, SwapOption exchange) {
+        int count = 0;
+        for (SwapOption option : finder.findSwaps(giver, cell)) {
+            if (option.getType() == SwapTypeEnum.EXCHANGE && option.getPartner().equals(exchange.getPartner())
+                    && option.getReceivedDuty().equals(exchange.getReceivedDuty())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private boolean sameCell(DutyAssigner.PatternCell a, DutyAssigner.PatternCell b) {
+        return b != null && a.duty == b.duty && a.day == b.day;
+    }
+
+    /**
+     * Gets the cells a teacher holds, from the schedule
+     */
+    private List<DutyAssigner.PatternCell> heldCells(String name) {
+        List<DutyAssigner.PatternCell> held = new ArrayList<>();
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            if (cell.getTeachers().contains(name)) {
+                held.add(cell);
+            }
+        }
+        return held;
+    }
+
+    /**
+     * Gets the first few teachers who hold a duty
+     */
+    private List<Teacher> teachersWithDuties() {
+        List<Teacher> result = new ArrayList<>();
+        for (Teacher teacher : generator.getTeachers()) {
+            if (result.size() < TEACHERS_CHECKED && !heldCells(teacher.getName()).isEmpty()) {
+                result.add(teacher);
+            }
+        }
+        assertFalse("Some teachers should hold duties", result.isEmpty());
+        return result;
+    }
+}
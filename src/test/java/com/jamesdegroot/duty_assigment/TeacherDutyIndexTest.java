@@ -0,0 +1,140 @@
+package com.jamesdegroot.duty_assigment;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.io.ScheduleResultCache;
+import com.jamesdegroot.teacher.Teacher;
+
+import java.io.File;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+/*
+ * Tests that the teacher to duty index always matches a full scan of the schedule's cells,
+ * after each kind of change: assigning, clearing a semester, re-solving one teacher, keeping
+ * a warm start's seeded duties and restoring a cached schedule.
+ */
+public class TeacherDutyIndexTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+    private static final String TEACHER_FILE = "src/main/resources/Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+    private static final String SEED_FILE = "src/main/resources/duty_schedule.csv";
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testMatchesAfterAssigning() {
+        for (AssignmentEngineEnum engine : new AssignmentEngineEnum[] {AssignmentEngineEnum.GREEDY,
+                AssignmentEngineEnum.MOST_CONSTRAINED, AssignmentEngineEnum.MIN_COST_FLOW}) {
+            GenerateDutyCalendar generator = load(engine);
+            generator.assignDuties();
+            assertIndexMatchesCells(generator);
+        }
+    }
+
+    @Test
+    public void testMatchesAfterClearingASemester() {
+        GenerateDutyCalendar generator = load(AssignmentEngineEnum.GREEDY);
+        generator.assignDuties();
+        generator.getDutyAssigner().clearSemester(0);
+        assertIndexMatchesCells(generator);
+        for (AssignedDuty duty : generator.getDutyAssigner().getTeacherDuties(anyTeacherWithDuties(generator))) {
+            assertTrue(duty.getTerm() / 2 == 1);
+        }
+    }
+
+    @Test
+    public void testMatchesAfterReassigningATeacher() {
+        GenerateDutyCalendar generator = load(AssignmentEngineEnum.GREEDY);
+        generator.assignDuties();
+        String name = anyTeacherWithDuties(generator);
+        for (Teacher teacher : generator.getTeachers()) {
+            if (!teacher.getName().equals(name)) continue;
+            generator.reassignTeacher(teacher);
+            break;
+        }
+        assertIndexMatchesCells(generator);
+    }
+
+    @Test
+    public void testMatchesAfterKeepingSeededDuties() {
+        GenerateDutyCalendar generator = load(AssignmentEngineEnum.WARM_START);
+        assertTrue(generator.loadWarmStart(new File(SEED_FILE)));
+        generator.assignDuties();
+        assertIndexMatchesCells(generator);
+    }
+
+    @Test
+    public void testMatchesAfterCacheRestore() {
+        ScheduleResultCache cache = new ScheduleResultCache(folder.getRoot(), ScheduleResultCache.DEFAULT_MAX_BYTES);
+        GenerateDutyCalendar first = load(AssignmentEngineEnum.GREEDY);
+        first.setResultCache(cache);
+        first.assignDuties();
+        assertFalse(first.isResultFromCache());
+
+        GenerateDutyCalendar restored = load(AssignmentEngineEnum.GREEDY);
+        restored.setResultCache(cache);
+        restored.assignDuties();
+        assertTrue(restored.isResultFromCache());
+        assertIndexMatchesCells(restored);
+    }
+
+    private GenerateDutyCalendar load(AssignmentEngineEnum engine) {
+        GenerateDutyCalendar generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.setEngine(engine);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        generator.processFile(new File(TEACHER_FILE));
+        return generator;
+    }
+
+    private String anyTeacherWithDuties(GenerateDutyCalendar generator) {
+        for (Teacher teacher : generator.getTeachers()) {
+            if (!generator.getDutyAssigner().getTeacherDuties(teacher.getName()).isEmpty()) {
+                return teacher.getName();
+            }
+        }
+        fail("Some teacher should hold a duty");
+        return null;
+    }
+
+    /**
+     * Scans every cell for the teachers listed on it and checks each teacher's index entries
+     * name the same cells, in the same term, listed the same number of times
+     */
+    private void assertIndexMatchesCells(GenerateDutyCalendar generator) {
+        DutyAssigner assigner = generator.getDutyAssigner();
+        Map<Duty, DutyAssigner.PatternCell> cellOfDuty = new IdentityHashMap<>();
+        for (DutyAssigner.PatternCell cell : assigner.getPatternCells()) {
+            cellOfDuty.put(cell.duty, cell);
+        }
+        int held = 0;
+        for (Teacher teacher : generator.getTeachers()) {
+            String name = teacher.getName();
+            Map<Duty, Integer> listed = new IdentityHashMap<>();
+            for (DutyAssigner.PatternCell cell : cellOfDuty.values()) {
+                for (String holder : cell.getTeachers()) {
+                    if (holder.equals(name)) {
+                        listed.merge(cell.duty, 1, Integer::sum);
+                    }
+                }
+            }
+            List<AssignedDuty> duties = assigner.getTeacherDuties(name);
+            assertEquals(name, listed.size(), duties.size());
+            for (AssignedDuty duty : duties) {
+                DutyAssigner.PatternCell cell = cellOfDuty.get(duty.getDuty());
+                assertNotNull(name + " is indexed on a duty that is not a cell", cell);
+                assertEquals(name + " on " + assigner.getCellLabel(cell), listed.get(duty.getDuty()), (Integer) duty.getTimesListed());
+                assertEquals(name + " on " + assigner.getCellLabel(cell), cell.term, duty.getTerm());
+            }
+            held += duties.size();
+        }
+        assertTrue("Some teacher should hold a duty", held > 0);
+    }
+}
@@ -0,0 +1,173 @@
+package com.jamesdegroot.io;
+
+import static org.junit.Assert.*;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.jamesdegroot.GenerateDutyCalendar;
+import com.jamesdegroot.calendar.Duty;
+import com.jamesdegroot.duty_assigment.AssignmentEngineEnum;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.DayOfWeek;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/*
+ * Tests how ScheduleDiff sorts the differences between two schedules: a teacher who left a cell
+ * and one who joined it are CHANGED, the rest ADDED or REMOVED, and order or repeated names
+ * on a cell are not changes.
+ */
+public class ScheduleDiffTest {
+    private static final String CALENDAR_FILE = "src/main/resources/ICalendarHandler.ics";
+    private static final String TEACHER_FILE = "src/main/resources/Copy Teacher Linear from 2023-2024 - Sheet1.csv";
+    private static final String SHIPPED_SCHEDULE = "src/main/resources/duty_schedule.csv"; // the greedy engine's output
+    private static final String FIRST_DUTY = Duty.DUTY_NAMES[0];
+    private static final String SECOND_DUTY = Duty.DUTY_NAMES[1];
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void testSameScheduleIsEmpty() {
+        List<String[]> rows = sampleRows();
+        ScheduleDiff diff = ScheduleDiff.compare(rows, sampleRows());
+        assertTrue(diff.isEmpty());
+        assertEquals(rows.size() * 2, diff.getCellsCompared());
+        for (ScheduleChangeTypeEnum type : ScheduleChangeTypeEnum.values()) {
+            assertEquals(0, diff.getCount(type));
+        }
+    }
+
+    @Test
+    public void testOrderAndRepeatsAreNotChanges() {
+        List<String[]> after = List.of(
+            row(1, DayOfWeek.MONDAY, FIRST_DUTY, "Bent Thomas + Adams Ann + Adams Ann", "Cole Carl"),
+            row(1, DayOfWeek.MONDAY, SECOND_DUTY, "Dunn Dana", "Fox Fred + Eady Ella"));
+        assertTrue(ScheduleDiff.compare(sampleRows(), after).isEmpty());
+    }
+
+    @Test
+    public void testRepeatedNameCountsOnce() {
+        // The exports list a teacher twice on a cell they hold for both of its duties
+        List<String[]> after = List.of(
+            row(1, DayOfWeek.MONDAY, FIRST_DUTY, "Adams Ann + Bent Thomas", "Cole Carl + Grey Gail + Grey Gail"),
+            row(1, DayOfWeek.MONDAY, SECOND_DUTY, "Dunn Dana", "Eady Ella + Fox Fred"));
+        ScheduleDiff diff = ScheduleDiff.compare(sampleRows(), after);
+        assertEquals(1, diff.getChanges().size());
+        assertChange(diff.getChanges().get(0), ScheduleChangeTypeEnum.ADDED, FIRST_DUTY, 2, null, "Grey Gail");
+    }
+
+    @Test
+    public void testAddedRemovedAndChanged() {
+        List<String[]> after = List.of(
+            row(1, DayOfWeek.MONDAY, FIRST_DUTY, "Adams Ann + Grey Gail", "Cole Carl + Hunt Hal"),
+            row(1, DayOfWeek.MONDAY, SECOND_DUTY, "", "Eady Ella + Fox Fred"));
+        ScheduleDiff diff = ScheduleDiff.compare(sampleRows(), after);
+
+        assertEquals(3, diff.getChanges().size());
+        assertChange(diff.getChanges().get(0), ScheduleChangeTypeEnum.CHANGED, FIRST_DUTY, 1, "Bent Thomas", "Grey Gail");
+        assertChange(diff.getChanges().get(1), ScheduleChangeTypeEnum.ADDED, FIRST_DUTY, 2, null, "Hunt Hal");
+        assertChange(diff.getChanges().get(2), ScheduleChangeTypeEnum.REMOVED, SECOND_DUTY, 1, "Dunn Dana", null);
+        assertEquals(1, diff.getCount(ScheduleChangeTypeEnum.ADDED));
+        assertEquals(1, diff.getCount(ScheduleChangeTypeEnum.REMOVED));
+        assertEquals(1, diff.getCount(ScheduleChangeTypeEnum.CHANGED));
+        assertTrue(diff.getSummary().startsWith("3 changes over 4 cells"));
+    }
+
+    @Test
+    public void testMissingRowsAreAddedOrRemoved() {
+        List<String[]> after = new ArrayList<>(sampleRows().subList(0, 1));
+        after.add(row(2, DayOfWeek.FRIDAY, FIRST_DUTY, "Grey Gail", ""));
+        ScheduleDiff diff = ScheduleDiff.compare(sampleRows(), after);
+
+        assertEquals(6, diff.getCellsCompared());
+        assertEquals(4, diff.getChanges().size());
+        // Term 1 cells come before the new term 2 one
+        assertChange(diff.getChanges().get(0), ScheduleChangeTypeEnum.REMOVED, SECOND_DUTY, 1, "Dunn Dana", null);
+        assertChange(diff.getChanges().get(1), ScheduleChangeTypeEnum.REMOVED, SECOND_DUTY, 2, "Eady Ella", null);
+        assertChange(diff.getChanges().get(2), ScheduleChangeTypeEnum.REMOVED, SECOND_DUTY, 2, "Fox Fred", null);
+        assertChange(diff.getChanges().get(3), ScheduleChangeTypeEnum.ADDED, FIRST_DUTY, 1, null, "Grey Gail");
+        assertEquals(2, diff.getChanges().get(3).getTerm());
+        assertEquals(DayOfWeek.FRIDAY, diff.getChanges().get(3).getDayOfWeek());
+    }
+
+    @Test
+    public void testRowOrderDoesNotMatter() {
+        List<String[]> after = List.of(
+            row(1, DayOfWeek.MONDAY, FIRST_DUTY, "Adams Ann", "Cole Carl"),
+            row(1, DayOfWeek.MONDAY, SECOND_DUTY, "Hunt Hal", "Eady Ella + Fox Fred"));
+        List<String[]> reversed = new ArrayList<>(after);
+        Collections.reverse(reversed);
+        List<String> sorted = lines(ScheduleDiff.compare(sampleRows(), after));
+        assertEquals(2, sorted.size());
+        assertEquals(sorted, lines(ScheduleDiff.compare(sampleRows(), reversed)));
+    }
+
+    @Test
+    public void testWriteCSV() throws IOException {
+        List<String[]> after = List.of(
+            row(1, DayOfWeek.MONDAY, FIRST_DUTY, "Adams Ann", "Cole Carl"),
+            row(1, DayOfWeek.MONDAY, SECOND_DUTY, "Dunn Dana", "Eady Ella + Fox Fred"));
+        File file = folder.newFile("changes.csv");
+        assertTrue(ScheduleDiff.compare(sampleRows(), after).writeCSV(file));
+        List<String> lines = Files.readAllLines(file.toPath());
+        assertEquals(2, lines.size());
+        assertEquals("Change,Term,Day,Day Type,Duty,Before,After", lines.get(0));
+        assertEquals("REMOVED,Term 1,MONDAY,Day 1," + FIRST_DUTY + ",Bent Thomas,", lines.get(1));
+    }
+
+    @Test
+    public void testDiffWithLastRunMatchesTheExport() {
+        GenerateDutyCalendar generator = new GenerateDutyCalendar();
+        generator.setVerbose(false);
+        generator.loadCalendar(new File(CALENDAR_FILE));
+        generator.processFile(new File(TEACHER_FILE));
+        assertNull(generator.diffWithLastRun());
+        generator.assignDuties();
+        assertTrue(generator.diffWithSchedule(new File(SHIPPED_SCHEDULE)).isEmpty());
+
+        generator.setEngine(AssignmentEngineEnum.MOST_CONSTRAINED);
+        generator.assignDuties();
+        ScheduleDiff lastRun = generator.diffWithLastRun();
+        assertFalse(lastRun.isEmpty());
+        assertEquals(lines(generator.diffWithSchedule(new File(SHIPPED_SCHEDULE))), lines(lastRun));
+        int total = 0;
+        for (ScheduleChangeTypeEnum type : ScheduleChangeTypeEnum.values()) {
+            total += lastRun.getCount(type);
+        }
+        assertEquals(lastRun.getChanges().size(), total);
+    }
+
+    private List<String[]> sampleRows() {
+        List<String[]> rows = new ArrayList<>();
+        rows.add(row(1, DayOfWeek.MONDAY, FIRST_DUTY, "Adams Ann + Bent Thomas", "Cole Carl"));
+        rows.add(row(1, DayOfWeek.MONDAY, SECOND_DUTY, "Dunn Dana", "Eady Ella + Fox Fred"));
+        return rows;
+    }
+
+    private String[] row(int term, DayOfWeek dayOfWeek, String dutyName, String day1Teachers, String day2Teachers) {
+        return new String[] {"Term " + term, dayOfWeek.name(), dutyName, day1Teachers, day2Teachers};
+    }
+
+    private List<String> lines(ScheduleDiff diff) {
+        List<String> lines = new ArrayList<>();
+        for (ScheduleChange change : diff.getChanges()) {
+            lines.add(change.toString());
+        }
+        return lines;
+    }
+
+    private void assertChange(ScheduleChange change, ScheduleChangeTypeEnum type, String dutyName, int rotationDay,
+            String teacherBefore, String teacherAfter) {
+        assertEquals(change.toString(), type, change.getType());
+        assertEquals(change.toString(), dutyName, change.getDutyName());
+        assertEquals(change.toString(), rotationDay, change.getRotationDay());
+        assertEquals(change.toString(), teacherBefore, change.getTeacherBefore());
+        assertEquals(change.toString(), teacherAfter, change.getTeacherAfter());
+    }
+}
@@ -0,0 +1,63 @@
+package com.jamesdegroot.server;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.nio.charset.StandardCharsets;
+
+/*
+ * Tests how MultipartForm splits an upload into its named parts, and that bodies it cannot
+ * read (wrong content type, a part name without its closing quote) are turned down, not thrown on.
+ */
+public class MultipartFormTest {
+    private static final String BOUNDARY = "XyZ123";
+    private static final String CONTENT_TYPE = "multipart/form-data; boundary=" + BOUNDARY;
+
+    @Test
+    public void testGetBoundary() {
+        assertEquals(BOUNDARY, MultipartForm.getBoundary(CONTENT_TYPE));
+        assertEquals(BOUNDARY, MultipartForm.getBoundary("Multipart/Form-Data; boundary=\"" + BOUNDARY + "\"; charset=utf-8"));
+        assertNull(MultipartForm.getBoundary("application/json"));
+        assertNull(MultipartForm.getBoundary("multipart/form-data"));
+        assertNull(MultipartForm.getBoundary(null));
+    }
+
+    @Test
+    public void testParseNamedParts() {
+        String body = part("ics", "BEGIN:VCALENDAR\r\nEND:VCALENDAR")
+            + part("engine", " greedy \n")
+            + "--" + BOUNDARY + "--\r\n";
+        MultipartForm form = MultipartForm.parse(CONTENT_TYPE, bytes(body));
+        assertNotNull(form);
+        assertEquals("BEGIN:VCALENDAR\r\nEND:VCALENDAR", new String(form.getPart("ics"), StandardCharsets.ISO_8859_1));
+        assertEquals("greedy", form.getText("engine"));
+        assertNull(form.getPart("teachers"));
+    }
+
+    @Test
+    public void testBinaryBytesSurvive() {
+        byte[] content = {0, (byte) 0xff, (byte) 0xc3, (byte) 0xa9, '\r', '\n', 'x'};
+        String body = part("teachers", new String(content, StandardCharsets.ISO_8859_1)) + "--" + BOUNDARY + "--\r\n";
+        assertArrayEquals(content, MultipartForm.parse(CONTENT_TYPE, bytes(body)).getPart("teachers"));
+    }
+
+    @Test
+    public void testUnclosedNameIsRejected() {
+        String body = "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"ics\r\n\r\ndata\r\n--" + BOUNDARY + "--\r\n";
+        assertNull(MultipartForm.parse(CONTENT_TYPE, bytes(body)));
+    }
+
+    @Test
+    public void testNotMultipartIsRejected() {
+        assertNull(MultipartForm.parse("text/plain", bytes(part("ics", "data"))));
+    }
+
+    private String part(String name, String content) {
+        return "--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\"" + name
+            + ".txt\"\r\nContent-Type: application/octet-stream\r\n\r\n" + content + "\r\n";
+    }
+
+    private byte[] bytes(String text) {
+        return text.getBytes(StandardCharsets.ISO_8859_1);
+    }
+}
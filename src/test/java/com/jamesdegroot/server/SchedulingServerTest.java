@@ -0,0 +1,112 @@
+package com.jamesdegroot.server;
+
+import static org.junit.Assert.*;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.jamesdegroot.duty_assigment.AssignmentEngineEnum;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/*
+ * Tests that the scheduling service shares one job between identical submissions, through
+ * submitJob and through POST /jobs, and answers a malformed upload with 400.
+ */
+public class SchedulingServerTest {
+    private static final Path CALENDAR_FILE = Path.of("src/main/resources/ICalendarHandler.ics");
+    private static final Path TEACHER_FILE = Path.of("src/main/resources/Copy Teacher Linear from 2023-2024 - Sheet1.csv");
+    private static final String BOUNDARY = "SchedulingServerTest";
+
+    private SchedulingServer server;
+    private byte[] icsBytes;
+    private byte[] teacherBytes;
+
+    @Before
+    public void setUp() throws IOException {
+        server = new SchedulingServer(new InetSocketAddress("127.0.0.1", 0), 1, 1);
+        server.start();
+        icsBytes = Files.readAllBytes(CALENDAR_FILE);
+        teacherBytes = Files.readAllBytes(TEACHER_FILE);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void testSameInputsReuseTheJob() {
+        SchedulingServer.Submission first = server.submitJob(AssignmentEngineEnum.GREEDY, icsBytes, teacherBytes);
+        SchedulingServer.Submission second = server.submitJob(AssignmentEngineEnum.GREEDY, icsBytes.clone(), teacherBytes.clone());
+        assertFalse(first.isReused());
+        assertTrue(second.isReused());
+        assertSame(first.getJob(), second.getJob());
+        assertSame(first.getJob(), server.getJob(first.getJob().getId()));
+    }
+
+    @Test
+    public void testDifferentInputsGetTheirOwnJob() {
+        SchedulingServer.Submission greedy = server.submitJob(AssignmentEngineEnum.GREEDY, icsBytes, teacherBytes);
+        SchedulingServer.Submission flow = server.submitJob(AssignmentEngineEnum.MIN_COST_FLOW, icsBytes, teacherBytes);
+        assertFalse(flow.isReused());
+        assertNotSame(greedy.getJob(), flow.getJob());
+    }
+
+    @Test
+    public void testPostReusesTheJob() throws IOException {
+        byte[] body = uploadBody(part("ics", icsBytes), part("teachers", teacherBytes));
+        HttpURLConnection first = post(body);
+        assertEquals(202, first.getResponseCode());
+        String location = first.getHeaderField("Location");
+        HttpURLConnection second = post(body);
+        assertEquals(200, second.getResponseCode());
+        assertEquals(location, second.getHeaderField("Location"));
+        assertTrue(new String(second.getInputStream().readAllBytes(), StandardCharsets.UTF_8).contains("\"cached\":true"));
+    }
+
+    @Test
+    public void testMalformedUploadIs400() throws IOException {
+        byte[] unclosedName = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"ics\r\n\r\ndata\r\n--"
+            + BOUNDARY + "--\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        assertEquals(400, post(unclosedName).getResponseCode());
+    }
+
+    private HttpURLConnection post(byte[] body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + "/jobs").openConnection();
+        connection.setRequestMethod("POST");
+        connection.setDoOutput(true);
+        connection.setRequestProperty("Content-Type", "multipart/form-data; boundary=" + BOUNDARY);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(body);
+        }
+        return connection;
+    }
+
+    private byte[] part(String name, byte[] content) {
+        byte[] header = ("--" + BOUNDARY + "\r\nContent-Disposition: form-data; name=\"" + name + "\"; filename=\"" + name
+            + "\"\r\n\r\n").getBytes(StandardCharsets.ISO_8859_1);
+        byte[] part = new byte[header.length + content.length + 2];
+        System.arraycopy(header, 0, part, 0, header.length);
+        System.arraycopy(content, 0, part, header.length, content.length);
+        part[part.length - 2] = '\r';
+        part[part.length - 1] = '\n';
+        return part;
+    }
+
+    private byte[] uploadBody(byte[]... parts) {
+        StringBuilder body = new StringBuilder();
+        for (byte[] part : parts) {
+            body.append(new String(part, StandardCharsets.ISO_8859_1));
+        }
+        body.append("--").append(BOUNDARY).append("--\r\n");
+        return body.toString().getBytes(StandardCharsets.ISO_8859_1);
+    }
+}